@@ -0,0 +1,299 @@
+package com.javafleet.tag10.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.javafleet.tag10.metrics.LatencyHistogram;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Überlasttest: REST ohne und mit Admission Control (app.admission.enabled)
+ *
+ * Kein JMH-Benchmark: pro Modus wird die Anwendung in einer eigenen JVM
+ * gestartet (gleicher Classpath, ohne Response-Cache - jede Seite wird
+ * serialisiert) und erst mit wenigen, dann mit sehr vielen gleichzeitigen
+ * Anfragen belastet (GET /api/persons?after=..&limit=.. und dasselbe über
+ * JAX-RS im Wechsel).
+ *
+ * Closed Loop wie im ThreadModeLoadTest. Wer 429/503 bekommt, wartet
+ * overloadtest.backoff Millisekunden und versucht es erneut - wie ein
+ * Client, der Retry-After beachtet. Mit sehr kurzem Backoff wird daraus
+ * ein Retry-Sturm, dann kostet schon das Abweisen die CPU.
+ * Gemessen wird die Latenz der erfolgreichen Antworten; abgewiesene
+ * Anfragen zählen getrennt, mit eigener Latenz (wie schnell kommt das Nein).
+ *
+ * Fehler (Exit-Code 1): p99 unter Überlast mit Admission Control größer
+ * als overloadtest.max-p99-ratio mal p99 unter Überlast ohne.
+ *
+ * Parameter per System-Property:
+ * - overloadtest.concurrency   gleichzeitige Anfragen unter Überlast (Default 1000)
+ * - overloadtest.baseline      gleichzeitige Anfragen ohne Überlast (Default 4)
+ * - overloadtest.seconds       Messdauer pro Szenario (Default 20)
+ * - overloadtest.warmup        Aufwärmzeit (Default 5)
+ * - overloadtest.backoff       Wartezeit nach 429/503 in ms (Default 1000 = Retry-After)
+ * - overloadtest.max-p99-ratio p99 mit / p99 ohne Admission Control höchstens (Default 0.5)
+ * - overloadtest.page-size     Personen pro Seite (Default 1000)
+ * - overloadtest.clients       HttpClients im Lastgenerator (Default 8)
+ * - overloadtest.server-nice   nice-Wert des Servers, 0 = gleiche Priorität (Default 10)
+ * - overloadtest.persons       Personen im Store (Default 10000)
+ * - overloadtest.port          Port des Servers (Default 18080)
+ *
+ * mvn -Pbenchmarks verify -Doverloadtest.skip=false -Djmh.args="-l"
+ */
+public final class AdmissionOverloadTest {
+
+    private static final String[] MODES = {"off", "adaptive"};
+    private static final Duration STARTUP_TIMEOUT = Duration.ofSeconds(60);
+    private static final int PAGE_SIZE = Integer.getInteger("overloadtest.page-size", 1000);
+
+    private final HttpClient client;
+    private final HttpClient[] loadClients;
+    private final String baseUrl;
+    private final int persons;
+    private final long backoffMillis;
+
+    private AdmissionOverloadTest(HttpClient[] clients, String baseUrl, int persons, long backoffMillis) {
+        this.client = clients[0];
+        this.loadClients = clients;
+        this.baseUrl = baseUrl;
+        this.persons = persons;
+        this.backoffMillis = backoffMillis;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Path output = Path.of(args.length > 0 ? args[0] : "target/jmh-overloadtest.json");
+        int concurrency = Integer.getInteger("overloadtest.concurrency", 1000);
+        int baseline = Integer.getInteger("overloadtest.baseline", 4);
+        int seconds = Integer.getInteger("overloadtest.seconds", 20);
+        int warmup = Integer.getInteger("overloadtest.warmup", 5);
+        long backoff = Long.getLong("overloadtest.backoff", 1000);
+        double maxP99Ratio = Double.parseDouble(System.getProperty("overloadtest.max-p99-ratio", "0.5"));
+        int persons = Integer.getInteger("overloadtest.persons", 10_000);
+        int port = Integer.getInteger("overloadtest.port", 18080);
+
+        ExecutorService clientExecutor = Executors.newFixedThreadPool(
+            Math.max(2, Runtime.getRuntime().availableProcessors() / 2),
+            Thread.ofPlatform().name("overloadtest-client-", 0).daemon().factory());
+        // Ein HttpClient hat genau einen Selector-Thread - bei hunderten offenen Anfragen
+        // staut es sich sonst im Lastgenerator statt im Server
+        HttpClient[] clients = new HttpClient[Integer.getInteger("overloadtest.clients", 8)];
+        for (int i = 0; i < clients.length; i++) {
+            clients[i] = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(clientExecutor)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        }
+
+        List<Map<String, Object>> results = new ArrayList<>();
+        boolean failed = false;
+        long unprotectedP99 = 0;
+        for (String mode : MODES) {
+            Path serverLog = output.toAbsolutePath().resolveSibling("overloadtest-" + mode + ".log");
+            Process server = startServer(mode, port, serverLog);
+            try {
+                AdmissionOverloadTest test = new AdmissionOverloadTest(clients, "http://localhost:" + port, persons, backoff);
+                test.awaitStartup(server);
+                test.seed();
+                test.run(concurrency, warmup);
+
+                Map<String, Object> unloaded = test.result(mode, "baseline", baseline, seconds);
+                Map<String, Object> overloaded = test.result(mode, "overload", concurrency, seconds);
+                overloaded.put("admission", test.admissionStatistics());
+                long baselineP99 = (Long) unloaded.get("p99Micros");
+                long overloadP99 = (Long) overloaded.get("p99Micros");
+                overloaded.put("p99FactorToBaseline", Math.round(10.0 * overloadP99 / Math.max(1, baselineP99)) / 10.0);
+                if (mode.equals("off")) {
+                    unprotectedP99 = overloadP99;
+                } else if (overloadP99 > maxP99Ratio * unprotectedP99) {
+                    overloaded.put("passed", false);
+                    failed = true;
+                }
+                results.add(unloaded);
+                results.add(overloaded);
+                System.out.println(unloaded);
+                System.out.println(overloaded);
+            } finally {
+                server.destroy();
+                server.waitFor(30, TimeUnit.SECONDS);
+            }
+        }
+        clientExecutor.shutdownNow();
+
+        ObjectMapper objectMapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+        Files.createDirectories(output.toAbsolutePath().getParent());
+        objectMapper.writeValue(output.toFile(), results);
+        System.out.println(objectMapper.writeValueAsString(results));
+        if (failed) {
+            System.exit(1);
+        }
+    }
+
+    private static Process startServer(String mode, int port, Path serverLog) throws IOException {
+        List<String> command = new ArrayList<>();
+        // Lastgenerator und Server teilen sich die CPU - mit niedrigerer Priorität staut es sich
+        // im Server (wie auf einem eigenen, zu kleinen Server), nicht im Lastgenerator
+        int nice = Integer.getInteger("overloadtest.server-nice", 10);
+        if (nice > 0 && !System.getProperty("os.name").startsWith("Windows")) {
+            command.addAll(List.of("nice", "-n", String.valueOf(nice)));
+        }
+        command.addAll(List.of(
+            Path.of(System.getProperty("java.home"), "bin", "java").toString(),
+            "-cp", System.getProperty("java.class.path"),
+            "com.javafleet.tag10.Tag10Application",
+            "--server.port=" + port,
+            "--spring.devtools.restart.enabled=false",
+            "--spring.devtools.livereload.enabled=false",
+            "--app.admission.enabled=" + mode.equals("adaptive"),
+            "--app.response-cache.max-size=0",
+            "--app.metrics.latency.sample-rate=0.01",
+            "--logging.level.root=WARN",
+            "--logging.level.com.javafleet.tag10=WARN"));
+        Files.createDirectories(serverLog.getParent());
+        return new ProcessBuilder(command)
+            .redirectErrorStream(true)
+            .redirectOutput(serverLog.toFile())
+            .start();
+    }
+
+    private void awaitStartup(Process server) throws Exception {
+        long deadline = System.nanoTime() + STARTUP_TIMEOUT.toNanos();
+        while (System.nanoTime() < deadline) {
+            if (!server.isAlive()) {
+                throw new IllegalStateException("Server beendet mit Exit-Code " + server.exitValue());
+            }
+            try {
+                client.send(HttpRequest.newBuilder(URI.create(baseUrl + "/api/stats")).build(),
+                    HttpResponse.BodyHandlers.discarding());
+                return;
+            } catch (ConnectException notYetListening) {
+                Thread.sleep(200);
+            }
+        }
+        throw new IllegalStateException("Server nicht innerhalb von " + STARTUP_TIMEOUT + " gestartet");
+    }
+
+    private void seed() throws Exception {
+        StringBuilder body = new StringBuilder();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < persons; i++) {
+            body.append("{\"firstname\":\"").append(BenchmarkData.FIRSTNAMES[random.nextInt(BenchmarkData.FIRSTNAMES.length)])
+                .append("\",\"lastname\":\"").append(BenchmarkData.LASTNAMES[random.nextInt(BenchmarkData.LASTNAMES.length)])
+                .append("\"}\n");
+        }
+        HttpResponse<Void> response = client.send(HttpRequest.newBuilder(URI.create(baseUrl + "/api/persons/batch"))
+                .header("Content-Type", "application/x-ndjson")
+                .POST(HttpRequest.BodyPublishers.ofString(body.toString()))
+                .build(),
+            HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() >= 300) {
+            throw new IllegalStateException("Batch-Import fehlgeschlagen: HTTP " + response.statusCode());
+        }
+    }
+
+    private Map<String, Object> result(String mode, String scenario, int concurrency, int seconds) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("mode", mode);
+        result.put("scenario", scenario);
+        result.put("concurrency", concurrency);
+        result.putAll(run(concurrency, seconds));
+        return result;
+    }
+
+    /**
+     * Closed Loop: concurrency Anfragen sind ständig offen (außer während des Backoffs)
+     */
+    private Map<String, Object> run(int concurrency, int seconds) {
+        LatencyHistogram admitted = new LatencyHistogram();
+        LatencyHistogram rejected = new LatencyHistogram();
+        LongAdder tooManyRequests = new LongAdder();
+        LongAdder unavailable = new LongAdder();
+        LongAdder errors = new LongAdder();
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.SECONDS.toNanos(seconds);
+        Executor backoff = CompletableFuture.delayedExecutor(backoffMillis, TimeUnit.MILLISECONDS);
+        CompletableFuture<?>[] users = new CompletableFuture<?>[concurrency];
+        for (int user = 0; user < concurrency; user++) {
+            users[user] = new CompletableFuture<Void>();
+            loop(user, deadline, backoff, new Counters(admitted, rejected, tooManyRequests, unavailable, errors), users[user]);
+        }
+        CompletableFuture.allOf(users).join();
+        double elapsedSeconds = (System.nanoTime() - start) / 1e9;
+
+        LatencyHistogram.Snapshot ok = admitted.snapshot();
+        LatencyHistogram.Snapshot no = rejected.snapshot();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("admitted", ok.count());
+        result.put("rejected429", tooManyRequests.sum());
+        result.put("rejected503", unavailable.sum());
+        result.put("errors", errors.sum());
+        result.put("goodputPerSecond", Math.round(ok.count() / elapsedSeconds));
+        result.put("p50Micros", ok.valueAtPercentile(50) / 1_000);
+        result.put("p99Micros", ok.valueAtPercentile(99) / 1_000);
+        result.put("p999Micros", ok.valueAtPercentile(99.9) / 1_000);
+        result.put("maxMicros", ok.maxNanos() / 1_000);
+        result.put("rejectedP99Micros", no.count() == 0 ? 0 : no.valueAtPercentile(99) / 1_000);
+        return result;
+    }
+
+    private void loop(int user, long deadline, Executor backoff, Counters counters, CompletableFuture<?> done) {
+        if (System.nanoTime() >= deadline) {
+            done.complete(null);
+            return;
+        }
+        long start = System.nanoTime();
+        loadClients[user % loadClients.length].sendAsync(request(user), HttpResponse.BodyHandlers.discarding())
+            .whenComplete((response, failure) -> {
+                long nanos = System.nanoTime() - start;
+                int status = failure == null ? response.statusCode() : -1;
+                if (status == 429 || status == 503) {
+                    counters.rejected.record(nanos);
+                    (status == 429 ? counters.tooManyRequests : counters.unavailable).increment();
+                    CompletableFuture.runAsync(() -> loop(user, deadline, backoff, counters, done), backoff);
+                    return;
+                }
+                if (status >= 200 && status < 400) {
+                    counters.admitted.record(nanos);
+                } else {
+                    counters.errors.increment();
+                }
+                loop(user, deadline, backoff, counters, done);
+            });
+    }
+
+    private HttpRequest request(int user) {
+        long after = ThreadLocalRandom.current().nextLong(0, persons);
+        String path = user % 2 == 0 ? "/api/persons" : "/jakarta/jaxrs/persons";
+        return HttpRequest.newBuilder(URI.create(baseUrl + path + "?after=" + after + "&limit=" + PAGE_SIZE)).build();
+    }
+
+    private JsonNode admissionStatistics() throws Exception {
+        HttpResponse<String> response = client.send(HttpRequest.newBuilder(URI.create(baseUrl + "/api/stats")).build(),
+            HttpResponse.BodyHandlers.ofString());
+        return new ObjectMapper().readTree(response.body()).get("admission");
+    }
+
+    private record Counters(LatencyHistogram admitted, LatencyHistogram rejected,
+                            LongAdder tooManyRequests, LongAdder unavailable, LongAdder errors) {
+    }
+}
@@ -0,0 +1,78 @@
+package com.javafleet.tag10.benchmark;
+
+import com.javafleet.tag10.aspect.LatencyAspect;
+import com.javafleet.tag10.metrics.LatencyRegistry;
+import com.javafleet.tag10.model.Person;
+import com.javafleet.tag10.service.PersonService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Kosten des AOP-Proxys pro Aufruf
+ *
+ * - direct:          PersonService ohne Proxy
+ * - latency:         LatencyAspect, jeder Aufruf gemessen
+ * - latency-sampled: LatencyAspect mit sample-rate 0.01
+ * - legacy-logging:  früheres LoggingAspect (currentTimeMillis + log.info)
+ *
+ * Die Proxies entstehen wie im Container per CGLIB (AspectJProxyFactory).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AspectOverheadBenchmark {
+
+    private static final int SIZE = 1000;
+
+    @Param({"direct", "latency", "latency-sampled", "legacy-logging"})
+    public String variant;
+
+    private PersonService service;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        PersonService target = BenchmarkData.service("indexed", SIZE);
+        service = switch (variant) {
+            case "direct" -> target;
+            case "latency" -> proxy(target, new LatencyAspect(new LatencyRegistry(1.0)));
+            case "latency-sampled" -> proxy(target, new LatencyAspect(new LatencyRegistry(0.01)));
+            case "legacy-logging" -> proxy(target, new LegacyLoggingAspect());
+            default -> throw new IllegalArgumentException("Unbekannte Variante: " + variant);
+        };
+    }
+
+    @Benchmark
+    public Optional<Person> findById() {
+        return service.findById(ThreadLocalRandom.current().nextLong(1, SIZE + 1));
+    }
+
+    @Benchmark
+    public int getCount() {
+        return service.getCount();
+    }
+
+    private static PersonService proxy(PersonService target, Object aspect) {
+        AspectJProxyFactory factory = new AspectJProxyFactory(target);
+        factory.setProxyTargetClass(true);
+        factory.addAspect(aspect);
+        return factory.getProxy();
+    }
+}
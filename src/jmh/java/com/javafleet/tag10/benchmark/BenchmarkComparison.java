@@ -0,0 +1,68 @@
+package com.javafleet.tag10.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Vergleicht zwei JMH-Ergebnisse (-rf json), z.B. von zwei Commits
+ *
+ * Ausgabe pro Benchmark + Parameter + Modus: Score alt, Score neu,
+ * Änderung in Prozent. Positive Änderung = größerer Score (bei Throughput
+ * besser, bei AverageTime/SampleTime schlechter).
+ */
+public final class BenchmarkComparison {
+
+    private BenchmarkComparison() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Aufruf: BenchmarkComparison <alt.json> <neu.json>");
+            System.exit(2);
+        }
+        Map<String, JsonNode> before = scores(Path.of(args[0]));
+        Map<String, JsonNode> after = scores(Path.of(args[1]));
+
+        System.out.printf(Locale.ROOT, "%-90s %14s %14s %9s %s%n", "Benchmark", "alt", "neu", "Delta", "Einheit");
+        for (Map.Entry<String, JsonNode> entry : after.entrySet()) {
+            JsonNode metric = entry.getValue();
+            double newScore = metric.path("score").asDouble();
+            JsonNode old = before.get(entry.getKey());
+            String unit = metric.path("scoreUnit").asText();
+            if (old == null) {
+                System.out.printf(Locale.ROOT, "%-90s %14s %14.3f %9s %s%n", entry.getKey(), "-", newScore, "neu", unit);
+                continue;
+            }
+            double oldScore = old.path("score").asDouble();
+            double delta = oldScore == 0.0 ? 0.0 : (newScore - oldScore) / oldScore * 100.0;
+            System.out.printf(Locale.ROOT, "%-90s %14.3f %14.3f %+8.1f%% %s%n", entry.getKey(), oldScore, newScore, delta, unit);
+        }
+    }
+
+    /**
+     * Primary Metric pro "benchmark [param=wert,...] (mode)"
+     */
+    private static Map<String, JsonNode> scores(Path file) throws IOException {
+        Map<String, JsonNode> scores = new TreeMap<>();
+        for (JsonNode run : new ObjectMapper().readTree(file.toFile())) {
+            Map<String, String> params = new LinkedHashMap<>();
+            Iterator<Map.Entry<String, JsonNode>> fields = run.path("params").fields();
+            while (fields.hasNext()) {
+                Map.Entry<String, JsonNode> field = fields.next();
+                params.put(field.getKey(), field.getValue().asText());
+            }
+            String benchmark = run.path("benchmark").asText().replace("com.javafleet.tag10.benchmark.", "");
+            String key = benchmark + (params.isEmpty() ? "" : " " + params) + " (" + run.path("mode").asText() + ")";
+            scores.put(key, run.path("primaryMetric"));
+        }
+        return scores;
+    }
+}
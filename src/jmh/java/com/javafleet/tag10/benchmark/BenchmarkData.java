@@ -0,0 +1,122 @@
+package com.javafleet.tag10.benchmark;
+
+import com.javafleet.tag10.model.Person;
+import com.javafleet.tag10.persistence.NoOpPersonPersistence;
+import com.javafleet.tag10.persistence.PersonPersistence;
+import com.javafleet.tag10.service.PersonService;
+import com.javafleet.tag10.store.ColumnarPersonStore;
+import com.javafleet.tag10.store.IndexedPersonStore;
+import com.javafleet.tag10.store.PersonNameIndex;
+import com.javafleet.tag10.store.PersonStore;
+import com.javafleet.tag10.store.PersonStoreMode;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.stream.Stream;
+
+/**
+ * BenchmarkData - Testdaten und Service-Aufbau ohne Spring-Kontext
+ *
+ * Baut PersonService genau so zusammen wie PersonStoreConfig (Store +
+ * Namensindex als Listener), nur ohne AOP-Proxy. Namen stammen aus kleinen
+ * Pools mit Nummern-Suffix - realistisch viele Duplikate für das
+ * NameDictionary, aber genug Vielfalt für die Präfixsuche.
+ */
+final class BenchmarkData {
+
+    static final String[] FIRSTNAMES = {
+        "Elyndra", "Nova", "Franz-Martin", "Code", "Anna", "Ben", "Clara", "David", "Emma", "Felix",
+        "Greta", "Hannes", "Ida", "Jonas", "Klara", "Lukas", "Mia", "Noah", "Olivia", "Paul"
+    };
+    static final String[] LASTNAMES = {
+        "Valen", "Trent", "Schmidt", "Sentinel", "Müller", "Schneider", "Fischer", "Weber", "Meyer", "Wagner",
+        "Becker", "Schulz", "Hoffmann", "Koch", "Richter", "Klein", "Wolf", "Schröder", "Neumann", "Braun"
+    };
+    private static final int LASTNAME_VARIANTS = 1000;
+    private static final int LOAD_CHUNK_SIZE = 10_000;
+
+    private BenchmarkData() {
+    }
+
+    static PersonStore store(String mode) {
+        return switch (PersonStoreMode.valueOf(mode.toUpperCase(Locale.ROOT))) {
+            case INDEXED -> new IndexedPersonStore();
+            case COLUMNAR -> new ColumnarPersonStore();
+        };
+    }
+
+    /**
+     * PersonService ohne Persistenz mit size Personen (IDs 1..size)
+     */
+    static PersonService service(String mode, int size) {
+        PersonService service = service(store(mode), new NoOpPersonPersistence());
+        load(service, size);
+        return service;
+    }
+
+    /**
+     * PersonService auf einem vorhandenen Store - init() läuft wie beim Start (Recovery, ggf. Demo-Daten)
+     */
+    static PersonService service(PersonStore store, PersonPersistence persistence) {
+        PersonNameIndex nameIndex = new PersonNameIndex();
+        store.addChangeListener(nameIndex);
+        PersonService service = new PersonService(store, nameIndex, persistence);
+        service.init();
+        return service;
+    }
+
+    /**
+     * Füllt den Service über die Batch-API auf insgesamt size Personen auf
+     */
+    static void load(PersonService service, int size) {
+        int missing = size - service.getCount();
+        SplittableRandom random = new SplittableRandom(42);
+        while (missing > 0) {
+            int chunk = Math.min(missing, LOAD_CHUNK_SIZE);
+            service.createPersons(persons(chunk, random), 0);
+            missing -= chunk;
+        }
+    }
+
+    static List<Person> persons(int count, SplittableRandom random) {
+        List<Person> persons = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            persons.add(person(random));
+        }
+        return persons;
+    }
+
+    static Person person(SplittableRandom random) {
+        return Person.of(null,
+            FIRSTNAMES[random.nextInt(FIRSTNAMES.length)],
+            LASTNAMES[random.nextInt(LASTNAMES.length)] + "-" + random.nextInt(LASTNAME_VARIANTS));
+    }
+
+    static Path tempDirectory(String prefix) {
+        try {
+            return Files.createTempDirectory(prefix);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static void deleteRecursively(Path directory) {
+        if (directory == null || !Files.exists(directory)) {
+            return;
+        }
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(file);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.javafleet.tag10.benchmark;
+
+import com.javafleet.tag10.service.ApplicationStatistics;
+import com.javafleet.tag10.websocket.ChatController;
+import com.javafleet.tag10.websocket.ChatHistory;
+import com.javafleet.tag10.websocket.ChatMessage;
+import com.javafleet.tag10.websocket.MessageType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+
+import java.util.HashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Durchsatz von ChatController.sendMessage / joinChat
+ *
+ * sendMessageSerialized enthält zusätzlich die JSON-Konvertierung, die der
+ * Broker für jeden Broadcast nach /topic/public ausführt.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ChatControllerBenchmark {
+
+    private ChatController chatController;
+    private MappingJackson2MessageConverter messageConverter;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        chatController = new ChatController(new ApplicationStatistics(), new ChatHistory(256, 50));
+        messageConverter = new MappingJackson2MessageConverter(Jackson2ObjectMapperBuilder.json().build());
+    }
+
+    @Benchmark
+    public ChatMessage sendMessage() {
+        return chatController.sendMessage(new ChatMessage(MessageType.CHAT, "Hallo zusammen!", "Nova", 0));
+    }
+
+    @Benchmark
+    public Message<?> sendMessageSerialized() {
+        ChatMessage message = chatController.sendMessage(new ChatMessage(MessageType.CHAT, "Hallo zusammen!", "Nova", 0));
+        return messageConverter.toMessage(message, null);
+    }
+
+    @Benchmark
+    public ChatMessage joinChat() {
+        SimpMessageHeaderAccessor headerAccessor = SimpMessageHeaderAccessor.create();
+        headerAccessor.setSessionAttributes(new HashMap<>());
+        return chatController.joinChat(new ChatMessage(MessageType.JOIN, null, "Nova", 0), headerAccessor);
+    }
+}
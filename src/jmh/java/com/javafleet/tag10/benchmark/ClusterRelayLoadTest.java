@@ -0,0 +1,294 @@
+package com.javafleet.tag10.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.javafleet.tag10.metrics.LatencyHistogram;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.WebSocket;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Lasttest: Chat-Broadcasts über mehrere Instanzen (TcpClusterRelay)
+ *
+ * Startet nodes Instanzen auf einer Maschine (Loopback), alle mit derselben
+ * Peer-Liste. An jeder Instanz hängt ein STOMP-Client (rohes WebSocket,
+ * /ws/websocket), abonniert /topic/public und schickt messages Nachrichten
+ * an /app/chat.send - im Inhalt die Sendezeit (System.nanoTime, auf einer
+ * Maschine prozessübergreifend vergleichbar).
+ *
+ * Jeder Client muss jede Nachricht genau einmal bekommen: gezählt werden
+ * fehlende und doppelte Nachrichten, gemessen die Latenz von Nachrichten
+ * anderer Instanzen (Client - Instanz A - Relay - Instanz B - Client) und
+ * zum Vergleich der eigenen (Client - Instanz A - Client).
+ * Die Zähler des Relays (/api/stats, "cluster") kommen mit ins Ergebnis.
+ *
+ * Parameter per System-Property:
+ * - clustertest.nodes     Instanzen (Default 3)
+ * - clustertest.messages  Nachrichten pro Client (Default 2000)
+ * - clustertest.interval  Pause zwischen zwei Nachrichten in Mikrosekunden (Default 1000)
+ * - clustertest.port      HTTP-Port der ersten Instanz (Default 18180), Relay-Ports ab +1000
+ *
+ * mvn -Pbenchmarks verify -Dclustertest.skip=false -Djmh.args="-l"
+ */
+public final class ClusterRelayLoadTest {
+
+    private static final Duration STARTUP_TIMEOUT = Duration.ofSeconds(90);
+    private static final Duration DELIVERY_TIMEOUT = Duration.ofSeconds(30);
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    public static void main(String[] args) throws Exception {
+        Path output = Path.of(args.length > 0 ? args[0] : "target/jmh-clustertest.json");
+        int nodes = Integer.getInteger("clustertest.nodes", 3);
+        int messages = Integer.getInteger("clustertest.messages", 2000);
+        long intervalMicros = Long.getLong("clustertest.interval", 1000);
+        int basePort = Integer.getInteger("clustertest.port", 18180);
+
+        List<String> peers = new ArrayList<>();
+        for (int node = 0; node < nodes; node++) {
+            peers.add("localhost:" + (basePort + 1000 + node));
+        }
+        HttpClient httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+        List<Process> servers = new ArrayList<>();
+        List<Client> clients = new ArrayList<>();
+        LatencyHistogram localLatency = new LatencyHistogram();
+        LatencyHistogram remoteLatency = new LatencyHistogram();
+        try {
+            for (int node = 0; node < nodes; node++) {
+                Path serverLog = output.toAbsolutePath().resolveSibling("clustertest-node" + node + ".log");
+                servers.add(startServer(basePort + node, basePort + 1000 + node, String.join(",", peers), serverLog));
+            }
+            for (int node = 0; node < nodes; node++) {
+                awaitStartup(httpClient, servers.get(node), basePort + node);
+            }
+            for (int node = 0; node < nodes; node++) {
+                clients.add(Client.connect(httpClient, "node" + node, basePort + node, localLatency, remoteLatency));
+            }
+            // Peers verbinden sich mit Backoff - erst messen, wenn alle verbunden sind
+            for (int node = 0; node < nodes; node++) {
+                awaitPeers(httpClient, basePort + node, nodes - 1);
+            }
+
+            List<CompletableFuture<Void>> senders = new ArrayList<>();
+            for (Client client : clients) {
+                senders.add(CompletableFuture.runAsync(() -> client.sendAll(messages, intervalMicros)));
+            }
+            CompletableFuture.allOf(senders.toArray(CompletableFuture[]::new)).join();
+
+            long expected = (long) nodes * messages;
+            long deadline = System.nanoTime() + DELIVERY_TIMEOUT.toNanos();
+            while (System.nanoTime() < deadline && clients.stream().anyMatch(client -> client.unique() < expected)) {
+                Thread.sleep(50);
+            }
+
+            List<Map<String, Object>> perNode = new ArrayList<>();
+            for (int node = 0; node < nodes; node++) {
+                Client client = clients.get(node);
+                Map<String, Object> result = new LinkedHashMap<>();
+                result.put("node", client.name);
+                result.put("received", client.unique());
+                result.put("missing", expected - client.unique());
+                result.put("duplicates", client.duplicates.sum());
+                result.put("relay", fetchClusterStatistics(httpClient, basePort + node));
+                perNode.add(result);
+            }
+            LatencyHistogram.Snapshot local = localLatency.snapshot();
+            LatencyHistogram.Snapshot snapshot = remoteLatency.snapshot();
+            Map<String, Object> results = new LinkedHashMap<>();
+            results.put("nodes", nodes);
+            results.put("messagesPerClient", messages);
+            results.put("intervalMicros", intervalMicros);
+            results.put("localP50Micros", local.valueAtPercentile(50) / 1_000);
+            results.put("localP99Micros", local.valueAtPercentile(99) / 1_000);
+            results.put("remoteDeliveries", snapshot.count());
+            results.put("remoteP50Micros", snapshot.valueAtPercentile(50) / 1_000);
+            results.put("remoteP99Micros", snapshot.valueAtPercentile(99) / 1_000);
+            results.put("remoteMaxMicros", snapshot.maxNanos() / 1_000);
+            results.put("perNode", perNode);
+
+            ObjectMapper objectMapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+            Files.createDirectories(output.toAbsolutePath().getParent());
+            objectMapper.writeValue(output.toFile(), results);
+            System.out.println(objectMapper.writeValueAsString(results));
+        } finally {
+            clients.forEach(Client::close);
+            for (Process server : servers) {
+                server.destroy();
+                server.waitFor(30, TimeUnit.SECONDS);
+            }
+        }
+    }
+
+    private static Process startServer(int port, int clusterPort, String peers, Path serverLog) throws IOException {
+        List<String> command = List.of(
+            Path.of(System.getProperty("java.home"), "bin", "java").toString(),
+            "-cp", System.getProperty("java.class.path"),
+            "com.javafleet.tag10.Tag10Application",
+            "--server.port=" + port,
+            "--app.cluster.relay=tcp",
+            "--app.cluster.port=" + clusterPort,
+            "--app.cluster.peers=" + peers,
+            "--app.cluster.secret=clustertest",
+            "--spring.devtools.restart.enabled=false",
+            "--spring.devtools.livereload.enabled=false",
+            "--logging.level.root=WARN",
+            "--logging.level.com.javafleet.tag10=WARN");
+        Files.createDirectories(serverLog.getParent());
+        return new ProcessBuilder(command)
+            .redirectErrorStream(true)
+            .redirectOutput(serverLog.toFile())
+            .start();
+    }
+
+    private static void awaitStartup(HttpClient httpClient, Process server, int port) throws Exception {
+        long deadline = System.nanoTime() + STARTUP_TIMEOUT.toNanos();
+        while (System.nanoTime() < deadline) {
+            if (!server.isAlive()) {
+                throw new IllegalStateException("Server auf Port " + port + " beendet mit Exit-Code " + server.exitValue());
+            }
+            try {
+                httpClient.send(HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/stats")).build(),
+                    HttpResponse.BodyHandlers.discarding());
+                return;
+            } catch (ConnectException notYetListening) {
+                Thread.sleep(200);
+            }
+        }
+        throw new IllegalStateException("Server auf Port " + port + " nicht innerhalb von " + STARTUP_TIMEOUT + " gestartet");
+    }
+
+    private static void awaitPeers(HttpClient httpClient, int port, int peers) throws Exception {
+        long deadline = System.nanoTime() + STARTUP_TIMEOUT.toNanos();
+        while (System.nanoTime() < deadline) {
+            JsonNode cluster = fetchClusterStatistics(httpClient, port);
+            if (cluster != null && cluster.path("connectedPeers").asInt() >= peers) {
+                return;
+            }
+            Thread.sleep(100);
+        }
+        throw new IllegalStateException("Instanz auf Port " + port + " hat nicht alle Peers verbunden");
+    }
+
+    private static JsonNode fetchClusterStatistics(HttpClient httpClient, int port) throws Exception {
+        HttpResponse<String> response = httpClient.send(
+            HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/stats")).build(),
+            HttpResponse.BodyHandlers.ofString());
+        JsonNode cluster = OBJECT_MAPPER.readTree(response.body()).get("cluster");
+        return cluster == null || cluster.isNull() ? null : cluster;
+    }
+
+    /**
+     * STOMP über rohes WebSocket - ein Abonnement auf /topic/public
+     */
+    private static final class Client implements WebSocket.Listener {
+
+        private final String name;
+        private final StringBuilder pending = new StringBuilder();
+        private final Set<String> seen = ConcurrentHashMap.newKeySet();
+        private final LongAdder duplicates = new LongAdder();
+        private final LatencyHistogram localLatency;
+        private final LatencyHistogram remoteLatency;
+        private final CompletableFuture<Void> connected = new CompletableFuture<>();
+        private WebSocket webSocket;
+
+        private Client(String name, LatencyHistogram localLatency, LatencyHistogram remoteLatency) {
+            this.name = name;
+            this.localLatency = localLatency;
+            this.remoteLatency = remoteLatency;
+        }
+
+        static Client connect(HttpClient httpClient, String name, int port,
+                              LatencyHistogram localLatency, LatencyHistogram remoteLatency) {
+            Client client = new Client(name, localLatency, remoteLatency);
+            client.webSocket = httpClient.newWebSocketBuilder()
+                .buildAsync(URI.create("ws://localhost:" + port + "/ws/websocket"), client)
+                .join();
+            client.send("CONNECT\naccept-version:1.2\nhost:localhost\n\n\0");
+            client.connected.orTimeout(10, TimeUnit.SECONDS).join();
+            client.send("SUBSCRIBE\nid:sub-0\ndestination:/topic/public\n\n\0");
+            return client;
+        }
+
+        void sendAll(int messages, long intervalMicros) {
+            for (int i = 0; i < messages; i++) {
+                String body = "{\"type\":\"CHAT\",\"sender\":\"" + name + "\",\"content\":\"" + i + ":" + System.nanoTime() + "\"}";
+                send("SEND\ndestination:/app/chat.send\ncontent-type:application/json\n\n" + body + "\0");
+                if (intervalMicros > 0) {
+                    LockSupport.parkNanos(intervalMicros * 1_000);
+                }
+            }
+        }
+
+        long unique() {
+            return seen.size();
+        }
+
+        private synchronized void send(String frame) {
+            webSocket.sendText(frame, true).join();
+        }
+
+        @Override
+        public CompletionStage<?> onText(WebSocket webSocket, CharSequence data, boolean last) {
+            pending.append(data);
+            int end;
+            while ((end = pending.indexOf("\0")) >= 0) {
+                String frame = pending.substring(0, end);
+                pending.delete(0, end + 1);
+                onFrame(frame.stripLeading());
+            }
+            webSocket.request(1);
+            return null;
+        }
+
+        private void onFrame(String frame) {
+            if (frame.startsWith("CONNECTED")) {
+                connected.complete(null);
+            } else if (frame.startsWith("MESSAGE")) {
+                long now = System.nanoTime();
+                try {
+                    JsonNode message = OBJECT_MAPPER.readTree(frame.substring(frame.indexOf("\n\n") + 2));
+                    String sender = message.path("sender").asText();
+                    String[] content = message.path("content").asText().split(":");
+                    if (!seen.add(sender + "/" + content[0])) {
+                        duplicates.increment();
+                    } else {
+                        (sender.equals(name) ? localLatency : remoteLatency).record(now - Long.parseLong(content[1]));
+                    }
+                } catch (IOException | RuntimeException e) {
+                    System.err.println(name + ": unlesbarer Frame: " + e.getMessage());
+                }
+            }
+        }
+
+        @Override
+        public void onError(WebSocket webSocket, Throwable error) {
+            connected.completeExceptionally(error);
+            System.err.println(name + ": " + error);
+        }
+
+        void close() {
+            if (webSocket != null) {
+                webSocket.abort();
+            }
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.javafleet.tag10.benchmark;
+
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+
+/**
+ * Das frühere LoggingAspect-Advice (currentTimeMillis + INFO-Zeile pro Aufruf)
+ *
+ * Nur als Vergleichsbasis für AspectOverheadBenchmark. Der Logger schreibt
+ * in einen NOPAppender (logback-test.xml) - gemessen wird also die Untergrenze
+ * ohne Console-I/O.
+ */
+@Aspect
+@Slf4j
+public class LegacyLoggingAspect {
+
+    @Around("execution(* com.javafleet.tag10.service..*(..))")
+    public Object logExecutionTime(ProceedingJoinPoint joinPoint) throws Throwable {
+        long startTime = System.currentTimeMillis();
+
+        Object result = joinPoint.proceed();
+
+        long duration = System.currentTimeMillis() - startTime;
+
+        log.info("⏱️ AOP: {} executed in {} ms",
+            joinPoint.getSignature().toShortString(), duration);
+
+        return result;
+    }
+}
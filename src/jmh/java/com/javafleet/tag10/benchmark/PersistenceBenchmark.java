@@ -0,0 +1,97 @@
+package com.javafleet.tag10.benchmark;
+
+import com.javafleet.tag10.model.Person;
+import com.javafleet.tag10.persistence.JournalPersonPersistence;
+import com.javafleet.tag10.persistence.NoOpPersonPersistence;
+import com.javafleet.tag10.persistence.PersonPersistence;
+import com.javafleet.tag10.service.PersonService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latenz des Schreibpfads mit und ohne Durability (SampleTime: p50/p99/p99.9)
+ *
+ * - none:          kein Journal
+ * - journal:       Journal ohne fsync (Daten im Page Cache)
+ * - journal-fsync: awaitDurable wartet auf den Group Commit
+ *
+ * Bei mehreren Threads teilen sich gleichzeitige Schreiber einen fsync
+ * (GroupCommit-Variante mit 8 Threads).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public abstract class PersistenceBenchmark {
+
+    private static final int SIZE = 10_000;
+    private static final Person UPDATE = Person.of(null, "Bench", "Mark");
+
+    @Param({"none", "journal", "journal-fsync"})
+    public String persistence;
+
+    private Path directory;
+    private PersonPersistence personPersistence;
+    private PersonService service;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        personPersistence = switch (persistence) {
+            case "none" -> new NoOpPersonPersistence();
+            case "journal", "journal-fsync" -> {
+                directory = BenchmarkData.tempDirectory("tag10-journal-");
+                yield new JournalPersonPersistence(directory, persistence.equals("journal-fsync"),
+                    Duration.ofDays(1), Long.MAX_VALUE);
+            }
+            default -> throw new IllegalArgumentException("Unbekannte Persistenz: " + persistence);
+        };
+        service = BenchmarkData.service(BenchmarkData.store("indexed"), personPersistence);
+        BenchmarkData.load(service, SIZE);
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() throws IOException {
+        if (personPersistence instanceof JournalPersonPersistence journal) {
+            journal.close();
+        }
+        BenchmarkData.deleteRecursively(directory);
+    }
+
+    @Benchmark
+    public Person createPerson() {
+        return service.createPerson(Person.of(null, "Bench", "Mark"));
+    }
+
+    @Benchmark
+    public boolean updatePerson() {
+        return service.updatePerson(ThreadLocalRandom.current().nextLong(1, SIZE + 1), UPDATE);
+    }
+
+    @Threads(1)
+    public static class SingleWriter extends PersistenceBenchmark {
+    }
+
+    @Threads(8)
+    public static class GroupCommit extends PersistenceBenchmark {
+    }
+}
@@ -0,0 +1,109 @@
+package com.javafleet.tag10.benchmark;
+
+import com.javafleet.tag10.model.BatchItemResult;
+import com.javafleet.tag10.model.Person;
+import com.javafleet.tag10.persistence.JournalPersonPersistence;
+import com.javafleet.tag10.persistence.NoOpPersonPersistence;
+import com.javafleet.tag10.persistence.PersonPersistence;
+import com.javafleet.tag10.service.PersonService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Batch-API gegen Einzelaufrufe (Score = Personen pro Millisekunde)
+ *
+ * Gemessen wird der Service-Anteil: ein Lock/Snapshot-Invalidierung bzw.
+ * ein Group Commit pro Chunk statt pro Person. Der zusätzliche HTTP-Roundtrip
+ * pro Einzel-Request ist hier nicht enthalten - der reale Abstand ist also
+ * noch größer.
+ *
+ * persistence: none, journal (ohne fsync), journal-fsync
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class PersonBatchBenchmark {
+
+    private static final int BATCH_SIZE = 1000;
+
+    @Param({"indexed", "columnar"})
+    public String mode;
+
+    @Param({"none", "journal", "journal-fsync"})
+    public String persistence;
+
+    private List<Person> batch;
+    private Path directory;
+    private PersonPersistence personPersistence;
+    private PersonService service;
+
+    @Setup(Level.Trial)
+    public void createBatch() {
+        batch = BenchmarkData.persons(BATCH_SIZE, new SplittableRandom(42));
+    }
+
+    /**
+     * Frischer Service pro Iteration - sonst wächst der Store unbegrenzt
+     */
+    @Setup(Level.Iteration)
+    public void setUp() {
+        personPersistence = switch (persistence) {
+            case "none" -> new NoOpPersonPersistence();
+            case "journal", "journal-fsync" -> {
+                directory = BenchmarkData.tempDirectory("tag10-batch-");
+                yield new JournalPersonPersistence(directory, persistence.equals("journal-fsync"),
+                    Duration.ofDays(1), Long.MAX_VALUE);
+            }
+            default -> throw new IllegalArgumentException("Unbekannte Persistenz: " + persistence);
+        };
+        service = BenchmarkData.service(BenchmarkData.store(mode), personPersistence);
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() throws IOException {
+        if (personPersistence instanceof JournalPersonPersistence journal) {
+            journal.close();
+        }
+        BenchmarkData.deleteRecursively(directory);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public void singleCreates(Blackhole blackhole) {
+        for (Person person : batch) {
+            blackhole.consume(service.createPerson(Person.of(null, person.getFirstname(), person.getLastname())));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public List<BatchItemResult> batchCreate() {
+        List<Person> chunk = batch.stream()
+            .map(person -> Person.of(null, person.getFirstname(), person.getLastname()))
+            .toList();
+        return service.createPersons(chunk, 0);
+    }
+}
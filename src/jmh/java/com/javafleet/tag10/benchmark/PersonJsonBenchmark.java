@@ -0,0 +1,109 @@
+package com.javafleet.tag10.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.javafleet.tag10.json.PersonJsonStreamer;
+import com.javafleet.tag10.model.Person;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson-Serialisierung von Person-Listen
+ *
+ * - writeValueAsBytes: kompletter Body im Speicher (wie der MVC-Converter)
+ * - streamArray/streamNdjson: PersonJsonStreamer (Export-Endpunkte)
+ * - readChunks: Batch-Input in Chunks von PersonService.BATCH_CHUNK_SIZE
+ *
+ * Der ObjectMapper wird wie in Spring Boot über Jackson2ObjectMapperBuilder gebaut.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PersonJsonBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    public int size;
+
+    private ObjectMapper objectMapper;
+    private PersonJsonStreamer jsonStreamer;
+    private List<Person> persons;
+    private byte[] serialized;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        jsonStreamer = new PersonJsonStreamer(objectMapper);
+        SplittableRandom random = new SplittableRandom(42);
+        List<Person> generated = BenchmarkData.persons(size, random);
+        persons = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            persons.add(generated.get(i).withId(i + 1L).withVersion(1));
+        }
+        serialized = objectMapper.writeValueAsBytes(persons);
+    }
+
+    @Benchmark
+    public byte[] writeValueAsBytes() throws IOException {
+        return objectMapper.writeValueAsBytes(persons);
+    }
+
+    @Benchmark
+    public void streamArray(Blackhole blackhole) throws IOException {
+        jsonStreamer.writeArray(persons, new BlackholeOutputStream(blackhole));
+    }
+
+    @Benchmark
+    public void streamNdjson(Blackhole blackhole) throws IOException {
+        jsonStreamer.writeNdjson(persons, new BlackholeOutputStream(blackhole));
+    }
+
+    @Benchmark
+    public void readChunks(Blackhole blackhole) throws IOException {
+        jsonStreamer.readChunks(new ByteArrayInputStream(serialized), Person.class, 1000, blackhole::consume);
+    }
+
+    /**
+     * Verwirft die Bytes, lässt sie aber nicht wegoptimieren
+     */
+    private static final class BlackholeOutputStream extends OutputStream {
+
+        private final Blackhole blackhole;
+
+        private BlackholeOutputStream(Blackhole blackhole) {
+            this.blackhole = blackhole;
+        }
+
+        @Override
+        public void write(int b) {
+            blackhole.consume(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            blackhole.consume(b);
+            blackhole.consume(len);
+        }
+    }
+}
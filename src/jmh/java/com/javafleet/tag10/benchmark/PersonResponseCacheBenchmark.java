@@ -0,0 +1,95 @@
+package com.javafleet.tag10.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.javafleet.tag10.json.PersonResponseCache;
+import com.javafleet.tag10.model.Person;
+import com.javafleet.tag10.persistence.NoOpPersonPersistence;
+import com.javafleet.tag10.service.PersonService;
+import com.javafleet.tag10.store.PersonStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * GET-Antworten: Jackson pro Request gegen PersonResponseCache
+ *
+ * - jacksonList / jacksonPerson: was die Controller ohne Cache tun
+ *   (Snapshot bzw. findById, dann writeValueAsBytes)
+ * - cachedList / cachedPerson: dieselben Bytes aus dem Cache
+ * - cachedListAfterUpdate: jede Operation ändert eine Person und liest
+ *   die Liste - der schlechteste Fall, jeder Lesezugriff ist ein Miss
+ *
+ * mvn -Pbenchmarks verify -Djmh.args="PersonResponseCacheBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PersonResponseCacheBenchmark {
+
+    @Param({"1000", "10000"})
+    public int size;
+
+    private PersonService service;
+    private PersonResponseCache cache;
+    private ObjectMapper objectMapper;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        PersonStore store = BenchmarkData.store("indexed");
+        service = BenchmarkData.service(store, new NoOpPersonPersistence());
+        BenchmarkData.load(service, size);
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        // wie ResponseCacheConfig
+        cache = new PersonResponseCache(service, objectMapper, 64L * 1024 * 1024);
+        store.addChangeListener(cache);
+    }
+
+    @Benchmark
+    public byte[] jacksonList() throws IOException {
+        return objectMapper.writeValueAsBytes(service.getAllPersons());
+    }
+
+    @Benchmark
+    public byte[] cachedList() {
+        return cache.allPersons().body();
+    }
+
+    @Benchmark
+    public byte[] jacksonPerson() throws IOException {
+        return objectMapper.writeValueAsBytes(service.findById(randomId()).orElseThrow());
+    }
+
+    @Benchmark
+    public byte[] cachedPerson() {
+        return cache.person(service.findById(randomId()).orElseThrow()).body();
+    }
+
+    @Benchmark
+    public byte[] cachedListAfterUpdate() {
+        long id = randomId();
+        Person current = service.findById(id).orElseThrow();
+        service.updatePerson(id, Person.of(id, current.getFirstname(), current.getLastname()));
+        return cache.allPersons().body();
+    }
+
+    private long randomId() {
+        return ThreadLocalRandom.current().nextLong(1, size + 1);
+    }
+}
@@ -0,0 +1,71 @@
+package com.javafleet.tag10.benchmark;
+
+import com.javafleet.tag10.model.Person;
+import com.javafleet.tag10.service.PersonService;
+import com.javafleet.tag10.store.NameField;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Namenssuche über PersonNameIndex (Ziel: Präfixsuche bei 1M Personen deutlich unter 1 ms)
+ *
+ * Präfixe sind 3 Zeichen lang und treffen viele Personen - limit begrenzt
+ * die Treffer wie beim REST-Endpunkt.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.AverageTime, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class PersonSearchBenchmark {
+
+    @Param({"1000000"})
+    public int size;
+
+    @Param({"indexed", "columnar"})
+    public String mode;
+
+    @Param({"20", "100"})
+    public int limit;
+
+    private PersonService service;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        service = BenchmarkData.service(mode, size);
+    }
+
+    @Benchmark
+    public List<Person> prefixFullname() {
+        String firstname = BenchmarkData.FIRSTNAMES[ThreadLocalRandom.current().nextInt(BenchmarkData.FIRSTNAMES.length)];
+        return service.searchPersons(NameField.FULLNAME, firstname.substring(0, 3), true, limit);
+    }
+
+    @Benchmark
+    public List<Person> prefixLastname() {
+        String lastname = BenchmarkData.LASTNAMES[ThreadLocalRandom.current().nextInt(BenchmarkData.LASTNAMES.length)];
+        return service.searchPersons(NameField.LASTNAME, lastname.substring(0, 3), true, limit);
+    }
+
+    @Benchmark
+    public List<Person> exactLastname() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String lastname = BenchmarkData.LASTNAMES[random.nextInt(BenchmarkData.LASTNAMES.length)] + "-" + random.nextInt(1000);
+        return service.searchPersons(NameField.LASTNAME, lastname, false, limit);
+    }
+}
@@ -0,0 +1,108 @@
+package com.javafleet.tag10.benchmark;
+
+import com.javafleet.tag10.model.Person;
+import com.javafleet.tag10.model.PersonPage;
+import com.javafleet.tag10.service.PersonService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * PersonService CRUD bei verschiedenen Datenmengen, Store-Modi und Thread-Zahlen
+ *
+ * Die Thread-Zahl steckt in den Unterklassen (OneThread, FourThreads,
+ * MaxThreads) - so landet sie als eigener Benchmark-Name im JSON-Ergebnis.
+ * findById läuft zusätzlich im SampleTime-Modus (p50/p99/p99.9 bei 1M Personen).
+ *
+ * Gemessen wird der Service direkt, ohne HTTP und ohne AOP-Proxy.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public abstract class PersonServiceBenchmark {
+
+    private static final Person UPDATE = Person.of(null, "Bench", "Mark");
+
+    @Param({"1000", "100000", "1000000"})
+    public int size;
+
+    @Param({"indexed", "columnar"})
+    public String mode;
+
+    private PersonService service;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        service = BenchmarkData.service(mode, size);
+    }
+
+    @Benchmark
+    @BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+    public Optional<Person> findById() {
+        return service.findById(randomId());
+    }
+
+    @Benchmark
+    public boolean updatePerson() {
+        return service.updatePerson(randomId(), UPDATE);
+    }
+
+    /**
+     * Anlegen + Löschen - die Datenmenge bleibt konstant
+     */
+    @Benchmark
+    public boolean createAndDeletePerson() {
+        Person created = service.createPerson(Person.of(null, "Bench", "Mark"));
+        return service.deletePerson(created.getId());
+    }
+
+    /**
+     * Liste ohne zwischenzeitliche Änderung (Snapshot wird wiederverwendet)
+     */
+    @Benchmark
+    public List<Person> getAllPersons() {
+        return service.getAllPersons();
+    }
+
+    @Benchmark
+    public PersonPage getPersonsAfter() {
+        return service.getPersonsAfter(randomId(), 100);
+    }
+
+    /**
+     * IDs 1..size bleiben bestehen - createAndDeletePerson löscht nur eigene IDs
+     */
+    private long randomId() {
+        return ThreadLocalRandom.current().nextLong(1, size + 1);
+    }
+
+    @Threads(1)
+    public static class OneThread extends PersonServiceBenchmark {
+    }
+
+    @Threads(4)
+    public static class FourThreads extends PersonServiceBenchmark {
+    }
+
+    @Threads(Threads.MAX)
+    public static class MaxThreads extends PersonServiceBenchmark {
+    }
+}
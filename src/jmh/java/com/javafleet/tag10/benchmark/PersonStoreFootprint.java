@@ -0,0 +1,149 @@
+package com.javafleet.tag10.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.javafleet.tag10.model.Person;
+import com.javafleet.tag10.service.PersonService;
+import com.javafleet.tag10.store.PersonStore;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.ref.Reference;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Speicherbedarf pro Person und GC-Zeit unter Dauerlast - je Store-Modus
+ *
+ * Kein JMH-Benchmark: gemessen wird belegter Heap nach Full GC, nicht Zeit.
+ * Ergebnis als JSON (Pfad als erstes Argument), Parameter per System-Property:
+ * - footprint.size    Anzahl Personen (Default 1.000.000)
+ * - footprint.seconds Dauer der CRUD-Last (Default 30)
+ *
+ * mvn -Pbenchmarks verify -Dfootprint.skip=false -Djmh.args="-l"
+ */
+public final class PersonStoreFootprint {
+
+    private static final String[] MODES = {"indexed", "columnar"};
+
+    private PersonStoreFootprint() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Path output = Path.of(args.length > 0 ? args[0] : "target/jmh-footprint.json");
+        int size = Integer.getInteger("footprint.size", 1_000_000);
+        int seconds = Integer.getInteger("footprint.seconds", 30);
+
+        List<Map<String, Object>> results = new ArrayList<>();
+        for (String mode : MODES) {
+            results.add(measure(mode, size, seconds));
+        }
+
+        ObjectMapper objectMapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+        Files.createDirectories(output.toAbsolutePath().getParent());
+        objectMapper.writeValue(output.toFile(), results);
+        System.out.println(objectMapper.writeValueAsString(results));
+    }
+
+    private static Map<String, Object> measure(String mode, int size, int seconds) throws Exception {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("mode", mode);
+        result.put("persons", size);
+
+        // 1. Nur der Store
+        long baseline = usedHeapAfterGc();
+        PersonStore store = BenchmarkData.store(mode);
+        SplittableRandom random = new SplittableRandom(42);
+        for (int loaded = 0; loaded < size; ) {
+            List<Person> chunk = BenchmarkData.persons(Math.min(10_000, size - loaded), random);
+            for (int i = 0; i < chunk.size(); i++) {
+                chunk.set(i, chunk.get(i).withId(++loaded + 0L));
+            }
+            store.insertAll(chunk);
+        }
+        result.put("storeBytesPerPerson", (usedHeapAfterGc() - baseline) / size);
+        Reference.reachabilityFence(store);
+        store = null;
+
+        // 2. PersonService inklusive Namensindex
+        baseline = usedHeapAfterGc();
+        PersonService service = BenchmarkData.service(mode, size);
+        result.put("serviceBytesPerPerson", (usedHeapAfterGc() - baseline) / size);
+
+        // 3. CRUD-Dauerlast: 60 % findById, 20 % update, 10 % create, 10 % delete
+        Map<String, Long> gcBefore = gcMillis();
+        LongAdder operations = new LongAdder();
+        int threads = Runtime.getRuntime().availableProcessors();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<?>> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            workers.add(executor.submit(() -> crudLoad(service, size, deadline, operations)));
+        }
+        for (Future<?> worker : workers) {
+            worker.get();
+        }
+        executor.shutdown();
+        Map<String, Long> gcAfter = gcMillis();
+        Map<String, Long> gcDuringLoad = new LinkedHashMap<>();
+        gcAfter.forEach((collector, millis) -> gcDuringLoad.put(collector, millis - gcBefore.getOrDefault(collector, 0L)));
+
+        result.put("loadSeconds", seconds);
+        result.put("loadThreads", threads);
+        result.put("loadOperations", operations.sum());
+        result.put("gcMillisDuringLoad", gcDuringLoad);
+        Reference.reachabilityFence(service);
+        return result;
+    }
+
+    private static void crudLoad(PersonService service, int size, long deadline, LongAdder operations) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Person update = Person.of(null, "Last", "Test");
+        while (System.nanoTime() < deadline) {
+            for (int i = 0; i < 1000; i++) {
+                int dice = random.nextInt(10);
+                long id = random.nextLong(1, size + 1L);
+                if (dice < 6) {
+                    service.findById(id);
+                } else if (dice < 8) {
+                    service.updatePerson(id, update);
+                } else if (dice < 9) {
+                    service.createPerson(Person.of(null, "Neu", "Person-" + id));
+                } else {
+                    service.deletePerson(id);
+                }
+            }
+            operations.add(1000);
+        }
+    }
+
+    private static long usedHeapAfterGc() throws InterruptedException {
+        for (int i = 0; i < 5; i++) {
+            System.gc();
+            Thread.sleep(100);
+        }
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    /**
+     * Akkumulierte GC-Zeit pro Collector (z.B. "G1 Young Generation", "G1 Old Generation")
+     */
+    private static Map<String, Long> gcMillis() {
+        Map<String, Long> millis = new LinkedHashMap<>();
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            millis.put(collector.getName(), collector.getCollectionTime());
+        }
+        return millis;
+    }
+}
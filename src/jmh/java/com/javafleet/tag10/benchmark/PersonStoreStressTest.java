@@ -0,0 +1,217 @@
+package com.javafleet.tag10.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.javafleet.tag10.model.Person;
+import com.javafleet.tag10.store.PersonChangeListener;
+import com.javafleet.tag10.store.PersonStore;
+import com.javafleet.tag10.store.PersonVersionConflictException;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Stresstest: gleichzeitige Updates und Leser auf wenigen IDs - je Store-Modus
+ *
+ * Kein JMH-Benchmark: geprüft werden Invarianten, nicht Zeiten. Jeder
+ * Schreiber setzt Vor- und Nachname auf dasselbe Token - wer eine Person
+ * mit verschiedenen Namen sieht, hat ein halbes Update gelesen.
+ * - Schreiber ohne Version (last writer wins) und mit Version (Compare-and-Set,
+ *   bei Konflikt neu lesen und wiederholen)
+ * - Leser: findById, snapshot() und Jackson-Serialisierung derselben Person
+ *
+ * Fehler (Exit-Code 1):
+ * - torn       Person mit ungleichem Vor- und Nachnamen (auch im JSON)
+ * - backwards  ein Leser sieht für eine ID eine ältere Version als zuvor
+ * - listener   personUpdated nicht lückenlos (before.version + 1 != after.version)
+ * - lostUpdate Endversion != 1 + erfolgreiche Updates der ID
+ *
+ * Parameter per System-Property:
+ * - stresstest.ids      Anzahl umkämpfter IDs (Default 8)
+ * - stresstest.writers  Schreiber-Threads, die Hälfte mit Version (Default 4)
+ * - stresstest.readers  Leser-Threads (Default 4)
+ * - stresstest.seconds  Dauer pro Store-Modus (Default 10)
+ *
+ * mvn -Pbenchmarks verify -Dstresstest.skip=false -Djmh.args="-l"
+ */
+public final class PersonStoreStressTest {
+
+    private static final String[] MODES = {"indexed", "columnar"};
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    private PersonStoreStressTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Path output = Path.of(args.length > 0 ? args[0] : "target/jmh-stresstest.json");
+        int ids = Integer.getInteger("stresstest.ids", 8);
+        int writers = Integer.getInteger("stresstest.writers", 4);
+        int readers = Integer.getInteger("stresstest.readers", 4);
+        int seconds = Integer.getInteger("stresstest.seconds", 10);
+
+        List<Map<String, Object>> results = new ArrayList<>();
+        boolean failed = false;
+        for (String mode : MODES) {
+            Map<String, Object> result = run(mode, ids, writers, readers, seconds);
+            results.add(result);
+            System.out.println(result);
+            failed |= !(Boolean) result.get("passed");
+        }
+
+        ObjectMapper objectMapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+        Files.createDirectories(output.toAbsolutePath().getParent());
+        objectMapper.writeValue(output.toFile(), results);
+        System.out.println(objectMapper.writeValueAsString(results));
+        if (failed) {
+            System.exit(1);
+        }
+    }
+
+    private static Map<String, Object> run(String mode, int ids, int writers, int readers, int seconds)
+            throws InterruptedException {
+        PersonStore store = BenchmarkData.store(mode);
+        LongAdder listenerViolations = new LongAdder();
+        Map<Long, Long> lastNotified = new ConcurrentHashMap<>();
+        store.addChangeListener(new PersonChangeListener() {
+            @Override
+            public void personUpdated(Person before, Person after) {
+                // Läuft unter dem Lock der ID - pro ID also nacheinander
+                Long previous = lastNotified.put(after.getId(), after.getVersion());
+                if (before.getVersion() + 1 != after.getVersion()
+                        || (previous != null && previous != before.getVersion())) {
+                    listenerViolations.increment();
+                }
+            }
+        });
+        for (long id = 1; id <= ids; id++) {
+            store.insert(Person.of(id, "start", "start"));
+        }
+
+        AtomicLongArray successfulUpdates = new AtomicLongArray(ids + 1);
+        LongAdder blindUpdates = new LongAdder();
+        LongAdder casUpdates = new LongAdder();
+        LongAdder casConflicts = new LongAdder();
+        LongAdder reads = new LongAdder();
+        LongAdder torn = new LongAdder();
+        LongAdder backwards = new LongAdder();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        CountDownLatch done = new CountDownLatch(writers + readers);
+        List<Thread> threads = new ArrayList<>();
+
+        for (int w = 0; w < writers; w++) {
+            boolean compareAndSet = w % 2 == 1;
+            String prefix = "w" + w + "-";
+            threads.add(Thread.ofPlatform().name("stress-writer-" + w).start(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                long sequence = 0;
+                while (System.nanoTime() < deadline) {
+                    long id = random.nextLong(1, ids + 1);
+                    String token = prefix + sequence++;
+                    if (!compareAndSet) {
+                        store.update(id, token, token);
+                        blindUpdates.increment();
+                        successfulUpdates.incrementAndGet((int) id);
+                        continue;
+                    }
+                    while (true) {
+                        Person current = store.findById(id).orElseThrow();
+                        try {
+                            store.update(id, token, token, current.getVersion());
+                            casUpdates.increment();
+                            successfulUpdates.incrementAndGet((int) id);
+                            break;
+                        } catch (PersonVersionConflictException e) {
+                            casConflicts.increment();
+                        }
+                    }
+                }
+                done.countDown();
+            }));
+        }
+        for (int r = 0; r < readers; r++) {
+            threads.add(Thread.ofPlatform().name("stress-reader-" + r).start(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                long[] lastSeen = new long[ids + 1];
+                long iteration = 0;
+                while (System.nanoTime() < deadline) {
+                    if (++iteration % 1024 == 0) {
+                        for (Person person : store.snapshot()) {
+                            check(person, lastSeen, torn, backwards);
+                        }
+                        continue;
+                    }
+                    Person person = store.findById(random.nextLong(1, ids + 1)).orElseThrow();
+                    check(person, lastSeen, torn, backwards);
+                    if (iteration % 16 == 0 && !consistentJson(person)) {
+                        torn.increment();
+                    }
+                    reads.increment();
+                }
+                done.countDown();
+            }));
+        }
+        done.await();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        long lostUpdates = 0;
+        for (long id = 1; id <= ids; id++) {
+            long expected = 1 + successfulUpdates.get((int) id);
+            if (store.findById(id).orElseThrow().getVersion() != expected) {
+                lostUpdates++;
+            }
+        }
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("mode", mode);
+        result.put("ids", ids);
+        result.put("writers", writers);
+        result.put("readers", readers);
+        result.put("seconds", seconds);
+        result.put("blindUpdates", blindUpdates.sum());
+        result.put("casUpdates", casUpdates.sum());
+        result.put("casConflicts", casConflicts.sum());
+        result.put("reads", reads.sum());
+        result.put("torn", torn.sum());
+        result.put("backwards", backwards.sum());
+        result.put("listener", listenerViolations.sum());
+        result.put("lostUpdate", lostUpdates);
+        result.put("passed", torn.sum() == 0 && backwards.sum() == 0
+            && listenerViolations.sum() == 0 && lostUpdates == 0);
+        return result;
+    }
+
+    private static void check(Person person, long[] lastSeen, LongAdder torn, LongAdder backwards) {
+        if (!person.getFirstname().equals(person.getLastname())) {
+            torn.increment();
+        }
+        int id = person.getId().intValue();
+        if (person.getVersion() < lastSeen[id]) {
+            backwards.increment();
+        }
+        lastSeen[id] = person.getVersion();
+    }
+
+    /**
+     * Serialisiert wie die REST-Controller und vergleicht die Namen im JSON
+     */
+    private static boolean consistentJson(Person person) {
+        try {
+            Map<?, ?> json = JSON.readValue(JSON.writeValueAsBytes(person), Map.class);
+            return json.get("firstname").equals(json.get("lastname"));
+        } catch (Exception e) {
+            return false;
+        }
+    }
+}
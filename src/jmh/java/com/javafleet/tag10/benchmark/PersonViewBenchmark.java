@@ -0,0 +1,93 @@
+package com.javafleet.tag10.benchmark;
+
+import com.javafleet.tag10.Tag10Application;
+import com.javafleet.tag10.service.PersonService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * GET /persons/ (Thymeleaf) über HTTP - Requests pro Sekunde
+ *
+ * Die Anwendung läuft im Benchmark-Prozess auf einem freien Port, der Store
+ * hat persons Personen. Zwischen den Requests ändert sich nichts.
+ * - rendering=dev   spring.thymeleaf.cache=false, Tabelle bei jedem Request neu
+ * - rendering=prod  Template-Cache + PersonTableFragmentCache (wie Profil prod)
+ *
+ * Mehr gleichzeitige Clients: -t 4
+ *
+ * mvn -Pbenchmarks verify -Djmh.args="PersonViewBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PersonViewBenchmark {
+
+    @Param({"dev", "prod"})
+    public String rendering;
+
+    @Param({"10000"})
+    public int persons;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private HttpRequest request;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        boolean prod = rendering.equals("prod");
+        if (!prod && !rendering.equals("dev")) {
+            throw new IllegalArgumentException("Unbekanntes Rendering: " + rendering);
+        }
+        // Der DevTools-Restart liest nur die System-Property
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        context = SpringApplication.run(Tag10Application.class,
+            "--server.port=0",
+            "--spring.thymeleaf.cache=" + prod,
+            "--app.view.fragment-cache.enabled=" + prod,
+            "--spring.devtools.livereload.enabled=false",
+            "--logging.level.root=WARN",
+            "--logging.level.com.javafleet.tag10=WARN");
+        BenchmarkData.load(context.getBean(PersonService.class), persons);
+        int port = Integer.parseInt(context.getEnvironment().getRequiredProperty("local.server.port"));
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/persons/")).build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        client.close();
+        context.close();
+    }
+
+    @Benchmark
+    public int listPersons() throws IOException, InterruptedException {
+        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("HTTP " + response.statusCode());
+        }
+        return response.statusCode();
+    }
+}
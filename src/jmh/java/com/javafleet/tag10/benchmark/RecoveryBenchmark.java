@@ -0,0 +1,114 @@
+package com.javafleet.tag10.benchmark;
+
+import com.javafleet.tag10.model.Person;
+import com.javafleet.tag10.persistence.JournalPersonPersistence;
+import com.javafleet.tag10.service.PersonService;
+import com.javafleet.tag10.store.PersonStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Startzeit: Snapshot per mmap laden + Journal-Tail abspielen
+ *
+ * Der Datenbestand (size Personen im Snapshot, 10 % Updates im Journal danach)
+ * wird einmal erzeugt und vor jedem Durchlauf in ein frisches Verzeichnis
+ * kopiert - Recovery schreibt selbst wieder ins Journal.
+ *
+ * 10M Personen: -Djmh.args="RecoveryBenchmark -p size=10000000 -jvmArgsAppend -Xmx8g"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class RecoveryBenchmark {
+
+    @Param({"1000000"})
+    public int size;
+
+    @Param({"indexed", "columnar"})
+    public String mode;
+
+    private Path source;
+    private Path directory;
+    private JournalPersonPersistence recovered;
+
+    @Setup(Level.Trial)
+    public void createData() throws IOException {
+        source = BenchmarkData.tempDirectory("tag10-recovery-");
+        JournalPersonPersistence persistence = new JournalPersonPersistence(source, true, Duration.ofDays(1), Long.MAX_VALUE);
+        PersonService service = BenchmarkData.service(BenchmarkData.store(mode), persistence);
+        BenchmarkData.load(service, size);
+        persistence.snapshot();
+
+        // Updates im Batch - ein fsync pro Chunk statt pro Person
+        SplittableRandom random = new SplittableRandom(7);
+        int remaining = size / 10;
+        while (remaining > 0) {
+            List<Person> chunk = BenchmarkData.persons(Math.min(remaining, PersonService.BATCH_CHUNK_SIZE), random).stream()
+                .map(person -> person.withId(random.nextLong(1, size + 1L)))
+                .toList();
+            service.updatePersons(chunk, 0);
+            remaining -= chunk.size();
+        }
+        // Journal bleibt offen: close() würde den Tail in einen neuen Snapshot schreiben
+    }
+
+    @Setup(Level.Invocation)
+    public void copyData() throws IOException {
+        directory = BenchmarkData.tempDirectory("tag10-recovery-run-");
+        try (Stream<Path> files = Files.list(source)) {
+            for (Path file : files.toList()) {
+                Files.copy(file, directory.resolve(file.getFileName()));
+            }
+        }
+    }
+
+    @Benchmark
+    public long recover() {
+        PersonStore store = BenchmarkData.store(mode);
+        recovered = new JournalPersonPersistence(directory, true, Duration.ofDays(1), Long.MAX_VALUE);
+        long nextId = recovered.recover(store);
+        if (store.size() != size) {
+            throw new IllegalStateException("Recovery unvollständig: " + store.size() + " statt " + size);
+        }
+        return nextId;
+    }
+
+    @TearDown(Level.Invocation)
+    public void closeRecovered() throws IOException {
+        recovered.close();
+        BenchmarkData.deleteRecursively(directory);
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteData() {
+        try {
+            BenchmarkData.deleteRecursively(source);
+        } catch (UncheckedIOException e) {
+            // Das offene Journal hält evtl. noch eine Datei - temp-Verzeichnis bleibt dann liegen
+        }
+    }
+}
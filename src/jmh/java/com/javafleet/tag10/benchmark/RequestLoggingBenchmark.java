@@ -0,0 +1,142 @@
+package com.javafleet.tag10.benchmark;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.FileAppender;
+import com.javafleet.tag10.accesslog.AccessLog;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Zeit im Request-Thread für das Logging eines Requests
+ *
+ * Jede Operation ist ein "Request": etwas CPU-Arbeit (Blackhole.consumeCPU)
+ * plus das Logging dieses Requests. Die Differenz zu none ist die Zeit,
+ * die der Request-Thread mit Logging verbringt.
+ *
+ * - none:         kein Logging
+ * - sync-info:    bisher - log.info im Controller, Konsolen-Appender synchron
+ *                 (Muster aus application.properties, hier in eine Datei)
+ * - async-info:   dieselbe Zeile über einen AsyncAppender (Profil prod, logback-spring.xml)
+ * - access-log:   jetzt - log.debug (im Betrieb aus) plus ein Eintrag im AccessLog
+ *
+ * Mit -prof gc zeigt gc.alloc.rate.norm die Allokation pro Request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public abstract class RequestLoggingBenchmark {
+
+    private static final String PATTERN = "%d{HH:mm:ss.SSS} [%thread] %-5level %logger{36} - %msg%n";
+    private static final String[] PATHS = {"/api/persons/1", "/api/persons/42", "/api/persons/4711"};
+    /** ca. 5 µs "fachliche Arbeit" pro Request */
+    private static final long WORK_TOKENS = 2_000;
+
+    @Param({"none", "sync-info", "async-info", "access-log"})
+    public String variant;
+
+    private Path directory;
+    private LoggerContext loggerContext;
+    private Logger logger;
+    private AccessLog accessLog;
+
+    @Setup
+    public void setUp() {
+        directory = BenchmarkData.tempDirectory("tag10-logging-");
+        loggerContext = new LoggerContext();
+        logger = loggerContext.getLogger("com.javafleet.tag10.controller.PersonApiController");
+        logger.setLevel(Level.INFO);
+        switch (variant) {
+            case "none" -> {
+            }
+            case "sync-info" -> logger.addAppender(fileAppender());
+            case "async-info" -> {
+                AsyncAppender async = new AsyncAppender();
+                async.setContext(loggerContext);
+                async.setQueueSize(8192);
+                async.setNeverBlock(true);
+                async.addAppender(fileAppender());
+                async.start();
+                logger.addAppender(async);
+            }
+            case "access-log" -> {
+                accessLog = new AccessLog(directory.resolve("access.jsonl"), 8192, 64 * 1024,
+                    TimeUnit.MILLISECONDS.toNanos(20), Long.MAX_VALUE);
+                accessLog.start();
+            }
+            default -> throw new IllegalArgumentException("Unbekannte Variante: " + variant);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (accessLog != null) {
+            accessLog.close();
+            System.out.println(accessLog.getStatistics());
+        }
+        loggerContext.stop();
+        BenchmarkData.deleteRecursively(directory);
+    }
+
+    @Benchmark
+    public void request() {
+        Blackhole.consumeCPU(WORK_TOKENS);
+        String path = PATHS[ThreadLocalRandom.current().nextInt(PATHS.length)];
+        switch (variant) {
+            case "sync-info", "async-info" -> logger.info("🔍 GET {} - Spring MVC", path);
+            case "access-log" -> {
+                logger.debug("🔍 GET {} - Spring MVC", path);
+                accessLog.http("GET", path, 200, 812_000, "127.0.0.1");
+            }
+            default -> {
+            }
+        }
+    }
+
+    private Appender<ILoggingEvent> fileAppender() {
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(loggerContext);
+        encoder.setPattern(PATTERN);
+        encoder.setCharset(StandardCharsets.UTF_8);
+        encoder.start();
+        FileAppender<ILoggingEvent> appender = new FileAppender<>();
+        appender.setContext(loggerContext);
+        appender.setFile(directory.resolve("console.log").toString());
+        appender.setEncoder(encoder);
+        appender.start();
+        return appender;
+    }
+
+    @Threads(1)
+    public static class SingleThread extends RequestLoggingBenchmark {
+    }
+
+    @Threads(4)
+    public static class FourThreads extends RequestLoggingBenchmark {
+    }
+}
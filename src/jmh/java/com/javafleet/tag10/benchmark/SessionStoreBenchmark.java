@@ -0,0 +1,123 @@
+package com.javafleet.tag10.benchmark;
+
+import com.javafleet.tag10.Tag10Application;
+import com.javafleet.tag10.service.PersonService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.net.CookieManager;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Favoriten-API über HTTP mit Session-Cookie - Latenz pro Request
+ *
+ * - store=memory  Tomcat-Sessions (Referenz)
+ * - store=file    FileSessionRepository in einem temporären Verzeichnis
+ *
+ * Die Session hat favorites Favoriten.
+ * - readFavorites   GET /api/favorites - Session lesen, nichts ändert sich
+ * - toggleFavorite  abwechselnd PUT und DELETE /api/favorites/{id} -
+ *                   jeder Request schreibt das Favoriten-Attribut neu
+ *
+ * mvn -Pbenchmarks verify -Djmh.args="SessionStoreBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SessionStoreBenchmark {
+
+    @Param({"memory", "file"})
+    public String store;
+
+    @Param({"50"})
+    public int favorites;
+
+    private ConfigurableApplicationContext context;
+    private Path sessionDirectory;
+    private HttpClient client;
+    private String baseUrl;
+    private HttpRequest readRequest;
+    private long toggleCount;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, InterruptedException {
+        if (!store.equals("memory") && !store.equals("file")) {
+            throw new IllegalArgumentException("Unbekannter Session-Store: " + store);
+        }
+        sessionDirectory = Files.createTempDirectory("sessions");
+        // Der DevTools-Restart liest nur die System-Property
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        context = SpringApplication.run(Tag10Application.class,
+            "--server.port=0",
+            "--app.session.store=" + store,
+            "--app.session.directory=" + sessionDirectory,
+            "--spring.devtools.livereload.enabled=false",
+            "--logging.level.root=WARN",
+            "--logging.level.com.javafleet.tag10=WARN");
+        BenchmarkData.load(context.getBean(PersonService.class), favorites * 2);
+        int port = Integer.parseInt(context.getEnvironment().getRequiredProperty("local.server.port"));
+        baseUrl = "http://localhost:" + port + "/api/favorites";
+        client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .cookieHandler(new CookieManager())
+            .build();
+        for (int id = 1; id <= favorites; id++) {
+            send(HttpRequest.newBuilder(URI.create(baseUrl + "/" + id)).PUT(HttpRequest.BodyPublishers.noBody()).build());
+        }
+        readRequest = HttpRequest.newBuilder(URI.create(baseUrl)).build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        client.close();
+        context.close();
+        FileSystemUtils.deleteRecursively(sessionDirectory);
+    }
+
+    @Benchmark
+    public int readFavorites() throws IOException, InterruptedException {
+        return send(readRequest);
+    }
+
+    @Benchmark
+    public int toggleFavorite() throws IOException, InterruptedException {
+        long count = toggleCount++;
+        URI uri = URI.create(baseUrl + "/" + (favorites + 1));
+        HttpRequest.Builder request = HttpRequest.newBuilder(uri);
+        return send((count & 1) == 0
+            ? request.PUT(HttpRequest.BodyPublishers.noBody()).build()
+            : request.DELETE().build());
+    }
+
+    private int send(HttpRequest request) throws IOException, InterruptedException {
+        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() >= 300) {
+            throw new IllegalStateException("HTTP " + response.statusCode() + " für " + request.uri());
+        }
+        return response.statusCode();
+    }
+}
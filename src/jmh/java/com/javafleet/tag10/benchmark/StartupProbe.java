@@ -0,0 +1,166 @@
+package com.javafleet.tag10.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Startzeit und Speicher: Zeit bis zur ersten erfolgreichen Antwort, RSS in diesem Moment
+ *
+ * Kein JMH-Benchmark: jede Messung startet eine neue JVM aus dem Build von
+ * "mvn -Pprod package" und fragt GET /api/persons/1 ab, bis 200 kommt.
+ * Alle Varianten laufen mit Profil prod.
+ * - jar        java -jar target/*.jar (das gepackte Jar wie bisher)
+ * - extracted  entpacktes Jar (target/app), sonst gleich
+ * - aot        zusätzlich -Dspring.aot.enabled=true
+ * - aot-cds    zusätzlich -XX:SharedArchiveFile=application.jsa
+ *
+ * RSS kommt aus /proc/&lt;pid&gt;/status (nur Linux, sonst -1).
+ *
+ * Parameter per System-Property:
+ * - startup.runs  Starts pro Variante (Default 5, gemeldet werden Median und Minimum)
+ * - startup.port  Port des Servers (Default 18080)
+ *
+ * mvn -Pprod package
+ * mvn -Pbenchmarks test-compile exec:java -Dexec.classpathScope=test \
+ *   -Dexec.mainClass=com.javafleet.tag10.benchmark.StartupProbe -Dexec.args="target target/jmh-startup.json"
+ */
+public final class StartupProbe {
+
+    private static final String[] VARIANTS = {"jar", "extracted", "aot", "aot-cds"};
+    private static final Duration STARTUP_TIMEOUT = Duration.ofSeconds(60);
+
+    private StartupProbe() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Path target = Path.of(args.length > 0 ? args[0] : "target").toAbsolutePath();
+        Path output = Path.of(args.length > 1 ? args[1] : "target/jmh-startup.json");
+        int runs = Integer.getInteger("startup.runs", 5);
+        int port = Integer.getInteger("startup.port", 18080);
+
+        Path jar = findJar(target);
+        Path extracted = target.resolve("app").resolve(jar.getFileName());
+        if (!Files.exists(extracted) || !Files.exists(extracted.resolveSibling("application.jsa"))) {
+            throw new IllegalStateException("Kein Build aus mvn -Pprod package unter " + target.resolve("app"));
+        }
+
+        HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+        URI probe = URI.create("http://localhost:" + port + "/api/persons/1");
+
+        List<Map<String, Object>> results = new ArrayList<>();
+        for (String variant : VARIANTS) {
+            long[] millis = new long[runs];
+            long[] rssKiB = new long[runs];
+            for (int run = 0; run < runs; run++) {
+                Process server = start(variant, variant.equals("jar") ? jar : extracted, port);
+                long started = System.nanoTime();
+                try {
+                    awaitFirstResponse(client, probe, server);
+                    millis[run] = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+                    rssKiB[run] = residentSetKiB(server.pid());
+                } finally {
+                    server.destroy();
+                    server.waitFor(30, TimeUnit.SECONDS);
+                }
+            }
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("variant", variant);
+            result.put("runs", runs);
+            result.put("firstResponseMillisMedian", median(millis));
+            result.put("firstResponseMillisMin", Arrays.stream(millis).min().orElse(-1));
+            result.put("rssMiBMedian", median(rssKiB) / 1024);
+            results.add(result);
+            System.out.println(result);
+        }
+        client.close();
+
+        ObjectMapper objectMapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+        Files.createDirectories(output.toAbsolutePath().getParent());
+        objectMapper.writeValue(output.toFile(), results);
+        System.out.println(objectMapper.writeValueAsString(results));
+    }
+
+    private static Process start(String variant, Path jar, int port) throws IOException {
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        if (variant.startsWith("aot")) {
+            command.add("-Dspring.aot.enabled=true");
+        }
+        if (variant.equals("aot-cds")) {
+            command.add("-XX:SharedArchiveFile=application.jsa");
+        }
+        command.addAll(List.of("-jar", jar.getFileName().toString(),
+            "--spring.profiles.active=prod",
+            "--server.port=" + port,
+            "--logging.level.root=WARN"));
+        return new ProcessBuilder(command)
+            .directory(jar.getParent().toFile())
+            .redirectErrorStream(true)
+            .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+            .start();
+    }
+
+    private static void awaitFirstResponse(HttpClient client, URI probe, Process server) throws Exception {
+        long deadline = System.nanoTime() + STARTUP_TIMEOUT.toNanos();
+        HttpRequest request = HttpRequest.newBuilder(probe).build();
+        while (System.nanoTime() < deadline) {
+            if (!server.isAlive()) {
+                throw new IllegalStateException("Server beendet mit Exit-Code " + server.exitValue());
+            }
+            try {
+                if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return;
+                }
+            } catch (ConnectException notYetListening) {
+                // weiter versuchen
+            }
+            Thread.sleep(10);
+        }
+        throw new IllegalStateException("Server nicht innerhalb von " + STARTUP_TIMEOUT + " gestartet");
+    }
+
+    private static long residentSetKiB(long pid) {
+        try (Stream<String> lines = Files.lines(Path.of("/proc", Long.toString(pid), "status"))) {
+            return lines.filter(line -> line.startsWith("VmRSS:"))
+                .mapToLong(line -> Long.parseLong(line.replaceAll("\\D", "")))
+                .findFirst()
+                .orElse(-1);
+        } catch (IOException | RuntimeException e) {
+            return -1;
+        }
+    }
+
+    private static Path findJar(Path target) throws IOException {
+        try (Stream<Path> files = Files.list(target)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(".jar"))
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("Kein Jar in " + target));
+        }
+    }
+
+    private static long median(long[] values) {
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+}
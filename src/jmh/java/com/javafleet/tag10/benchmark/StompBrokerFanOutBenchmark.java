@@ -0,0 +1,161 @@
+package com.javafleet.tag10.benchmark;
+
+import com.javafleet.tag10.websocket.broker.ShardedStompBroker;
+import com.javafleet.tag10.websocket.broker.SlowConsumerPolicy;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.broker.AbstractBrokerMessageHandler;
+import org.springframework.messaging.simp.broker.SimpleBrokerMessageHandler;
+import org.springframework.messaging.support.ExecutorSubscribableChannel;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.util.MimeTypeUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Fan-out nach /topic/public: SimpleBroker gegen ShardedStompBroker
+ *
+ * Eine Operation = eine Nachricht veröffentlichen und warten, bis alle
+ * (schnellen) Abonnenten sie erhalten haben. Der Zähler "deliveries" ist
+ * der eigentliche Durchsatz in Nachrichten pro Sekunde.
+ *
+ * Der clientOutboundChannel ist ein Zähler ohne Netzwerk. Mit
+ * slowConsumer=true braucht eine Session 1 ms pro Nachricht - beim
+ * SimpleBroker mit synchronem Channel hält sie den gesamten Fan-out auf,
+ * beim ShardedStompBroker läuft nur ihre Outbox voll (DROP_OLDEST).
+ *
+ * mvn -Pbenchmarks verify -Djmh.args="StompBrokerFanOutBenchmark -p shards=1,2,4,8"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StompBrokerFanOutBenchmark {
+
+    private static final String DESTINATION = "/topic/public";
+    private static final String SLOW_SESSION = "slow";
+    private static final long SLOW_CONSUMER_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    @Param({"simple", "sharded"})
+    public String broker;
+
+    @Param({"100", "1000", "10000", "50000"})
+    public int subscribers;
+
+    /** 0 = ein Shard pro CPU-Kern */
+    @Param({"0"})
+    public int shards;
+
+    @Param({"false", "true"})
+    public boolean slowConsumer;
+
+    private final LongAdder delivered = new LongAdder();
+    private AbstractBrokerMessageHandler handler;
+    private Message<byte[]> message;
+    private int fastSubscribers;
+    private long expected;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        MessageChannel clientOutboundChannel = (outgoing, timeout) -> {
+            if (SLOW_SESSION.equals(SimpMessageHeaderAccessor.getSessionId(outgoing.getHeaders()))) {
+                LockSupport.parkNanos(SLOW_CONSUMER_NANOS);
+            } else if (SimpMessageHeaderAccessor.getMessageType(outgoing.getHeaders()) == SimpMessageType.MESSAGE) {
+                delivered.increment();
+            }
+            return true;
+        };
+        ExecutorSubscribableChannel clientInboundChannel = new ExecutorSubscribableChannel();
+        ExecutorSubscribableChannel brokerChannel = new ExecutorSubscribableChannel();
+        handler = switch (broker) {
+            case "simple" -> new SimpleBrokerMessageHandler(clientInboundChannel, clientOutboundChannel,
+                brokerChannel, List.of("/topic"));
+            case "sharded" -> new ShardedStompBroker(clientInboundChannel, clientOutboundChannel, brokerChannel,
+                List.of("/topic"), shards > 0 ? shards : Runtime.getRuntime().availableProcessors(),
+                256, SlowConsumerPolicy.DROP_OLDEST);
+            default -> throw new IllegalArgumentException("Unbekannter Broker: " + broker);
+        };
+        handler.start();
+
+        fastSubscribers = slowConsumer ? subscribers - 1 : subscribers;
+        for (int i = 0; i < subscribers; i++) {
+            String sessionId = slowConsumer && i == 0 ? SLOW_SESSION : "session-" + i;
+            handler.handleMessage(frame(SimpMessageType.CONNECT, sessionId, null));
+            handler.handleMessage(frame(SimpMessageType.SUBSCRIBE, sessionId, DESTINATION));
+        }
+
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setDestination(DESTINATION);
+        accessor.setContentType(MimeTypeUtils.APPLICATION_JSON);
+        message = MessageBuilder.createMessage(
+            "{\"type\":\"CHAT\",\"content\":\"Hallo zusammen!\",\"sender\":\"Nova\",\"timestamp\":0}"
+                .getBytes(StandardCharsets.UTF_8),
+            accessor.getMessageHeaders());
+
+        // Abonnements landen beim ShardedStompBroker asynchron - eine Nachricht als Barriere
+        expected = fastSubscribers;
+        handler.handleMessage(message);
+        awaitDelivered();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        handler.stop();
+    }
+
+    @Benchmark
+    public void publish(Deliveries deliveries) {
+        expected += fastSubscribers;
+        handler.handleMessage(message);
+        awaitDelivered();
+        deliveries.deliveries += fastSubscribers;
+    }
+
+    /**
+     * yield statt Spin - bei wenigen Kernen würde Spinnen den Shards die CPU nehmen
+     */
+    private void awaitDelivered() {
+        while (delivered.sum() < expected) {
+            Thread.yield();
+        }
+    }
+
+    private static Message<byte[]> frame(SimpMessageType type, String sessionId, String destination) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(type);
+        accessor.setSessionId(sessionId);
+        accessor.setSubscriptionId("sub-0");
+        accessor.setDestination(destination);
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+
+    /**
+     * Zugestellte Nachrichten pro Sekunde (JMH summiert pro Iteration)
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Deliveries {
+        public long deliveries;
+    }
+}
@@ -0,0 +1,109 @@
+package com.javafleet.tag10.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.javafleet.tag10.websocket.ChatMessage;
+import com.javafleet.tag10.websocket.MessageType;
+import com.javafleet.tag10.websocket.wire.BroadcastFrameEncoder;
+import com.javafleet.tag10.websocket.wire.ChatMessageCodec;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompEncoder;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.util.MimeTypeUtils;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * STOMP-Frames für einen Broadcast an viele Abonnenten kodieren
+ *
+ * Eine Operation = ein Broadcast an subscribers Sessions, so wie
+ * StompSubProtocolHandler ihn kodiert (Header pro Session + Encoder).
+ * - encoder=stomp      StompEncoder von Spring, ein Frame pro Session
+ * - encoder=broadcast  BroadcastFrameEncoder, gleiche Frames nur einmal
+ * - format=json|compact  Body als JSON oder im ChatMessageCodec-Format
+ *
+ * Der Zähler "wireBytes" ist die Summe der Frame-Größen - pro Operation
+ * geteilt durch subscribers ergibt die Bytes pro Zustellung.
+ *
+ * mvn -Pbenchmarks verify -Djmh.args="StompWireBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StompWireBenchmark {
+
+    @Param({"stomp", "broadcast"})
+    public String encoder;
+
+    @Param({"json", "compact"})
+    public String format;
+
+    @Param({"1000"})
+    public int subscribers;
+
+    private StompEncoder stompEncoder;
+    private byte[] payload;
+    private long broadcastId;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        stompEncoder = switch (encoder) {
+            case "stomp" -> new StompEncoder();
+            case "broadcast" -> new BroadcastFrameEncoder();
+            default -> throw new IllegalArgumentException("Unbekannter Encoder: " + encoder);
+        };
+        ChatMessage message = new ChatMessage(MessageType.CHAT, "Hallo zusammen, wie läuft's?", "Nova", System.currentTimeMillis());
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        payload = switch (format) {
+            case "json" -> objectMapper.writeValueAsBytes(message);
+            case "compact" -> ChatMessageCodec.encode(message);
+            default -> throw new IllegalArgumentException("Unbekanntes Format: " + format);
+        };
+    }
+
+    @Benchmark
+    public long broadcast(WireBytes wireBytes) {
+        // Neues Array pro Broadcast - wie ein frisch konvertierter Payload
+        byte[] body = Arrays.copyOf(payload, payload.length);
+        String messageId = Long.toString(++broadcastId);
+        long bytes = 0;
+        for (int i = 0; i < subscribers; i++) {
+            StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.MESSAGE);
+            accessor.setSessionId("session-" + i);
+            accessor.setSubscriptionId("sub-0");
+            accessor.setDestination("/topic/public");
+            accessor.setMessageId(messageId);
+            accessor.setContentType("json".equals(format)
+                ? MimeTypeUtils.APPLICATION_JSON : MimeTypeUtils.APPLICATION_OCTET_STREAM);
+            bytes += stompEncoder.encode(accessor.getMessageHeaders(), body).length;
+        }
+        wireBytes.wireBytes += bytes;
+        return bytes;
+    }
+
+    /**
+     * Kodierte Bytes (JMH summiert pro Iteration)
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class WireBytes {
+        public long wireBytes;
+    }
+}
@@ -0,0 +1,266 @@
+package com.javafleet.tag10.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.javafleet.tag10.metrics.LatencyHistogram;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Lasttest: Platform Threads gegen Virtual Threads (spring.threads.virtual.enabled)
+ *
+ * Kein JMH-Benchmark: pro Modus wird die Anwendung in einer eigenen JVM
+ * gestartet (gleicher Classpath) und mit vielen gleichzeitigen Verbindungen
+ * belastet. Der Client arbeitet asynchron (HttpClient.sendAsync) mit einem
+ * kleinen Platform-Thread-Pool - er braucht also selbst keinen Thread pro
+ * offener Anfrage und teilt sich nichts mit dem Server.
+ *
+ * Szenarien:
+ * - read  GET /api/persons/{id} und GET /jakarta/jaxrs/persons/{id} im Wechsel
+ * - write PUT /api/persons/{id} mit Journal und fsync - der Request-Thread
+ *         blockiert bis zum Group Commit
+ *
+ * Der Server läuft mit -Djdk.tracePinnedThreads=short; gezählt wird, wie oft
+ * ein Virtual Thread beim Blockieren an seinem Carrier hing.
+ *
+ * Parameter per System-Property:
+ * - loadtest.concurrency gleichzeitige Anfragen (Default 1000)
+ * - loadtest.seconds     Messdauer pro Szenario (Default 20)
+ * - loadtest.warmup      Aufwärmzeit pro Szenario (Default 5)
+ * - loadtest.persons     Personen im Store (Default 1000)
+ * - loadtest.port        Port des Servers (Default 18080)
+ *
+ * mvn -Pbenchmarks verify -Dloadtest.skip=false -Djmh.args="-l"
+ */
+public final class ThreadModeLoadTest {
+
+    private static final String[] MODES = {"platform", "virtual"};
+    private static final String[] SCENARIOS = {"read", "write"};
+    private static final Duration STARTUP_TIMEOUT = Duration.ofSeconds(60);
+
+    private final HttpClient client;
+    private final String baseUrl;
+    private final int persons;
+
+    private ThreadModeLoadTest(HttpClient client, String baseUrl, int persons) {
+        this.client = client;
+        this.baseUrl = baseUrl;
+        this.persons = persons;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Path output = Path.of(args.length > 0 ? args[0] : "target/jmh-loadtest.json");
+        int concurrency = Integer.getInteger("loadtest.concurrency", 1000);
+        int seconds = Integer.getInteger("loadtest.seconds", 20);
+        int warmup = Integer.getInteger("loadtest.warmup", 5);
+        int persons = Integer.getInteger("loadtest.persons", 1000);
+        int port = Integer.getInteger("loadtest.port", 18080);
+
+        ExecutorService clientExecutor = Executors.newFixedThreadPool(
+            Math.max(2, Runtime.getRuntime().availableProcessors() / 2),
+            Thread.ofPlatform().name("loadtest-client-", 0).daemon().factory());
+        HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .executor(clientExecutor)
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+
+        List<Map<String, Object>> results = new ArrayList<>();
+        for (String mode : MODES) {
+            Path dataDirectory = BenchmarkData.tempDirectory("loadtest-" + mode);
+            Path serverLog = output.toAbsolutePath().resolveSibling("loadtest-" + mode + ".log");
+            Process server = startServer(mode, port, dataDirectory, serverLog);
+            try {
+                ThreadModeLoadTest test = new ThreadModeLoadTest(client, "http://localhost:" + port, persons);
+                test.awaitStartup(server);
+                test.seed();
+                for (String scenario : SCENARIOS) {
+                    test.run(scenario, concurrency, warmup);
+                    Map<String, Object> result = new LinkedHashMap<>();
+                    result.put("mode", mode);
+                    result.put("scenario", scenario);
+                    result.put("concurrency", concurrency);
+                    result.putAll(test.run(scenario, concurrency, seconds));
+                    results.add(result);
+                    System.out.println(result);
+                }
+            } finally {
+                server.destroy();
+                server.waitFor(30, TimeUnit.SECONDS);
+                BenchmarkData.deleteRecursively(dataDirectory);
+            }
+            long pinned = countPinnedEvents(serverLog);
+            results.stream().filter(result -> result.get("mode").equals(mode)).forEach(result -> result.put("pinnedEvents", pinned));
+            System.out.println(mode + ": " + pinned + " Pinning-Ereignisse (" + serverLog + ")");
+        }
+        clientExecutor.shutdownNow();
+
+        ObjectMapper objectMapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+        Files.createDirectories(output.toAbsolutePath().getParent());
+        objectMapper.writeValue(output.toFile(), results);
+        System.out.println(objectMapper.writeValueAsString(results));
+    }
+
+    private static Process startServer(String mode, int port, Path dataDirectory, Path serverLog) throws IOException {
+        List<String> command = List.of(
+            Path.of(System.getProperty("java.home"), "bin", "java").toString(),
+            "-Djdk.tracePinnedThreads=short",
+            "-cp", System.getProperty("java.class.path"),
+            "com.javafleet.tag10.Tag10Application",
+            "--server.port=" + port,
+            "--spring.threads.virtual.enabled=" + mode.equals("virtual"),
+            "--spring.devtools.restart.enabled=false",
+            "--spring.devtools.livereload.enabled=false",
+            "--app.persistence.enabled=true",
+            "--app.persistence.fsync=true",
+            "--app.persistence.directory=" + dataDirectory,
+            "--app.metrics.latency.sample-rate=0.01",
+            "--logging.level.root=WARN",
+            "--logging.level.com.javafleet.tag10=WARN");
+        Files.createDirectories(serverLog.getParent());
+        return new ProcessBuilder(command)
+            .redirectErrorStream(true)
+            .redirectOutput(serverLog.toFile())
+            .start();
+    }
+
+    private void awaitStartup(Process server) throws Exception {
+        long deadline = System.nanoTime() + STARTUP_TIMEOUT.toNanos();
+        while (System.nanoTime() < deadline) {
+            if (!server.isAlive()) {
+                throw new IllegalStateException("Server beendet mit Exit-Code " + server.exitValue());
+            }
+            try {
+                client.send(HttpRequest.newBuilder(URI.create(baseUrl + "/api/persons/1")).build(),
+                    HttpResponse.BodyHandlers.discarding());
+                return;
+            } catch (ConnectException notYetListening) {
+                Thread.sleep(200);
+            }
+        }
+        throw new IllegalStateException("Server nicht innerhalb von " + STARTUP_TIMEOUT + " gestartet");
+    }
+
+    /**
+     * Legt die Personen 4..persons+3 über die Batch-API an (1-3 sind die Testdaten)
+     */
+    private void seed() throws Exception {
+        StringBuilder body = new StringBuilder();
+        for (int i = 0; i < persons; i++) {
+            Person person = randomPerson();
+            body.append("{\"firstname\":\"").append(person.firstname())
+                .append("\",\"lastname\":\"").append(person.lastname()).append("\"}\n");
+        }
+        HttpResponse<Void> response = client.send(HttpRequest.newBuilder(URI.create(baseUrl + "/api/persons/batch"))
+                .header("Content-Type", "application/x-ndjson")
+                .POST(HttpRequest.BodyPublishers.ofString(body.toString()))
+                .build(),
+            HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() >= 300) {
+            throw new IllegalStateException("Batch-Import fehlgeschlagen: HTTP " + response.statusCode());
+        }
+    }
+
+    /**
+     * Closed Loop: concurrency Anfragen sind ständig offen, jede Antwort startet die nächste
+     */
+    private Map<String, Object> run(String scenario, int concurrency, int seconds) {
+        Function<Integer, HttpRequest> requests = switch (scenario) {
+            case "read" -> i -> HttpRequest.newBuilder(URI.create(baseUrl
+                    + (i % 2 == 0 ? "/api/persons/" : "/jakarta/jaxrs/persons/") + randomId()))
+                .build();
+            case "write" -> i -> {
+                Person person = randomPerson();
+                return HttpRequest.newBuilder(URI.create(baseUrl + "/api/persons/" + randomId()))
+                    .header("Content-Type", "application/json")
+                    .PUT(HttpRequest.BodyPublishers.ofString(
+                        "{\"firstname\":\"" + person.firstname() + "\",\"lastname\":\"" + person.lastname() + "\"}"))
+                    .build();
+            };
+            default -> throw new IllegalArgumentException("Unbekanntes Szenario: " + scenario);
+        };
+
+        LatencyHistogram histogram = new LatencyHistogram();
+        LongAdder errors = new LongAdder();
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.SECONDS.toNanos(seconds);
+        CompletableFuture<?>[] users = new CompletableFuture<?>[concurrency];
+        for (int user = 0; user < concurrency; user++) {
+            users[user] = new CompletableFuture<Void>();
+            loop(requests, user, deadline, histogram, errors, users[user]);
+        }
+        CompletableFuture.allOf(users).join();
+        double elapsedSeconds = (System.nanoTime() - start) / 1e9;
+
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("requests", snapshot.count());
+        result.put("errors", errors.sum());
+        result.put("throughputPerSecond", Math.round(snapshot.count() / elapsedSeconds));
+        result.put("p50Micros", snapshot.valueAtPercentile(50) / 1_000);
+        result.put("p99Micros", snapshot.valueAtPercentile(99) / 1_000);
+        result.put("p999Micros", snapshot.valueAtPercentile(99.9) / 1_000);
+        result.put("maxMicros", snapshot.maxNanos() / 1_000);
+        return result;
+    }
+
+    private void loop(Function<Integer, HttpRequest> requests, int user, long deadline,
+                      LatencyHistogram histogram, LongAdder errors, CompletableFuture<?> done) {
+        if (System.nanoTime() >= deadline) {
+            done.complete(null);
+            return;
+        }
+        long start = System.nanoTime();
+        client.sendAsync(requests.apply(user), HttpResponse.BodyHandlers.discarding())
+            .whenComplete((response, failure) -> {
+                if (failure != null || response.statusCode() >= 400) {
+                    errors.increment();
+                } else {
+                    histogram.record(System.nanoTime() - start);
+                }
+                loop(requests, user, deadline, histogram, errors, done);
+            });
+    }
+
+    private long randomId() {
+        return ThreadLocalRandom.current().nextLong(1, persons + 4);
+    }
+
+    private static Person randomPerson() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return new Person(BenchmarkData.FIRSTNAMES[random.nextInt(BenchmarkData.FIRSTNAMES.length)],
+            BenchmarkData.LASTNAMES[random.nextInt(BenchmarkData.LASTNAMES.length)] + random.nextInt(1000));
+    }
+
+    /**
+     * Anzahl der Stacktraces von -Djdk.tracePinnedThreads im Server-Log
+     */
+    private static long countPinnedEvents(Path serverLog) throws IOException {
+        try (Stream<String> lines = Files.lines(serverLog)) {
+            return lines.filter(line -> line.startsWith("Thread[#") || line.startsWith("VirtualThread[#")).count();
+        }
+    }
+
+    private record Person(String firstname, String lastname) {
+    }
+}
@@ -0,0 +1,393 @@
+package com.javafleet.tag10.accesslog;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * AccessLog - strukturiertes Zugriffs-/Ereignis-Log (JSON Lines) ohne I/O im Request-Thread
+ *
+ * Ablauf:
+ * 1. Der Request-Thread reserviert per CAS einen Platz im Ringpuffer und
+ *    trägt dort nur Zahlen und Referenzen auf vorhandene Strings ein
+ *    (Methode, Pfad, Client) - kein Formatieren, keine Allokation, kein Lock.
+ *    Ist der Puffer voll, wird der Eintrag verworfen und gezählt, der
+ *    Request wartet nie.
+ * 2. Ein Writer-Thread holt alle fertigen Einträge ab, formatiert sie in
+ *    einen wiederverwendeten Direct-ByteBuffer und schreibt ihn mit einem
+ *    write() pro Batch. Danach schläft er flush-interval lang - unter Last
+ *    sammeln sich so viele Einträge pro write().
+ *
+ * Ein Eintrag pro Zeile:
+ * {"ts":"2026-10-17T09:30:15.123Z","type":"http","method":"GET","path":"/api/persons/4","status":200,"micros":812,"client":"127.0.0.1"}
+ * {"ts":"2026-10-17T09:30:15.130Z","type":"stomp","command":"SEND","destination":"/app/chat.send","session":"k3x0a1"}
+ *
+ * Über max-file-size wird die Datei zu &lt;name&gt;.1 (eine Generation).
+ *
+ * @author Code Sentinel
+ */
+@Slf4j
+public class AccessLog implements AutoCloseable {
+
+    /** Längere Pfade/Destinations werden abgeschnitten, damit jeder Eintrag in den Puffer passt */
+    static final int MAX_FIELD_CHARS = 512;
+    private static final int ENTRY_RESERVE = 192 + 3 * MAX_FIELD_CHARS * 6;
+
+    private static final byte HTTP = 1;
+    private static final byte STOMP = 2;
+
+    private static final DateTimeFormatter SECOND_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.");
+    private static final byte[] TS = ascii("{\"ts\":\"");
+    private static final byte[] HTTP_FIELDS = ascii("Z\",\"type\":\"http\",\"method\":");
+    private static final byte[] PATH = ascii(",\"path\":");
+    private static final byte[] STATUS = ascii(",\"status\":");
+    private static final byte[] MICROS = ascii(",\"micros\":");
+    private static final byte[] CLIENT = ascii(",\"client\":");
+    private static final byte[] STOMP_FIELDS = ascii("Z\",\"type\":\"stomp\",\"command\":");
+    private static final byte[] DESTINATION = ascii(",\"destination\":");
+    private static final byte[] SESSION = ascii(",\"session\":");
+    private static final byte[] END = ascii("}\n");
+
+    private final boolean enabled;
+    private final Path file;
+    private final long maxFileSize;
+    private final long flushIntervalNanos;
+
+    // --- Ringpuffer: Struktur von Arrays, einmal angelegt ---
+    private final int capacity;
+    private final int mask;
+    private final AtomicLongArray published;
+    private final byte[] types;
+    private final long[] timestamps;
+    private final long[] durations;
+    private final int[] statuses;
+    private final String[] methods;
+    private final String[] targets;
+    private final String[] clients;
+    private final AtomicLong head = new AtomicLong();
+    private volatile long tail;
+    private final LongAdder dropped = new LongAdder();
+
+    // --- nur vom Writer-Thread benutzt ---
+    private final ByteBuffer buffer;
+    private final byte[] digits = new byte[20];
+    private byte[] secondPrefix = new byte[0];
+    private long cachedSecond = Long.MIN_VALUE;
+    private FileChannel channel;
+    private long fileSize;
+
+    // --- vom Writer geschrieben, von getStatistics() gelesen ---
+    private volatile long written;
+    private volatile long batches;
+    private volatile long bytes;
+    private volatile long errors;
+
+    private volatile boolean running;
+    private Thread writer;
+
+    /**
+     * @param capacity           Einträge im Ringpuffer, wird auf eine Zweierpotenz aufgerundet
+     * @param bufferSize         Schreibpuffer des Writers in Bytes
+     * @param flushIntervalNanos Pause des Writers zwischen zwei Batches
+     * @param maxFileSize        danach wird die Datei zu &lt;name&gt;.1
+     */
+    public AccessLog(Path file, int capacity, int bufferSize, long flushIntervalNanos, long maxFileSize) {
+        this(true, file, capacity, bufferSize, flushIntervalNanos, maxFileSize);
+    }
+
+    private AccessLog(boolean enabled, Path file, int capacity, int bufferSize, long flushIntervalNanos, long maxFileSize) {
+        if (capacity < 2 || capacity > 1 << 24) {
+            throw new IllegalArgumentException("app.access-log.capacity muss zwischen 2 und 16777216 liegen");
+        }
+        this.enabled = enabled;
+        this.file = file;
+        this.maxFileSize = maxFileSize;
+        this.flushIntervalNanos = flushIntervalNanos;
+        this.capacity = Integer.highestOneBit(capacity - 1) << 1;
+        this.mask = this.capacity - 1;
+        this.published = new AtomicLongArray(this.capacity);
+        this.types = new byte[this.capacity];
+        this.timestamps = new long[this.capacity];
+        this.durations = new long[this.capacity];
+        this.statuses = new int[this.capacity];
+        this.methods = new String[this.capacity];
+        this.targets = new String[this.capacity];
+        this.clients = new String[this.capacity];
+        this.buffer = ByteBuffer.allocateDirect(enabled ? Math.max(bufferSize, 2 * ENTRY_RESERVE) : 0);
+    }
+
+    /**
+     * Platzhalter für app.access-log.enabled=false - kein Thread, keine Datei
+     */
+    public static AccessLog disabled() {
+        return new AccessLog(false, null, 2, 0, 0, 0);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Öffnet die Datei (Append) und startet den Writer
+     */
+    public void start() {
+        if (!enabled || running) {
+            return;
+        }
+        try {
+            Path parent = file.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            channel = open();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Access-Log " + file + " lässt sich nicht öffnen", e);
+        }
+        running = true;
+        writer = Thread.ofPlatform().name("access-log-writer").daemon().start(this::writeLoop);
+    }
+
+    /**
+     * HTTP-Request nach der Antwort (AccessLogFilter)
+     */
+    public void http(String method, String path, int status, long durationNanos, String client) {
+        append(HTTP, method, path, status, durationNanos, client);
+    }
+
+    /**
+     * STOMP-Frame eines Clients (AccessLogChannelInterceptor)
+     */
+    public void stomp(String command, String destination, String session) {
+        append(STOMP, command, destination, 0, 0, session);
+    }
+
+    private void append(byte type, String method, String target, int status, long durationNanos, String client) {
+        long sequence;
+        do {
+            sequence = head.get();
+            if (sequence - tail >= capacity) {
+                dropped.increment();
+                return;
+            }
+        } while (!head.compareAndSet(sequence, sequence + 1));
+
+        int slot = (int) (sequence & mask);
+        types[slot] = type;
+        timestamps[slot] = System.currentTimeMillis();
+        durations[slot] = durationNanos;
+        statuses[slot] = status;
+        methods[slot] = method;
+        targets[slot] = target;
+        clients[slot] = client;
+        // Freigabe für den Writer: alle Felder oben sind vorher sichtbar
+        published.lazySet(slot, sequence + 1);
+    }
+
+    private void writeLoop() {
+        while (running) {
+            drain();
+            LockSupport.parkNanos(flushIntervalNanos);
+        }
+        drain();
+    }
+
+    private void drain() {
+        long next = tail;
+        long count = 0;
+        while (true) {
+            int slot = (int) (next & mask);
+            if (published.get(slot) != next + 1) {
+                break;
+            }
+            if (buffer.remaining() < ENTRY_RESERVE) {
+                write();
+            }
+            format(slot);
+            methods[slot] = null;
+            targets[slot] = null;
+            clients[slot] = null;
+            tail = ++next;
+            count++;
+        }
+        if (buffer.position() > 0) {
+            write();
+        }
+        if (count > 0) {
+            written += count;
+        }
+    }
+
+    private void format(int slot) {
+        buffer.put(TS);
+        putTimestamp(timestamps[slot]);
+        if (types[slot] == HTTP) {
+            buffer.put(HTTP_FIELDS);
+            putString(methods[slot]);
+            buffer.put(PATH);
+            putString(targets[slot]);
+            buffer.put(STATUS);
+            putLong(statuses[slot]);
+            buffer.put(MICROS);
+            putLong(durations[slot] / 1_000);
+            putField(CLIENT, clients[slot]);
+        } else {
+            buffer.put(STOMP_FIELDS);
+            putString(methods[slot]);
+            putField(DESTINATION, targets[slot]);
+            putField(SESSION, clients[slot]);
+        }
+        buffer.put(END);
+    }
+
+    private void write() {
+        buffer.flip();
+        int length = buffer.remaining();
+        try {
+            if (fileSize > 0 && fileSize + length > maxFileSize) {
+                roll();
+            }
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            fileSize += length;
+            bytes += length;
+            batches++;
+        } catch (IOException e) {
+            // Batch verloren, der nächste versucht es erneut
+            if (errors++ == 0) {
+                log.error("💥 Access-Log-Schreibfehler ({})", file, e);
+            }
+        } finally {
+            buffer.clear();
+        }
+    }
+
+    private void roll() throws IOException {
+        channel.close();
+        Files.move(file, file.resolveSibling(file.getFileName() + ".1"), StandardCopyOption.REPLACE_EXISTING);
+        channel = open();
+    }
+
+    private FileChannel open() throws IOException {
+        FileChannel opened = FileChannel.open(file,
+            StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        fileSize = opened.size();
+        return opened;
+    }
+
+    // --- Formatieren ohne Zwischen-Strings ---
+
+    private void putTimestamp(long epochMillis) {
+        long second = Math.floorDiv(epochMillis, 1000);
+        if (second != cachedSecond) {
+            // einmal pro Sekunde ein neues Präfix
+            cachedSecond = second;
+            secondPrefix = ascii(SECOND_FORMAT.format(LocalDateTime.ofEpochSecond(second, 0, ZoneOffset.UTC)));
+        }
+        buffer.put(secondPrefix);
+        int millis = Math.floorMod(epochMillis, 1000);
+        buffer.put((byte) ('0' + millis / 100))
+            .put((byte) ('0' + millis / 10 % 10))
+            .put((byte) ('0' + millis % 10));
+    }
+
+    private void putField(byte[] name, String value) {
+        if (value != null) {
+            buffer.put(name);
+            putString(value);
+        }
+    }
+
+    private void putLong(long value) {
+        if (value < 0) {
+            buffer.put((byte) '-');
+            value = -value;
+        }
+        int start = digits.length;
+        do {
+            digits[--start] = (byte) ('0' + value % 10);
+            value /= 10;
+        } while (value != 0);
+        buffer.put(digits, start, digits.length - start);
+    }
+
+    /**
+     * JSON-String in UTF-8, höchstens MAX_FIELD_CHARS Zeichen
+     */
+    private void putString(String value) {
+        if (value == null) {
+            buffer.put((byte) 'n').put((byte) 'u').put((byte) 'l').put((byte) 'l');
+            return;
+        }
+        buffer.put((byte) '"');
+        int length = Math.min(value.length(), MAX_FIELD_CHARS);
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                buffer.put((byte) '\\').put((byte) c);
+            } else if (c < 0x20) {
+                buffer.put((byte) '\\').put((byte) 'u').put((byte) '0').put((byte) '0')
+                    .put((byte) Character.forDigit(c >> 4, 16)).put((byte) Character.forDigit(c & 0xF, 16));
+            } else if (c < 0x80) {
+                buffer.put((byte) c);
+            } else if (c < 0x800) {
+                buffer.put((byte) (0xC0 | c >> 6)).put((byte) (0x80 | c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                buffer.put((byte) (0xF0 | codePoint >> 18)).put((byte) (0x80 | codePoint >> 12 & 0x3F))
+                    .put((byte) (0x80 | codePoint >> 6 & 0x3F)).put((byte) (0x80 | codePoint & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                buffer.put((byte) '?');
+            } else {
+                buffer.put((byte) (0xE0 | c >> 12)).put((byte) (0x80 | c >> 6 & 0x3F)).put((byte) (0x80 | c & 0x3F));
+            }
+        }
+        buffer.put((byte) '"');
+    }
+
+    private static byte[] ascii(String value) {
+        return value.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    public AccessLogStatistics getStatistics() {
+        return new AccessLogStatistics(String.valueOf(file), capacity, head.get() - tail,
+            written, dropped.sum(), batches, bytes, errors);
+    }
+
+    /**
+     * Schreibt, was noch im Ringpuffer liegt, und schließt die Datei
+     */
+    @Override
+    public void close() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(writer);
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            channel.close();
+        } catch (IOException e) {
+            log.warn("⚠️ Access-Log {} nicht sauber geschlossen: {}", file, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.javafleet.tag10.accesslog;
+
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.ChannelInterceptor;
+
+/**
+ * AccessLogChannelInterceptor - ein Eintrag pro STOMP-Frame eines Clients
+ *
+ * Am clientInboundChannel vor der Admission Control: CONNECT, SUBSCRIBE,
+ * UNSUBSCRIBE, SEND und DISCONNECT mit Destination und Session-Id,
+ * Heartbeats nicht.
+ *
+ * @author Code Sentinel
+ */
+public class AccessLogChannelInterceptor implements ChannelInterceptor {
+
+    private final AccessLog accessLog;
+
+    public AccessLogChannelInterceptor(AccessLog accessLog) {
+        this.accessLog = accessLog;
+    }
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        SimpMessageType type = SimpMessageHeaderAccessor.getMessageType(message.getHeaders());
+        if (type == null || type == SimpMessageType.HEARTBEAT) {
+            return message;
+        }
+        accessLog.stomp(type == SimpMessageType.MESSAGE ? "SEND" : type.name(),
+            SimpMessageHeaderAccessor.getDestination(message.getHeaders()),
+            SimpMessageHeaderAccessor.getSessionId(message.getHeaders()));
+        return message;
+    }
+}
@@ -0,0 +1,77 @@
+package com.javafleet.tag10.accesslog;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * AccessLogFilter - ein Eintrag pro HTTP-Request (MVC, Thymeleaf, JAX-RS, statische Dateien)
+ *
+ * Läuft vor dem AdmissionFilter, damit auch 429/503 im Log stehen.
+ * Geloggt wird nach der Antwort mit Status und Dauer; bei asynchronen
+ * Antworten (StreamingResponseBody, Export) erst im AsyncListener.
+ * Pfad und Client-Adresse sind Strings, die Tomcat ohnehin anlegt -
+ * die Query wird nicht geloggt.
+ *
+ * @author Code Sentinel
+ */
+public class AccessLogFilter extends OncePerRequestFilter {
+
+    private final AccessLog accessLog;
+
+    public AccessLogFilter(AccessLog accessLog) {
+        this.accessLog = accessLog;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long start = System.nanoTime();
+        boolean async = false;
+        try {
+            chain.doFilter(request, response);
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new RecordOnComplete(accessLog, request, start));
+                async = true;
+            }
+        } finally {
+            if (!async) {
+                record(accessLog, request, response, start);
+            }
+        }
+    }
+
+    private static void record(AccessLog accessLog, HttpServletRequest request, HttpServletResponse response, long start) {
+        accessLog.http(request.getMethod(), request.getRequestURI(), response.getStatus(),
+            System.nanoTime() - start, request.getRemoteAddr());
+    }
+
+    /**
+     * onComplete kommt auch nach Timeout und Fehler - dort wird genau einmal geloggt
+     */
+    private record RecordOnComplete(AccessLog accessLog, HttpServletRequest request, long start) implements AsyncListener {
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            record(accessLog, request, (HttpServletResponse) event.getAsyncContext().getResponse(), start);
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.javafleet.tag10.accesslog;
+
+/**
+ * Zustand des AccessLog (Teil von /api/stats)
+ *
+ * @param file     Datei (app.access-log.file)
+ * @param capacity Plätze im Ringpuffer
+ * @param pending  Einträge, die der Writer noch nicht geschrieben hat
+ * @param written  geschriebene Einträge
+ * @param dropped  verworfene Einträge (Ringpuffer voll - der Request hat nicht gewartet)
+ * @param batches  write()-Aufrufe
+ * @param bytes    geschriebene Bytes
+ * @param errors   fehlgeschlagene write()-Aufrufe
+ */
+public record AccessLogStatistics(String file, int capacity, long pending, long written, long dropped,
+                                  long batches, long bytes, long errors) {
+}
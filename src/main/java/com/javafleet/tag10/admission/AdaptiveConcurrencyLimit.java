@@ -0,0 +1,140 @@
+package com.javafleet.tag10.admission;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * AdaptiveConcurrencyLimit - wie viele Anfragen gleichzeitig laufen dürfen,
+ * nachgeführt an der gemessenen Latenz
+ *
+ * Gradienten-Verfahren (wie Gradient2 aus Netflix concurrency-limits):
+ * - shortRtt: mittlere Dauer im aktuellen Fenster (WINDOW)
+ * - longRtt:  gleitender Mittelwert über viele Fenster (ca. eine Minute)
+ * - gradient = tolerance * longRtt / shortRtt, begrenzt auf 0.5 .. 1.0
+ * - neues Limit = Limit * gradient + sqrt(Limit), geglättet (SMOOTHING)
+ *
+ * Solange die Latenz nicht steigt, wächst das Limit um sqrt(Limit) pro
+ * Fenster. Steigt sie (Warteschlangen bilden sich), schrumpft es - bis
+ * auf die Hälfte pro Fenster. Nutzt die Last das Limit nicht einmal zur
+ * Hälfte, bleibt es unverändert (sonst wächst es ohne Gegenprobe).
+ *
+ * tryAcquire() ist ein CAS auf den Zähler, release() zwei LongAdder -
+ * neu berechnet wird höchstens einmal pro Fenster, von dem Thread, der
+ * den Lock per tryLock bekommt. Die Fenster sind nicht exakt abgegrenzt:
+ * ein paar Messwerte landen im Nachbarfenster.
+ *
+ * @author Code Sentinel
+ */
+public final class AdaptiveConcurrencyLimit {
+
+    static final long WINDOW_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+    static final int MIN_WINDOW_SAMPLES = 10;
+    /** longRtt folgt shortRtt mit 1/LONG_WINDOW pro Fenster (600 Fenster = 1 Minute) */
+    static final int LONG_WINDOW = 600;
+    static final double SMOOTHING = 0.2;
+
+    private final String name;
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger windowMaxInFlight = new AtomicInteger();
+    private final LongAdder windowSumNanos = new LongAdder();
+    private final LongAdder windowSamples = new LongAdder();
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final ReentrantLock updateLock = new ReentrantLock();
+
+    private volatile int limit;
+    private volatile long shortRttNanos;
+    private volatile long longRttNanos;
+    /** Geschrieben unter updateLock, ohne Lock nur als Hinweis gelesen */
+    private volatile long windowStart = System.nanoTime();
+
+    // --- geschützt durch updateLock ---
+    private double estimatedLimit;
+
+    public AdaptiveConcurrencyLimit(String name, int initialLimit, int minLimit, int maxLimit, double tolerance) {
+        if (minLimit < 1 || maxLimit < minLimit || tolerance < 1.0) {
+            throw new IllegalArgumentException("Limits: 1 <= min <= max, tolerance >= 1.0");
+        }
+        this.name = name;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+        this.estimatedLimit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+        this.limit = (int) estimatedLimit;
+    }
+
+    /**
+     * Reserviert einen Platz - false, wenn das Limit erreicht ist
+     */
+    public boolean tryAcquire() {
+        int current;
+        do {
+            current = inFlight.get();
+            if (current >= limit) {
+                rejected.increment();
+                return false;
+            }
+        } while (!inFlight.compareAndSet(current, current + 1));
+        if (current + 1 > windowMaxInFlight.get()) {
+            windowMaxInFlight.accumulateAndGet(current + 1, Math::max);
+        }
+        accepted.increment();
+        return true;
+    }
+
+    /**
+     * Gibt den Platz frei und zählt die Dauer seit startNanos als Messwert
+     */
+    public void release(long startNanos) {
+        long now = System.nanoTime();
+        inFlight.decrementAndGet();
+        windowSumNanos.add(now - startNanos);
+        windowSamples.increment();
+        if (now - windowStart >= WINDOW_NANOS && updateLock.tryLock()) {
+            try {
+                if (now - windowStart >= WINDOW_NANOS && windowSamples.sum() >= MIN_WINDOW_SAMPLES) {
+                    windowStart = now;
+                    long samples = windowSamples.sumThenReset();
+                    long sum = windowSumNanos.sumThenReset();
+                    int maxInFlight = windowMaxInFlight.getAndSet(inFlight.get());
+                    update(sum / Math.max(1, samples), maxInFlight);
+                }
+            } finally {
+                updateLock.unlock();
+            }
+        }
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public ConcurrencyLimitStatistics getStatistics() {
+        return new ConcurrencyLimitStatistics(name, limit, inFlight.get(), minLimit, maxLimit,
+            shortRttNanos / 1_000, longRttNanos / 1_000, accepted.sum(), rejected.sum());
+    }
+
+    private void update(long shortRtt, int maxInFlight) {
+        long longRtt = longRttNanos == 0 ? shortRtt : longRttNanos + (shortRtt - longRttNanos) / LONG_WINDOW;
+        if (longRtt > 2 * shortRtt) {
+            // Nach einer Überlastphase: longRtt schneller auf das neue Niveau zurückführen
+            longRtt = (long) (longRtt * 0.95);
+        }
+        shortRttNanos = shortRtt;
+        longRttNanos = longRtt;
+        if (maxInFlight < estimatedLimit / 2) {
+            return;
+        }
+        double gradient = Math.max(0.5, Math.min(1.0, tolerance * longRtt / Math.max(1, shortRtt)));
+        double newLimit = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+        estimatedLimit = Math.max(minLimit, Math.min(maxLimit,
+            estimatedLimit * (1 - SMOOTHING) + newLimit * SMOOTHING));
+        limit = (int) estimatedLimit;
+    }
+}
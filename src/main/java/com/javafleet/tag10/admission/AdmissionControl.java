@@ -0,0 +1,75 @@
+package com.javafleet.tag10.admission;
+
+/**
+ * AdmissionControl - Zulassung vor jeder fachlichen Arbeit, für alle Eingänge
+ *
+ * Reihenfolge pro Anfrage:
+ * 1. Token Bucket des Clients (optional) - leer: RATE_LIMITED (429)
+ * 2. AdaptiveConcurrencyLimit des Eingangs - voll: OVERLOADED (503)
+ *
+ * Ein Limit pro Eingang: REST (MVC und JAX-RS teilen sich die Threads von
+ * Tomcat) und STOMP (/app/chat.send, Inbound-Channel) haben ganz
+ * unterschiedliche Latenzen - ein gemeinsamer Gradient passte zu keinem.
+ * Der Token Bucket gilt für einen Client über beide Eingänge.
+ *
+ * Eingehängt über AdmissionFilter (Servlet-Filter vor DispatcherServlet
+ * und Jersey) und StompAdmissionInterceptor (clientInboundChannel).
+ *
+ * @author Code Sentinel
+ */
+public final class AdmissionControl {
+
+    public enum Decision {
+        ADMITTED, RATE_LIMITED, OVERLOADED
+    }
+
+    private final boolean enabled;
+    private final AdaptiveConcurrencyLimit http;
+    private final AdaptiveConcurrencyLimit stomp;
+    private final ClientRateLimiter clients;
+
+    /**
+     * @param clients Token Buckets pro Client oder null (aus)
+     */
+    public AdmissionControl(boolean enabled, AdaptiveConcurrencyLimit http, AdaptiveConcurrencyLimit stomp,
+                            ClientRateLimiter clients) {
+        this.enabled = enabled;
+        this.http = http;
+        this.stomp = stomp;
+        this.clients = clients;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public AdaptiveConcurrencyLimit http() {
+        return http;
+    }
+
+    public AdaptiveConcurrencyLimit stomp() {
+        return stomp;
+    }
+
+    /**
+     * Bucket des Clients, dann Limit des Eingangs - bei ADMITTED muss limit.release() folgen
+     *
+     * @param client IP-Adresse o.ä., null = kein Token Bucket
+     */
+    public Decision tryAcquire(AdaptiveConcurrencyLimit limit, String client) {
+        if (clients != null && client != null && !clients.tryAcquire(client)) {
+            return Decision.RATE_LIMITED;
+        }
+        return limit.tryAcquire() ? Decision.ADMITTED : Decision.OVERLOADED;
+    }
+
+    public AdmissionStatistics getStatistics() {
+        return new AdmissionStatistics(
+            http.getStatistics(),
+            stomp.getStatistics(),
+            clients == null ? 0 : clients.getRate(),
+            clients == null ? 0 : clients.getBurst(),
+            clients == null ? 0 : clients.getTrackedClients(),
+            clients == null ? 0 : clients.getLimited());
+    }
+}
@@ -0,0 +1,96 @@
+package com.javafleet.tag10.admission;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * AdmissionFilter - REST-Anfragen vor DispatcherServlet und Jersey zulassen oder abweisen
+ *
+ * Läuft als Servlet-Filter vor allem anderen, was Arbeit macht (Session,
+ * Controller, Resource): abgewiesen wird mit 429 (Token Bucket des
+ * Clients leer) oder 503 (Limit erreicht), jeweils mit Retry-After und
+ * ohne Body - das kostet Mikrosekunden statt einen Platz in der Schlange.
+ *
+ * Gemessen wird bis zum Ende der Antwort; bei asynchronen Antworten
+ * (StreamingResponseBody, Export) erst im AsyncListener.
+ *
+ * @author Code Sentinel
+ */
+public class AdmissionFilter extends OncePerRequestFilter {
+
+    static final String RETRY_AFTER_SECONDS = "1";
+
+    private final AdmissionControl admission;
+
+    public AdmissionFilter(AdmissionControl admission) {
+        this.admission = admission;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        AdaptiveConcurrencyLimit limit = admission.http();
+        switch (admission.tryAcquire(limit, request.getRemoteAddr())) {
+            case RATE_LIMITED -> {
+                reject(response, 429);
+                return;
+            }
+            case OVERLOADED -> {
+                reject(response, HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+                return;
+            }
+            case ADMITTED -> {
+            }
+        }
+        long start = System.nanoTime();
+        boolean async = false;
+        try {
+            chain.doFilter(request, response);
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new ReleaseOnComplete(limit, start));
+                async = true;
+            }
+        } finally {
+            if (!async) {
+                limit.release(start);
+            }
+        }
+    }
+
+    private static void reject(HttpServletResponse response, int status) {
+        response.setStatus(status);
+        response.setHeader(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS);
+        response.setContentLength(0);
+    }
+
+    /**
+     * onComplete kommt auch nach Timeout und Fehler - dort wird genau einmal freigegeben
+     */
+    private record ReleaseOnComplete(AdaptiveConcurrencyLimit limit, long start) implements AsyncListener {
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            limit.release(start);
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+    }
+}
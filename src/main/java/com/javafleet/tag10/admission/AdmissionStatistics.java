@@ -0,0 +1,15 @@
+package com.javafleet.tag10.admission;
+
+/**
+ * Zustand der AdmissionControl (Teil von /api/stats)
+ *
+ * @param http           Limit für REST (Spring MVC + JAX-RS)
+ * @param stomp          Limit für STOMP-Nachrichten der Clients
+ * @param clientRate     Anfragen pro Sekunde und Client (0 = keine Token Buckets)
+ * @param clientBurst    Größe eines Buckets
+ * @param trackedClients Clients mit eigenem Bucket
+ * @param rateLimited    wegen eines leeren Buckets abgewiesen (429 / STOMP ERROR)
+ */
+public record AdmissionStatistics(ConcurrencyLimitStatistics http, ConcurrencyLimitStatistics stomp,
+                                  double clientRate, int clientBurst, int trackedClients, long rateLimited) {
+}
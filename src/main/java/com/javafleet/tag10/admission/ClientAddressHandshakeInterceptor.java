@@ -0,0 +1,35 @@
+package com.javafleet.tag10.admission;
+
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.server.HandshakeInterceptor;
+
+import java.net.InetSocketAddress;
+import java.util.Map;
+
+/**
+ * ClientAddressHandshakeInterceptor - merkt sich die IP des Clients in den
+ * Session-Attributen, damit STOMP und REST denselben Token Bucket treffen
+ *
+ * @author Code Sentinel
+ */
+public class ClientAddressHandshakeInterceptor implements HandshakeInterceptor {
+
+    public static final String CLIENT_ADDRESS_ATTRIBUTE = "clientAddress";
+
+    @Override
+    public boolean beforeHandshake(ServerHttpRequest request, ServerHttpResponse response,
+                                   WebSocketHandler wsHandler, Map<String, Object> attributes) {
+        InetSocketAddress remote = request.getRemoteAddress();
+        if (remote != null && remote.getAddress() != null) {
+            attributes.put(CLIENT_ADDRESS_ATTRIBUTE, remote.getAddress().getHostAddress());
+        }
+        return true;
+    }
+
+    @Override
+    public void afterHandshake(ServerHttpRequest request, ServerHttpResponse response,
+                               WebSocketHandler wsHandler, Exception exception) {
+    }
+}
@@ -0,0 +1,105 @@
+package com.javafleet.tag10.admission;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * ClientRateLimiter - Token Bucket pro Client (REST und STOMP gemeinsam)
+ *
+ * Umgesetzt als GCRA (Generic Cell Rate Algorithm): pro Client genügt ein
+ * AtomicLong mit dem Zeitpunkt, zu dem der Bucket wieder voll wäre. Eine
+ * Anfrage schiebt ihn um 1/rate weiter; liegt er dann mehr als burst/rate
+ * in der Zukunft, ist der Bucket leer. Kein Nachfüll-Thread, ein CAS pro
+ * Anfrage, keine Allokation für bekannte Clients.
+ *
+ * Clients sind beliebig viele (IP-Adressen) - ab maxClients werden volle
+ * Buckets vergessen (höchstens einmal pro Sekunde); reicht das nicht,
+ * teilen sich alle weiteren Clients einen gemeinsamen Bucket.
+ *
+ * @author Code Sentinel
+ */
+public final class ClientRateLimiter {
+
+    static final String OTHER = "(weitere)";
+    private static final long PURGE_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final double rate;
+    private final int burst;
+    private final long intervalNanos;
+    private final long burstNanos;
+    private final int maxClients;
+    private final Map<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+    private final AtomicLong lastPurge = new AtomicLong(System.nanoTime());
+    private final LongAdder limited = new LongAdder();
+
+    /**
+     * @param rate       Anfragen pro Sekunde und Client (dauerhaft)
+     * @param burst      so viele Anfragen darf ein Client auf einmal schicken
+     * @param maxClients Obergrenze für eigene Buckets
+     */
+    public ClientRateLimiter(double rate, int burst, int maxClients) {
+        if (rate <= 0 || burst < 1 || maxClients < 1) {
+            throw new IllegalArgumentException("rate, burst und maxClients müssen positiv sein");
+        }
+        this.rate = rate;
+        this.burst = burst;
+        this.intervalNanos = Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / rate));
+        this.burstNanos = intervalNanos * burst;
+        this.maxClients = maxClients;
+    }
+
+    /**
+     * Nimmt ein Token aus dem Bucket des Clients - false, wenn er leer ist
+     */
+    public boolean tryAcquire(String client) {
+        AtomicLong bucket = buckets.get(client);
+        long now = System.nanoTime();
+        if (bucket == null) {
+            bucket = newBucket(client, now);
+        }
+        while (true) {
+            long fullAt = bucket.get();
+            long next = (fullAt - now > 0 ? fullAt : now) + intervalNanos;
+            if (next - now > burstNanos) {
+                limited.increment();
+                return false;
+            }
+            if (bucket.compareAndSet(fullAt, next)) {
+                return true;
+            }
+        }
+    }
+
+    public double getRate() {
+        return rate;
+    }
+
+    public int getBurst() {
+        return burst;
+    }
+
+    public int getTrackedClients() {
+        return buckets.size();
+    }
+
+    public long getLimited() {
+        return limited.sum();
+    }
+
+    private AtomicLong newBucket(String client, long now) {
+        if (buckets.size() >= maxClients) {
+            long purged = lastPurge.get();
+            if (now - purged >= PURGE_INTERVAL_NANOS && lastPurge.compareAndSet(purged, now)) {
+                // Volle Buckets zu vergessen ändert nichts - der nächste wäre wieder voll
+                buckets.values().removeIf(bucket -> bucket.get() - now <= 0);
+            }
+            if (buckets.size() >= maxClients) {
+                return buckets.computeIfAbsent(OTHER, key -> new AtomicLong(now));
+            }
+        }
+        return buckets.computeIfAbsent(client, key -> new AtomicLong(now));
+    }
+}
@@ -0,0 +1,18 @@
+package com.javafleet.tag10.admission;
+
+/**
+ * Zustand eines AdaptiveConcurrencyLimit (Teil von /api/stats)
+ *
+ * @param name           Eingang (http, stomp)
+ * @param limit          aktuell erlaubte gleichzeitige Anfragen
+ * @param inFlight       gerade laufende Anfragen
+ * @param minLimit       Untergrenze (app.admission.min-limit)
+ * @param maxLimit       Obergrenze (app.admission.max-limit)
+ * @param shortRttMicros mittlere Dauer im letzten Fenster
+ * @param longRttMicros  langfristiger Mittelwert - Referenz für den Gradienten
+ * @param accepted       zugelassene Anfragen
+ * @param rejected       wegen des Limits abgewiesene Anfragen (503 / STOMP ERROR)
+ */
+public record ConcurrencyLimitStatistics(String name, int limit, int inFlight, int minLimit, int maxLimit,
+                                         long shortRttMicros, long longRttMicros, long accepted, long rejected) {
+}
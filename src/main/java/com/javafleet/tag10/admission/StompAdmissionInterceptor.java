@@ -0,0 +1,120 @@
+package com.javafleet.tag10.admission;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.annotation.support.SimpAnnotationMethodMessageHandler;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ExecutorChannelInterceptor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * StompAdmissionInterceptor - SEND an ausgewählte /app-Destinations zulassen oder abweisen
+ *
+ * Am clientInboundChannel, im Thread, der den Frame vom WebSocket liest -
+ * also bevor die Nachricht in den Pool des Channels wandert. Abgewiesene
+ * Nachrichten werden verworfen; der Client bekommt einen ERROR-Frame
+ * (message:429 ... bzw. 503 ...), danach schließt Spring die Verbindung,
+ * wie es STOMP nach ERROR vorsieht. Der Client verbindet sich neu, wenn
+ * er will - mit Backoff.
+ *
+ * Der Platz wird frei, wenn der @MessageMapping-Handler fertig ist
+ * (afterMessageHandled) - gemessen wird also inklusive Wartezeit im Pool.
+ * Der Permit reist als Header mit und wird genau einmal freigegeben.
+ *
+ * @author Code Sentinel
+ */
+public class StompAdmissionInterceptor implements ExecutorChannelInterceptor {
+
+    static final String PERMIT_HEADER = "admissionPermit";
+
+    private final AdmissionControl admission;
+    private final Set<String> destinations;
+    private final ObjectProvider<MessageChannel> clientOutboundChannel;
+
+    public StompAdmissionInterceptor(AdmissionControl admission, Collection<String> destinations,
+                                     ObjectProvider<MessageChannel> clientOutboundChannel) {
+        this.admission = admission;
+        this.destinations = Set.copyOf(destinations);
+        this.clientOutboundChannel = clientOutboundChannel;
+    }
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        if (SimpMessageHeaderAccessor.getMessageType(message.getHeaders()) != SimpMessageType.MESSAGE
+                || !destinations.contains(SimpMessageHeaderAccessor.getDestination(message.getHeaders()))) {
+            return message;
+        }
+        AdaptiveConcurrencyLimit limit = admission.stomp();
+        AdmissionControl.Decision decision = admission.tryAcquire(limit, client(message));
+        if (decision != AdmissionControl.Decision.ADMITTED) {
+            sendError(message, decision == AdmissionControl.Decision.RATE_LIMITED
+                ? "429 Zu viele Nachrichten - bitte langsamer senden"
+                : "503 Server ausgelastet - später erneut verbinden");
+            return null;
+        }
+        MessageHeaderAccessor accessor = MessageHeaderAccessor.getMutableAccessor(message);
+        accessor.setHeader(PERMIT_HEADER, new Permit(limit, System.nanoTime()));
+        return MessageBuilder.createMessage(message.getPayload(), accessor.getMessageHeaders());
+    }
+
+    @Override
+    public void afterSendCompletion(Message<?> message, MessageChannel channel, boolean sent, Exception ex) {
+        // Nicht im Pool angekommen (z.B. Pool voll) - afterMessageHandled kommt dann nie
+        if (!sent || ex != null) {
+            release(message);
+        }
+    }
+
+    @Override
+    public void afterMessageHandled(Message<?> message, MessageChannel channel, MessageHandler handler, Exception ex) {
+        // Nur der @MessageMapping-Handler arbeitet mit /app-Nachrichten, Broker & Co. ignorieren sie
+        if (handler instanceof SimpAnnotationMethodMessageHandler) {
+            release(message);
+        }
+    }
+
+    private static void release(Message<?> message) {
+        if (message.getHeaders().get(PERMIT_HEADER) instanceof Permit permit && permit.released.compareAndSet(false, true)) {
+            permit.limit.release(permit.startNanos);
+        }
+    }
+
+    private static String client(Message<?> message) {
+        Map<String, Object> attributes = SimpMessageHeaderAccessor.getSessionAttributes(message.getHeaders());
+        Object address = attributes == null ? null : attributes.get(ClientAddressHandshakeInterceptor.CLIENT_ADDRESS_ATTRIBUTE);
+        return address instanceof String value ? value : SimpMessageHeaderAccessor.getSessionId(message.getHeaders());
+    }
+
+    private void sendError(Message<?> rejected, String text) {
+        StompHeaderAccessor error = StompHeaderAccessor.create(StompCommand.ERROR);
+        error.setMessage(text);
+        error.setSessionId(SimpMessageHeaderAccessor.getSessionId(rejected.getHeaders()));
+        clientOutboundChannel.getObject().send(MessageBuilder.createMessage(new byte[0], error.getMessageHeaders()));
+    }
+
+    /**
+     * Platz im Limit - released.compareAndSet(false, true) gewinnt genau einmal
+     */
+    private static final class Permit {
+
+        private final AdaptiveConcurrencyLimit limit;
+        private final long startNanos;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        Permit(AdaptiveConcurrencyLimit limit, long startNanos) {
+            this.limit = limit;
+            this.startNanos = startNanos;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.javafleet.tag10.aspect;
+
+import com.javafleet.tag10.metrics.LatencyRegistry;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.annotation.Pointcut;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * LatencyAspect - Aspect-Oriented Programming
+ * 
+ * Demonstriert:
+ * - @Aspect (Tag 6)
+ * - @Around Advice (Tag 6)
+ * - Cross-Cutting Concerns (Tag 6)
+ * - Latenz-Messung mit System.nanoTime() statt Log-Zeile pro Aufruf
+ * 
+ * Jede Service- und Controller-Methode bekommt ein eigenes lock-freies
+ * Histogramm (LatencyRegistry). Abrufbar unter /api/metrics/latency (JSON)
+ * und /api/metrics/prometheus.
+ * 
+ * Abschaltbar mit app.metrics.latency.enabled=false (dann ohne AOP-Proxy).
+ * 
+ * @author Code Sentinel
+ */
+@Aspect
+@Component
+@ConditionalOnProperty(name = "app.metrics.latency.enabled", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+public class LatencyAspect {
+    
+    private final LatencyRegistry latencyRegistry;
+    
+    /**
+     * Alle Methoden in allen Klassen im service und controller Package
+     * 
+     * Ausnahme: ApplicationStatistics wird von den Interceptoren bei jedem
+     * Request aufgerufen - ein Proxy davor würde nur Overhead messen.
+     * Ebenso PersonFavoritesCodec (Session-Store, einmal pro Request).
+     */
+    @Pointcut("(execution(* com.javafleet.tag10.service..*(..)) || execution(* com.javafleet.tag10.controller..*(..)))"
+        + " && !within(com.javafleet.tag10.service.ApplicationStatistics)"
+        + " && !within(com.javafleet.tag10.service.PersonFavoritesCodec)")
+    public void measuredMethods() {
+    }
+    
+    /**
+     * Misst die Ausführungszeit (auch bei Exceptions) - nur für gesampelte Aufrufe
+     */
+    @Around("measuredMethods()")
+    public Object recordLatency(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (!latencyRegistry.shouldSample()) {
+            return joinPoint.proceed();
+        }
+        long start = System.nanoTime();
+        try {
+            return joinPoint.proceed();
+        } finally {
+            long duration = System.nanoTime() - start;
+            latencyRegistry.histogram(((MethodSignature) joinPoint.getSignature()).getMethod()).record(duration);
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.javafleet.tag10.assets;
+
+import java.nio.file.Path;
+
+/**
+ * Asset - eine statische Datei nach der Pipeline
+ *
+ * @param logicalPath  Pfad wie im Template, z.B. /css/style.css
+ * @param publicPath   Pfad mit Inhalts-Hash, z.B. /css/style-3f9a1c0e2b7d4a61.css
+ * @param hash         Inhalts-Hash (auch ETag)
+ * @param contentType  MIME-Type für Content-Type
+ * @param identity     unkomprimierte Datei
+ * @param gzip         gzip-Variante oder null (nicht komprimierbar / lohnt nicht)
+ * @param brotli       br-Variante oder null (nur wenn zur Build-Zeit erzeugt)
+ */
+public record Asset(
+        String logicalPath,
+        String publicPath,
+        String hash,
+        String contentType,
+        Path identity,
+        Path gzip,
+        Path brotli) {
+}
@@ -0,0 +1,79 @@
+package com.javafleet.tag10.assets;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * AssetUrlRewritingFilter - @{/css/style.css} wird zu /css/style-&lt;hash&gt;.css
+ *
+ * Thymeleaf schickt jeden Link-Ausdruck durch HttpServletResponse.encodeURL
+ * (wie Spring's ResourceUrlEncodingFilter). Der Wrapper ersetzt dort Pfade,
+ * die die StaticAssetPipeline kennt - die Templates bleiben unverändert
+ * lesbar, auch die Fehlerseiten (darum auch für ERROR-Dispatches).
+ *
+ * @author Elyndra Valen
+ */
+public class AssetUrlRewritingFilter extends OncePerRequestFilter {
+
+    private final StaticAssetPipeline pipeline;
+
+    public AssetUrlRewritingFilter(StaticAssetPipeline pipeline) {
+        this.pipeline = pipeline;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        chain.doFilter(request, new RewritingResponse(response, request.getContextPath()));
+    }
+
+    @Override
+    protected boolean shouldNotFilterErrorDispatch() {
+        return false;
+    }
+
+    private final class RewritingResponse extends HttpServletResponseWrapper {
+
+        private final String contextPath;
+
+        RewritingResponse(HttpServletResponse response, String contextPath) {
+            super(response);
+            this.contextPath = contextPath;
+        }
+
+        @Override
+        public String encodeURL(String url) {
+            return super.encodeURL(rewrite(url));
+        }
+
+        private String rewrite(String url) {
+            if (!url.startsWith(contextPath)) {
+                return url;
+            }
+            int end = pathEnd(url, contextPath.length());
+            String path = url.substring(contextPath.length(), end);
+            return pipeline.publicPath(path)
+                .map(publicPath -> contextPath + publicPath + url.substring(end))
+                .orElse(url);
+        }
+    }
+
+    /**
+     * Ende des Pfads - vor Query, Fragment oder Pfad-Parametern
+     */
+    private static int pathEnd(String url, int from) {
+        for (int i = from; i < url.length(); i++) {
+            char c = url.charAt(i);
+            if (c == '?' || c == '#' || c == ';') {
+                return i;
+            }
+        }
+        return url.length();
+    }
+}
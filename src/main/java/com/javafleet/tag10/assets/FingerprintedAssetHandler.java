@@ -0,0 +1,118 @@
+package com.javafleet.tag10.assets;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.HttpRequestHandler;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+/**
+ * FingerprintedAssetHandler - liefert Dateien aus der StaticAssetPipeline aus
+ *
+ * - Content-Encoding nach Accept-Encoding: br, dann gzip, sonst unkomprimiert
+ * - Cache-Control: public, max-age=1 Jahr, immutable - der Name enthält den Hash
+ * - ETag = Hash, If-None-Match → 304
+ * - Body per Tomcat-sendfile (Datei → Socket im Kernel, keine Kopie durch
+ *   die JVM); ohne sendfile-Unterstützung per FileChannel.transferTo
+ *
+ * @author Elyndra Valen
+ */
+public class FingerprintedAssetHandler implements HttpRequestHandler {
+
+    /** Request-Attribute von Tomcat (org.apache.tomcat.util.net.Constants) */
+    private static final String SENDFILE_SUPPORTED = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private static final String CACHE_CONTROL = "public, max-age=31536000, immutable";
+
+    private final Map<String, Asset> assets;
+
+    public FingerprintedAssetHandler(Map<String, Asset> assetsByPublicPath) {
+        this.assets = assetsByPublicPath;
+    }
+
+    @Override
+    public void handleRequest(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        String path = (String) request.getAttribute(HandlerMapping.PATH_WITHIN_HANDLER_MAPPING_ATTRIBUTE);
+        Asset asset = path == null ? null : assets.get(path);
+        if (asset == null) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        if (!"GET".equals(request.getMethod()) && !"HEAD".equals(request.getMethod())) {
+            response.setHeader(HttpHeaders.ALLOW, "GET, HEAD");
+            response.sendError(HttpServletResponse.SC_METHOD_NOT_ALLOWED);
+            return;
+        }
+
+        String etag = "\"" + asset.hash() + "\"";
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL);
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch != null && (ifNoneMatch.contains(etag) || ifNoneMatch.trim().equals("*"))) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        Path file = asset.identity();
+        if (asset.brotli() != null && accepts(acceptEncoding, "br")) {
+            file = asset.brotli();
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "br");
+        } else if (asset.gzip() != null && accepts(acceptEncoding, "gzip")) {
+            file = asset.gzip();
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        long length = Files.size(file);
+        response.setContentType(asset.contentType());
+        response.setContentLengthLong(length);
+        if ("HEAD".equals(request.getMethod())) {
+            return;
+        }
+
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED))) {
+            // Tomcat schreibt die Datei nach dem Handler selbst - hier kein Byte Body
+            request.setAttribute(SENDFILE_FILENAME, file.toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, 0L);
+            request.setAttribute(SENDFILE_END, length);
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(file)) {
+            OutputStream out = response.getOutputStream();
+            channel.transferTo(0, length, Channels.newChannel(out));
+        }
+    }
+
+    /**
+     * Accept-Encoding enthält coding (ohne q=0)
+     */
+    static boolean accepts(String acceptEncoding, String coding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String entry : acceptEncoding.split(",")) {
+            String[] parts = entry.trim().split(";");
+            if (!parts[0].trim().equalsIgnoreCase(coding)) {
+                continue;
+            }
+            for (int i = 1; i < parts.length; i++) {
+                if (parts[i].replace(" ", "").matches("q=0(\\.0{0,3})?")) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+}
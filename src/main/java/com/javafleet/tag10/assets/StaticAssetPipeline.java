@@ -0,0 +1,178 @@
+package com.javafleet.tag10.assets;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.ResourcePatternResolver;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * StaticAssetPipeline - Fingerprinting und Vorkomprimierung beim Start
+ *
+ * Jede Datei unter classpath:/static wird einmal gelesen und als
+ * name-&lt;hash&gt;.ext in ein Verzeichnis auf der Platte geschrieben, dazu
+ * eine gzip-Variante (höchste Stufe - das kostet nur beim Start). Liegt
+ * neben der Datei eine .br-Variante im Classpath (zur Build-Zeit z.B. mit
+ * "brotli -k" erzeugt), wird sie mitgenommen - das JDK selbst kann kein
+ * Brotli schreiben.
+ *
+ * Weil der Name sich mit dem Inhalt ändert, darf der Browser die Datei
+ * für immer behalten (Cache-Control: immutable). Auf der Platte liegen die
+ * Dateien, damit Tomcat sie per sendfile ohne Kopie in den Socket schreibt.
+ *
+ * @author Elyndra Valen
+ */
+@Slf4j
+public class StaticAssetPipeline {
+
+    private static final String STATIC_ROOT = "static/";
+    private static final int HASH_HEX_LENGTH = 16;
+    private static final Set<String> COMPRESSIBLE_SUBTYPES = Set.of(
+        "css", "javascript", "json", "html", "plain", "xml", "svg+xml", "csv");
+
+    private final Path directory;
+    private final boolean temporaryDirectory;
+    private final Map<String, Asset> byLogicalPath = new LinkedHashMap<>();
+    private final Map<String, Asset> byPublicPath = new LinkedHashMap<>();
+
+    /**
+     * @param directory Zielverzeichnis, null = temporäres Verzeichnis (beim Beenden gelöscht)
+     */
+    public StaticAssetPipeline(ResourcePatternResolver resources, Path directory) throws IOException {
+        this.temporaryDirectory = directory == null;
+        this.directory = temporaryDirectory ? Files.createTempDirectory("tag10-assets") : directory;
+        long start = System.nanoTime();
+        Resource root = resources.getResource("classpath:" + STATIC_ROOT);
+        String rootUrl = root.getURL().toString();
+        for (Resource resource : resources.getResources("classpath:" + STATIC_ROOT + "**/*")) {
+            if (!resource.isReadable()) {
+                continue;
+            }
+            String relative = resource.getURL().toString().substring(rootUrl.length());
+            if (relative.endsWith(".gz") || relative.endsWith(".br")) {
+                continue;
+            }
+            Asset asset = process(resources, relative, resource);
+            byLogicalPath.put(asset.logicalPath(), asset);
+            byPublicPath.put(asset.publicPath(), asset);
+        }
+        log.info("🗜️ Asset-Pipeline: {} Dateien in {} ms nach {}",
+            byLogicalPath.size(), (System.nanoTime() - start) / 1_000_000, this.directory);
+    }
+
+    /**
+     * Pfad mit Hash für einen Pfad aus dem Template (ohne Context-Path)
+     */
+    public Optional<String> publicPath(String logicalPath) {
+        Asset asset = byLogicalPath.get(logicalPath);
+        return asset == null ? Optional.empty() : Optional.of(asset.publicPath());
+    }
+
+    public Map<String, Asset> getAssetsByPublicPath() {
+        return Map.copyOf(byPublicPath);
+    }
+
+    /**
+     * Räumt ein temporäres Zielverzeichnis wieder ab
+     */
+    public void close() {
+        if (temporaryDirectory) {
+            try {
+                FileSystemUtils.deleteRecursively(directory);
+            } catch (IOException e) {
+                log.warn("⚠️ Asset-Verzeichnis {} nicht gelöscht: {}", directory, e.getMessage());
+            }
+        }
+    }
+
+    private Asset process(ResourcePatternResolver resources, String relative, Resource resource) throws IOException {
+        byte[] content;
+        try (InputStream in = resource.getInputStream()) {
+            content = in.readAllBytes();
+        }
+        String hash = hash(content);
+        String fingerprinted = fingerprint(relative, hash);
+        MediaType mediaType = MediaTypeFactory.getMediaType(relative).orElse(MediaType.APPLICATION_OCTET_STREAM);
+
+        Path identity = write(fingerprinted, content);
+        Path gzip = null;
+        if (isCompressible(mediaType)) {
+            byte[] compressed = gzip(content);
+            if (compressed.length < content.length) {
+                gzip = write(fingerprinted + ".gz", compressed);
+            }
+        }
+        Path brotli = null;
+        Resource brotliResource = resources.getResource("classpath:" + STATIC_ROOT + relative + ".br");
+        if (brotliResource.isReadable()) {
+            try (InputStream in = brotliResource.getInputStream()) {
+                brotli = write(fingerprinted + ".br", in.readAllBytes());
+            }
+        }
+        return new Asset("/" + relative, "/" + fingerprinted, hash, mediaType.toString(), identity, gzip, brotli);
+    }
+
+    private Path write(String relative, byte[] content) throws IOException {
+        Path file = directory.resolve(relative).normalize();
+        if (!file.startsWith(directory)) {
+            throw new IOException("Asset außerhalb des Zielverzeichnisses: " + relative);
+        }
+        Files.createDirectories(file.getParent());
+        Files.write(file, content);
+        return file;
+    }
+
+    private static String fingerprint(String relative, String hash) {
+        int slash = relative.lastIndexOf('/');
+        int dot = relative.lastIndexOf('.');
+        if (dot <= slash + 1) {
+            return relative + "-" + hash;
+        }
+        return relative.substring(0, dot) + "-" + hash + relative.substring(dot);
+    }
+
+    private static boolean isCompressible(MediaType mediaType) {
+        return mediaType.getType().equals("text") || COMPRESSIBLE_SUBTYPES.contains(mediaType.getSubtype());
+    }
+
+    private static String hash(byte[] content) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(content);
+            return HexFormat.of().formatHex(digest).substring(0, HASH_HEX_LENGTH);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 nicht verfügbar", e);
+        }
+    }
+
+    private static byte[] gzip(byte[] content) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(content.length / 2 + 64);
+        try (OutputStream out = new GZIPOutputStream(buffer) {
+            {
+                def.setLevel(Deflater.BEST_COMPRESSION);
+            }
+        }) {
+            out.write(content);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return buffer.toByteArray();
+    }
+}
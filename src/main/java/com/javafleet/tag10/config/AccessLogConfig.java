@@ -0,0 +1,69 @@
+package com.javafleet.tag10.config;
+
+import com.javafleet.tag10.accesslog.AccessLog;
+import com.javafleet.tag10.accesslog.AccessLogFilter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * AccessLogConfig - Zugriffs-/Ereignis-Log für HTTP und STOMP
+ *
+ * Demonstriert:
+ * - @Configuration + @Bean (Tag 2)
+ * - Externalized Configuration mit @Value (Tag 5)
+ * - FilterRegistrationBean (Servlet-Filter mit Reihenfolge)
+ *
+ * application.properties:
+ * app.access-log.enabled=false              an/aus (Profil prod: an)
+ * app.access-log.file=logs/access.jsonl     JSON Lines, ein Eintrag pro Request/Frame
+ * app.access-log.capacity=8192              Plätze im Ringpuffer - voll = verwerfen, nie warten
+ * app.access-log.buffer-size=64KB           Schreibpuffer des Writers (ein write() pro Batch)
+ * app.access-log.flush-interval=20ms        Pause des Writers zwischen zwei Batches
+ * app.access-log.max-file-size=100MB        danach access.jsonl.1 (eine Generation)
+ *
+ * Der AccessLogChannelInterceptor wird in WebSocketConfig eingehängt.
+ *
+ * @author Code Sentinel
+ */
+@Configuration
+@Slf4j
+public class AccessLogConfig {
+
+    @Bean
+    public AccessLog accessLog(@Value("${app.access-log.enabled:false}") boolean enabled,
+                               @Value("${app.access-log.file:logs/access.jsonl}") Path file,
+                               @Value("${app.access-log.capacity:8192}") int capacity,
+                               @Value("${app.access-log.buffer-size:64KB}") DataSize bufferSize,
+                               @Value("${app.access-log.flush-interval:20ms}") Duration flushInterval,
+                               @Value("${app.access-log.max-file-size:100MB}") DataSize maxFileSize) {
+        if (!enabled) {
+            log.info("📝 Access-Log: aus");
+            return AccessLog.disabled();
+        }
+        AccessLog accessLog = new AccessLog(file, capacity, (int) bufferSize.toBytes(),
+            flushInterval.toNanos(), maxFileSize.toBytes());
+        accessLog.start();
+        log.info("📝 Access-Log: {} (Ringpuffer {}, Batch alle {} ms)", file.toAbsolutePath(),
+            accessLog.getStatistics().capacity(), flushInterval.toMillis());
+        return accessLog;
+    }
+
+    /**
+     * Vor dem AdmissionFilter - abgewiesene Requests sollen auch im Log stehen
+     */
+    @Bean
+    public FilterRegistrationBean<AccessLogFilter> accessLogFilter(AccessLog accessLog) {
+        FilterRegistrationBean<AccessLogFilter> registration = new FilterRegistrationBean<>(new AccessLogFilter(accessLog));
+        registration.setEnabled(accessLog.isEnabled());
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 5);
+        return registration;
+    }
+}
@@ -0,0 +1,79 @@
+package com.javafleet.tag10.config;
+
+import com.javafleet.tag10.admission.AdaptiveConcurrencyLimit;
+import com.javafleet.tag10.admission.AdmissionControl;
+import com.javafleet.tag10.admission.AdmissionFilter;
+import com.javafleet.tag10.admission.ClientRateLimiter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * AdmissionConfig - Lastabwurf für REST und STOMP
+ *
+ * Demonstriert:
+ * - @Configuration + @Bean (Tag 2)
+ * - Externalized Configuration mit @Value (Tag 5)
+ * - FilterRegistrationBean (Servlet-Filter mit Reihenfolge und URL-Mustern)
+ *
+ * application.properties:
+ * app.admission.enabled=false                 an/aus (Profil prod: an)
+ * app.admission.initial-limit=20              gleichzeitige Anfragen zu Beginn, pro Eingang
+ * app.admission.min-limit=4                   Untergrenze des adaptiven Limits
+ * app.admission.max-limit=200                 Obergrenze (REST: Tomcat hat 200 Threads)
+ * app.admission.tolerance=1.5                 so viel langsamer als üblich gilt noch nicht als Stau
+ * app.admission.url-patterns=/api/persons/*,/jakarta/jaxrs/persons/*
+ * app.admission.stomp-destinations=/app/chat.send
+ * app.admission.client-rate=0                 Anfragen pro Sekunde und Client (0 = keine Token Buckets)
+ * app.admission.client-burst=50               so viele auf einmal
+ * app.admission.max-clients=10000             Clients mit eigenem Bucket
+ *
+ * Der StompAdmissionInterceptor wird in WebSocketConfig eingehängt.
+ *
+ * @author Code Sentinel
+ */
+@Configuration
+@Slf4j
+public class AdmissionConfig {
+
+    @Bean
+    public AdmissionControl admissionControl(@Value("${app.admission.enabled:false}") boolean enabled,
+                                             @Value("${app.admission.initial-limit:20}") int initialLimit,
+                                             @Value("${app.admission.min-limit:4}") int minLimit,
+                                             @Value("${app.admission.max-limit:200}") int maxLimit,
+                                             @Value("${app.admission.tolerance:1.5}") double tolerance,
+                                             @Value("${app.admission.client-rate:0}") double clientRate,
+                                             @Value("${app.admission.client-burst:50}") int clientBurst,
+                                             @Value("${app.admission.max-clients:10000}") int maxClients) {
+        ClientRateLimiter clients = enabled && clientRate > 0
+            ? new ClientRateLimiter(clientRate, clientBurst, maxClients)
+            : null;
+        AdmissionControl admission = new AdmissionControl(enabled,
+            new AdaptiveConcurrencyLimit("http", initialLimit, minLimit, maxLimit, tolerance),
+            new AdaptiveConcurrencyLimit("stomp", initialLimit, minLimit, maxLimit, tolerance),
+            clients);
+        if (enabled) {
+            log.info("🚦 Admission Control: adaptives Limit {}..{} (Start {}), Token Buckets: {}",
+                minLimit, maxLimit, initialLimit, clients == null ? "aus" : clientRate + "/s, Burst " + clientBurst);
+        } else {
+            log.info("🚦 Admission Control: aus");
+        }
+        return admission;
+    }
+
+    /**
+     * Vor dem SessionRepositoryFilter (app.session.store=file liest pro Request von der Platte)
+     */
+    @Bean
+    public FilterRegistrationBean<AdmissionFilter> admissionFilter(AdmissionControl admissionControl,
+                                                                   @Value("${app.admission.url-patterns:/api/persons/*,/jakarta/jaxrs/persons/*}") String[] urlPatterns) {
+        FilterRegistrationBean<AdmissionFilter> registration = new FilterRegistrationBean<>(new AdmissionFilter(admissionControl));
+        registration.setEnabled(admissionControl.isEnabled());
+        registration.addUrlPatterns(urlPatterns);
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+}
@@ -0,0 +1,107 @@
+package com.javafleet.tag10.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.javafleet.tag10.service.PersonChangeFeed;
+import com.javafleet.tag10.websocket.ChatController;
+import com.javafleet.tag10.websocket.ChatHistory;
+import com.javafleet.tag10.websocket.ChatMessage;
+import com.javafleet.tag10.websocket.cluster.ClusterBroadcastBridge;
+import com.javafleet.tag10.websocket.cluster.ClusterRelay;
+import com.javafleet.tag10.websocket.cluster.NoOpClusterRelay;
+import com.javafleet.tag10.websocket.cluster.TcpClusterRelay;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.MessageChannel;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * ClusterRelayConfig - Broadcasts über mehrere Instanzen
+ *
+ * Demonstriert:
+ * - @Configuration + @Bean (Tag 2)
+ * - Externalized Configuration (Tag 5)
+ *
+ * application.properties:
+ * app.cluster.relay=tcp           tcp = TcpClusterRelay, none = nur lokal
+ * app.cluster.port=9100           Port für eingehende Verbindungen der Peers
+ * app.cluster.bind-address=127.0.0.1  Adresse dafür - für mehrere Hosts z.B. 0.0.0.0 (dann mit secret)
+ * app.cluster.peers=              host:port aller Instanzen, kommagetrennt (leer = nur lokal);
+ *                                 nur von diesen Adressen werden Verbindungen angenommen
+ * app.cluster.secret=             gemeinsames Secret aller Instanzen (HMAC im Handshake, leer = aus)
+ * app.cluster.batch-size=256      höchstens so viele Nachrichten pro Write
+ * app.cluster.queue-size=10000    Puffer pro Peer, danach wird verworfen
+ *
+ * Eingehängt wird die Bridge in WebSocketConfig.
+ *
+ * @author Nova Trent
+ */
+@Configuration
+@Slf4j
+public class ClusterRelayConfig {
+
+    @Bean
+    public ClusterRelay clusterRelay(@Value("${app.cluster.relay:tcp}") String mode,
+                                     @Value("${app.cluster.port:9100}") int port,
+                                     @Value("${app.cluster.bind-address:127.0.0.1}") String bindAddress,
+                                     @Value("${app.cluster.peers:}") String[] peers,
+                                     @Value("${app.cluster.secret:}") String secret,
+                                     @Value("${app.cluster.batch-size:256}") int batchSize,
+                                     @Value("${app.cluster.queue-size:10000}") int queueSize) {
+        return switch (mode.trim().toLowerCase(Locale.ROOT)) {
+            case "tcp" -> new TcpClusterRelay(new InetSocketAddress(bindAddress, port), parsePeers(peers), secret,
+                queueSize, batchSize);
+            case "none" -> new NoOpClusterRelay();
+            default -> throw new IllegalArgumentException("app.cluster.relay muss tcp oder none sein: " + mode);
+        };
+    }
+
+    /**
+     * Weitergeleitete Chat-Nachrichten bekommen eine lokale Sequenznummer
+     * und landen im Chat-Verlauf dieser Instanz - seq ist pro Instanz
+     * fortlaufend, since:<seq> funktioniert also auch mit Nachrichten von
+     * anderen Instanzen (solange der Client bei derselben Instanz bleibt).
+     * /topic/persons bleibt lokal: jede Instanz meldet die Änderungen ihres
+     * eigenen Stores mit eigenen Sequenznummern
+     */
+    @Bean
+    public ClusterBroadcastBridge clusterBroadcastBridge(ClusterRelay clusterRelay,
+                                                         @Qualifier("brokerChannel") ObjectProvider<MessageChannel> brokerChannel,
+                                                         ChatHistory history,
+                                                         ObjectMapper objectMapper) {
+        ClusterBroadcastBridge bridge = new ClusterBroadcastBridge(clusterRelay, WebSocketConfig.BROKER_PREFIX, brokerChannel);
+        bridge.mapInbound(ChatController.PUBLIC_TOPIC, payload -> {
+            try {
+                ChatMessage message = objectMapper.readValue(payload, ChatMessage.class);
+                return objectMapper.writeValueAsBytes(history.append(message));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        bridge.localOnly(PersonChangeFeed.TOPIC);
+        return bridge;
+    }
+
+    private static List<InetSocketAddress> parsePeers(String[] peers) {
+        return Arrays.stream(peers)
+            .map(String::trim)
+            .filter(peer -> !peer.isEmpty())
+            .map(peer -> {
+                int colon = peer.lastIndexOf(':');
+                if (colon < 1) {
+                    throw new IllegalArgumentException("app.cluster.peers erwartet host:port, nicht: " + peer);
+                }
+                return new InetSocketAddress(peer.substring(0, colon), Integer.parseInt(peer.substring(colon + 1)));
+            })
+            .toList();
+    }
+}
@@ -1,8 +1,11 @@
 package com.javafleet.tag10.config;
 
 import com.javafleet.tag10.controller.PersonResource;
+import com.javafleet.tag10.metrics.JaxRsStatisticsFilter;
+import com.javafleet.tag10.service.ApplicationStatistics;
 import jakarta.ws.rs.ApplicationPath;
 import org.glassfish.jersey.server.ResourceConfig;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 /**
@@ -25,10 +28,14 @@ import org.springframework.stereotype.Component;
 @ApplicationPath("/jakarta")
 public class JerseyConfig extends ResourceConfig {
     
-    public JerseyConfig() {
+    public JerseyConfig(ApplicationStatistics statistics,
+                        @Value("${spring.jersey.application-path:/jakarta}") String applicationPath) {
         // Registriere JAX-RS Resources
         register(PersonResource.class);
         
+        // Zählt Requests pro Resource-Methode (ApplicationStatistics)
+        register(new JaxRsStatisticsFilter(statistics, applicationPath));
+        
         // Logging Features (optional)
         // register(LoggingFeature.class);
     }
@@ -0,0 +1,31 @@
+package com.javafleet.tag10.config;
+
+import com.javafleet.tag10.metrics.LatencyRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * MetricsConfig - Latenz-Histogramme für Controller und Service
+ * 
+ * Demonstriert:
+ * - @Configuration + @Bean (Tag 2)
+ * - Externalized Configuration mit @Value (Tag 5)
+ * 
+ * application.properties:
+ * app.metrics.latency.enabled=true      (LatencyAspect aktiv)
+ * app.metrics.latency.sample-rate=1.0   (Anteil gemessener Aufrufe, 0.0 - 1.0)
+ * 
+ * @author Code Sentinel
+ */
+@Configuration
+@Slf4j
+public class MetricsConfig {
+    
+    @Bean
+    public LatencyRegistry latencyRegistry(@Value("${app.metrics.latency.sample-rate:1.0}") double sampleRate) {
+        log.info("⏱️ Latenz-Histogramme: sample-rate={}", sampleRate);
+        return new LatencyRegistry(sampleRate);
+    }
+}
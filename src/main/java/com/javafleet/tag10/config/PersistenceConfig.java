@@ -0,0 +1,49 @@
+package com.javafleet.tag10.config;
+
+import com.javafleet.tag10.persistence.JournalPersonPersistence;
+import com.javafleet.tag10.persistence.NoOpPersonPersistence;
+import com.javafleet.tag10.persistence.PersonPersistence;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * PersistenceConfig - Eingebettete Persistenz für den PersonService
+ * 
+ * Demonstriert:
+ * - @Configuration + @Bean (Tag 2)
+ * - Externalized Configuration (Tag 5)
+ * 
+ * application.properties:
+ * app.persistence.enabled=true           Journal + Snapshots aktivieren
+ * app.persistence.directory=data         Datenverzeichnis
+ * app.persistence.fsync=true             Group-Commit-fsync vor der Antwort
+ * app.persistence.snapshot-interval=10m  Abstand zwischen Snapshots
+ * app.persistence.segment-size=64MB      Snapshot, sobald ein Journal-Segment so groß ist
+ * 
+ * @author Elyndra Valen
+ */
+@Configuration
+@Slf4j
+public class PersistenceConfig {
+    
+    @Bean
+    public PersonPersistence personPersistence(
+            @Value("${app.persistence.enabled:false}") boolean enabled,
+            @Value("${app.persistence.directory:data}") Path directory,
+            @Value("${app.persistence.fsync:true}") boolean fsync,
+            @Value("${app.persistence.snapshot-interval:10m}") Duration snapshotInterval,
+            @Value("${app.persistence.segment-size:64MB}") DataSize segmentSize) {
+        if (!enabled) {
+            log.info("💾 Persistenz deaktiviert - Daten leben nur im Speicher");
+            return new NoOpPersonPersistence();
+        }
+        log.info("💾 Persistenz aktiv: {} (fsync={})", directory.toAbsolutePath(), fsync);
+        return new JournalPersonPersistence(directory, fsync, snapshotInterval, segmentSize.toBytes());
+    }
+}
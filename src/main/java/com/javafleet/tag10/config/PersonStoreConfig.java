@@ -0,0 +1,62 @@
+package com.javafleet.tag10.config;
+
+import com.javafleet.tag10.service.FavoritePopularity;
+import com.javafleet.tag10.store.ColumnarPersonStore;
+import com.javafleet.tag10.store.IndexedPersonStore;
+import com.javafleet.tag10.store.PersonNameIndex;
+import com.javafleet.tag10.store.PersonStore;
+import com.javafleet.tag10.store.PersonStoreMode;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Locale;
+
+/**
+ * PersonStoreConfig - Auswahl des Speicher-Modus
+ * 
+ * Demonstriert:
+ * - @Configuration + @Bean (Tag 2)
+ * - Externalized Configuration mit @Value (Tag 5)
+ * 
+ * application.properties:
+ * app.person-store.mode=indexed   (Default, Person-Objekte in ConcurrentHashMap)
+ * app.person-store.mode=columnar  (primitive Spalten für Millionen Datensätze)
+ * app.favorites.top-size=10       Länge der "meistfavorisiert"-Liste
+ * 
+ * Der PersonNameIndex hängt als Listener am Store und wird bei
+ * jeder Änderung inkrementell gepflegt. FavoritePopularity hört
+ * auf Löschungen und nimmt die Person aus Zählern und Top-N.
+ * 
+ * @author Elyndra Valen
+ */
+@Configuration
+@Slf4j
+public class PersonStoreConfig {
+    
+    @Bean
+    public PersonStore personStore(@Value("${app.person-store.mode:indexed}") String mode) {
+        PersonStoreMode storeMode = PersonStoreMode.valueOf(mode.trim().toUpperCase(Locale.ROOT));
+        log.info("🗄️ PersonStore Modus: {}", storeMode);
+        return switch (storeMode) {
+            case INDEXED -> new IndexedPersonStore();
+            case COLUMNAR -> new ColumnarPersonStore();
+        };
+    }
+    
+    @Bean
+    public PersonNameIndex personNameIndex(PersonStore personStore) {
+        PersonNameIndex nameIndex = new PersonNameIndex();
+        personStore.addChangeListener(nameIndex);
+        return nameIndex;
+    }
+    
+    @Bean
+    public FavoritePopularity favoritePopularity(PersonStore personStore,
+                                                 @Value("${app.favorites.top-size:10}") int topSize) {
+        FavoritePopularity popularity = new FavoritePopularity(topSize);
+        personStore.addChangeListener(popularity);
+        return popularity;
+    }
+}
@@ -0,0 +1,45 @@
+package com.javafleet.tag10.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.javafleet.tag10.json.PersonResponseCache;
+import com.javafleet.tag10.service.PersonService;
+import com.javafleet.tag10.store.PersonStore;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * ResponseCacheConfig - serialisierte JSON-Antworten für MVC und JAX-RS
+ *
+ * Demonstriert:
+ * - @Configuration + @Bean (Tag 2)
+ * - Externalized Configuration mit @Value (Tag 5)
+ *
+ * application.properties:
+ * app.response-cache.max-size=32MB   Budget für gecachte Antworten (0 = aus)
+ *
+ * Wie der PersonNameIndex hängt der Cache als Listener am Store und
+ * wird bei jeder Änderung gezielt invalidiert.
+ *
+ * @author Elyndra Valen
+ */
+@Configuration
+@Slf4j
+public class ResponseCacheConfig {
+
+    @Bean
+    public PersonResponseCache personResponseCache(PersonStore personStore, PersonService personService,
+                                                   ObjectMapper objectMapper,
+                                                   @Value("${app.response-cache.max-size:32MB}") DataSize maxSize) {
+        PersonResponseCache cache = new PersonResponseCache(personService, objectMapper, maxSize.toBytes());
+        if (cache.isEnabled()) {
+            personStore.addChangeListener(cache);
+            log.info("🗃️ Response-Cache (MVC + JAX-RS): bis zu {}", maxSize);
+        } else {
+            log.info("🗃️ Response-Cache: aus");
+        }
+        return cache;
+    }
+}
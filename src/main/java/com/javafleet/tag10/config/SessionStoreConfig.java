@@ -0,0 +1,57 @@
+package com.javafleet.tag10.config;
+
+import com.javafleet.tag10.session.FileSessionRepository;
+import com.javafleet.tag10.session.SessionAttributeCodec;
+import com.javafleet.tag10.session.SessionValueCodec;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.session.config.annotation.web.http.EnableSpringHttpSession;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * SessionStoreConfig - HTTP-Sessions außerhalb der JVM (app.session.store=file)
+ *
+ * Demonstriert:
+ * - @Configuration + @Bean (Tag 2)
+ * - Externalized Configuration mit @Value (Tag 5)
+ * - Session Scope (Tag 7) über mehrere Instanzen hinweg
+ *
+ * application.properties:
+ * app.session.store=memory                 memory (Tomcat) | file
+ * app.session.directory=data/sessions      gemeinsames Verzeichnis aller Instanzen
+ * app.session.touch-interval=10s           lastAccessedTime höchstens so oft schreiben
+ * app.session.near-cache-size=10000        dekodierte Sessions pro Instanz
+ * app.session.cleanup-interval=1m          abgelaufene Sessions löschen
+ * server.servlet.session.timeout=30m       wie bei Tomcat-Sessions
+ *
+ * @EnableSpringHttpSession legt den SessionRepositoryFilter vor alle
+ * Requests: HttpSession (und damit der Session Scope) kommt dann aus dem
+ * FileSessionRepository statt aus Tomcat. Das Cookie heißt SESSION.
+ *
+ * @author Elyndra Valen
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.session.store", havingValue = "file")
+@EnableSpringHttpSession
+@Slf4j
+public class SessionStoreConfig {
+
+    @Bean(destroyMethod = "close")
+    public FileSessionRepository sessionRepository(List<SessionValueCodec<?>> codecs,
+                                                   @Value("${app.session.directory:data/sessions}") Path directory,
+                                                   @Value("${server.servlet.session.timeout:30m}") Duration timeout,
+                                                   @Value("${app.session.touch-interval:10s}") Duration touchInterval,
+                                                   @Value("${app.session.near-cache-size:10000}") int nearCacheSize,
+                                                   @Value("${app.session.cleanup-interval:1m}") Duration cleanupInterval) {
+        log.info("🗄️ Sessions in {} (Timeout {}, Near-Cache {} Sessions, {} Codecs)",
+            directory.toAbsolutePath(), timeout, nearCacheSize, codecs.size());
+        return new FileSessionRepository(directory, new SessionAttributeCodec(codecs), timeout,
+            touchInterval, nearCacheSize, cleanupInterval);
+    }
+}
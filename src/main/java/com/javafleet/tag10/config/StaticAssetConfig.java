@@ -0,0 +1,67 @@
+package com.javafleet.tag10.config;
+
+import com.javafleet.tag10.assets.AssetUrlRewritingFilter;
+import com.javafleet.tag10.assets.FingerprintedAssetHandler;
+import com.javafleet.tag10.assets.StaticAssetPipeline;
+import jakarta.servlet.DispatcherType;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.support.ResourcePatternResolver;
+import org.springframework.web.servlet.handler.SimpleUrlHandlerMapping;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * StaticAssetConfig - statische Dateien mit Hash im Namen, vorkomprimiert
+ * 
+ * Demonstriert:
+ * - @Configuration + @Bean (Tag 2)
+ * - Externalized Configuration (Tag 5)
+ * - Servlet-Filter und HandlerMapping neben den Controllern (Tag 4)
+ * 
+ * application.properties:
+ * app.assets.fingerprint.enabled=false   im Profil prod: true
+ * app.assets.directory=                  Zielverzeichnis (leer = temporär)
+ * 
+ * Ohne Fingerprinting (Entwicklung) liefert Spring's Standard-Handler
+ * die Dateien direkt aus dem Classpath - Änderungen an style.css sind
+ * sofort sichtbar.
+ * 
+ * @author Elyndra Valen
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.assets.fingerprint.enabled", havingValue = "true")
+public class StaticAssetConfig {
+    
+    @Bean(destroyMethod = "close")
+    public StaticAssetPipeline staticAssetPipeline(ResourcePatternResolver resources,
+                                                   @Value("${app.assets.directory:}") String directory) throws IOException {
+        return new StaticAssetPipeline(resources, directory.isBlank() ? null : Path.of(directory));
+    }
+    
+    /**
+     * Genau die Pfade mit Hash - vor dem Standard-Handler für /**
+     */
+    @Bean
+    public SimpleUrlHandlerMapping fingerprintedAssetHandlerMapping(StaticAssetPipeline pipeline) {
+        FingerprintedAssetHandler handler = new FingerprintedAssetHandler(pipeline.getAssetsByPublicPath());
+        Map<String, Object> urls = pipeline.getAssetsByPublicPath().keySet().stream()
+            .collect(Collectors.toMap(path -> path, path -> handler));
+        return new SimpleUrlHandlerMapping(urls, Ordered.HIGHEST_PRECEDENCE);
+    }
+    
+    @Bean
+    public FilterRegistrationBean<AssetUrlRewritingFilter> assetUrlRewritingFilter(StaticAssetPipeline pipeline) {
+        FilterRegistrationBean<AssetUrlRewritingFilter> registration =
+            new FilterRegistrationBean<>(new AssetUrlRewritingFilter(pipeline));
+        registration.setDispatcherTypes(DispatcherType.REQUEST, DispatcherType.FORWARD, DispatcherType.ERROR);
+        return registration;
+    }
+}
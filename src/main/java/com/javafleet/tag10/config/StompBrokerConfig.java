@@ -0,0 +1,106 @@
+package com.javafleet.tag10.config;
+
+import com.javafleet.tag10.websocket.broker.ShardedStompBroker;
+import com.javafleet.tag10.websocket.broker.SlowConsumerPolicy;
+import com.javafleet.tag10.websocket.wire.BroadcastFrameEncoder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.lang.Nullable;
+import org.springframework.messaging.simp.broker.AbstractBrokerMessageHandler;
+import org.springframework.messaging.simp.user.UserDestinationResolver;
+import org.springframework.messaging.support.AbstractSubscribableChannel;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.config.annotation.DelegatingWebSocketMessageBrokerConfiguration;
+import org.springframework.web.socket.messaging.StompSubProtocolHandler;
+import org.springframework.web.socket.messaging.SubProtocolWebSocketHandler;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * StompBrokerConfig - Auswahl des STOMP-Brokers
+ * 
+ * Demonstriert:
+ * - Erweiterte WebSocket-Konfiguration (Tag 8): statt @EnableWebSocketMessageBroker
+ *   wird DelegatingWebSocketMessageBrokerConfiguration direkt erweitert, um den
+ *   Broker-Bean auszutauschen. Alle WebSocketMessageBrokerConfigurer (WebSocketConfig)
+ *   werden weiterhin angewendet.
+ * 
+ * application.properties:
+ * app.websocket.broker.mode=sharded                      ShardedStompBroker (Default)
+ * app.websocket.broker.mode=simple                       Spring SimpleBroker
+ * app.websocket.broker.shards=0                          0 = ein Shard pro CPU-Kern
+ * app.websocket.broker.session-queue-size=256            Outbox pro Session
+ * app.websocket.broker.slow-consumer-policy=drop-oldest  drop-oldest | coalesce | disconnect
+ * 
+ * @author Nova Trent
+ */
+@Configuration
+@Slf4j
+public class StompBrokerConfig extends DelegatingWebSocketMessageBrokerConfiguration {
+    
+    private final boolean sharded;
+    private final int shards;
+    private final int sessionQueueSize;
+    private final SlowConsumerPolicy slowConsumerPolicy;
+    
+    public StompBrokerConfig(@Value("${app.websocket.broker.mode:sharded}") String mode,
+                             @Value("${app.websocket.broker.shards:0}") int shards,
+                             @Value("${app.websocket.broker.session-queue-size:256}") int sessionQueueSize,
+                             @Value("${app.websocket.broker.slow-consumer-policy:drop-oldest}") String slowConsumerPolicy) {
+        this.sharded = isSharded(mode);
+        this.shards = shards > 0 ? shards : Runtime.getRuntime().availableProcessors();
+        this.sessionQueueSize = sessionQueueSize;
+        this.slowConsumerPolicy = SlowConsumerPolicy.valueOf(
+            slowConsumerPolicy.trim().replace('-', '_').toUpperCase(Locale.ROOT));
+    }
+    
+    /**
+     * Broker für WebSocketConfig.BROKER_PREFIX - ShardedStompBroker oder SimpleBroker
+     */
+    @Override
+    @Bean
+    @Nullable
+    public AbstractBrokerMessageHandler simpleBrokerMessageHandler(AbstractSubscribableChannel clientInboundChannel,
+                                                                   AbstractSubscribableChannel clientOutboundChannel,
+                                                                   AbstractSubscribableChannel brokerChannel,
+                                                                   UserDestinationResolver userDestinationResolver) {
+        if (!sharded) {
+            log.info("📡 STOMP Broker: SimpleBroker");
+            return super.simpleBrokerMessageHandler(clientInboundChannel, clientOutboundChannel, brokerChannel, userDestinationResolver);
+        }
+        return new ShardedStompBroker(clientInboundChannel, clientOutboundChannel, brokerChannel,
+            List.of(WebSocketConfig.BROKER_PREFIX), shards, sessionQueueSize, slowConsumerPolicy);
+    }
+    
+    /**
+     * Im Modus sharded: BroadcastFrameEncoder statt StompEncoder - ein Broadcast wird einmal kodiert
+     */
+    @Override
+    @Bean
+    public HandlerMapping stompWebSocketHandlerMapping(WebSocketHandler subProtocolWebSocketHandler,
+                                                       TaskScheduler messageBrokerTaskScheduler,
+                                                       AbstractSubscribableChannel clientInboundChannel) {
+        HandlerMapping handlerMapping = super.stompWebSocketHandlerMapping(subProtocolWebSocketHandler,
+            messageBrokerTaskScheduler, clientInboundChannel);
+        if (sharded && subProtocolWebSocketHandler instanceof SubProtocolWebSocketHandler handler) {
+            handler.getProtocolHandlers().stream()
+                .filter(StompSubProtocolHandler.class::isInstance)
+                .map(StompSubProtocolHandler.class::cast)
+                .forEach(stompHandler -> stompHandler.setEncoder(new BroadcastFrameEncoder()));
+        }
+        return handlerMapping;
+    }
+    
+    static boolean isSharded(String mode) {
+        return switch (mode.trim().toLowerCase(Locale.ROOT)) {
+            case "sharded" -> true;
+            case "simple" -> false;
+            default -> throw new IllegalArgumentException("app.websocket.broker.mode muss sharded oder simple sein: " + mode);
+        };
+    }
+}
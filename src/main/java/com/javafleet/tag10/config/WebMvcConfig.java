@@ -0,0 +1,30 @@
+package com.javafleet.tag10.config;
+
+import com.javafleet.tag10.metrics.RequestStatisticsInterceptor;
+import com.javafleet.tag10.service.ApplicationStatistics;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * WebMvcConfig - Spring MVC Erweiterungen
+ * 
+ * Demonstriert:
+ * - WebMvcConfigurer (Tag 4)
+ * - HandlerInterceptor für Cross-Cutting Concerns
+ * 
+ * @author Code Sentinel
+ */
+@Configuration
+@RequiredArgsConstructor
+public class WebMvcConfig implements WebMvcConfigurer {
+    
+    private final ApplicationStatistics statistics;
+    
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        // Zählt REST- und Thymeleaf-Requests pro Endpunkt (ApplicationStatistics)
+        registry.addInterceptor(new RequestStatisticsInterceptor(statistics));
+    }
+}
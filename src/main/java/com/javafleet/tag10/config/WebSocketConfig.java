@@ -1,10 +1,36 @@
 package com.javafleet.tag10.config;
 
+import com.javafleet.tag10.accesslog.AccessLog;
+import com.javafleet.tag10.accesslog.AccessLogChannelInterceptor;
+import com.javafleet.tag10.admission.AdmissionControl;
+import com.javafleet.tag10.admission.ClientAddressHandshakeInterceptor;
+import com.javafleet.tag10.admission.StompAdmissionInterceptor;
+import com.javafleet.tag10.metrics.StompStatisticsInterceptor;
+import com.javafleet.tag10.service.ApplicationStatistics;
+import com.javafleet.tag10.service.PersonChangeFeed;
+import com.javafleet.tag10.websocket.ChatController;
+import com.javafleet.tag10.websocket.cluster.ClusterBroadcastBridge;
+import com.javafleet.tag10.websocket.wire.CompactChatMessageConverter;
+import com.javafleet.tag10.websocket.wire.CompactEncodingNegotiation;
+import com.javafleet.tag10.websocket.wire.OutboundBatchingDecoratorFactory;
+import com.javafleet.tag10.websocket.wire.PerMessageDeflateHandshakeHandler;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.converter.MessageConverter;
+import org.springframework.messaging.simp.annotation.support.SimpAnnotationMethodMessageHandler;
+import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
-import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketTransportRegistration;
+
+import java.util.List;
+import java.util.Set;
 
 /**
  * WebSocketConfig - STOMP WebSocket Configuration
@@ -16,26 +42,162 @@ import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerCo
  * 
  * High-Level WebSocket API für Production-Ready Real-Time Features!
  * 
+ * Threads: mit spring.threads.virtual.enabled=true laufen
+ * clientInbound- und clientOutboundChannel auf Virtual Threads (ein
+ * Thread pro Frame), sonst auf den Standard-Pools von Spring.
+ * 
+ * Broker: welcher Broker /topic bedient, entscheidet StompBrokerConfig
+ * (ShardedStompBroker oder SimpleBroker). Der ShardedStompBroker stellt
+ * selbst pro Session auf Virtual Threads zu - dafür ist der
+ * clientOutboundChannel in diesem Modus synchron.
+ * 
+ * Leitung: Batching, kompaktes ChatMessage-Format und permessage-deflate
+ * kommen aus WebSocketWireConfig und werden hier eingehängt.
+ * 
+ * Cluster: die ClusterBroadcastBridge (ClusterRelayConfig) hängt an
+ * brokerChannel und clientInboundChannel und leitet /topic-Broadcasts an
+ * die anderen Instanzen weiter.
+ * 
+ * Lastabwurf: mit app.admission.enabled prüft der StompAdmissionInterceptor
+ * SEND-Frames an app.admission.stomp-destinations, bevor sie in den Pool
+ * des clientInboundChannel wandern (AdmissionConfig).
+ * 
+ * Access-Log: mit app.access-log.enabled landet jeder Frame eines Clients
+ * als Eintrag im AccessLog (AccessLogConfig) - auch abgewiesene.
+ * 
  * @author Nova Trent
  */
 @Configuration
-@EnableWebSocketMessageBroker
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
     
+    static final String BROKER_PREFIX = "/topic";
+    static final String APP_PREFIX = "/app";
+    
+    /** Broker-Destinations, an die die Anwendung selbst sendet - nur die zählt die Statistik einzeln */
+    private static final Set<String> BROKER_DESTINATIONS = Set.of(ChatController.PUBLIC_TOPIC, PersonChangeFeed.TOPIC);
+    
+    private final ApplicationStatistics statistics;
+    private final boolean virtualThreads;
+    private final boolean shardedBroker;
+    private final OutboundBatchingDecoratorFactory outboundBatching;
+    private final CompactEncodingNegotiation compactEncoding;
+    private final boolean compactEncodingEnabled;
+    private final PerMessageDeflateHandshakeHandler handshakeHandler;
+    private final ClusterBroadcastBridge clusterBridge;
+    private final AdmissionControl admission;
+    private final StompAdmissionInterceptor admissionInterceptor;
+    private final AccessLog accessLog;
+    private final ObjectProvider<SimpAnnotationMethodMessageHandler> messageHandler;
+    
+    public WebSocketConfig(ApplicationStatistics statistics,
+                           @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads,
+                           @Value("${app.websocket.broker.mode:sharded}") String brokerMode,
+                           OutboundBatchingDecoratorFactory outboundBatching,
+                           CompactEncodingNegotiation compactEncoding,
+                           @Value("${app.websocket.compact-encoding.enabled:true}") boolean compactEncodingEnabled,
+                           PerMessageDeflateHandshakeHandler handshakeHandler,
+                           ClusterBroadcastBridge clusterBridge,
+                           AdmissionControl admission,
+                           @Value("${app.admission.stomp-destinations:/app/chat.send}") List<String> admissionDestinations,
+                           @Qualifier("clientOutboundChannel") ObjectProvider<MessageChannel> clientOutboundChannel,
+                           AccessLog accessLog,
+                           ObjectProvider<SimpAnnotationMethodMessageHandler> messageHandler) {
+        this.statistics = statistics;
+        this.virtualThreads = virtualThreads;
+        this.shardedBroker = StompBrokerConfig.isSharded(brokerMode);
+        this.outboundBatching = outboundBatching;
+        this.compactEncoding = compactEncoding;
+        this.compactEncodingEnabled = compactEncodingEnabled;
+        this.handshakeHandler = handshakeHandler;
+        this.clusterBridge = clusterBridge;
+        this.admission = admission;
+        this.admissionInterceptor = new StompAdmissionInterceptor(admission, admissionDestinations, clientOutboundChannel);
+        this.accessLog = accessLog;
+        this.messageHandler = messageHandler;
+    }
+    
     @Override
     public void configureMessageBroker(MessageBrokerRegistry config) {
-        // Simple In-Memory Broker für /topic
-        config.enableSimpleBroker("/topic");
+        // Simple In-Memory Broker für /topic (wird im Modus sharded ersetzt)
+        config.enableSimpleBroker(BROKER_PREFIX);
+        
+        // Virtual Threads: ein Thread pro Frame, keine Pool-Obergrenze - ohne
+        // diese Option könnten zwei Nachrichten an dieselbe Session überholen
+        config.setPreservePublishOrder(virtualThreads);
+        
+        // Broadcasts der Anwendung (@SendTo) auch an die anderen Instanzen
+        config.configureBrokerChannel().interceptors(clusterBridge.outbound());
         
         // Application Destination Prefix
-        config.setApplicationDestinationPrefixes("/app");
+        config.setApplicationDestinationPrefixes(APP_PREFIX);
     }
     
     @Override
     public void registerStompEndpoints(StompEndpointRegistry registry) {
         // WebSocket Endpoint mit SockJS Fallback
         registry.addEndpoint("/ws")
+                .setHandshakeHandler(handshakeHandler)
+                .addInterceptors(new ClientAddressHandshakeInterceptor())
                 .setAllowedOriginPatterns("*")
                 .withSockJS();
+        
+        // Dasselbe für Frames eines Clients (z.B. JOIN vor der ersten Nachricht)
+        registry.setPreserveReceiveOrder(virtualThreads);
+    }
+    
+    @Override
+    public void configureWebSocketTransport(WebSocketTransportRegistration registration) {
+        // Frames pro Session kurz sammeln und als eine WebSocket-Nachricht schreiben
+        if (outboundBatching.isEnabled()) {
+            registration.addDecoratorFactory(outboundBatching);
+        }
+    }
+    
+    @Override
+    public boolean configureMessageConverters(List<MessageConverter> messageConverters) {
+        // Binäre ChatMessages (content-type:application/octet-stream) von kompakten Clients
+        if (compactEncodingEnabled) {
+            messageConverters.add(new CompactChatMessageConverter());
+        }
+        return true;
+    }
+    
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        // Zählt Frames der Clients pro bekannter Destination (ApplicationStatistics)
+        registration.interceptors(StompStatisticsInterceptor.inbound(
+            statistics, List.of(BROKER_PREFIX), BROKER_DESTINATIONS, messageHandler));
+        if (accessLog.isEnabled()) {
+            registration.interceptors(new AccessLogChannelInterceptor(accessLog));
+        }
+        // Nach Statistik und Access-Log (abgewiesene SENDs zählen dort mit),
+        // vor Dekodierung, Cluster-Relay und Handler - die machen für sie keine Arbeit mehr
+        if (admission.isEnabled()) {
+            registration.interceptors(admissionInterceptor);
+        }
+        if (compactEncodingEnabled) {
+            registration.interceptors(compactEncoding.inbound());
+        }
+        // SEND eines Clients direkt an /topic auch an die anderen Instanzen
+        registration.interceptors(clusterBridge.outbound());
+        if (virtualThreads) {
+            registration.executor(new VirtualThreadTaskExecutor("stomp-inbound-"));
+        }
+    }
+    
+    @Override
+    public void configureClientOutboundChannel(ChannelRegistration registration) {
+        // Zählt ausgelieferte MESSAGE-Frames pro Destination
+        registration.interceptors(StompStatisticsInterceptor.outbound(
+            statistics, List.of(BROKER_PREFIX), BROKER_DESTINATIONS, messageHandler));
+        if (compactEncodingEnabled) {
+            registration.interceptors(compactEncoding.outbound());
+        }
+        if (shardedBroker) {
+            // Zustellung blockiert im Thread der SessionOutbox - kein zweiter Puffer
+            registration.executor(new SyncTaskExecutor());
+        } else if (virtualThreads) {
+            registration.executor(new VirtualThreadTaskExecutor("stomp-outbound-"));
+        }
     }
 }
@@ -0,0 +1,60 @@
+package com.javafleet.tag10.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.javafleet.tag10.websocket.ChatController;
+import com.javafleet.tag10.websocket.wire.CompactEncodingNegotiation;
+import com.javafleet.tag10.websocket.wire.OutboundBatchingDecoratorFactory;
+import com.javafleet.tag10.websocket.wire.PerMessageDeflateHandshakeHandler;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * WebSocketWireConfig - was tatsächlich über die Leitung geht
+ *
+ * Demonstriert:
+ * - @Configuration + @Bean (Tag 2)
+ * - Externalized Configuration (Tag 5)
+ *
+ * application.properties:
+ * app.websocket.outbound.batch-window=0ms        Frames pro Session sammeln (0 = aus)
+ * app.websocket.outbound.batch-max-size=16KB     sofort schreiben ab dieser Batch-Größe
+ * app.websocket.compact-encoding.enabled=true    CONNECT-Header chat-encoding:compact erlauben
+ * app.websocket.permessage-deflate.enabled=true  Kompression, wenn der Client sie anbietet
+ *
+ * Eingebunden (und compact-encoding.enabled ausgewertet) wird in WebSocketConfig.
+ *
+ * @author Nova Trent
+ */
+@Configuration
+@Slf4j
+public class WebSocketWireConfig {
+
+    @Bean
+    public OutboundBatchingDecoratorFactory outboundBatching(
+            @Value("${app.websocket.outbound.batch-window:0ms}") Duration batchWindow,
+            @Value("${app.websocket.outbound.batch-max-size:16KB}") DataSize batchMaxSize) {
+        OutboundBatchingDecoratorFactory factory =
+            new OutboundBatchingDecoratorFactory(batchWindow, Math.toIntExact(batchMaxSize.toBytes()));
+        if (factory.isEnabled()) {
+            log.info("📦 STOMP-Batching: bis zu {} ms bzw. {} pro WebSocket-Frame", batchWindow.toMillis(), batchMaxSize);
+        }
+        return factory;
+    }
+
+    @Bean
+    public CompactEncodingNegotiation compactEncodingNegotiation(ObjectMapper objectMapper) {
+        return new CompactEncodingNegotiation(objectMapper, List.of(ChatController.PUBLIC_TOPIC));
+    }
+
+    @Bean
+    public PerMessageDeflateHandshakeHandler perMessageDeflateHandshakeHandler(
+            @Value("${app.websocket.permessage-deflate.enabled:true}") boolean enabled) {
+        return new PerMessageDeflateHandshakeHandler(enabled);
+    }
+}
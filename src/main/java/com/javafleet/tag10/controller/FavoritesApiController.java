@@ -0,0 +1,92 @@
+package com.javafleet.tag10.controller;
+
+import com.javafleet.tag10.model.FavoriteCount;
+import com.javafleet.tag10.model.Person;
+import com.javafleet.tag10.service.FavoritePopularity;
+import com.javafleet.tag10.service.PersonFavorites;
+import com.javafleet.tag10.service.PersonService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * FavoritesApiController - Favoriten der aktuellen Session als REST API
+ *
+ * Demonstriert:
+ * - Session Scope (Tag 7): PersonFavorites ist pro Session eine eigene
+ *   Instanz, der Controller (Singleton) sieht sie über den Scoped Proxy
+ * - Globale Zähler über alle Sessions (FavoritePopularity)
+ *
+ * @author Elyndra Valen
+ */
+@RestController
+@RequestMapping("/api/favorites")
+@RequiredArgsConstructor
+@Slf4j
+public class FavoritesApiController {
+
+    private final PersonFavorites favorites;
+    private final FavoritePopularity popularity;
+    private final PersonService personService;
+
+    /**
+     * GET /api/favorites
+     * IDs der Favoriten dieser Session, aufsteigend
+     */
+    @GetMapping
+    public long[] getFavoriteIds() {
+        return favorites.getAllFavorites();
+    }
+
+    /**
+     * GET /api/favorites/persons
+     * Favoriten dieser Session als vollständige Personen
+     */
+    @GetMapping("/persons")
+    public List<Person> getFavoritePersons() {
+        return personService.findAllById(favorites.getAllFavorites());
+    }
+
+    /**
+     * PUT /api/favorites/{id}
+     * Merkt die Person vor (idempotent) - 404, wenn es sie nicht gibt
+     */
+    @PutMapping("/{id}")
+    public ResponseEntity<Void> addFavorite(@PathVariable long id) {
+        log.debug("⭐ PUT /api/favorites/{}", id);
+        if (personService.findById(id).isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        favorites.addFavorite(id);
+        if (personService.findById(id).isEmpty()) {
+            // Gleichzeitig gelöscht - den eben gezählten Favoriten zurücknehmen
+            favorites.removeFavorite(id);
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * DELETE /api/favorites/{id}
+     * 404, wenn die Person kein Favorit war
+     */
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> removeFavorite(@PathVariable long id) {
+        log.debug("☆ DELETE /api/favorites/{}", id);
+        return favorites.removeFavorite(id)
+            ? ResponseEntity.noContent().build()
+            : ResponseEntity.notFound().build();
+    }
+
+    /**
+     * GET /api/favorites/top?limit={n}
+     * Die meistfavorisierten Personen über alle Sessions (höchstens app.favorites.top-size)
+     */
+    @GetMapping("/top")
+    public List<FavoriteCount> getTopFavorites(@RequestParam(required = false) Integer limit) {
+        return popularity.getTop(limit == null ? popularity.getTopSize() : limit);
+    }
+}
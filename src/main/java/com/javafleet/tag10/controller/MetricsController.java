@@ -0,0 +1,55 @@
+package com.javafleet.tag10.controller;
+
+import com.javafleet.tag10.metrics.LatencyRegistry;
+import com.javafleet.tag10.metrics.LatencySummary;
+import com.javafleet.tag10.metrics.PrometheusTextFormat;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * MetricsController - Latenz-Histogramme als JSON und im Prometheus-Format
+ * 
+ * @author Code Sentinel
+ */
+@RestController
+@RequestMapping("/api/metrics")
+@RequiredArgsConstructor
+public class MetricsController {
+    
+    private final LatencyRegistry latencyRegistry;
+    
+    /**
+     * GET /api/metrics/latency
+     * count, mean und Perzentile (p50/p90/p99/p99.9) pro Methode in Nanosekunden
+     */
+    @GetMapping("/latency")
+    public LatencyReport getLatencies() {
+        List<LatencySummary> methods = latencyRegistry.snapshot().entrySet().stream()
+            .map(entry -> LatencySummary.of(entry.getKey(), entry.getValue()))
+            .toList();
+        return new LatencyReport(latencyRegistry.getSampleRate(), methods);
+    }
+    
+    /**
+     * GET /api/metrics/prometheus
+     * Scrape-Endpoint für Prometheus (Text Exposition Format)
+     */
+    @GetMapping("/prometheus")
+    public ResponseEntity<String> getPrometheusMetrics() {
+        return ResponseEntity.ok()
+            .header(HttpHeaders.CONTENT_TYPE, PrometheusTextFormat.CONTENT_TYPE)
+            .body(PrometheusTextFormat.latencies(latencyRegistry.snapshot(), latencyRegistry.getSampleRate()));
+    }
+    
+    /**
+     * Antwort von /api/metrics/latency
+     */
+    public record LatencyReport(double sampleRate, List<LatencySummary> methods) {
+    }
+}
@@ -1,14 +1,31 @@
 package com.javafleet.tag10.controller;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.javafleet.tag10.json.PersonJsonStreamer;
+import com.javafleet.tag10.json.PersonResponseCache;
+import com.javafleet.tag10.model.BatchItemResult;
 import com.javafleet.tag10.model.Person;
+import com.javafleet.tag10.model.PersonChanges;
+import com.javafleet.tag10.service.PersonChangeFeed;
 import com.javafleet.tag10.service.PersonService;
+import com.javafleet.tag10.store.NameField;
+import com.javafleet.tag10.store.PersonVersionConflictException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * PersonApiController - REST API mit Spring MVC
@@ -18,6 +35,12 @@ import java.util.List;
  * - Constructor Injection (Tag 6 - Best Practice!)
  * - HTTP Methods (GET, POST, PUT, DELETE)
  * - ResponseEntity für flexible Responses
+ * - Keyset-Pagination (after/limit) und Streaming-Export
+ * - Namenssuche über Sekundärindizes
+ * - Batch-Operationen mit gestreamtem JSON/NDJSON-Input
+ * - ETags: If-None-Match (304 ohne Serialisierung), If-Match auf PUT/DELETE (412)
+ * - GET-Antworten als fertige Bytes aus dem PersonResponseCache (geteilt mit JAX-RS)
+ * - Änderungsfeed: nur die Änderungen seit dem letzten Abruf (PersonChangeFeed)
  * 
  * @author Elyndra Valen
  */
@@ -29,27 +52,128 @@ public class PersonApiController {
     
     // Constructor Injection - Best Practice!
     private final PersonService personService;
+    private final PersonJsonStreamer jsonStreamer;
+    private final PersonResponseCache responseCache;
+    private final PersonChangeFeed changeFeed;
     
     /**
      * GET /api/persons
-     * Gibt alle Personen als JSON zurück
+     * GET /api/persons?after={id}&limit={n}
+     * 
+     * Ohne Parameter: alle Personen als JSON.
+     * Mit after/limit: eine Seite, die nächste Seite steht im Link-Header (rel="next").
+     * ETag = Store-Version; passt If-None-Match, kommt 304 ohne Body.
      */
     @GetMapping
-    public List<Person> getAllPersons() {
-        log.info("🔍 GET /api/persons - Spring MVC");
-        return personService.getAllPersons();
+    public ResponseEntity<byte[]> getAllPersons(@RequestParam(required = false) Long after,
+                                                @RequestParam(required = false) Integer limit,
+                                                WebRequest request) {
+        log.debug("🔍 GET /api/persons - Spring MVC");
+        String etag = PersonETags.forPersonsWeak(personService.getVersion());
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        PersonResponseCache.CachedResponse cached = after == null && limit == null
+            ? responseCache.allPersons()
+            : responseCache.page(after, limit);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+            .eTag(PersonETags.forPersonsWeak(cached.version()))
+            .contentType(MediaType.APPLICATION_JSON);
+        if (cached.hasNext()) {
+            String next = ServletUriComponentsBuilder.fromCurrentRequest()
+                .replaceQueryParam("after", cached.nextAfter())
+                .replaceQueryParam("limit", PersonService.pageSize(limit))
+                .toUriString();
+            response.header(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"");
+        }
+        return response.body(cached.body());
+    }
+    
+    /**
+     * GET /api/persons/export
+     * Streamt alle Personen als JSON-Array direkt in den Socket
+     */
+    @GetMapping(path = "/export", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportPersons(WebRequest request) {
+        log.debug("📤 GET /api/persons/export - Spring MVC (JSON Stream)");
+        String etag = PersonETags.forPersonsWeak(personService.getVersion());
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        List<Person> persons = personService.getAllPersons();
+        return ResponseEntity.ok()
+            .eTag(etag)
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(out -> jsonStreamer.writeArray(persons, out));
+    }
+    
+    /**
+     * GET /api/persons/export (Accept: application/x-ndjson)
+     * Streamt alle Personen als NDJSON - eine Person pro Zeile
+     */
+    @GetMapping(path = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportPersonsNdjson(WebRequest request) {
+        log.debug("📤 GET /api/persons/export - Spring MVC (NDJSON Stream)");
+        String etag = PersonETags.forPersonsWeak(personService.getVersion());
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        List<Person> persons = personService.getAllPersons();
+        return ResponseEntity.ok()
+            .eTag(etag)
+            .contentType(MediaType.APPLICATION_NDJSON)
+            .body(out -> jsonStreamer.writeNdjson(persons, out));
+    }
+    
+    /**
+     * GET /api/persons/search?q={text}&field={firstname|lastname|fullname}&prefix={true|false}&limit={n}
+     * Exakte oder Präfix-Suche (Default: Präfix auf fullname)
+     */
+    @GetMapping("/search")
+    public ResponseEntity<List<Person>> searchPersons(@RequestParam String q,
+                                                      @RequestParam(defaultValue = "fullname") String field,
+                                                      @RequestParam(defaultValue = "true") boolean prefix,
+                                                      @RequestParam(required = false) Integer limit) {
+        log.debug("🔎 GET /api/persons/search?q={} - Spring MVC", q);
+        NameField nameField = NameField.fromParameter(field);
+        if (nameField == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(personService.searchPersons(nameField, q, prefix, limit));
+    }
+    
+    /**
+     * GET /api/persons/changes?feed={feed}&since={seq}
+     * Änderungen seit since - statt die ganze Liste neu zu laden.
+     * Ohne feed oder zu weit zurück: resync=true, dann GET /api/persons
+     * und mit dem gelieferten latestSeq weiter (live: /topic/persons)
+     */
+    @GetMapping("/changes")
+    public ResponseEntity<PersonChanges> getChanges(@RequestParam(required = false) String feed,
+                                                    @RequestParam(defaultValue = "0") long since) {
+        log.debug("📰 GET /api/persons/changes?since={} - Spring MVC", since);
+        return ResponseEntity.ok(changeFeed.since(feed, since));
     }
     
     /**
      * GET /api/persons/{id}
-     * Gibt eine spezifische Person zurück
+     * Gibt eine spezifische Person zurück (ETag = Personen-Version)
      */
     @GetMapping("/{id}")
-    public ResponseEntity<Person> getPersonById(@PathVariable Long id) {
-        log.info("🔍 GET /api/persons/{} - Spring MVC", id);
-        return personService.findById(id)
-            .map(ResponseEntity::ok)
-            .orElse(ResponseEntity.notFound().build());
+    public ResponseEntity<byte[]> getPersonById(@PathVariable Long id, WebRequest request) {
+        log.debug("🔍 GET /api/persons/{} - Spring MVC", id);
+        Optional<Person> person = personService.findById(id);
+        if (person.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        String etag = PersonETags.forPerson(person.get());
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok()
+            .eTag(etag)
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(responseCache.person(person.get()).body());
     }
     
     /**
@@ -58,30 +182,91 @@ public class PersonApiController {
      */
     @PostMapping
     public ResponseEntity<Person> createPerson(@RequestBody Person person) {
-        log.info("➕ POST /api/persons - Spring MVC: {}", person.getFullName());
+        log.debug("➕ POST /api/persons - Spring MVC: {}", person.getFullName());
         Person created = personService.createPerson(person);
         return ResponseEntity.status(HttpStatus.CREATED).body(created);
     }
     
     /**
      * PUT /api/persons/{id}
-     * Aktualisiert eine Person
+     * Aktualisiert eine Person - mit If-Match nur, wenn die Version noch passt (sonst 412)
      */
     @PutMapping("/{id}")
-    public ResponseEntity<Void> updatePerson(@PathVariable Long id, @RequestBody Person person) {
-        log.info("✏️ PUT /api/persons/{} - Spring MVC", id);
-        boolean updated = personService.updatePerson(id, person);
-        return updated ? ResponseEntity.ok().build() : ResponseEntity.notFound().build();
+    public ResponseEntity<Void> updatePerson(@PathVariable Long id, @RequestBody Person person,
+                                             @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        log.debug("✏️ PUT /api/persons/{} - Spring MVC", id);
+        try {
+            return personService.updatePerson(id, person, PersonETags.expectedVersion(ifMatch, id))
+                .map(updated -> ResponseEntity.ok().eTag(PersonETags.forPerson(updated)).<Void>build())
+                .orElse(ResponseEntity.notFound().build());
+        } catch (PersonVersionConflictException e) {
+            log.warn("⚠️ {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+        }
     }
     
     /**
      * DELETE /api/persons/{id}
-     * Löscht eine Person
+     * Löscht eine Person - mit If-Match nur, wenn die Version noch passt (sonst 412)
      */
     @DeleteMapping("/{id}")
-    public ResponseEntity<Void> deletePerson(@PathVariable Long id) {
-        log.info("🗑️ DELETE /api/persons/{} - Spring MVC", id);
-        boolean deleted = personService.deletePerson(id);
-        return deleted ? ResponseEntity.noContent().build() : ResponseEntity.notFound().build();
+    public ResponseEntity<Void> deletePerson(@PathVariable Long id,
+                                             @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        log.debug("🗑️ DELETE /api/persons/{} - Spring MVC", id);
+        try {
+            boolean deleted = personService.deletePerson(id, PersonETags.expectedVersion(ifMatch, id));
+            return deleted ? ResponseEntity.noContent().build() : ResponseEntity.notFound().build();
+        } catch (PersonVersionConflictException e) {
+            log.warn("⚠️ {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+        }
+    }
+    
+    /**
+     * POST /api/persons/batch
+     * Erstellt viele Personen mit einem Request (JSON-Array oder NDJSON)
+     */
+    @PostMapping(path = "/batch", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<List<BatchItemResult>> createPersons(InputStream body) throws IOException {
+        log.debug("➕ POST /api/persons/batch - Spring MVC");
+        return applyBatch(body, Person.class, personService::createPersons);
+    }
+    
+    /**
+     * PUT /api/persons/batch
+     * Aktualisiert viele Personen (ID steht im jeweiligen Element)
+     */
+    @PutMapping(path = "/batch", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<List<BatchItemResult>> updatePersons(InputStream body) throws IOException {
+        log.debug("✏️ PUT /api/persons/batch - Spring MVC");
+        return applyBatch(body, Person.class, personService::updatePersons);
+    }
+    
+    /**
+     * POST /api/persons/batch/delete
+     * Löscht viele Personen (Body: IDs als JSON-Array oder NDJSON)
+     */
+    @PostMapping(path = "/batch/delete", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<List<BatchItemResult>> deletePersons(InputStream body) throws IOException {
+        log.debug("🗑️ POST /api/persons/batch/delete - Spring MVC");
+        return applyBatch(body, Long.class, personService::deletePersons);
+    }
+    
+    /**
+     * Liest den Body chunkweise und wendet jeden Chunk auf den Service an
+     * 
+     * Bei kaputtem JSON: 400 mit den Ergebnissen der bereits angewendeten Chunks.
+     */
+    private <T> ResponseEntity<List<BatchItemResult>> applyBatch(InputStream body, Class<T> type,
+                                                                 PersonService.BatchOperation<T> operation) throws IOException {
+        List<BatchItemResult> results = new ArrayList<>();
+        try {
+            jsonStreamer.readChunks(body, type, PersonService.BATCH_CHUNK_SIZE,
+                chunk -> results.addAll(operation.apply(chunk, results.size())));
+        } catch (JsonProcessingException e) {
+            log.warn("⚠️ Batch abgebrochen nach {} Elementen: {}", results.size(), e.getOriginalMessage());
+            return ResponseEntity.badRequest().body(results);
+        }
+        return ResponseEntity.ok(results);
     }
 }
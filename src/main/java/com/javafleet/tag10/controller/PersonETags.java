@@ -0,0 +1,74 @@
+package com.javafleet.tag10.controller;
+
+import com.javafleet.tag10.model.Person;
+import com.javafleet.tag10.store.PersonStore;
+
+/**
+ * PersonETags - ETags für beide REST-Stacks (MVC + JAX-RS), schwach für Listen, stark für Personen
+ * 
+ * Aufbau (ohne Anführungszeichen - die setzen ResponseEntity bzw. EntityTag):
+ * - Liste:  &lt;epoch&gt;-&lt;Store-Version&gt;, schwach (W/)
+ * - Person: &lt;epoch&gt;-&lt;id&gt;-&lt;Personen-Version&gt;, stark
+ * 
+ * Listen-ETags sind schwach: Tomcat komprimiert (server.compression)
+ * keine Antworten mit starkem ETag - gzip ändert die Bytes. Für
+ * If-None-Match reicht der schwache Vergleich; If-Match (stark) gibt
+ * es nur auf einzelne Personen.
+ * 
+ * Die Epoche wird pro Start neu gewürfelt - Versionen beginnen nach einem
+ * Neustart wieder klein, alte ETags passen dann garantiert nicht mehr.
+ */
+final class PersonETags {
+    
+    /** Erwartete Version, wenn If-Match auf keine aktuelle Version passen kann (Versionen beginnen bei 1) */
+    static final long NO_MATCH = 0L;
+    
+    private static final String EPOCH = Long.toString(System.currentTimeMillis(), 36);
+    
+    private PersonETags() {
+    }
+    
+    static String forPersons(long storeVersion) {
+        return EPOCH + "-" + storeVersion;
+    }
+    
+    /**
+     * Schwaches Listen-ETag mit Anführungszeichen (für ResponseEntity/WebRequest)
+     */
+    static String forPersonsWeak(long storeVersion) {
+        return "W/\"" + forPersons(storeVersion) + "\"";
+    }
+    
+    static String forPerson(Person person) {
+        return EPOCH + "-" + person.getId() + "-" + person.getVersion();
+    }
+    
+    /**
+     * Übersetzt einen If-Match-Header in die erwartete Personen-Version
+     * 
+     * @return ANY_VERSION ohne Header oder bei "*", sonst die Version aus dem
+     *         ersten passenden ETag oder NO_MATCH (führt zu 412)
+     */
+    static long expectedVersion(String ifMatch, long id) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return PersonStore.ANY_VERSION;
+        }
+        String prefix = EPOCH + "-" + id + "-";
+        for (String tag : ifMatch.split(",")) {
+            tag = tag.trim();
+            // If-Match vergleicht stark - schwache ETags (W/"...") passen nie
+            if (tag.length() < 2 || tag.charAt(0) != '"' || tag.charAt(tag.length() - 1) != '"') {
+                continue;
+            }
+            String value = tag.substring(1, tag.length() - 1);
+            if (value.startsWith(prefix)) {
+                try {
+                    return Long.parseLong(value.substring(prefix.length()));
+                } catch (NumberFormatException ignored) {
+                    // kein ETag von uns
+                }
+            }
+        }
+        return NO_MATCH;
+    }
+}
@@ -1,16 +1,33 @@
 package com.javafleet.tag10.controller;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.javafleet.tag10.json.PersonJsonStreamer;
+import com.javafleet.tag10.json.PersonResponseCache;
+import com.javafleet.tag10.model.BatchItemResult;
 import com.javafleet.tag10.model.Person;
+import com.javafleet.tag10.service.PersonChangeFeed;
 import com.javafleet.tag10.service.PersonService;
+import com.javafleet.tag10.store.NameField;
+import com.javafleet.tag10.store.PersonVersionConflictException;
 import jakarta.annotation.PostConstruct;
 import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.EntityTag;
+import jakarta.ws.rs.core.HttpHeaders;
 import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Request;
 import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.StreamingOutput;
+import jakarta.ws.rs.core.UriInfo;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * PersonResource - REST API mit JAX-RS (Jakarta EE Standard)
@@ -20,6 +37,12 @@ import java.util.List;
  * - Jakarta EE @PostConstruct (Tag 2 + 9 Zusammenführung!)
  * - Migration-Readiness (Code funktioniert auch auf WildFly!)
  * - Spring Boot 3.x + Jakarta EE Integration
+ * - Keyset-Pagination (after/limit) und StreamingOutput-Export
+ * - Namenssuche über Sekundärindizes
+ * - Batch-Operationen mit gestreamtem JSON/NDJSON-Input
+ * - ETags: Request.evaluatePreconditions (304), If-Match auf PUT/DELETE (412)
+ * - GET-Antworten als fertige Bytes aus dem PersonResponseCache (geteilt mit Spring MVC)
+ * - Änderungsfeed: nur die Änderungen seit dem letzten Abruf (PersonChangeFeed)
  * 
  * DER GAMECHANGER: Minimale Migration-Kosten von Legacy zu Modern!
  * 
@@ -34,6 +57,9 @@ import java.util.List;
 public class PersonResource {
     
     private final PersonService personService;
+    private final PersonJsonStreamer jsonStreamer;
+    private final PersonResponseCache responseCache;
+    private final PersonChangeFeed changeFeed;
     
     /**
      * Jakarta EE Lifecycle Callback
@@ -56,24 +82,124 @@ public class PersonResource {
     
     /**
      * GET /jaxrs/persons
+     * GET /jaxrs/persons?after={id}&limit={n}
+     * 
+     * Mit after/limit: eine Seite, die nächste Seite steht im Link-Header (rel="next").
+     * ETag = Store-Version; passt If-None-Match, kommt 304 ohne Body.
+     */
+    @GET
+    public Response getAllPersons(@QueryParam("after") Long after,
+                                  @QueryParam("limit") Integer limit,
+                                  @Context UriInfo uriInfo,
+                                  @Context Request request) {
+        log.debug("🔍 GET /jaxrs/persons - JAX-RS (Jakarta EE)");
+        EntityTag etag = new EntityTag(PersonETags.forPersons(personService.getVersion()), true);
+        Response.ResponseBuilder notModified = request.evaluatePreconditions(etag);
+        if (notModified != null) {
+            return notModified.build();
+        }
+        PersonResponseCache.CachedResponse cached = after == null && limit == null
+            ? responseCache.allPersons()
+            : responseCache.page(after, limit);
+        Response.ResponseBuilder response = Response.ok(cached.body(), MediaType.APPLICATION_JSON_TYPE)
+            .tag(new EntityTag(PersonETags.forPersons(cached.version()), true));
+        if (cached.hasNext()) {
+            response.link(uriInfo.getRequestUriBuilder()
+                .replaceQueryParam("after", cached.nextAfter())
+                .replaceQueryParam("limit", PersonService.pageSize(limit))
+                .build(), "next");
+        }
+        return response.build();
+    }
+    
+    /**
+     * GET /jaxrs/persons/export
+     * Streamt alle Personen als JSON-Array direkt in den Socket
      */
     @GET
-    public Response getAllPersons() {
-        log.info("🔍 GET /jaxrs/persons - JAX-RS (Jakarta EE)");
+    @Path("/export")
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response exportPersons(@Context Request request) {
+        log.debug("📤 GET /jaxrs/persons/export - JAX-RS (JSON Stream)");
+        EntityTag etag = new EntityTag(PersonETags.forPersons(personService.getVersion()), true);
+        Response.ResponseBuilder notModified = request.evaluatePreconditions(etag);
+        if (notModified != null) {
+            return notModified.build();
+        }
         List<Person> persons = personService.getAllPersons();
-        return Response.ok(persons).build();
+        StreamingOutput body = out -> jsonStreamer.writeArray(persons, out);
+        return Response.ok(body, MediaType.APPLICATION_JSON_TYPE).tag(etag).build();
+    }
+    
+    /**
+     * GET /jaxrs/persons/export (Accept: application/x-ndjson)
+     * Streamt alle Personen als NDJSON - eine Person pro Zeile
+     */
+    @GET
+    @Path("/export")
+    @Produces(PersonJsonStreamer.APPLICATION_NDJSON)
+    public Response exportPersonsNdjson(@Context Request request) {
+        log.debug("📤 GET /jaxrs/persons/export - JAX-RS (NDJSON Stream)");
+        EntityTag etag = new EntityTag(PersonETags.forPersons(personService.getVersion()), true);
+        Response.ResponseBuilder notModified = request.evaluatePreconditions(etag);
+        if (notModified != null) {
+            return notModified.build();
+        }
+        List<Person> persons = personService.getAllPersons();
+        StreamingOutput body = out -> jsonStreamer.writeNdjson(persons, out);
+        return Response.ok(body, PersonJsonStreamer.APPLICATION_NDJSON).tag(etag).build();
+    }
+    
+    /**
+     * GET /jaxrs/persons/search?q={text}&field={firstname|lastname|fullname}&prefix={true|false}&limit={n}
+     * Exakte oder Präfix-Suche (Default: Präfix auf fullname)
+     */
+    @GET
+    @Path("/search")
+    public Response searchPersons(@QueryParam("q") String q,
+                                  @QueryParam("field") @DefaultValue("fullname") String field,
+                                  @QueryParam("prefix") @DefaultValue("true") boolean prefix,
+                                  @QueryParam("limit") Integer limit) {
+        log.debug("🔎 GET /jaxrs/persons/search?q={} - JAX-RS", q);
+        NameField nameField = NameField.fromParameter(field);
+        if (q == null || nameField == null) {
+            return Response.status(Response.Status.BAD_REQUEST).build();
+        }
+        return Response.ok(personService.searchPersons(nameField, q, prefix, limit)).build();
+    }
+    
+    /**
+     * GET /jaxrs/persons/changes?feed={feed}&since={seq}
+     * Änderungen seit since (resync=true: Liste neu laden, dann mit latestSeq weiter)
+     */
+    @GET
+    @Path("/changes")
+    public Response getChanges(@QueryParam("feed") String feed,
+                               @QueryParam("since") @DefaultValue("0") long since) {
+        log.debug("📰 GET /jaxrs/persons/changes?since={} - JAX-RS", since);
+        return Response.ok(changeFeed.since(feed, since)).build();
     }
     
     /**
      * GET /jaxrs/persons/{id}
+     * ETag = Personen-Version
      */
     @GET
     @Path("/{id}")
-    public Response getPersonById(@PathParam("id") Long id) {
-        log.info("🔍 GET /jaxrs/persons/{} - JAX-RS", id);
-        return personService.findById(id)
-            .map(person -> Response.ok(person).build())
-            .orElse(Response.status(Response.Status.NOT_FOUND).build());
+    public Response getPersonById(@PathParam("id") Long id, @Context Request request) {
+        log.debug("🔍 GET /jaxrs/persons/{} - JAX-RS", id);
+        Optional<Person> person = personService.findById(id);
+        if (person.isEmpty()) {
+            return Response.status(Response.Status.NOT_FOUND).build();
+        }
+        EntityTag etag = new EntityTag(PersonETags.forPerson(person.get()));
+        Response.ResponseBuilder notModified = request.evaluatePreconditions(etag);
+        if (notModified != null) {
+            return notModified.build();
+        }
+        return Response.ok(responseCache.person(person.get()).body(), MediaType.APPLICATION_JSON_TYPE)
+            .tag(etag)
+            .build();
     }
     
     /**
@@ -81,34 +207,101 @@ public class PersonResource {
      */
     @POST
     public Response createPerson(Person person) {
-        log.info("➕ POST /jaxrs/persons - JAX-RS: {}", person.getFullName());
+        log.debug("➕ POST /jaxrs/persons - JAX-RS: {}", person.getFullName());
         Person created = personService.createPerson(person);
         return Response.status(Response.Status.CREATED).entity(created).build();
     }
     
     /**
      * PUT /jaxrs/persons/{id}
+     * Mit If-Match nur, wenn die Version noch passt (sonst 412)
      */
     @PUT
     @Path("/{id}")
-    public Response updatePerson(@PathParam("id") Long id, Person person) {
-        log.info("✏️ PUT /jaxrs/persons/{} - JAX-RS", id);
-        boolean updated = personService.updatePerson(id, person);
-        return updated 
-            ? Response.ok().build() 
-            : Response.status(Response.Status.NOT_FOUND).build();
+    public Response updatePerson(@PathParam("id") Long id, Person person,
+                                 @HeaderParam(HttpHeaders.IF_MATCH) String ifMatch) {
+        log.debug("✏️ PUT /jaxrs/persons/{} - JAX-RS", id);
+        try {
+            return personService.updatePerson(id, person, PersonETags.expectedVersion(ifMatch, id))
+                .map(updated -> Response.ok().tag(new EntityTag(PersonETags.forPerson(updated))).build())
+                .orElse(Response.status(Response.Status.NOT_FOUND).build());
+        } catch (PersonVersionConflictException e) {
+            log.warn("⚠️ {}", e.getMessage());
+            return Response.status(Response.Status.PRECONDITION_FAILED).build();
+        }
     }
     
     /**
      * DELETE /jaxrs/persons/{id}
+     * Mit If-Match nur, wenn die Version noch passt (sonst 412)
      */
     @DELETE
     @Path("/{id}")
-    public Response deletePerson(@PathParam("id") Long id) {
-        log.info("🗑️ DELETE /jaxrs/persons/{} - JAX-RS", id);
-        boolean deleted = personService.deletePerson(id);
-        return deleted 
-            ? Response.noContent().build() 
-            : Response.status(Response.Status.NOT_FOUND).build();
+    public Response deletePerson(@PathParam("id") Long id,
+                                 @HeaderParam(HttpHeaders.IF_MATCH) String ifMatch) {
+        log.debug("🗑️ DELETE /jaxrs/persons/{} - JAX-RS", id);
+        try {
+            boolean deleted = personService.deletePerson(id, PersonETags.expectedVersion(ifMatch, id));
+            return deleted 
+                ? Response.noContent().build() 
+                : Response.status(Response.Status.NOT_FOUND).build();
+        } catch (PersonVersionConflictException e) {
+            log.warn("⚠️ {}", e.getMessage());
+            return Response.status(Response.Status.PRECONDITION_FAILED).build();
+        }
+    }
+    
+    /**
+     * POST /jaxrs/persons/batch
+     * Erstellt viele Personen mit einem Request (JSON-Array oder NDJSON)
+     */
+    @POST
+    @Path("/batch")
+    @Consumes({MediaType.APPLICATION_JSON, PersonJsonStreamer.APPLICATION_NDJSON})
+    public Response createPersons(InputStream body) throws IOException {
+        log.debug("➕ POST /jaxrs/persons/batch - JAX-RS");
+        return applyBatch(body, Person.class, personService::createPersons);
+    }
+    
+    /**
+     * PUT /jaxrs/persons/batch
+     * Aktualisiert viele Personen (ID steht im jeweiligen Element)
+     */
+    @PUT
+    @Path("/batch")
+    @Consumes({MediaType.APPLICATION_JSON, PersonJsonStreamer.APPLICATION_NDJSON})
+    public Response updatePersons(InputStream body) throws IOException {
+        log.debug("✏️ PUT /jaxrs/persons/batch - JAX-RS");
+        return applyBatch(body, Person.class, personService::updatePersons);
+    }
+    
+    /**
+     * POST /jaxrs/persons/batch/delete
+     * Löscht viele Personen (Body: IDs als JSON-Array oder NDJSON)
+     */
+    @POST
+    @Path("/batch/delete")
+    @Consumes({MediaType.APPLICATION_JSON, PersonJsonStreamer.APPLICATION_NDJSON})
+    public Response deletePersons(InputStream body) throws IOException {
+        log.debug("🗑️ POST /jaxrs/persons/batch/delete - JAX-RS");
+        return applyBatch(body, Long.class, personService::deletePersons);
+    }
+    
+    /**
+     * Liest den Body chunkweise und wendet jeden Chunk auf den Service an
+     * 
+     * Bei kaputtem JSON: 400 mit den Ergebnissen der bereits angewendeten Chunks.
+     */
+    private <T> Response applyBatch(InputStream body, Class<T> type,
+                                    PersonService.BatchOperation<T> operation) throws IOException {
+        List<BatchItemResult> results = new ArrayList<>();
+        try {
+            jsonStreamer.readChunks(body, type, PersonService.BATCH_CHUNK_SIZE,
+                chunk -> results.addAll(operation.apply(chunk, results.size())));
+        } catch (JsonProcessingException e) {
+            log.warn("⚠️ Batch abgebrochen nach {} Elementen: {}", results.size(), e.getOriginalMessage());
+            return Response.status(Response.Status.BAD_REQUEST).entity(results).build();
+        }
+        return Response.ok(results).build();
     }
 }
@@ -0,0 +1,80 @@
+package com.javafleet.tag10.controller;
+
+import com.javafleet.tag10.service.PersonService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.thymeleaf.ITemplateEngine;
+import org.thymeleaf.context.Context;
+
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * PersonTableFragmentCache - die Personen-Tabelle als fertiges HTML
+ * 
+ * Die Tabelle (fragments/person-table.html) wird einzeln gerendert und
+ * mit th:utext in persons.html eingesetzt. Mit enabled=true bleibt das
+ * HTML liegen, bis sich die Store-Version ändert - jedes create, update
+ * und delete macht den Eintrag damit ungültig, ohne dass jemand ihn
+ * aktiv löschen muss. Bis dahin kostet die Tabelle pro Request nur das
+ * Kopieren eines Strings.
+ * 
+ * Die Version wird vor dem Lesen der Personen abgefragt: der Eintrag ist
+ * nie neuer als seine Version. Zwei gleichzeitige Misses rendern beide,
+ * der spätere gewinnt - harmlos, das Ergebnis ist gleich.
+ * 
+ * application.properties:
+ * app.view.fragment-cache.enabled=false   im Profil prod: true
+ * 
+ * @author Elyndra Valen
+ */
+@Component
+@Slf4j
+class PersonTableFragmentCache {
+    
+    private static final String TEMPLATE = "fragments/person-table";
+    private static final Set<String> FRAGMENT = Set.of("personTable");
+    
+    private final PersonService personService;
+    private final ITemplateEngine templateEngine;
+    private final boolean enabled;
+    
+    private volatile Rendered cached = new Rendered(-1, null, null);
+    
+    PersonTableFragmentCache(PersonService personService, ITemplateEngine templateEngine,
+                             @Value("${app.view.fragment-cache.enabled:false}") boolean enabled) {
+        this.personService = personService;
+        this.templateEngine = templateEngine;
+        this.enabled = enabled;
+        log.info("🧩 Fragment-Cache Personen-Tabelle: {}", enabled ? "an" : "aus");
+    }
+    
+    /**
+     * HTML der Tabelle für den aktuellen Stand des Stores
+     */
+    String render(String contextPath, Locale locale) {
+        if (!enabled) {
+            return renderFragment(contextPath, locale);
+        }
+        long version = personService.getVersion();
+        Rendered current = cached;
+        if (current.version() == version && current.contextPath().equals(contextPath)) {
+            return current.html();
+        }
+        String html = renderFragment(contextPath, locale);
+        cached = new Rendered(version, contextPath, html);
+        log.debug("🧩 Personen-Tabelle neu gerendert (Version {}, {} Zeichen)", version, html.length());
+        return html;
+    }
+    
+    private String renderFragment(String contextPath, Locale locale) {
+        Context context = new Context(locale);
+        context.setVariable("persons", personService.getAllPersons());
+        context.setVariable("contextPath", contextPath);
+        return templateEngine.process(TEMPLATE, FRAGMENT, context);
+    }
+    
+    private record Rendered(long version, String contextPath, String html) {
+    }
+}
@@ -1,13 +1,20 @@
 package com.javafleet.tag10.controller;
 
+import com.javafleet.tag10.model.FavoriteCount;
 import com.javafleet.tag10.model.Person;
+import com.javafleet.tag10.service.FavoritePopularity;
+import com.javafleet.tag10.service.PersonFavorites;
 import com.javafleet.tag10.service.PersonService;
 import lombok.RequiredArgsConstructor;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * PersonViewController - MVC Controller mit Thymeleaf
  * 
@@ -17,6 +24,12 @@ import org.springframework.web.bind.annotation.*;
  * - Thymeleaf Template Integration (Tag 3)
  * - Post-Redirect-Get Pattern (Tag 4)
  * - Form Handling (Tag 4)
+ * - Session Scope (Tag 7): Favoriten pro Session, "meistfavorisiert" global
+ * 
+ * Die Personen-Tabelle kommt fertig gerendert aus dem
+ * PersonTableFragmentCache (im Profil prod gecacht bis zur nächsten Änderung).
+ * Sie ist für alle Sessions gleich - die Favoriten stehen daher in einer
+ * eigenen Liste darunter.
  * 
  * @author Elyndra Valen
  */
@@ -27,20 +40,64 @@ import org.springframework.web.bind.annotation.*;
 public class PersonViewController {
     
     private final PersonService personService;
+    private final PersonTableFragmentCache personTable;
+    private final PersonFavorites favorites;
+    private final FavoritePopularity popularity;
     
     /**
      * GET /persons
      * Zeigt Liste aller Personen
      */
     @GetMapping(path = "/")
-    public String listPersons(Model model) {
-        log.info("📄 GET /persons - Thymeleaf View");
-        model.addAttribute("persons", personService.getAllPersons());
-        model.addAttribute("newPerson", new Person());
+    public String listPersons(Model model, HttpServletRequest request) {
+        log.debug("📄 GET /persons - Thymeleaf View");
+        model.addAttribute("personTable", personTable.render(request.getContextPath(), request.getLocale()));
+        model.addAttribute("newPerson", Person.of(null, null, null));
         model.addAttribute("totalCount", personService.getCount());
+        model.addAttribute("favorites", personService.findAllById(favorites.getAllFavorites()));
+        model.addAttribute("topFavorites", topFavorites());
         return "persons";
     }
     
+    /**
+     * GET /persons/favorites/add/{id}
+     * Merkt eine Person für diese Session vor
+     */
+    @GetMapping("/favorites/add/{id}")
+    public String addFavorite(@PathVariable Long id) {
+        log.debug("⭐ GET /persons/favorites/add/{}", id);
+        if (personService.findById(id).isPresent()) {
+            favorites.addFavorite(id);
+        }
+        return "redirect:/persons";
+    }
+    
+    /**
+     * GET /persons/favorites/remove/{id}
+     */
+    @GetMapping("/favorites/remove/{id}")
+    public String removeFavorite(@PathVariable Long id) {
+        log.debug("☆ GET /persons/favorites/remove/{}", id);
+        favorites.removeFavorite(id);
+        return "redirect:/persons";
+    }
+    
+    private List<PopularPerson> topFavorites() {
+        List<FavoriteCount> top = popularity.getTop(popularity.getTopSize());
+        List<PopularPerson> result = new ArrayList<>(top.size());
+        for (FavoriteCount entry : top) {
+            personService.findById(entry.personId())
+                .ifPresent(person -> result.add(new PopularPerson(person, entry.count())));
+        }
+        return result;
+    }
+    
+    /**
+     * Eintrag der "meistfavorisiert"-Liste im Template
+     */
+    public record PopularPerson(Person person, long count) {
+    }
+    
     /**
      * POST /persons/add
      * Erstellt neue Person und redirected
@@ -49,7 +106,7 @@ public class PersonViewController {
      */
     @PostMapping("/add")
     public String addPerson(@ModelAttribute Person person) {
-        log.info("➕ POST /persons/add - Form Submit: {}", person.getFullName());
+        log.debug("➕ POST /persons/add - Form Submit: {}", person.getFullName());
         personService.createPerson(person);
         return "redirect:/persons"; // PRG Pattern!
     }
@@ -60,7 +117,7 @@ public class PersonViewController {
      */
     @GetMapping("/delete/{id}")
     public String deletePerson(@PathVariable Long id) {
-        log.info("🗑️ GET /persons/delete/{}", id);
+        log.debug("🗑️ GET /persons/delete/{}", id);
         personService.deletePerson(id);
         return "redirect:/persons";
     }
@@ -0,0 +1,100 @@
+package com.javafleet.tag10.controller;
+
+import com.javafleet.tag10.accesslog.AccessLog;
+import com.javafleet.tag10.accesslog.AccessLogStatistics;
+import com.javafleet.tag10.admission.AdmissionControl;
+import com.javafleet.tag10.admission.AdmissionStatistics;
+import com.javafleet.tag10.json.PersonResponseCache;
+import com.javafleet.tag10.json.ResponseCacheStatistics;
+import com.javafleet.tag10.metrics.EndpointRate;
+import com.javafleet.tag10.service.ApplicationStatistics;
+import com.javafleet.tag10.service.PersonChangeFeed;
+import com.javafleet.tag10.service.PersonChangeFeedStatistics;
+import com.javafleet.tag10.session.FileSessionRepository;
+import com.javafleet.tag10.session.SessionStoreStatistics;
+import com.javafleet.tag10.websocket.broker.BrokerStatistics;
+import com.javafleet.tag10.websocket.broker.ShardedStompBroker;
+import com.javafleet.tag10.websocket.cluster.ClusterRelay;
+import com.javafleet.tag10.websocket.cluster.ClusterRelayStatistics;
+import com.javafleet.tag10.websocket.wire.OutboundBatchingDecoratorFactory;
+import com.javafleet.tag10.websocket.wire.OutboundBatchingStatistics;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * StatisticsController - Durchsatz der Anwendung als JSON
+ * 
+ * Demonstriert:
+ * - Application Scope (Tag 7): Zähler aus ApplicationStatistics
+ * 
+ * @author Code Sentinel
+ */
+@RestController
+@RequiredArgsConstructor
+public class StatisticsController {
+    
+    private final ApplicationStatistics statistics;
+    private final ObjectProvider<ShardedStompBroker> broker;
+    private final OutboundBatchingDecoratorFactory outboundBatching;
+    private final ClusterRelay clusterRelay;
+    private final PersonResponseCache responseCache;
+    private final ObjectProvider<FileSessionRepository> sessionRepository;
+    private final PersonChangeFeed changeFeed;
+    private final AdmissionControl admission;
+    private final AccessLog accessLog;
+    
+    /**
+     * GET /api/stats
+     * Gesamtzähler plus Raten pro Endpunkt/Destination (Requests pro Sekunde
+     * über die letzte Sekunde, Minute und fünf Minuten), dazu die Zähler
+     * des ShardedStompBroker (null beim SimpleBroker), des Batchings
+     * (null, wenn abgeschaltet), des Cluster-Relays (null ohne Peers),
+     * des Response-Caches (null, wenn abgeschaltet), des
+     * Session-Stores (null bei Sessions im Speicher), des
+     * Änderungsfeeds /topic/persons, der Admission Control
+     * (adaptive Limits, Token Buckets - null, wenn abgeschaltet) und des
+     * Access-Logs (null, wenn abgeschaltet)
+     */
+    @GetMapping("/api/stats")
+    public StatisticsReport getStatistics() {
+        return new StatisticsReport(
+            statistics.getTotalApiCalls(),
+            statistics.getTotalViewRequests(),
+            statistics.getTotalInboundMessages(),
+            statistics.getTotalOutboundMessages(),
+            statistics.getTotalWebSocketConnections(),
+            statistics.getEndpointRates(),
+            broker.stream().findFirst().map(ShardedStompBroker::getStatistics).orElse(null),
+            outboundBatching.isEnabled() ? outboundBatching.getStatistics() : null,
+            clusterRelay.isActive() ? clusterRelay.getStatistics() : null,
+            responseCache.isEnabled() ? responseCache.getStatistics() : null,
+            sessionRepository.stream().findFirst().map(FileSessionRepository::getStatistics).orElse(null),
+            changeFeed.getStatistics(),
+            admission.isEnabled() ? admission.getStatistics() : null,
+            accessLog.isEnabled() ? accessLog.getStatistics() : null);
+    }
+    
+    /**
+     * Antwort von /api/stats
+     */
+    public record StatisticsReport(
+            long totalApiCalls,
+            long totalViewRequests,
+            long totalInboundMessages,
+            long totalOutboundMessages,
+            long totalWebSocketConnections,
+            List<EndpointRate> endpoints,
+            BrokerStatistics broker,
+            OutboundBatchingStatistics outboundBatching,
+            ClusterRelayStatistics cluster,
+            ResponseCacheStatistics responseCache,
+            SessionStoreStatistics sessionStore,
+            PersonChangeFeedStatistics changeFeed,
+            AdmissionStatistics admission,
+            AccessLogStatistics accessLog) {
+    }
+}
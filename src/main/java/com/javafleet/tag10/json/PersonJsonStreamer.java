@@ -0,0 +1,110 @@
+package com.javafleet.tag10.json;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.util.MinimalPrettyPrinter;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.javafleet.tag10.model.Person;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * PersonJsonStreamer - Schreibt Personen direkt in den Response-Stream
+ * 
+ * Wird von Spring MVC (StreamingResponseBody) und JAX-RS (StreamingOutput)
+ * gemeinsam genutzt. Jede Person wird einzeln serialisiert und landet
+ * sofort im Puffer des Sockets - das komplette JSON-Dokument liegt nie
+ * im Speicher.
+ * 
+ * Formate:
+ * - JSON-Array:  [{...},{...}]
+ * - NDJSON:      eine Person pro Zeile (application/x-ndjson)
+ * 
+ * In Gegenrichtung liest readChunks() Batch-Requests (JSON-Array oder
+ * NDJSON) gestreamt in Chunks fester Größe.
+ * 
+ * @author Elyndra Valen
+ */
+@Component
+public class PersonJsonStreamer {
+    
+    public static final String APPLICATION_NDJSON = "application/x-ndjson";
+    
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter personWriter;
+    
+    public PersonJsonStreamer(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        // Kein Flush pro Person - Tomcat soll volle Puffer verschicken
+        this.personWriter = objectMapper.writerFor(Person.class)
+            .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+    
+    /**
+     * Schreibt alle Personen als JSON-Array
+     */
+    public void writeArray(Iterable<Person> persons, OutputStream out) throws IOException {
+        try (JsonGenerator generator = createGenerator(out)) {
+            generator.writeStartArray();
+            for (Person person : persons) {
+                personWriter.writeValue(generator, person);
+            }
+            generator.writeEndArray();
+        }
+    }
+    
+    /**
+     * Schreibt alle Personen als NDJSON (eine Zeile pro Person)
+     */
+    public void writeNdjson(Iterable<Person> persons, OutputStream out) throws IOException {
+        try (JsonGenerator generator = createGenerator(out)) {
+            generator.setPrettyPrinter(new MinimalPrettyPrinter("\n"));
+            for (Person person : persons) {
+                personWriter.writeValue(generator, person);
+            }
+            generator.writeRaw('\n');
+        }
+    }
+    
+    private JsonGenerator createGenerator(OutputStream out) throws IOException {
+        // Den Servlet-Stream schließt der Container, nicht wir
+        return objectMapper.getFactory().createGenerator(out)
+            .configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false);
+    }
+    
+    /**
+     * Liest ein JSON-Array oder NDJSON gestreamt und übergibt es in Chunks
+     * 
+     * Es liegt immer höchstens ein Chunk im Speicher.
+     * 
+     * @param in        Request-Body
+     * @param type      Elementtyp (z.B. Person.class oder Long.class)
+     * @param chunkSize maximale Anzahl Elemente pro Chunk
+     * @param consumer  verarbeitet einen Chunk
+     */
+    public <T> void readChunks(InputStream in, Class<T> type, int chunkSize,
+                               Consumer<List<T>> consumer) throws IOException {
+        // readValues() entpackt ein Root-Array automatisch, NDJSON ist eine Root-Sequenz
+        try (MappingIterator<T> values = objectMapper.readerFor(type).readValues(in)) {
+            List<T> chunk = new ArrayList<>(chunkSize);
+            while (values.hasNextValue()) {
+                chunk.add(values.nextValue());
+                if (chunk.size() == chunkSize) {
+                    consumer.accept(chunk);
+                    chunk = new ArrayList<>(chunkSize);
+                }
+            }
+            if (!chunk.isEmpty()) {
+                consumer.accept(chunk);
+            }
+        }
+    }
+}
@@ -0,0 +1,307 @@
+package com.javafleet.tag10.json;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.javafleet.tag10.model.Person;
+import com.javafleet.tag10.model.PersonPage;
+import com.javafleet.tag10.service.PersonService;
+import com.javafleet.tag10.store.PersonChangeListener;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * PersonResponseCache - fertig serialisierte JSON-Antworten für beide REST-Stacks
+ *
+ * Spring MVC (/api/persons) und JAX-RS (/jakarta/jaxrs/persons) liefern
+ * dieselben Bytes aus: beide nutzen denselben ObjectMapper, also kann ein
+ * einmal erzeugtes JSON von beiden Stacks geschrieben werden. Ein Treffer
+ * kostet einen Map-Zugriff und das Kopieren des Arrays in den Socket -
+ * kein Objektgraph, kein Jackson.
+ *
+ * Schlüssel und Version:
+ * - Liste und Seiten (after/limit): Store-Version, vor dem Lesen abgefragt
+ * - einzelne Person: ihre Personen-Version
+ * Ein Eintrag gilt nur, solange seine Version noch die aktuelle ist - ein
+ * veralteter Eintrag kann also nie ausgeliefert werden, auch wenn ein
+ * Leser ihn nach der Änderung noch einstellt.
+ *
+ * Invalidierung: der Cache hängt als PersonChangeListener am Store.
+ * Update und Delete entfernen genau den Eintrag dieser Person, jede
+ * Änderung verwirft Liste und Seiten. Der Speicher wird damit sofort
+ * frei, nicht erst bei der nächsten Anfrage.
+ *
+ * Speicher: gezählt werden die JSON-Bytes plus ENTRY_OVERHEAD pro
+ * Eintrag. Über maxBytes werden in einem Schub die am längsten nicht
+ * gelesenen Einträge entfernt, bis wieder EVICTION_TARGET des Budgets
+ * frei ist. Antworten über einem Viertel des Budgets werden ausgeliefert,
+ * aber nicht gecacht. maxBytes=0 schaltet den Cache ab - dann wird bei
+ * jedem Aufruf serialisiert.
+ *
+ * Die Arrays in CachedResponse werden geteilt und dürfen nicht verändert werden.
+ *
+ * @author Elyndra Valen
+ */
+@Slf4j
+public class PersonResponseCache implements PersonChangeListener {
+
+    /** Geschätzter Platz pro Eintrag neben dem JSON (Map-Knoten, Schlüssel, Entry, Array-Header) */
+    static final int ENTRY_OVERHEAD = 128;
+
+    /** Nach einem Eviction-Schub ist höchstens dieser Anteil des Budgets belegt */
+    static final double EVICTION_TARGET = 0.9;
+
+    private static final PageKey ALL = new PageKey(Long.MIN_VALUE, 0);
+
+    private final PersonService personService;
+    private final ObjectWriter listWriter;
+    private final ObjectWriter personWriter;
+    private final long maxBytes;
+    private final long maxEntryBytes;
+
+    private final ConcurrentHashMap<Long, Entry> persons = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<PageKey, Entry> pages = new ConcurrentHashMap<>();
+    private final AtomicLong usedBytes = new AtomicLong();
+    private final ReentrantLock evictionLock = new ReentrantLock();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    public PersonResponseCache(PersonService personService, ObjectMapper objectMapper, long maxBytes) {
+        if (maxBytes < 0) {
+            throw new IllegalArgumentException("app.response-cache.max-size darf nicht negativ sein");
+        }
+        this.personService = personService;
+        this.listWriter = objectMapper.writerFor(new TypeReference<List<Person>>() { });
+        this.personWriter = objectMapper.writerFor(Person.class);
+        this.maxBytes = maxBytes;
+        this.maxEntryBytes = maxBytes / 4;
+    }
+
+    public boolean isEnabled() {
+        return maxBytes > 0;
+    }
+
+    /**
+     * Alle Personen als JSON-Array
+     */
+    public CachedResponse allPersons() {
+        long version = personService.getVersion();
+        CachedResponse cached = lookup(pages, ALL, version);
+        if (cached != null) {
+            return cached;
+        }
+        CachedResponse response = new CachedResponse(version, write(listWriter, personService.getAllPersons()), null);
+        store(pages, ALL, response);
+        return response;
+    }
+
+    /**
+     * Eine Seite der Keyset-Pagination als JSON-Array, nextAfter wie in PersonPage
+     */
+    public CachedResponse page(Long after, Integer limit) {
+        long version = personService.getVersion();
+        PageKey key = new PageKey(after == null ? Long.MIN_VALUE : after, PersonService.pageSize(limit));
+        CachedResponse cached = lookup(pages, key, version);
+        if (cached != null) {
+            return cached;
+        }
+        PersonPage page = personService.getPersonsAfter(after, limit);
+        CachedResponse response = new CachedResponse(version, write(listWriter, page.persons()), page.nextAfter());
+        store(pages, key, response);
+        return response;
+    }
+
+    /**
+     * Eine Person als JSON - die Person hat der Aufrufer schon geladen (für das ETag)
+     */
+    public CachedResponse person(Person person) {
+        long version = person.getVersion();
+        CachedResponse cached = lookup(persons, person.getId(), version);
+        if (cached != null) {
+            return cached;
+        }
+        CachedResponse response = new CachedResponse(version, write(personWriter, person), null);
+        store(persons, person.getId(), response);
+        return response;
+    }
+
+    public ResponseCacheStatistics getStatistics() {
+        return new ResponseCacheStatistics(
+            persons.size() + pages.size(),
+            usedBytes.get(),
+            maxBytes,
+            hits.sum(),
+            misses.sum(),
+            evictions.sum(),
+            invalidations.sum());
+    }
+
+    // --- PersonChangeListener: läuft im kritischen Abschnitt des Stores ---
+
+    @Override
+    public void personInserted(Person person) {
+        invalidate(persons, person.getId());
+        invalidatePages();
+    }
+
+    @Override
+    public void personUpdated(Person before, Person after) {
+        invalidate(persons, after.getId());
+        invalidatePages();
+    }
+
+    @Override
+    public void personDeleted(Person removed) {
+        invalidate(persons, removed.getId());
+        invalidatePages();
+    }
+
+    private void invalidatePages() {
+        if (pages.isEmpty()) {
+            return;
+        }
+        for (PageKey key : pages.keySet()) {
+            invalidate(pages, key);
+        }
+    }
+
+    private <K> void invalidate(Map<K, Entry> map, K key) {
+        if (map.isEmpty()) {
+            return;
+        }
+        Entry removed = map.remove(key);
+        if (removed != null) {
+            usedBytes.addAndGet(-removed.size());
+            invalidations.increment();
+        }
+    }
+
+    // --- Lesen, Einstellen, Verdrängen ---
+
+    private <K> CachedResponse lookup(Map<K, Entry> map, K key, long version) {
+        if (!isEnabled()) {
+            return null;
+        }
+        Entry entry = map.get(key);
+        if (entry != null && entry.response.version() == version) {
+            entry.lastAccess = System.nanoTime();
+            hits.increment();
+            return entry.response;
+        }
+        misses.increment();
+        return null;
+    }
+
+    private <K> void store(Map<K, Entry> map, K key, CachedResponse response) {
+        if (!isEnabled()) {
+            return;
+        }
+        Entry entry = new Entry(response);
+        if (entry.size() > maxEntryBytes) {
+            return;
+        }
+        Entry replaced = map.put(key, entry);
+        long used = usedBytes.addAndGet(entry.size() - (replaced == null ? 0 : replaced.size()));
+        if (used > maxBytes) {
+            evict();
+        }
+    }
+
+    /**
+     * Entfernt die am längsten nicht gelesenen Einträge, bis EVICTION_TARGET erreicht ist
+     *
+     * Ein Schub sortiert alle Einträge einmal - das passiert nur beim
+     * Überschreiten des Budgets und schafft Platz für viele weitere Einträge.
+     * Läuft schon ein Schub, kehren andere Schreiber sofort zurück.
+     */
+    private void evict() {
+        if (!evictionLock.tryLock()) {
+            return;
+        }
+        try {
+            long target = (long) (maxBytes * EVICTION_TARGET);
+            if (usedBytes.get() <= target) {
+                return;
+            }
+            List<Candidate<?>> candidates = new ArrayList<>(persons.size() + pages.size());
+            persons.forEach((id, entry) -> candidates.add(new Candidate<>(persons, id, entry)));
+            pages.forEach((key, entry) -> candidates.add(new Candidate<>(pages, key, entry)));
+            candidates.sort(Comparator.comparingLong(Candidate::lastAccess));
+            int evicted = 0;
+            for (Candidate<?> candidate : candidates) {
+                if (usedBytes.get() <= target) {
+                    break;
+                }
+                if (candidate.remove()) {
+                    usedBytes.addAndGet(-candidate.entry().size());
+                    evicted++;
+                }
+            }
+            evictions.add(evicted);
+            log.debug("🧹 Response-Cache: {} Einträge verdrängt, {} Bytes belegt", evicted, usedBytes.get());
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    private static byte[] write(ObjectWriter writer, Object value) {
+        try {
+            return writer.writeValueAsBytes(value);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Fertige Antwort: Version (für das ETag), JSON-Bytes und bei Seiten der Cursor
+     */
+    public record CachedResponse(long version, byte[] body, Long nextAfter) {
+
+        public boolean hasNext() {
+            return nextAfter != null;
+        }
+    }
+
+    private record PageKey(long after, int limit) {
+    }
+
+    private static final class Entry {
+
+        final CachedResponse response;
+        /** Ungefähr genügt - kein volatile, kein Schreiben auf eine gemeinsame Cache-Line pro Treffer */
+        long lastAccess = System.nanoTime();
+
+        Entry(CachedResponse response) {
+            this.response = response;
+        }
+
+        long size() {
+            return response.body().length + ENTRY_OVERHEAD;
+        }
+    }
+
+    private record Candidate<K>(Map<K, Entry> map, K key, Entry entry) {
+
+        long lastAccess() {
+            return entry.lastAccess;
+        }
+
+        /** Nur genau diesen Eintrag - ein inzwischen neu eingestellter bleibt */
+        boolean remove() {
+            return map.remove(key, entry);
+        }
+    }
+}
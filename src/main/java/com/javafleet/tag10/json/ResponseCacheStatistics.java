@@ -0,0 +1,16 @@
+package com.javafleet.tag10.json;
+
+/**
+ * Zustand des PersonResponseCache (Teil von /api/stats)
+ *
+ * @param entries       gecachte Antworten (Personen + Listen/Seiten)
+ * @param bytes         belegter Speicher inkl. Overhead pro Eintrag
+ * @param maxBytes      Budget (app.response-cache.max-size)
+ * @param hits          ausgelieferte Antworten ohne Serialisierung
+ * @param misses        serialisierte Antworten
+ * @param evictions     wegen des Budgets entfernte Einträge
+ * @param invalidations durch Änderungen am Store entfernte Einträge
+ */
+public record ResponseCacheStatistics(long entries, long bytes, long maxBytes,
+                                      long hits, long misses, long evictions, long invalidations) {
+}
@@ -0,0 +1,16 @@
+package com.javafleet.tag10.metrics;
+
+/**
+ * EndpointRate - Zähler und Raten eines Endpunkts bzw. einer STOMP-Destination
+ *
+ * @param type  api, view, stomp-in oder stomp-out
+ * @param name  z.B. "GET /api/persons/{id}" oder "SEND /app/chat.send"
+ * @param total Anzahl seit dem Start
+ */
+public record EndpointRate(String type, String name, long total, double rate1s, double rate1m, double rate5m) {
+
+    public static EndpointRate of(String type, String name, RateMeter meter) {
+        return new EndpointRate(type, name, meter.getCount(),
+            meter.getRate(RateMeter.ONE_SECOND), meter.getRate(RateMeter.ONE_MINUTE), meter.getRate(RateMeter.FIVE_MINUTES));
+    }
+}
@@ -0,0 +1,63 @@
+package com.javafleet.tag10.metrics;
+
+import com.javafleet.tag10.service.ApplicationStatistics;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.container.ContainerRequestFilter;
+import jakarta.ws.rs.container.ResourceInfo;
+import jakarta.ws.rs.core.Context;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * JaxRsStatisticsFilter - zählt JAX-RS-Requests pro Resource-Methode
+ *
+ * Läuft nach dem Matching: der Endpunkt-Name wird einmal pro Methode aus
+ * den @Path-Annotationen gebaut ("GET /jakarta/jaxrs/persons/{id}") und
+ * danach nur noch nachgeschlagen.
+ */
+public class JaxRsStatisticsFilter implements ContainerRequestFilter {
+
+    private final ApplicationStatistics statistics;
+    private final String applicationPath;
+    private final Map<Method, String> pathTemplates = new ConcurrentHashMap<>();
+
+    @Context
+    private ResourceInfo resourceInfo;
+
+    public JaxRsStatisticsFilter(ApplicationStatistics statistics, String applicationPath) {
+        this.statistics = statistics;
+        this.applicationPath = applicationPath.endsWith("/")
+            ? applicationPath.substring(0, applicationPath.length() - 1)
+            : applicationPath;
+    }
+
+    @Override
+    public void filter(ContainerRequestContext requestContext) {
+        Method method = resourceInfo.getResourceMethod();
+        if (method == null) {
+            return;
+        }
+        String template = pathTemplates.computeIfAbsent(method, key -> template(resourceInfo.getResourceClass(), key));
+        statistics.recordApiCall(requestContext.getMethod() + " " + template);
+    }
+
+    private String template(Class<?> resourceClass, Method method) {
+        StringBuilder template = new StringBuilder(applicationPath);
+        append(template, resourceClass.getAnnotation(Path.class));
+        append(template, method.getAnnotation(Path.class));
+        return template.toString();
+    }
+
+    private static void append(StringBuilder template, Path path) {
+        if (path == null || path.value().isEmpty() || path.value().equals("/")) {
+            return;
+        }
+        if (!path.value().startsWith("/")) {
+            template.append('/');
+        }
+        template.append(path.value());
+    }
+}
@@ -0,0 +1,108 @@
+package com.javafleet.tag10.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * LatencyHistogram - lock-freies Latenz-Histogramm in Nanosekunden
+ *
+ * Aufbau wie bei HdrHistogram (log-linear):
+ * - Werte &lt; 128 ns landen exakt in einem eigenen Bucket
+ * - darüber teilt sich jede Zweierpotenz in 64 gleich breite Sub-Buckets
+ *
+ * Der relative Fehler liegt damit unter 1/64 (ca. 1,6 %) - bei konstantem
+ * Speicher (ca. 18 KB) für 1 ns bis ca. 18 Minuten. record() ist ein
+ * einziges Atomic-Increment plus LongAdder, ohne Lock und ohne Allokation.
+ *
+ * @author Code Sentinel
+ */
+public final class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 7;
+    private static final int SUB_BUCKET_HALF_BITS = SUB_BUCKET_BITS - 1;
+    private static final int SUB_BUCKET_HALF = 1 << SUB_BUCKET_HALF_BITS;
+    /** Größter exakt einsortierter Wert (ca. 18 Minuten) - größere Werte werden gekappt */
+    static final long MAX_TRACKABLE_NANOS = (1L << 40) - 1;
+    private static final int BUCKETS = index(MAX_TRACKABLE_NANOS) + 1;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder sum = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Zeichnet eine Dauer auf (negative Werte zählen als 0)
+     */
+    public void record(long nanos) {
+        long value = Math.min(Math.max(nanos, 0L), MAX_TRACKABLE_NANOS);
+        counts.incrementAndGet(index(value));
+        sum.add(value);
+        long currentMax = max.get();
+        while (value > currentMax && !max.compareAndSet(currentMax, value)) {
+            currentMax = max.get();
+        }
+    }
+
+    /**
+     * Kopiert die Zähler - laufende record()-Aufrufe können teilweise fehlen,
+     * die Kopie selbst ist aber in sich konsistent (count = Summe der Buckets)
+     */
+    public Snapshot snapshot() {
+        long[] copy = new long[BUCKETS];
+        long count = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            copy[i] = counts.get(i);
+            count += copy[i];
+        }
+        return new Snapshot(count, sum.sum(), max.get(), copy);
+    }
+
+    static int index(long value) {
+        int bucket = Math.max(0, 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_HALF_BITS);
+        return (bucket << SUB_BUCKET_HALF_BITS) + (int) (value >>> bucket);
+    }
+
+    /**
+     * Größter Wert, der im selben Bucket landet wie index
+     */
+    static long highestEquivalentValue(int index) {
+        if (index < 2 * SUB_BUCKET_HALF) {
+            return index;
+        }
+        int bucket = (index >> SUB_BUCKET_HALF_BITS) - 1;
+        long subBucket = (index & (SUB_BUCKET_HALF - 1)) + SUB_BUCKET_HALF;
+        return (subBucket << bucket) + (1L << bucket) - 1;
+    }
+
+    /**
+     * Unveränderliche Kopie eines Histogramms
+     *
+     * @param count    Anzahl aufgezeichneter Werte
+     * @param sumNanos Summe aller Werte
+     * @param maxNanos größter Wert (exakt)
+     */
+    public record Snapshot(long count, long sumNanos, long maxNanos, long[] counts) {
+
+        public double meanNanos() {
+            return count == 0 ? 0.0 : (double) sumNanos / count;
+        }
+
+        /**
+         * Wert, unter dem percentile Prozent der Aufrufe liegen (z.B. 99.9)
+         */
+        public long valueAtPercentile(double percentile) {
+            if (count == 0) {
+                return 0L;
+            }
+            long rank = Math.max(1L, (long) Math.ceil(percentile / 100.0 * count));
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    return Math.min(highestEquivalentValue(i), maxNanos);
+                }
+            }
+            return maxNanos;
+        }
+    }
+}
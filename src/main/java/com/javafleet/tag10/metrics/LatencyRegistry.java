@@ -0,0 +1,78 @@
+package com.javafleet.tag10.metrics;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+
+/**
+ * LatencyRegistry - ein LatencyHistogram pro gemessener Methode
+ *
+ * Sampling (app.metrics.latency.sample-rate): bei 1.0 wird jeder Aufruf
+ * gemessen, bei 0.1 etwa jeder zehnte. Nicht gesampelte Aufrufe kosten
+ * nur einen ThreadLocalRandom-Aufruf - kein nanoTime, kein Atomic.
+ * Perzentile bleiben dabei erwartungstreu, count zählt nur Samples.
+ *
+ * @author Code Sentinel
+ */
+public class LatencyRegistry {
+
+    private final ConcurrentHashMap<Method, Timer> timers = new ConcurrentHashMap<>();
+    private final double sampleRate;
+
+    public LatencyRegistry(double sampleRate) {
+        if (sampleRate < 0.0 || sampleRate > 1.0) {
+            throw new IllegalArgumentException("sample-rate muss zwischen 0.0 und 1.0 liegen: " + sampleRate);
+        }
+        this.sampleRate = sampleRate;
+    }
+
+    public double getSampleRate() {
+        return sampleRate;
+    }
+
+    /**
+     * Entscheidet, ob der aktuelle Aufruf gemessen wird
+     */
+    public boolean shouldSample() {
+        return sampleRate >= 1.0 || (sampleRate > 0.0 && ThreadLocalRandom.current().nextDouble() < sampleRate);
+    }
+
+    /**
+     * Histogramm einer Methode - wird beim ersten Aufruf angelegt
+     */
+    public LatencyHistogram histogram(Method method) {
+        Timer timer = timers.get(method);
+        if (timer == null) {
+            timer = timers.computeIfAbsent(method, key -> new Timer(name(key), new LatencyHistogram()));
+        }
+        return timer.histogram();
+    }
+
+    /**
+     * Snapshots aller Histogramme, sortiert nach Methodenname
+     */
+    public Map<String, LatencyHistogram.Snapshot> snapshot() {
+        Map<String, LatencyHistogram.Snapshot> snapshots = new TreeMap<>();
+        for (Timer timer : timers.values()) {
+            snapshots.put(timer.name(), timer.histogram().snapshot());
+        }
+        return snapshots;
+    }
+
+    /**
+     * Klasse.methode(Parametertypen) - Überladungen bekommen eigene Namen
+     */
+    private static String name(Method method) {
+        return method.getDeclaringClass().getSimpleName() + "." + method.getName()
+            + Arrays.stream(method.getParameterTypes())
+                .map(Class::getSimpleName)
+                .collect(Collectors.joining(",", "(", ")"));
+    }
+
+    private record Timer(String name, LatencyHistogram histogram) {
+    }
+}
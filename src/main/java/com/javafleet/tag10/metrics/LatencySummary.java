@@ -0,0 +1,14 @@
+package com.javafleet.tag10.metrics;
+
+/**
+ * LatencySummary - Kennzahlen eines Histogramms als JSON (alle Werte in Nanosekunden)
+ */
+public record LatencySummary(String method, long count, long meanNanos,
+                             long p50Nanos, long p90Nanos, long p99Nanos, long p999Nanos, long maxNanos) {
+
+    public static LatencySummary of(String method, LatencyHistogram.Snapshot snapshot) {
+        return new LatencySummary(method, snapshot.count(), Math.round(snapshot.meanNanos()),
+            snapshot.valueAtPercentile(50.0), snapshot.valueAtPercentile(90.0),
+            snapshot.valueAtPercentile(99.0), snapshot.valueAtPercentile(99.9), snapshot.maxNanos());
+    }
+}
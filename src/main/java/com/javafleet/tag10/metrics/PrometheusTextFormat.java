@@ -0,0 +1,62 @@
+package com.javafleet.tag10.metrics;
+
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * PrometheusTextFormat - Latenzen im Prometheus Text Exposition Format 0.0.4
+ *
+ * Pro Methode eine Summary (Quantile, _sum, _count) in Sekunden plus das
+ * exakte Maximum als Gauge.
+ */
+public final class PrometheusTextFormat {
+
+    public static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    private static final String LATENCY = "tag10_method_latency_seconds";
+    private static final String MAX = "tag10_method_latency_max_seconds";
+    private static final String SAMPLE_RATE = "tag10_method_latency_sample_rate";
+    private static final double[] QUANTILES = {0.5, 0.9, 0.99, 0.999};
+
+    private PrometheusTextFormat() {
+    }
+
+    public static String latencies(Map<String, LatencyHistogram.Snapshot> snapshots, double sampleRate) {
+        StringBuilder out = new StringBuilder(256 + snapshots.size() * 512);
+        out.append("# HELP ").append(SAMPLE_RATE).append(" Anteil der gemessenen Aufrufe\n");
+        out.append("# TYPE ").append(SAMPLE_RATE).append(" gauge\n");
+        out.append(SAMPLE_RATE).append(' ').append(sampleRate).append('\n');
+
+        out.append("# HELP ").append(LATENCY).append(" Latenz von Controller- und Service-Methoden (gesampelt)\n");
+        out.append("# TYPE ").append(LATENCY).append(" summary\n");
+        for (Map.Entry<String, LatencyHistogram.Snapshot> entry : snapshots.entrySet()) {
+            String method = escape(entry.getKey());
+            LatencyHistogram.Snapshot snapshot = entry.getValue();
+            for (double quantile : QUANTILES) {
+                out.append(LATENCY).append("{method=\"").append(method)
+                    .append("\",quantile=\"").append(quantile).append("\"} ")
+                    .append(seconds(snapshot.valueAtPercentile(quantile * 100.0))).append('\n');
+            }
+            out.append(LATENCY).append("_sum{method=\"").append(method).append("\"} ")
+                .append(seconds(snapshot.sumNanos())).append('\n');
+            out.append(LATENCY).append("_count{method=\"").append(method).append("\"} ")
+                .append(snapshot.count()).append('\n');
+        }
+
+        out.append("# HELP ").append(MAX).append(" Größte gemessene Latenz\n");
+        out.append("# TYPE ").append(MAX).append(" gauge\n");
+        for (Map.Entry<String, LatencyHistogram.Snapshot> entry : snapshots.entrySet()) {
+            out.append(MAX).append("{method=\"").append(escape(entry.getKey())).append("\"} ")
+                .append(seconds(entry.getValue().maxNanos())).append('\n');
+        }
+        return out.toString();
+    }
+
+    private static String seconds(long nanos) {
+        return String.format(Locale.ROOT, "%.9f", nanos / 1e9);
+    }
+
+    private static String escape(String labelValue) {
+        return labelValue.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+}
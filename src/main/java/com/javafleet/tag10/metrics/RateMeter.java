@@ -0,0 +1,94 @@
+package com.javafleet.tag10.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * RateMeter - lock-freier Zähler mit gleitenden Fenstern (1s / 1m / 5m)
+ *
+ * Ringpuffer aus Sekunden-Slots: jeder Slot ist ein long mit
+ * [Sekunde (32 Bit) | Anzahl (32 Bit)] und wird per CAS hochgezählt.
+ * Trifft ein Thread einen Slot aus einer älteren Sekunde, setzt er ihn
+ * im selben CAS zurück - es gibt also keinen Reset-Thread und keinen Lock.
+ *
+ * Gegen Contention ist der Ring wie bei LongAdder in Stripes aufgeteilt
+ * (ein Ring pro Stripe, Auswahl über die Thread-ID). Lesen summiert über
+ * alle Stripes und ist entsprechend teurer - gedacht für den Stats-Endpunkt.
+ *
+ * @author Code Sentinel
+ */
+public final class RateMeter {
+
+    public static final int ONE_SECOND = 1;
+    public static final int ONE_MINUTE = 60;
+    public static final int FIVE_MINUTES = 300;
+
+    /** Größtes Fenster plus die laufende (noch unvollständige) Sekunde */
+    private static final int SLOTS = FIVE_MINUTES + 1;
+    private static final int STRIPES = Math.min(8, Integer.highestOneBit(Runtime.getRuntime().availableProcessors() * 2 - 1));
+    private static final long COUNT_MASK = 0xFFFF_FFFFL;
+    private static final long ORIGIN = System.nanoTime();
+
+    private final AtomicLongArray slots = new AtomicLongArray(STRIPES * SLOTS);
+    private final LongAdder total = new LongAdder();
+
+    /**
+     * Zählt ein Ereignis in der aktuellen Sekunde
+     */
+    public void mark() {
+        total.increment();
+        long second = currentSecond();
+        int index = stripe() * SLOTS + (int) (second % SLOTS);
+        long tag = second << 32;
+        long current;
+        long next;
+        do {
+            current = slots.get(index);
+            next = (current & ~COUNT_MASK) == tag ? current + 1 : tag | 1;
+        } while (!slots.compareAndSet(index, current, next));
+    }
+
+    /**
+     * Anzahl seit dem Start
+     */
+    public long getCount() {
+        return total.sum();
+    }
+
+    /**
+     * Ereignisse pro Sekunde über die letzten seconds abgeschlossenen Sekunden
+     *
+     * Direkt nach dem Start wird nur über die bisher vergangene Zeit gemittelt.
+     */
+    public double getRate(int seconds) {
+        if (seconds < 1 || seconds > FIVE_MINUTES) {
+            throw new IllegalArgumentException("Fenster muss zwischen 1 und " + FIVE_MINUTES + " Sekunden liegen: " + seconds);
+        }
+        long now = currentSecond();
+        long from = Math.max(0, now - seconds);
+        if (from == now) {
+            return 0.0;
+        }
+        long sum = 0;
+        for (int stripe = 0; stripe < STRIPES; stripe++) {
+            int base = stripe * SLOTS;
+            for (long second = from; second < now; second++) {
+                long slot = slots.get(base + (int) (second % SLOTS));
+                if (slot >>> 32 == second) {
+                    sum += slot & COUNT_MASK;
+                }
+            }
+        }
+        return (double) sum / (now - from);
+    }
+
+    private static long currentSecond() {
+        return TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - ORIGIN);
+    }
+
+    private static int stripe() {
+        long id = Thread.currentThread().threadId() * 0x9E37_79B9_7F4A_7C15L;
+        return (int) (id >>> 32) & (STRIPES - 1);
+    }
+}
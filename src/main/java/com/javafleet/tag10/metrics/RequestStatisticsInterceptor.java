@@ -0,0 +1,45 @@
+package com.javafleet.tag10.metrics;
+
+import com.javafleet.tag10.service.ApplicationStatistics;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * RequestStatisticsInterceptor - zählt Spring-MVC-Requests pro Endpunkt
+ *
+ * Endpunkt = HTTP-Methode + Mapping-Pattern ("GET /api/persons/{id}"),
+ * damit nicht jede ID einen eigenen Zähler bekommt. @ResponseBody-Handler
+ * (@RestController) zählen als API-Call, alle anderen als View-Request
+ * (Thymeleaf). Statische Ressourcen werden nicht gezählt.
+ */
+public class RequestStatisticsInterceptor implements HandlerInterceptor {
+
+    private final ApplicationStatistics statistics;
+
+    public RequestStatisticsInterceptor(ApplicationStatistics statistics) {
+        this.statistics = statistics;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (handler instanceof HandlerMethod handlerMethod) {
+            String endpoint = request.getMethod() + " " + request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            if (isApi(handlerMethod)) {
+                statistics.recordApiCall(endpoint);
+            } else {
+                statistics.recordViewRequest(endpoint);
+            }
+        }
+        return true;
+    }
+
+    private static boolean isApi(HandlerMethod handlerMethod) {
+        return handlerMethod.hasMethodAnnotation(ResponseBody.class)
+            || AnnotatedElementUtils.hasAnnotation(handlerMethod.getBeanType(), ResponseBody.class);
+    }
+}
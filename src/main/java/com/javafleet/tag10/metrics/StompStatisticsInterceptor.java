@@ -0,0 +1,137 @@
+package com.javafleet.tag10.metrics;
+
+import com.javafleet.tag10.service.ApplicationStatistics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageMappingInfo;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.annotation.support.SimpAnnotationMethodMessageHandler;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.util.PathMatcher;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * StompStatisticsInterceptor - zählt STOMP-Frames pro Destination
+ *
+ * Am clientInboundChannel: alles, was Clients schicken (SEND, SUBSCRIBE,
+ * CONNECT, ...) außer Heartbeats. Am clientOutboundChannel: jede MESSAGE,
+ * die an eine Session ausgeliefert wird - ein Broadcast an 100 Clients
+ * zählt also 100-mal.
+ *
+ * Destinations kommen vom Client und sind beliebig - gezählt wird deshalb
+ * nur unter bekannten Namen, wie beim RequestStatisticsInterceptor:
+ * /app-Destinations unter dem Pattern ihres @MessageMapping bzw.
+ * @SubscribeMapping ("SEND /app/chat.send"), Broker-Destinations nur, wenn
+ * die Anwendung selbst dorthin sendet ("SUBSCRIBE /topic/public"). Alles
+ * andere landet unter seinem Präfix ("SUBSCRIBE /topic/**") oder unter
+ * "(unbekannt)" - so legt ein Client keine eigenen Zähler an.
+ */
+public class StompStatisticsInterceptor implements ChannelInterceptor {
+
+    static final String UNKNOWN = "(unbekannt)";
+
+    private final ApplicationStatistics statistics;
+    private final boolean inbound;
+    private final List<String> brokerPrefixes;
+    private final Set<String> brokerDestinations;
+    private final ObjectProvider<SimpAnnotationMethodMessageHandler> handler;
+
+    /** Prefix + Pattern aller Handler-Methoden, beim ersten Frame aus dem Handler gelesen */
+    private volatile List<AppMapping> appMappings;
+
+    private StompStatisticsInterceptor(ApplicationStatistics statistics, boolean inbound,
+                                       List<String> brokerPrefixes, Set<String> brokerDestinations,
+                                       ObjectProvider<SimpAnnotationMethodMessageHandler> handler) {
+        this.statistics = statistics;
+        this.inbound = inbound;
+        this.brokerPrefixes = List.copyOf(brokerPrefixes);
+        this.brokerDestinations = Set.copyOf(brokerDestinations);
+        this.handler = handler;
+    }
+
+    /**
+     * @param brokerPrefixes     Präfixe des Brokers, z.B. "/topic"
+     * @param brokerDestinations Broker-Destinations, an die die Anwendung sendet
+     * @param handler            liefert die /app-Mappings der @Controller
+     */
+    public static StompStatisticsInterceptor inbound(ApplicationStatistics statistics,
+                                                     List<String> brokerPrefixes, Set<String> brokerDestinations,
+                                                     ObjectProvider<SimpAnnotationMethodMessageHandler> handler) {
+        return new StompStatisticsInterceptor(statistics, true, brokerPrefixes, brokerDestinations, handler);
+    }
+
+    public static StompStatisticsInterceptor outbound(ApplicationStatistics statistics,
+                                                      List<String> brokerPrefixes, Set<String> brokerDestinations,
+                                                      ObjectProvider<SimpAnnotationMethodMessageHandler> handler) {
+        return new StompStatisticsInterceptor(statistics, false, brokerPrefixes, brokerDestinations, handler);
+    }
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        SimpMessageType type = SimpMessageHeaderAccessor.getMessageType(message.getHeaders());
+        if (type == null || type == SimpMessageType.HEARTBEAT) {
+            return message;
+        }
+        if (inbound) {
+            statistics.recordInboundMessage(name(type == SimpMessageType.MESSAGE ? "SEND" : type.name(), message));
+        } else if (type == SimpMessageType.MESSAGE) {
+            statistics.recordOutboundMessage(name("MESSAGE", message));
+        }
+        return message;
+    }
+
+    private String name(String command, Message<?> message) {
+        String destination = SimpMessageHeaderAccessor.getDestination(message.getHeaders());
+        return destination == null ? command : command + " " + knownName(destination);
+    }
+
+    private String knownName(String destination) {
+        if (brokerDestinations.contains(destination)) {
+            return destination;
+        }
+        for (String prefix : brokerPrefixes) {
+            if (destination.startsWith(prefix + "/")) {
+                return prefix + "/**";
+            }
+        }
+        String fallback = UNKNOWN;
+        for (AppMapping mapping : appMappings()) {
+            if (destination.startsWith(mapping.prefix() + "/")) {
+                if (mapping.matcher().match(mapping.pattern(), destination.substring(mapping.prefix().length()))) {
+                    return mapping.prefix() + mapping.pattern();
+                }
+                fallback = mapping.prefix() + "/**";
+            }
+        }
+        return fallback;
+    }
+
+    private List<AppMapping> appMappings() {
+        List<AppMapping> mappings = appMappings;
+        if (mappings == null) {
+            SimpAnnotationMethodMessageHandler methods = handler.getIfAvailable();
+            if (methods == null) {
+                return List.of();
+            }
+            mappings = new ArrayList<>();
+            for (String prefix : methods.getDestinationPrefixes()) {
+                String base = prefix.endsWith("/") ? prefix.substring(0, prefix.length() - 1) : prefix;
+                for (SimpMessageMappingInfo info : methods.getHandlerMethods().keySet()) {
+                    for (String pattern : info.getDestinationConditions().getPatterns()) {
+                        mappings.add(new AppMapping(base, pattern, methods.getPathMatcher()));
+                    }
+                }
+            }
+            appMappings = mappings = List.copyOf(mappings);
+        }
+        return mappings;
+    }
+
+    private record AppMapping(String prefix, String pattern, PathMatcher matcher) {
+    }
+}
@@ -0,0 +1,11 @@
+package com.javafleet.tag10.model;
+
+/**
+ * BatchItemResult - Ergebnis für ein Element einer Batch-Operation
+ * 
+ * @param index  Position des Elements im Request (0-basiert)
+ * @param id     ID der betroffenen Person (null, wenn unbekannt)
+ * @param status HTTP-Status, den der Einzel-Request geliefert hätte (201, 200, 204, 400, 404)
+ */
+public record BatchItemResult(int index, Long id, int status) {
+}
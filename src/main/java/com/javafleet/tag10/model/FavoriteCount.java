@@ -0,0 +1,10 @@
+package com.javafleet.tag10.model;
+
+/**
+ * FavoriteCount - wie viele Sessions eine Person gerade als Favorit haben
+ *
+ * @param personId ID der Person
+ * @param count    Anzahl Sessions
+ */
+public record FavoriteCount(long personId, long count) {
+}
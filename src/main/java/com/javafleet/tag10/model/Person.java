@@ -1,8 +1,8 @@
 package com.javafleet.tag10.model;
 
-import lombok.AllArgsConstructor;
-import lombok.Data;
-import lombok.NoArgsConstructor;
+import com.fasterxml.jackson.annotation.JsonCreator;
+import lombok.Value;
+import lombok.With;
 
 /**
  * Person Model - Zentrale Domain-Klasse
@@ -11,15 +11,39 @@ import lombok.NoArgsConstructor;
  * - REST API (Tag 1, 9)
  * - Thymeleaf Views (Tag 3, 4)
  * - Service Layer (Tag 2, 6, 7)
+ * 
+ * Unveränderlich: jede Änderung im Store erzeugt eine neue Person mit
+ * höherer Version. Wer eine Person in der Hand hat (Jackson, Thymeleaf,
+ * Listener), sieht also immer einen vollständigen Stand - nie einen
+ * halb geänderten Namen.
  */
-@Data
-@NoArgsConstructor
-@AllArgsConstructor
+@Value
 public class Person {
     
-    private Long id;
-    private String firstname;
-    private String lastname;
+    @With
+    Long id;
+    String firstname;
+    String lastname;
+    
+    /** Version dieser Person - wird bei jeder Änderung vom Store erhöht (Basis für ETags) */
+    @With
+    long version;
+    
+    /**
+     * Einziger Konstruktor - Jackson und das Formular-Binding (@ModelAttribute)
+     * erzeugen Personen darüber, fehlende Werte bleiben null bzw. 0
+     */
+    @JsonCreator
+    public Person(Long id, String firstname, String lastname, long version) {
+        this.id = id;
+        this.firstname = firstname;
+        this.lastname = lastname;
+        this.version = version;
+    }
+    
+    public static Person of(Long id, String firstname, String lastname) {
+        return new Person(id, firstname, lastname, 0);
+    }
     
     /**
      * Vollständiger Name für Display-Zwecke
@@ -0,0 +1,21 @@
+package com.javafleet.tag10.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * PersonChange - eine Änderung im Änderungsfeed (PersonChangeFeed)
+ *
+ * @param seq       fortlaufende Nummer im Feed (lückenlos pro Feed)
+ * @param type      CREATED, UPDATED oder DELETED
+ * @param id        ID der Person
+ * @param version   Personen-Version nach der Änderung (bei DELETED die letzte)
+ * @param firstname neuer Vorname (fehlt bei DELETED)
+ * @param lastname  neuer Nachname (fehlt bei DELETED)
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record PersonChange(long seq, Type type, long id, long version, String firstname, String lastname) {
+
+    public enum Type {
+        CREATED, UPDATED, DELETED
+    }
+}
@@ -0,0 +1,15 @@
+package com.javafleet.tag10.model;
+
+import java.util.List;
+
+/**
+ * PersonChanges - Antwort von GET /api/persons/changes und Payload auf /topic/persons
+ *
+ * @param feed      Kennung des Feeds - ändert sich mit jedem Start der Instanz
+ * @param latestSeq Stand nach diesen Änderungen - beim nächsten Abruf als since schicken
+ * @param resync    true: since liegt nicht mehr im Puffer (oder feed passt nicht) -
+ *                  Liste neu laden (GET /api/persons), danach mit latestSeq weiter
+ * @param changes   Änderungen aufsteigend nach seq (leer bei resync)
+ */
+public record PersonChanges(String feed, long latestSeq, boolean resync, List<PersonChange> changes) {
+}
@@ -0,0 +1,16 @@
+package com.javafleet.tag10.model;
+
+import java.util.List;
+
+/**
+ * PersonPage - Eine Seite der Keyset-Pagination
+ * 
+ * @param persons   Personen dieser Seite (aufsteigend nach ID)
+ * @param nextAfter Cursor für die nächste Seite (after=...) oder null, wenn es keine weitere gibt
+ */
+public record PersonPage(List<Person> persons, Long nextAfter) {
+    
+    public boolean hasNext() {
+        return nextAfter != null;
+    }
+}
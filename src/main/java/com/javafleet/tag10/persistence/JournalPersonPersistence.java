@@ -0,0 +1,245 @@
+package com.javafleet.tag10.persistence;
+
+import com.javafleet.tag10.model.Person;
+import com.javafleet.tag10.persistence.PersonRecordCodec.JournalRecord;
+import com.javafleet.tag10.store.PersonStore;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * JournalPersonPersistence - eingebettete Persistenz ohne externe Datenbank
+ *
+ * Dateien im Datenverzeichnis:
+ * - snapshot-&lt;seq&gt;.snap  kompaktierter Zustand bis einschließlich seq
+ * - journal-&lt;seq&gt;.log    Änderungen ab seq (Append-Only, Group Commit)
+ *
+ * Start: neuester Snapshot per mmap laden, danach alle vorhandenen
+ * Journal-Segmente der Reihe nach abspielen. Das Abspielen ist idempotent
+ * (Records, deren Version die Person schon hat, werden übersprungen; delete =
+ * entfernen falls vorhanden), deshalb bleibt das Segment vor dem Snapshot
+ * erhalten - es deckt Schreibzugriffe ab, die während des Snapshots noch
+ * nicht im Store sichtbar waren. Die Versionen der Personen (ETags)
+ * überstehen so den Neustart unverändert.
+ *
+ * Snapshots entstehen periodisch, wenn ein Segment zu groß wird und beim
+ * regulären Herunterfahren.
+ *
+ * @author Elyndra Valen
+ */
+@Slf4j
+public class JournalPersonPersistence implements PersonPersistence {
+
+    private static final int RECOVERY_CHUNK_SIZE = 10_000;
+
+    private final Path directory;
+    private final boolean fsync;
+    private final Duration snapshotInterval;
+    private final long segmentBytesLimit;
+
+    private final ScheduledExecutorService snapshotScheduler = Executors.newSingleThreadScheduledExecutor(
+        Thread.ofPlatform().name("person-snapshot").daemon().factory());
+
+    private PersonStore store;
+    private PersonJournal journal;
+    private volatile long snapshotNextId = 1;
+    private volatile long snapshotSeq = -1;
+
+    public JournalPersonPersistence(Path directory, boolean fsync, Duration snapshotInterval, long segmentBytesLimit) {
+        this.directory = directory;
+        this.fsync = fsync;
+        this.snapshotInterval = snapshotInterval;
+        this.segmentBytesLimit = segmentBytesLimit;
+    }
+
+    @Override
+    public long recover(PersonStore store) {
+        this.store = store;
+        long start = System.nanoTime();
+        try {
+            Files.createDirectories(directory);
+            long lastSeq = 0;
+            long maxId = 0;
+
+            Path snapshot = latest("snapshot-", ".snap");
+            if (snapshot != null) {
+                PersonSnapshotFile.Header header = PersonSnapshotFile.read(snapshot, RECOVERY_CHUNK_SIZE, store::restoreAll);
+                lastSeq = header.lastSeq();
+                snapshotSeq = header.lastSeq();
+                snapshotNextId = header.nextId();
+                log.info("💾 Snapshot geladen: {} Personen bis seq {}", header.count(), header.lastSeq());
+            }
+
+            long replayed = 0;
+            for (Path segment : list("journal-", ".log")) {
+                Replay replay = replay(segment);
+                replayed += replay.records();
+                lastSeq = Math.max(lastSeq, replay.lastSeq());
+                maxId = Math.max(maxId, replay.maxInsertedId());
+            }
+            long nextId = Math.max(snapshotNextId, maxId + 1);
+
+            journal = new PersonJournal(directory, lastSeq, nextId - 1, fsync, segmentBytesLimit, this::requestSnapshot);
+            store.addWriteAheadListener(journal);
+
+            long seconds = snapshotInterval.toSeconds();
+            snapshotScheduler.scheduleWithFixedDelay(this::snapshotQuietly, seconds, seconds, TimeUnit.SECONDS);
+
+            log.info("✅ Recovery: {} Personen, {} Journal-Records in {} ms (fsync={})",
+                store.size(), replayed, (System.nanoTime() - start) / 1_000_000, fsync);
+            return nextId;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Recovery aus " + directory + " fehlgeschlagen", e);
+        }
+    }
+
+    @Override
+    public void awaitDurable() {
+        journal.awaitDurable();
+    }
+
+    /**
+     * Schreibt einen kompaktierten Snapshot und räumt alte Dateien auf
+     */
+    public void snapshot() throws IOException {
+        long start = System.nanoTime();
+        long lastSeq = journal.rotate().join();
+        if (lastSeq == snapshotSeq) {
+            return;
+        }
+        long nextId = Math.max(snapshotNextId, journal.getMaxInsertedId() + 1);
+        List<Person> persons = store.snapshot();
+        Path written = PersonSnapshotFile.write(directory, lastSeq, nextId, persons);
+        snapshotNextId = nextId;
+        snapshotSeq = lastSeq;
+
+        // Behalten: neuester Snapshot, das Segment davor (endet bei lastSeq) und alle neueren
+        Path keptSegment = null;
+        for (Path segment : list("journal-", ".log")) {
+            if (firstSeq(segment) <= lastSeq) {
+                if (keptSegment != null) {
+                    Files.deleteIfExists(keptSegment);
+                }
+                keptSegment = segment;
+            }
+        }
+        for (Path old : list("snapshot-", ".snap")) {
+            if (!old.equals(written)) {
+                Files.deleteIfExists(old);
+            }
+        }
+        log.info("💾 Snapshot geschrieben: {} Personen bis seq {} in {} ms",
+            persons.size(), lastSeq, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        if (journal == null) {
+            return;
+        }
+        snapshotScheduler.shutdownNow();
+        try {
+            snapshotScheduler.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        snapshot();
+        journal.close();
+        log.info("🛑 Journal geschlossen");
+    }
+
+    private void requestSnapshot() {
+        snapshotScheduler.execute(this::snapshotQuietly);
+    }
+
+    private void snapshotQuietly() {
+        try {
+            snapshot();
+        } catch (Exception e) {
+            log.error("💥 Snapshot fehlgeschlagen", e);
+        }
+    }
+
+    /**
+     * Spielt ein Segment ab - ein abgeschnittener Record am Ende wird abgetrennt
+     */
+    private Replay replay(Path segment) throws IOException {
+        long records = 0;
+        long lastSeq = 0;
+        long maxInsertedId = 0;
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long size = channel.size();
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            JournalRecord record;
+            while ((record = PersonRecordCodec.readRecord(buffer)) != null) {
+                apply(record);
+                records++;
+                lastSeq = record.seq();
+                if (record.type() == PersonRecordCodec.INSERT) {
+                    maxInsertedId = Math.max(maxInsertedId, record.id());
+                }
+            }
+            if (buffer.position() < size) {
+                log.warn("⚠️ Journal {} ab Byte {} unvollständig - wird abgeschnitten", segment.getFileName(), buffer.position());
+                channel.truncate(buffer.position());
+            }
+        }
+        return new Replay(records, lastSeq, maxInsertedId);
+    }
+
+    private void apply(JournalRecord record) {
+        Optional<Person> current = store.findById(record.id());
+        if (record.type() == PersonRecordCodec.DELETE) {
+            if (current.isPresent()) {
+                store.delete(record.id());
+            }
+        } else if (current.isEmpty()) {
+            store.restoreAll(List.of(new Person(record.id(), record.firstname(), record.lastname(), record.version())));
+        } else if (current.get().getVersion() < record.version()) {
+            // Versionen steigen pro Änderung um 1 - das Update landet genau bei record.version()
+            store.update(record.id(), record.firstname(), record.lastname());
+        }
+    }
+
+    private Path latest(String prefix, String suffix) throws IOException {
+        List<Path> files = list(prefix, suffix);
+        return files.isEmpty() ? null : files.get(files.size() - 1);
+    }
+
+    /**
+     * Dateien mit Präfix/Suffix, aufsteigend nach Sequenznummer (Dateinamen sind nullgefüllt)
+     */
+    private List<Path> list(String prefix, String suffix) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files
+                .filter(file -> {
+                    String name = file.getFileName().toString();
+                    return name.startsWith(prefix) && name.endsWith(suffix);
+                })
+                .sorted()
+                .toList();
+        }
+    }
+
+    private static long firstSeq(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring("journal-".length(), name.length() - ".log".length()));
+    }
+
+    private record Replay(long records, long lastSeq, long maxInsertedId) {
+    }
+}
@@ -0,0 +1,19 @@
+package com.javafleet.tag10.persistence;
+
+import com.javafleet.tag10.store.PersonStore;
+
+/**
+ * NoOpPersonPersistence - keine Persistenz, Daten leben nur im Speicher
+ */
+public class NoOpPersonPersistence implements PersonPersistence {
+    
+    @Override
+    public long recover(PersonStore store) {
+        return 1;
+    }
+    
+    @Override
+    public void awaitDurable() {
+        // nichts zu tun
+    }
+}
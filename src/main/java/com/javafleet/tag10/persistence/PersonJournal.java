@@ -0,0 +1,269 @@
+package com.javafleet.tag10.persistence;
+
+import com.javafleet.tag10.model.Person;
+import com.javafleet.tag10.store.PersonChangeListener;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * PersonJournal - Append-Only-Journal mit Group Commit
+ *
+ * Ablauf:
+ * 1. Der Store ruft den Listener im kritischen Abschnitt auf, bevor die
+ *    Änderung sichtbar wird - der Record landet nur im Speicher-Puffer
+ *    (Reihenfolge pro ID bleibt erhalten). Nach einem Schreibfehler lehnt
+ *    das Journal jeden weiteren Record ab, der Store bleibt dann unverändert.
+ * 2. Ein Flusher-Thread tauscht den Puffer aus, schreibt ihn in einem
+ *    Rutsch und ruft fsync auf - alle in der Zwischenzeit angefallenen
+ *    Records teilen sich den nächsten fsync (Group Commit).
+ * 3. awaitDurable() wartet, bis die eigene Sequenznummer geschrieben ist.
+ *    Scheitert genau dieser Schreibvorgang, ist die Änderung schon sichtbar,
+ *    aber nicht dauerhaft - der Aufrufer bekommt die Exception trotzdem.
+ *
+ * Das Journal ist in Segmente (journal-&lt;erste seq&gt;.log) aufgeteilt;
+ * rotate() beginnt ein neues Segment für den nächsten Snapshot.
+ *
+ * Verwendet bewusst ReentrantLock statt synchronized (kein Pinning
+ * von Virtual Threads beim Warten auf fsync).
+ */
+@Slf4j
+class PersonJournal implements PersonChangeListener {
+
+    private static final int INITIAL_BUFFER_BYTES = 64 * 1024;
+
+    /** Sequenznummer des letzten Records, den dieser Thread geschrieben hat */
+    private static final ThreadLocal<long[]> LAST_SEQ = ThreadLocal.withInitial(() -> new long[1]);
+
+    private final Path directory;
+    private final boolean fsync;
+    private final long segmentBytesLimit;
+    private final Runnable segmentFullCallback;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition dataAvailable = lock.newCondition();
+    private final Condition durable = lock.newCondition();
+
+    // --- geschützt durch lock ---
+    private ByteBuffer pending = ByteBuffer.allocate(INITIAL_BUFFER_BYTES);
+    private ByteBuffer spare = ByteBuffer.allocate(INITIAL_BUFFER_BYTES);
+    private long appendedSeq;
+    private long durableSeq;
+    private long maxInsertedId;
+    private CompletableFuture<Long> rotateRequest;
+    private IOException failure;
+    private boolean running = true;
+
+    // --- nur vom Flusher-Thread benutzt ---
+    private FileChannel channel;
+    private long segmentBytes;
+    private boolean segmentFullReported;
+
+    private final Thread flusher;
+
+    PersonJournal(Path directory, long lastSeq, long maxInsertedId, boolean fsync,
+                  long segmentBytesLimit, Runnable segmentFullCallback) throws IOException {
+        this.directory = directory;
+        this.fsync = fsync;
+        this.segmentBytesLimit = segmentBytesLimit;
+        this.segmentFullCallback = segmentFullCallback;
+        this.appendedSeq = lastSeq;
+        this.durableSeq = lastSeq;
+        this.maxInsertedId = maxInsertedId;
+        this.channel = openSegment(lastSeq + 1);
+        this.flusher = Thread.ofPlatform().name("person-journal-flusher").daemon().start(this::flushLoop);
+    }
+
+    static Path segmentPath(Path directory, long firstSeq) {
+        return directory.resolve(String.format("journal-%020d.log", firstSeq));
+    }
+
+    @Override
+    public void personInserted(Person person) {
+        append(PersonRecordCodec.INSERT, person.getId(), person.getVersion(), person.getFirstname(), person.getLastname());
+    }
+
+    @Override
+    public void personUpdated(Person before, Person after) {
+        append(PersonRecordCodec.UPDATE, after.getId(), after.getVersion(), after.getFirstname(), after.getLastname());
+    }
+
+    @Override
+    public void personDeleted(Person removed) {
+        append(PersonRecordCodec.DELETE, removed.getId(), removed.getVersion(), null, null);
+    }
+
+    /**
+     * Wartet, bis der letzte Record des aktuellen Threads auf Platte ist
+     */
+    void awaitDurable() {
+        if (!fsync) {
+            return;
+        }
+        long seq = LAST_SEQ.get()[0];
+        lock.lock();
+        try {
+            while (durableSeq < seq && failure == null) {
+                durable.awaitUninterruptibly();
+            }
+            if (failure != null) {
+                throw new UncheckedIOException("Journal nicht beschreibbar", failure);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Startet ein neues Segment
+     *
+     * @return Sequenznummer des letzten Records im alten Segment
+     */
+    CompletableFuture<Long> rotate() {
+        lock.lock();
+        try {
+            if (rotateRequest == null) {
+                rotateRequest = new CompletableFuture<>();
+                dataAvailable.signal();
+            }
+            return rotateRequest;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    long getMaxInsertedId() {
+        lock.lock();
+        try {
+            return maxInsertedId;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Schreibt alle offenen Records, ruft fsync auf und beendet den Flusher
+     */
+    void close() throws IOException {
+        lock.lock();
+        try {
+            running = false;
+            dataAvailable.signal();
+        } finally {
+            lock.unlock();
+        }
+        try {
+            flusher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        channel.force(true);
+        channel.close();
+    }
+
+    private void append(byte type, long id, long version, String firstname, String lastname) {
+        lock.lock();
+        try {
+            if (failure != null) {
+                throw new UncheckedIOException("Journal nicht beschreibbar - Änderung abgelehnt", failure);
+            }
+            int needed = PersonRecordCodec.maxRecordBytes(firstname, lastname);
+            if (pending.remaining() < needed) {
+                ByteBuffer larger = ByteBuffer.allocate(Math.max(pending.capacity() * 2, pending.position() + needed));
+                pending.flip();
+                larger.put(pending);
+                pending = larger;
+            }
+            long seq = ++appendedSeq;
+            PersonRecordCodec.writeRecord(pending, type, seq, id, version, firstname, lastname);
+            if (type == PersonRecordCodec.INSERT) {
+                maxInsertedId = Math.max(maxInsertedId, id);
+            }
+            LAST_SEQ.get()[0] = seq;
+            dataAvailable.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void flushLoop() {
+        while (true) {
+            ByteBuffer batch;
+            long batchSeq;
+            CompletableFuture<Long> rotation;
+            lock.lock();
+            try {
+                while (running && pending.position() == 0 && rotateRequest == null) {
+                    dataAvailable.awaitUninterruptibly();
+                }
+                if (!running && pending.position() == 0 && rotateRequest == null) {
+                    return;
+                }
+                batch = pending;
+                pending = spare;
+                batchSeq = appendedSeq;
+                rotation = rotateRequest;
+                rotateRequest = null;
+            } finally {
+                lock.unlock();
+            }
+
+            IOException error = null;
+            try {
+                batch.flip();
+                while (batch.hasRemaining()) {
+                    segmentBytes += channel.write(batch);
+                }
+                if (fsync) {
+                    channel.force(false);
+                }
+                if (rotation != null) {
+                    channel.force(true);
+                    channel.close();
+                    channel = openSegment(batchSeq + 1);
+                    rotation.complete(batchSeq);
+                }
+            } catch (IOException e) {
+                log.error("💥 Journal-Schreibfehler", e);
+                error = e;
+                if (rotation != null) {
+                    rotation.completeExceptionally(e);
+                }
+            }
+
+            batch.clear();
+            lock.lock();
+            try {
+                spare = batch;
+                if (error != null) {
+                    failure = error;
+                } else {
+                    durableSeq = batchSeq;
+                }
+                durable.signalAll();
+            } finally {
+                lock.unlock();
+            }
+
+            if (!segmentFullReported && segmentBytes > segmentBytesLimit) {
+                segmentFullReported = true;
+                segmentFullCallback.run();
+            }
+        }
+    }
+
+    private FileChannel openSegment(long firstSeq) throws IOException {
+        segmentBytes = 0;
+        segmentFullReported = false;
+        return FileChannel.open(segmentPath(directory, firstSeq),
+            StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+}
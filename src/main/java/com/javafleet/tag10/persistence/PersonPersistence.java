@@ -0,0 +1,29 @@
+package com.javafleet.tag10.persistence;
+
+import com.javafleet.tag10.store.PersonStore;
+
+/**
+ * PersonPersistence - Dauerhafte Speicherung der Personen
+ * 
+ * Implementierungen:
+ * - NoOpPersonPersistence: alles nur im Speicher (Default, wie bisher)
+ * - JournalPersonPersistence: Append-Only-Journal + Snapshots auf Platte
+ * 
+ * @author Elyndra Valen
+ */
+public interface PersonPersistence {
+    
+    /**
+     * Lädt den letzten Zustand in den (leeren) Store und beginnt danach
+     * mit dem Protokollieren aller Änderungen.
+     * 
+     * @return die nächste freie Person-ID
+     */
+    long recover(PersonStore store);
+    
+    /**
+     * Blockiert, bis die zuletzt vom aktuellen Thread ausgeführte Änderung
+     * dauerhaft gespeichert ist (Group Commit)
+     */
+    void awaitDurable();
+}
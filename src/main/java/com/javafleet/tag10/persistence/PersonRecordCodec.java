@@ -0,0 +1,146 @@
+package com.javafleet.tag10.persistence;
+
+import com.javafleet.tag10.model.Person;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32C;
+
+/**
+ * PersonRecordCodec - Binärformat für Journal und Snapshot
+ * 
+ * Journal-Record:
+ *   int length | int crc32c(body) | body
+ *   body = byte type | long seq | long id | long version | [string firstname | string lastname]
+ * 
+ * Snapshot-Eintrag:
+ *   long id | long version | string firstname | string lastname
+ * 
+ * version ist die Version der Person nach der Änderung (beim Löschen:
+ * die gelöschte) - damit stimmen ETags auch nach einem Neustart.
+ * 
+ * string = int byteLength (-1 = null) | UTF-8 Bytes
+ */
+final class PersonRecordCodec {
+    
+    static final byte INSERT = 1;
+    static final byte UPDATE = 2;
+    static final byte DELETE = 3;
+    
+    /** length + crc */
+    static final int RECORD_HEADER_BYTES = 8;
+    
+    private PersonRecordCodec() {
+    }
+    
+    /**
+     * Hängt einen Journal-Record an den Puffer an (Puffer muss groß genug sein)
+     */
+    static void writeRecord(ByteBuffer buffer, byte type, long seq, long id, long version,
+                            String firstname, String lastname) {
+        int start = buffer.position();
+        buffer.position(start + RECORD_HEADER_BYTES);
+        int bodyStart = buffer.position();
+        buffer.put(type);
+        buffer.putLong(seq);
+        buffer.putLong(id);
+        buffer.putLong(version);
+        if (type != DELETE) {
+            writeString(buffer, firstname);
+            writeString(buffer, lastname);
+        }
+        int bodyLength = buffer.position() - bodyStart;
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.slice(bodyStart, bodyLength));
+        buffer.putInt(start, bodyLength);
+        buffer.putInt(start + 4, (int) crc.getValue());
+    }
+    
+    /**
+     * Obergrenze der Record-Größe in Bytes
+     */
+    static int maxRecordBytes(String firstname, String lastname) {
+        return RECORD_HEADER_BYTES + 1 + 8 + 8 + 8 + maxStringBytes(firstname) + maxStringBytes(lastname);
+    }
+    
+    static void writeSnapshotEntry(ByteBuffer buffer, Person person) {
+        buffer.putLong(person.getId());
+        buffer.putLong(person.getVersion());
+        writeString(buffer, person.getFirstname());
+        writeString(buffer, person.getLastname());
+    }
+    
+    static int maxSnapshotEntryBytes(Person person) {
+        return 8 + 8 + maxStringBytes(person.getFirstname()) + maxStringBytes(person.getLastname());
+    }
+    
+    static Person readSnapshotEntry(ByteBuffer buffer) {
+        long id = buffer.getLong();
+        long version = buffer.getLong();
+        return new Person(id, readString(buffer), readString(buffer), version);
+    }
+    
+    /**
+     * Liest den nächsten Journal-Record oder null bei abgeschnittenem/kaputtem Ende
+     * 
+     * Bei null steht die Position des Puffers unverändert am Record-Anfang.
+     */
+    static JournalRecord readRecord(ByteBuffer buffer) {
+        int start = buffer.position();
+        if (buffer.remaining() < RECORD_HEADER_BYTES) {
+            return null;
+        }
+        int length = buffer.getInt(start);
+        int expectedCrc = buffer.getInt(start + 4);
+        if (length <= 0 || buffer.remaining() - RECORD_HEADER_BYTES < length) {
+            return null;
+        }
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.slice(start + RECORD_HEADER_BYTES, length));
+        if ((int) crc.getValue() != expectedCrc) {
+            return null;
+        }
+        buffer.position(start + RECORD_HEADER_BYTES);
+        byte type = buffer.get();
+        long seq = buffer.getLong();
+        long id = buffer.getLong();
+        long version = buffer.getLong();
+        String firstname = null;
+        String lastname = null;
+        if (type != DELETE) {
+            firstname = readString(buffer);
+            lastname = readString(buffer);
+        }
+        return new JournalRecord(type, seq, id, version, firstname, lastname);
+    }
+    
+    private static void writeString(ByteBuffer buffer, String value) {
+        if (value == null) {
+            buffer.putInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        buffer.putInt(bytes.length);
+        buffer.put(bytes);
+    }
+    
+    private static String readString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+    
+    private static int maxStringBytes(String value) {
+        return 4 + (value == null ? 0 : value.length() * 3);
+    }
+    
+    /**
+     * Ein gelesener Journal-Record
+     */
+    record JournalRecord(byte type, long seq, long id, long version, String firstname, String lastname) {
+    }
+}
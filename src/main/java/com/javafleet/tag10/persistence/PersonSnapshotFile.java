@@ -0,0 +1,142 @@
+package com.javafleet.tag10.persistence;
+
+import com.javafleet.tag10.model.Person;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * PersonSnapshotFile - kompaktierter Snapshot aller Personen
+ *
+ * Format:
+ *   Header: long MAGIC | int VERSION | long lastSeq | long nextId | long count
+ *   count x Snapshot-Eintrag (siehe PersonRecordCodec)
+ *
+ * Geschrieben wird in eine .tmp-Datei, die erst nach fsync atomar
+ * umbenannt wird - ein Snapshot ist also entweder vollständig oder gar
+ * nicht vorhanden. Gelesen wird per Memory-Mapped I/O.
+ */
+final class PersonSnapshotFile {
+
+    private static final long MAGIC = 0x5441473130534E50L; // "TAG10SNP"
+    /** 2: Snapshot-Einträge mit Version der Person */
+    private static final int VERSION = 2;
+    private static final int HEADER_BYTES = 8 + 4 + 8 + 8 + 8;
+    private static final int WRITE_BUFFER_BYTES = 1 << 20;
+    /** Größe eines gemappten Fensters - große Dateien werden stückweise gemappt */
+    private static final long MAP_WINDOW_BYTES = 1L << 30;
+
+    private PersonSnapshotFile() {
+    }
+
+    static Path path(Path directory, long lastSeq) {
+        return directory.resolve(String.format("snapshot-%020d.snap", lastSeq));
+    }
+
+    /**
+     * Schreibt einen Snapshot atomar
+     */
+    static Path write(Path directory, long lastSeq, long nextId, List<Person> persons) throws IOException {
+        Path target = path(directory, lastSeq);
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(WRITE_BUFFER_BYTES);
+            buffer.putLong(MAGIC).putInt(VERSION).putLong(lastSeq).putLong(nextId).putLong(persons.size());
+            for (Person person : persons) {
+                int needed = PersonRecordCodec.maxSnapshotEntryBytes(person);
+                if (buffer.remaining() < needed) {
+                    drain(channel, buffer);
+                    if (buffer.remaining() < needed) {
+                        // Einzelner Eintrag größer als der Puffer - nur für ihn einen eigenen
+                        ByteBuffer entry = ByteBuffer.allocate(needed);
+                        PersonRecordCodec.writeSnapshotEntry(entry, person);
+                        drain(channel, entry);
+                        continue;
+                    }
+                }
+                PersonRecordCodec.writeSnapshotEntry(buffer, person);
+            }
+            drain(channel, buffer);
+            channel.force(true);
+        }
+        return Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * Liest einen Snapshot per mmap und übergibt die Personen in Chunks
+     *
+     * @return Header des Snapshots
+     */
+    static Header read(Path file, int chunkSize, Consumer<List<Person>> consumer) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            MappedByteBuffer headerBuffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_BYTES);
+            if (headerBuffer.getLong() != MAGIC || headerBuffer.getInt() != VERSION) {
+                throw new IOException("Kein gültiger Snapshot: " + file);
+            }
+            Header header = new Header(headerBuffer.getLong(), headerBuffer.getLong(), headerBuffer.getLong());
+
+            long position = HEADER_BYTES;
+            long remaining = header.count();
+            List<Person> chunk = new ArrayList<>(chunkSize);
+            while (remaining > 0) {
+                long windowSize = Math.min(MAP_WINDOW_BYTES, fileSize - position);
+                MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, position, windowSize);
+                int consumed = 0;
+                while (remaining > 0) {
+                    // Ein Eintrag, der über das Fensterende ragt, wird im nächsten Fenster gelesen
+                    if (window.remaining() < 8 + 8 + 4 + 4 && position + windowSize < fileSize) {
+                        break;
+                    }
+                    try {
+                        chunk.add(PersonRecordCodec.readSnapshotEntry(window));
+                    } catch (RuntimeException truncatedEntry) {
+                        if (position + windowSize >= fileSize) {
+                            throw new IOException("Snapshot abgeschnitten: " + file, truncatedEntry);
+                        }
+                        break;
+                    }
+                    consumed = window.position();
+                    remaining--;
+                    if (chunk.size() == chunkSize) {
+                        consumer.accept(chunk);
+                        chunk = new ArrayList<>(chunkSize);
+                    }
+                }
+                position += consumed;
+            }
+            if (!chunk.isEmpty()) {
+                consumer.accept(chunk);
+            }
+            return header;
+        }
+    }
+
+    private static void drain(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Snapshot-Header
+     *
+     * @param lastSeq letzte Journal-Sequenz, die im Snapshot enthalten ist
+     * @param nextId  nächste freie Person-ID zum Zeitpunkt des Snapshots
+     * @param count   Anzahl Personen
+     */
+    record Header(long lastSeq, long nextId, long count) {
+    }
+}
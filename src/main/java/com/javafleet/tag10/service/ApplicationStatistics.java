@@ -1,11 +1,17 @@
 package com.javafleet.tag10.service;
 
+import com.javafleet.tag10.metrics.EndpointRate;
+import com.javafleet.tag10.metrics.RateMeter;
 import jakarta.annotation.PostConstruct;
-import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * ApplicationStatistics - Application-Scoped Component
@@ -13,21 +19,40 @@ import java.util.concurrent.atomic.AtomicInteger;
  * Demonstriert:
  * - Application Scope / Singleton (Tag 7)
  * - Shared State über alle Sessions
- * - Thread-Safe Counters (AtomicInteger)
+ * - Thread-Safe Counters (LongAdder statt AtomicInteger - gestreift, kein Overflow)
  * 
  * Diese Bean ist Application-weit einzigartig und
  * wird von allen Usern gemeinsam verwendet.
  * 
+ * Pro Endpunkt (MVC, JAX-RS, Thymeleaf) und pro STOMP-Destination gibt es
+ * zusätzlich einen RateMeter mit Raten über 1s / 1m / 5m. Befüllt wird
+ * alles von den Interceptoren im metrics-Package, abrufbar unter /api/stats.
+ * 
  * @author Code Sentinel
  */
 @Component
 @Slf4j
-@Getter
 public class ApplicationStatistics {
     
-    private final AtomicInteger totalApiCalls = new AtomicInteger(0);
-    private final AtomicInteger totalViewRequests = new AtomicInteger(0);
-    private final AtomicInteger totalWebSocketConnections = new AtomicInteger(0);
+    public static final String API = "api";
+    public static final String VIEW = "view";
+    public static final String STOMP_IN = "stomp-in";
+    public static final String STOMP_OUT = "stomp-out";
+    
+    /** Obergrenze pro Kategorie - Sicherheitsnetz, die Interceptoren zählen nur unter bekannten Namen */
+    static final int MAX_METERS = 1000;
+    static final String OTHER = "(weitere)";
+    
+    private final LongAdder totalApiCalls = new LongAdder();
+    private final LongAdder totalViewRequests = new LongAdder();
+    private final LongAdder totalInboundMessages = new LongAdder();
+    private final LongAdder totalOutboundMessages = new LongAdder();
+    private final LongAdder totalWebSocketConnections = new LongAdder();
+    
+    private final Map<String, RateMeter> apiEndpoints = new ConcurrentHashMap<>();
+    private final Map<String, RateMeter> viewEndpoints = new ConcurrentHashMap<>();
+    private final Map<String, RateMeter> inboundDestinations = new ConcurrentHashMap<>();
+    private final Map<String, RateMeter> outboundDestinations = new ConcurrentHashMap<>();
     
     @PostConstruct
     public void init() {
@@ -35,23 +60,87 @@ public class ApplicationStatistics {
         log.info("💡 Diese Bean ist shared über ALLE Sessions!");
     }
     
-    public void incrementApiCalls() {
-        int count = totalApiCalls.incrementAndGet();
-        log.debug("📈 Total API Calls: {}", count);
+    /**
+     * REST-Aufruf (Spring MVC oder JAX-RS), endpoint z.B. "GET /api/persons/{id}"
+     */
+    public void recordApiCall(String endpoint) {
+        totalApiCalls.increment();
+        meter(apiEndpoints, endpoint).mark();
+    }
+    
+    /**
+     * Thymeleaf-Seite bzw. Formular-Request
+     */
+    public void recordViewRequest(String endpoint) {
+        totalViewRequests.increment();
+        meter(viewEndpoints, endpoint).mark();
     }
     
-    public void incrementViewRequests() {
-        int count = totalViewRequests.incrementAndGet();
-        log.debug("📈 Total View Requests: {}", count);
+    /**
+     * STOMP-Frame vom Client, destination z.B. "SEND /app/chat.send"
+     */
+    public void recordInboundMessage(String destination) {
+        totalInboundMessages.increment();
+        meter(inboundDestinations, destination).mark();
+    }
+    
+    /**
+     * STOMP-MESSAGE an einen Client, destination z.B. "MESSAGE /topic/public"
+     */
+    public void recordOutboundMessage(String destination) {
+        totalOutboundMessages.increment();
+        meter(outboundDestinations, destination).mark();
     }
     
     public void incrementWebSocketConnections() {
-        int count = totalWebSocketConnections.incrementAndGet();
-        log.info("🔌 WebSocket Connection #{}", count);
+        totalWebSocketConnections.increment();
+        log.info("🔌 WebSocket Connection #{}", totalWebSocketConnections.sum());
     }
     
     public void decrementWebSocketConnections() {
-        int count = totalWebSocketConnections.decrementAndGet();
-        log.info("🔌 WebSocket Disconnection (remaining: {})", count);
+        totalWebSocketConnections.decrement();
+        log.info("🔌 WebSocket Disconnection (remaining: {})", totalWebSocketConnections.sum());
+    }
+    
+    public long getTotalApiCalls() {
+        return totalApiCalls.sum();
+    }
+    
+    public long getTotalViewRequests() {
+        return totalViewRequests.sum();
+    }
+    
+    public long getTotalInboundMessages() {
+        return totalInboundMessages.sum();
+    }
+    
+    public long getTotalOutboundMessages() {
+        return totalOutboundMessages.sum();
+    }
+    
+    public long getTotalWebSocketConnections() {
+        return totalWebSocketConnections.sum();
+    }
+    
+    /**
+     * Raten aller bisher gesehenen Endpunkte und Destinations (sortiert nach Typ und Name)
+     */
+    public List<EndpointRate> getEndpointRates() {
+        List<EndpointRate> rates = new ArrayList<>();
+        apiEndpoints.forEach((name, meter) -> rates.add(EndpointRate.of(API, name, meter)));
+        viewEndpoints.forEach((name, meter) -> rates.add(EndpointRate.of(VIEW, name, meter)));
+        inboundDestinations.forEach((name, meter) -> rates.add(EndpointRate.of(STOMP_IN, name, meter)));
+        outboundDestinations.forEach((name, meter) -> rates.add(EndpointRate.of(STOMP_OUT, name, meter)));
+        rates.sort(Comparator.comparing(EndpointRate::type).thenComparing(EndpointRate::name));
+        return rates;
+    }
+    
+    private static RateMeter meter(Map<String, RateMeter> meters, String name) {
+        RateMeter meter = meters.get(name);
+        if (meter != null) {
+            return meter;
+        }
+        String key = meters.size() < MAX_METERS ? name : OTHER;
+        return meters.computeIfAbsent(key, ignored -> new RateMeter());
     }
 }
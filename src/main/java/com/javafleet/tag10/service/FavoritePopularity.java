@@ -0,0 +1,178 @@
+package com.javafleet.tag10.service;
+
+import com.javafleet.tag10.model.FavoriteCount;
+import com.javafleet.tag10.model.Person;
+import com.javafleet.tag10.store.PersonChangeListener;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * FavoritePopularity - globale Favoriten-Zähler und die Top-N
+ *
+ * Zähler: pro Person, wie viele Sessions sie gerade als Favorit haben
+ * (ConcurrentHashMap, bei 0 wird der Eintrag entfernt). Jede Person mit
+ * Zähler &gt; 0 existiert - eine ID in einer Session-Bitmap ohne Zähler
+ * gehört also zu einer gelöschten Person.
+ *
+ * Top-N: ein unveränderliches, absteigend sortiertes Array hinter einer
+ * AtomicReference. Nach jeder Zähleränderung wird der aktuelle Zählerstand
+ * der Person per CAS eingearbeitet - Leser bekommen das Array ohne Lock,
+ * Schreiber kopieren höchstens N Einträge. Steigt ein Zähler, reicht der
+ * Vergleich mit dem letzten Platz. Fällt ein Eintrag einer vollen Top-N,
+ * könnte eine Person außerhalb vorbeiziehen - nur dann wird aus allen
+ * Zählern neu berechnet (selten: Entfernen, Löschen, Session-Ende).
+ *
+ * Als PersonChangeListener am Store: Löschen entfernt Zähler und
+ * Top-Eintrag in O(1) bzw. O(N) - die Sessions werden nicht angefasst,
+ * PersonFavorites räumt die ID beim nächsten Zugriff selbst weg.
+ *
+ * @author Elyndra Valen
+ */
+@Slf4j
+public class FavoritePopularity implements PersonChangeListener {
+
+    private static final Comparator<FavoriteCount> RANKING =
+        Comparator.comparingLong(FavoriteCount::count).reversed().thenComparingLong(FavoriteCount::personId);
+
+    private final int topSize;
+    private final ConcurrentHashMap<Long, Long> counts = new ConcurrentHashMap<>();
+    private final AtomicReference<FavoriteCount[]> top = new AtomicReference<>(new FavoriteCount[0]);
+
+    public FavoritePopularity(int topSize) {
+        if (topSize < 1) {
+            throw new IllegalArgumentException("app.favorites.top-size muss positiv sein");
+        }
+        this.topSize = topSize;
+    }
+
+    void increment(long personId) {
+        counts.merge(personId, 1L, Long::sum);
+        updateTop(personId);
+    }
+
+    /**
+     * Nur für noch gezählte Personen - gelöschte bleiben bei 0
+     */
+    void decrement(long personId) {
+        counts.computeIfPresent(personId, (id, count) -> count > 1 ? count - 1 : null);
+        updateTop(personId);
+    }
+
+    /**
+     * false = gelöscht (oder von keiner Session favorisiert)
+     */
+    boolean isCounted(long personId) {
+        return counts.containsKey(personId);
+    }
+
+    public long countOf(long personId) {
+        return counts.getOrDefault(personId, 0L);
+    }
+
+    /**
+     * Die beliebtesten Personen, höchstens limit (bzw. topSize) Einträge
+     */
+    public List<FavoriteCount> getTop(int limit) {
+        FavoriteCount[] current = top.get();
+        return List.of(current).subList(0, Math.min(Math.max(limit, 0), current.length));
+    }
+
+    public int getTopSize() {
+        return topSize;
+    }
+
+    @Override
+    public void personDeleted(Person removed) {
+        if (counts.remove(removed.getId()) != null) {
+            updateTop(removed.getId());
+        }
+    }
+
+    /**
+     * Arbeitet den aktuellen Zählerstand der Person in die Top-N ein
+     *
+     * Der Zähler wird in jeder Runde neu gelesen - wer den CAS verliert,
+     * setzt den dann aktuellen Stand, nie einen veralteten.
+     */
+    private void updateTop(long personId) {
+        while (true) {
+            FavoriteCount[] current = top.get();
+            FavoriteCount[] next = withCount(current, personId, countOf(personId));
+            if (next == current) {
+                return;
+            }
+            if (next == null) {
+                next = recompute();
+            }
+            if (top.compareAndSet(current, next)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * @return current (unverändert), die neue Top-N oder null (neu berechnen)
+     */
+    private FavoriteCount[] withCount(FavoriteCount[] current, long personId, long count) {
+        int index = indexOf(current, personId);
+        if (index < 0) {
+            if (count == 0) {
+                return current;
+            }
+            if (current.length < topSize) {
+                FavoriteCount[] next = Arrays.copyOf(current, current.length + 1);
+                next[current.length] = new FavoriteCount(personId, count);
+                Arrays.sort(next, RANKING);
+                return next;
+            }
+            if (count <= current[current.length - 1].count()) {
+                return current;
+            }
+            FavoriteCount[] next = current.clone();
+            next[next.length - 1] = new FavoriteCount(personId, count);
+            Arrays.sort(next, RANKING);
+            return next;
+        }
+        long before = current[index].count();
+        if (count == before) {
+            return current;
+        }
+        if (count < before && current.length == topSize) {
+            // Jemand außerhalb der Top-N könnte jetzt vorne liegen
+            return null;
+        }
+        if (count == 0) {
+            FavoriteCount[] next = new FavoriteCount[current.length - 1];
+            System.arraycopy(current, 0, next, 0, index);
+            System.arraycopy(current, index + 1, next, index, next.length - index);
+            return next;
+        }
+        FavoriteCount[] next = current.clone();
+        next[index] = new FavoriteCount(personId, count);
+        Arrays.sort(next, RANKING);
+        return next;
+    }
+
+    private FavoriteCount[] recompute() {
+        log.debug("⭐ Top-{} der Favoriten wird aus {} Zählern neu berechnet", topSize, counts.size());
+        return counts.entrySet().stream()
+            .map(entry -> new FavoriteCount(entry.getKey(), entry.getValue()))
+            .sorted(RANKING)
+            .limit(topSize)
+            .toArray(FavoriteCount[]::new);
+    }
+
+    private static int indexOf(FavoriteCount[] entries, long personId) {
+        for (int i = 0; i < entries.length; i++) {
+            if (entries[i].personId() == personId) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,273 @@
+package com.javafleet.tag10.service;
+
+import com.javafleet.tag10.model.Person;
+import com.javafleet.tag10.model.PersonChange;
+import com.javafleet.tag10.model.PersonChanges;
+import com.javafleet.tag10.store.PersonChangeListener;
+import com.javafleet.tag10.store.PersonStore;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.messaging.simp.SimpMessageSendingOperations;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * PersonChangeFeed - jede Änderung an Personen als kompaktes Delta-Event
+ *
+ * Jede Änderung im Store (insert, update, delete - auch aus Batches)
+ * bekommt eine fortlaufende Sequenznummer und landet in einem Ringpuffer
+ * fester Größe. Von dort aus:
+ * - ein Publisher-Thread schickt neue Einträge in Sequenz-Reihenfolge an
+ *   /topic/persons - was sich inzwischen angesammelt hat, geht als eine
+ *   Nachricht raus (höchstens MAX_CHANGES_PER_MESSAGE)
+ * - since() liefert alles nach einer Sequenznummer, solange es noch im
+ *   Puffer liegt; sonst resync=true und der Client lädt die Liste neu
+ *
+ * Sequenznummern gelten nur für einen Lauf dieser Instanz - deshalb
+ * gehört zu jeder Antwort die Kennung des Feeds. Passt sie nicht (Neustart,
+ * andere Instanz), heißt das ebenfalls resync.
+ *
+ * Der Store ruft den Listener auf, bevor die Änderung sichtbar ist (das
+ * Journal könnte noch ablehnen). Der Feed merkt sie sich deshalb nur pro
+ * Thread und vergibt die Sequenznummer erst in changesApplied() - noch im
+ * kritischen Abschnitt des Stores, die Reihenfolge pro ID ist also
+ * dieselbe wie im Store. Ein Client, der auf CREATED hin die Person lädt,
+ * findet sie auch. Verschickt wird außerhalb, im Publisher-Thread.
+ *
+ * Registriert wird der Listener erst in start(), also nach der
+ * Wiederherstellung in PersonService.init() - der Feed beginnt leer.
+ * Verwendet wie das PersonJournal ReentrantLock statt synchronized.
+ *
+ * application.properties:
+ * app.person-feed.size=4096   Änderungen im Ringpuffer
+ *
+ * @author Elyndra Valen
+ */
+@Component
+@Slf4j
+public class PersonChangeFeed implements PersonChangeListener, SmartLifecycle {
+
+    public static final String TOPIC = "/topic/persons";
+    static final int MAX_CHANGES_PER_MESSAGE = 256;
+
+    private final PersonStore store;
+    private final ObjectProvider<SimpMessageSendingOperations> messaging;
+    private final String feedId = UUID.randomUUID().toString();
+    private final PersonChange[] ring;
+
+    /** Gemeldete, aber noch nicht sichtbare Änderungen des aktuellen Threads (seq = 0) */
+    private final ThreadLocal<List<PersonChange>> staged = ThreadLocal.withInitial(ArrayList::new);
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition appended = lock.newCondition();
+
+    // --- geschützt durch lock ---
+    private long latestSeq;
+    private long publishedSeq;
+    private boolean running;
+    private boolean listening;
+    private Thread publisher;
+
+    private final LongAdder publishedMessages = new LongAdder();
+    private final LongAdder publishedChanges = new LongAdder();
+    private final LongAdder skippedChanges = new LongAdder();
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder resyncs = new LongAdder();
+
+    public PersonChangeFeed(PersonStore store,
+                            ObjectProvider<SimpMessageSendingOperations> messaging,
+                            @Value("${app.person-feed.size:4096}") int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("app.person-feed.size muss positiv sein: " + capacity);
+        }
+        this.store = store;
+        this.messaging = messaging;
+        this.ring = new PersonChange[capacity];
+        log.info("📰 PersonChangeFeed: {} Änderungen im Puffer, Topic {}", capacity, TOPIC);
+    }
+
+    @Override
+    public void personInserted(Person person) {
+        stage(PersonChange.Type.CREATED, person.getId(), person.getVersion(), person.getFirstname(), person.getLastname());
+    }
+
+    @Override
+    public void personUpdated(Person before, Person after) {
+        stage(PersonChange.Type.UPDATED, after.getId(), after.getVersion(), after.getFirstname(), after.getLastname());
+    }
+
+    @Override
+    public void personDeleted(Person removed) {
+        stage(PersonChange.Type.DELETED, removed.getId(), removed.getVersion(), null, null);
+    }
+
+    @Override
+    public void changesApplied() {
+        List<PersonChange> changes = staged.get();
+        if (changes.isEmpty()) {
+            return;
+        }
+        lock.lock();
+        try {
+            for (PersonChange change : changes) {
+                long seq = ++latestSeq;
+                ring[slot(seq)] = new PersonChange(seq, change.type(), change.id(), change.version(),
+                    change.firstname(), change.lastname());
+            }
+            appended.signal();
+        } finally {
+            lock.unlock();
+        }
+        changes.clear();
+    }
+
+    @Override
+    public void changesDiscarded() {
+        staged.get().clear();
+    }
+
+    /**
+     * Alle Änderungen nach since
+     *
+     * @param feed  Kennung aus der letzten Antwort (null = erster Abruf)
+     * @param since latestSeq aus der letzten Antwort bzw. seq der letzten empfangenen Änderung
+     */
+    public PersonChanges since(String feed, long since) {
+        requests.increment();
+        lock.lock();
+        try {
+            long oldest = Math.max(1, latestSeq - ring.length + 1);
+            if (!feedId.equals(feed) || since > latestSeq || since < oldest - 1) {
+                resyncs.increment();
+                return new PersonChanges(feedId, latestSeq, true, List.of());
+            }
+            return new PersonChanges(feedId, latestSeq, false, copy(since + 1, latestSeq));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public PersonChangeFeedStatistics getStatistics() {
+        lock.lock();
+        try {
+            return new PersonChangeFeedStatistics(feedId, latestSeq, publishedSeq, ring.length,
+                publishedMessages.sum(), publishedChanges.sum(), skippedChanges.sum(),
+                requests.sum(), resyncs.sum());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Vor dem Webserver (Phase 0) - Änderungen über HTTP landen also immer im Feed
+     */
+    @Override
+    public int getPhase() {
+        return 0;
+    }
+
+    @Override
+    public void start() {
+        lock.lock();
+        try {
+            if (running) {
+                return;
+            }
+            if (!listening) {
+                store.addChangeListener(this);
+                listening = true;
+            }
+            running = true;
+            publisher = Thread.ofPlatform().name("person-feed-publisher").daemon().start(this::publishLoop);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void stop() {
+        Thread stopped;
+        lock.lock();
+        try {
+            running = false;
+            appended.signal();
+            stopped = publisher;
+        } finally {
+            lock.unlock();
+        }
+        if (stopped != null) {
+            try {
+                stopped.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        lock.lock();
+        try {
+            return running;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void stage(PersonChange.Type type, long id, long version, String firstname, String lastname) {
+        staged.get().add(new PersonChange(0, type, id, version, firstname, lastname));
+    }
+
+    private void publishLoop() {
+        while (true) {
+            PersonChanges message;
+            lock.lock();
+            try {
+                while (running && publishedSeq == latestSeq) {
+                    appended.awaitUninterruptibly();
+                }
+                if (!running) {
+                    return;
+                }
+                // Was der Puffer schon überschrieben hat, ist weg - Clients sehen die Lücke an seq
+                long from = Math.max(publishedSeq + 1, latestSeq - ring.length + 1);
+                skippedChanges.add(from - publishedSeq - 1);
+                long to = Math.min(latestSeq, from + MAX_CHANGES_PER_MESSAGE - 1);
+                message = new PersonChanges(feedId, to, false, copy(from, to));
+                publishedSeq = to;
+            } finally {
+                lock.unlock();
+            }
+            try {
+                messaging.getObject().convertAndSend(TOPIC, message);
+                publishedMessages.increment();
+                publishedChanges.add(message.changes().size());
+            } catch (RuntimeException e) {
+                log.warn("⚠️ Änderungen bis seq {} nicht an {} verschickt: {}", message.latestSeq(), TOPIC, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Einträge from..to (inklusive) - nur unter lock
+     */
+    private List<PersonChange> copy(long from, long to) {
+        List<PersonChange> changes = new ArrayList<>((int) Math.max(0, to - from + 1));
+        for (long seq = from; seq <= to; seq++) {
+            changes.add(ring[slot(seq)]);
+        }
+        return changes;
+    }
+
+    private int slot(long seq) {
+        return (int) (seq % ring.length);
+    }
+}
@@ -0,0 +1,19 @@
+package com.javafleet.tag10.service;
+
+/**
+ * Zustand des PersonChangeFeed (Teil von /api/stats)
+ *
+ * @param feed              Kennung des Feeds (pro Start)
+ * @param latestSeq         zuletzt vergebene Sequenznummer
+ * @param publishedSeq      zuletzt an /topic/persons geschickte Sequenznummer
+ * @param capacity          Änderungen im Ringpuffer (app.person-feed.size)
+ * @param publishedMessages STOMP-Nachrichten an /topic/persons
+ * @param publishedChanges  darin enthaltene Änderungen
+ * @param skippedChanges    überschrieben, bevor sie verschickt wurden
+ * @param requests          Abrufe von /changes
+ * @param resyncs           davon mit resync=true beantwortet
+ */
+public record PersonChangeFeedStatistics(String feed, long latestSeq, long publishedSeq, int capacity,
+                                         long publishedMessages, long publishedChanges, long skippedChanges,
+                                         long requests, long resyncs) {
+}
@@ -1,13 +1,13 @@
 package com.javafleet.tag10.service;
 
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.annotation.Scope;
 import org.springframework.context.annotation.ScopedProxyMode;
 import org.springframework.stereotype.Component;
 import org.springframework.web.context.WebApplicationContext;
 
-import java.util.HashSet;
-import java.util.Set;
+import java.util.Arrays;
 
 /**
  * PersonFavorites - Session-Scoped Component
@@ -20,6 +20,23 @@ import java.util.Set;
  * Jeder User hat seine eigene Favoriten-Liste,
  * die während der Session persistent bleibt.
  * 
+ * Die IDs liegen in einer PersonIdBitmap statt in einem HashSet&lt;Long&gt; -
+ * bei hunderttausenden Sessions zählt jedes Byte. Jede Änderung landet
+ * auch in FavoritePopularity (globale Zähler, Top-N); endet die Session,
+ * werden ihre Favoriten dort wieder abgezogen.
+ * 
+ * Gelöschte Personen: der Store meldet das Löschen nur an
+ * FavoritePopularity, nicht an jede Session. Eine ID ohne globalen Zähler
+ * gehört zu einer gelöschten Person und wird beim nächsten Zugriff aus der
+ * Bitmap entfernt.
+ * 
+ * Mehrere Requests derselben Session können parallel laufen - daher synchronized.
+ * 
+ * Mit app.session.store=file liegt die Session auf der Platte
+ * (PersonFavoritesCodec): die Zähler gelten dann pro Knoten für die
+ * Sessions, die er gerade im Speicher hat. Eine freigegebene Instanz
+ * behält ihre IDs, zählt aber nicht mehr mit.
+ * 
  * @author Elyndra Valen
  */
 @Component
@@ -28,31 +45,95 @@ import java.util.Set;
 @Slf4j
 public class PersonFavorites {
     
-    private final Set<Long> favoritePersonIds = new HashSet<>();
+    private final FavoritePopularity popularity;
+    private final PersonIdBitmap favoritePersonIds = new PersonIdBitmap();
+    private boolean released;
+    
+    public PersonFavorites(FavoritePopularity popularity) {
+        this.popularity = popularity;
+        log.debug("🌟 PersonFavorites Bean erstellt für neue Session");
+    }
+    
+    /**
+     * @return true, wenn die Person neu in den Favoriten ist
+     */
+    public synchronized boolean addFavorite(long personId) {
+        if (!favoritePersonIds.add(personId)) {
+            return false;
+        }
+        if (!released) {
+            popularity.increment(personId);
+        }
+        log.debug("⭐ Person {} zu Favoriten hinzugefügt", personId);
+        return true;
+    }
     
-    public PersonFavorites() {
-        log.info("🌟 PersonFavorites Bean erstellt für neue Session");
+    /**
+     * @return true, wenn die Person in den Favoriten war
+     */
+    public synchronized boolean removeFavorite(long personId) {
+        if (!favoritePersonIds.remove(personId)) {
+            return false;
+        }
+        if (!released) {
+            popularity.decrement(personId);
+        }
+        log.debug("☆ Person {} aus Favoriten entfernt", personId);
+        return true;
     }
     
-    public void addFavorite(Long personId) {
-        favoritePersonIds.add(personId);
-        log.info("⭐ Person {} zu Favoriten hinzugefügt", personId);
+    public synchronized boolean isFavorite(long personId) {
+        if (!favoritePersonIds.contains(personId)) {
+            return false;
+        }
+        if (!released && !popularity.isCounted(personId)) {
+            favoritePersonIds.remove(personId);
+            return false;
+        }
+        return true;
     }
     
-    public void removeFavorite(Long personId) {
-        favoritePersonIds.remove(personId);
-        log.info("☆ Person {} aus Favoriten entfernt", personId);
+    /**
+     * Alle Favoriten aufsteigend nach ID - gelöschte Personen fallen dabei heraus
+     */
+    public synchronized long[] getAllFavorites() {
+        long[] ids = favoritePersonIds.toArray();
+        int live = 0;
+        for (long id : ids) {
+            if (released || popularity.isCounted(id)) {
+                ids[live++] = id;
+            } else {
+                favoritePersonIds.remove(id);
+            }
+        }
+        return live == ids.length ? ids : Arrays.copyOf(ids, live);
     }
     
-    public boolean isFavorite(Long personId) {
-        return favoritePersonIds.contains(personId);
+    public synchronized int getFavoriteCount() {
+        return getAllFavorites().length;
     }
     
-    public Set<Long> getAllFavorites() {
-        return new HashSet<>(favoritePersonIds);
+    /**
+     * Aus dem Session-Store geladen (PersonFavoritesCodec) - zählt wie addFavorite
+     */
+    public synchronized void restore(long personId) {
+        if (favoritePersonIds.add(personId)) {
+            popularity.increment(personId);
+        }
     }
     
-    public int getFavoriteCount() {
-        return favoritePersonIds.size();
+    /**
+     * Session endet (Timeout oder invalidate) - Favoriten aus den globalen Zählern nehmen
+     */
+    @PreDestroy
+    public synchronized void sessionEnded() {
+        if (released) {
+            return;
+        }
+        released = true;
+        for (long id : favoritePersonIds.toArray()) {
+            popularity.decrement(id);
+        }
+        log.debug("🌙 Session beendet, {} Favoriten freigegeben", favoritePersonIds.cardinality());
     }
 }
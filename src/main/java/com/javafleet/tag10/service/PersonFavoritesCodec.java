@@ -0,0 +1,75 @@
+package com.javafleet.tag10.service;
+
+import com.javafleet.tag10.session.SessionAttributeCodec;
+import com.javafleet.tag10.session.SessionValueCodec;
+import org.springframework.beans.factory.config.AutowireCapableBeanFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * PersonFavoritesCodec - PersonFavorites im Session-Store (app.session.store=file)
+ *
+ * Format: varint Anzahl | varint Abstände der aufsteigenden IDs
+ * Dicht beieinander liegende Favoriten kosten so 1 Byte pro ID statt
+ * der ~500 Bytes, die Java-Serialisierung allein für die Klassenbeschreibung
+ * schreibt. Beim Lesen fallen gelöschte Personen heraus.
+ *
+ * Neue Instanzen kommen aus der BeanFactory, damit sie wie die des
+ * Session Scopes den AOP-Proxy (LatencyAspect) bekommen.
+ *
+ * @author Elyndra Valen
+ */
+@Component
+public class PersonFavoritesCodec implements SessionValueCodec<PersonFavorites> {
+
+    private final AutowireCapableBeanFactory beanFactory;
+    private final PersonService personService;
+
+    public PersonFavoritesCodec(AutowireCapableBeanFactory beanFactory, PersonService personService) {
+        this.beanFactory = beanFactory;
+        this.personService = personService;
+    }
+
+    @Override
+    public byte typeId() {
+        return SessionAttributeCodec.FIRST_CUSTOM_TYPE;
+    }
+
+    @Override
+    public Class<PersonFavorites> type() {
+        return PersonFavorites.class;
+    }
+
+    @Override
+    public void write(PersonFavorites favorites, DataOutput out) throws IOException {
+        long[] ids = favorites.getAllFavorites();
+        SessionAttributeCodec.writeVarLong(out, ids.length);
+        long previous = 0;
+        for (long id : ids) {
+            SessionAttributeCodec.writeVarLong(out, id - previous);
+            previous = id;
+        }
+    }
+
+    @Override
+    public PersonFavorites read(DataInput in) throws IOException {
+        long count = SessionAttributeCodec.readVarLong(in);
+        PersonFavorites favorites = beanFactory.createBean(PersonFavorites.class);
+        long id = 0;
+        for (long i = 0; i < count; i++) {
+            id += SessionAttributeCodec.readVarLong(in);
+            if (personService.findById(id).isPresent()) {
+                favorites.restore(id);
+            }
+        }
+        return favorites;
+    }
+
+    @Override
+    public void released(PersonFavorites favorites) {
+        favorites.sessionEnded();
+    }
+}
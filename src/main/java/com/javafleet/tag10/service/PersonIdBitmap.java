@@ -0,0 +1,140 @@
+package com.javafleet.tag10.service;
+
+import java.util.Arrays;
+
+/**
+ * PersonIdBitmap - komprimierte Menge von Person-IDs
+ *
+ * Gespeichert werden nur nicht-leere 64-Bit-Wörter: blocks[i] ist
+ * id >>> 6, words[i] die Bits der IDs in diesem Block. Beide Arrays sind
+ * nach Block sortiert (Binärsuche). Eine einzelne ID kostet 16 Bytes,
+ * eng beieinander liegende IDs teilen sich ein Wort - bis zu 64 IDs in
+ * 16 Bytes. Ein HashSet&lt;Long&gt; braucht pro ID rund 50 Bytes (Long,
+ * HashMap-Knoten, Tabellen-Slot).
+ *
+ * Nicht thread-safe - PersonFavorites synchronisiert.
+ *
+ * @author Elyndra Valen
+ */
+public final class PersonIdBitmap {
+
+    private static final int INITIAL_CAPACITY = 4;
+    private static final long[] EMPTY = new long[0];
+
+    private long[] blocks = EMPTY;
+    private long[] words = EMPTY;
+    private int used;
+    private int cardinality;
+
+    /**
+     * @return true, wenn die ID neu ist
+     */
+    public boolean add(long id) {
+        checkId(id);
+        long bit = 1L << id;
+        int index = Arrays.binarySearch(blocks, 0, used, id >>> 6);
+        if (index >= 0) {
+            if ((words[index] & bit) != 0) {
+                return false;
+            }
+            words[index] |= bit;
+        } else {
+            insertBlock(-index - 1, id >>> 6, bit);
+        }
+        cardinality++;
+        return true;
+    }
+
+    /**
+     * @return true, wenn die ID enthalten war
+     */
+    public boolean remove(long id) {
+        if (id < 0) {
+            return false;
+        }
+        long bit = 1L << id;
+        int index = Arrays.binarySearch(blocks, 0, used, id >>> 6);
+        if (index < 0 || (words[index] & bit) == 0) {
+            return false;
+        }
+        words[index] &= ~bit;
+        if (words[index] == 0) {
+            removeBlock(index);
+        }
+        cardinality--;
+        return true;
+    }
+
+    public boolean contains(long id) {
+        if (id < 0) {
+            return false;
+        }
+        int index = Arrays.binarySearch(blocks, 0, used, id >>> 6);
+        return index >= 0 && (words[index] & (1L << id)) != 0;
+    }
+
+    public int cardinality() {
+        return cardinality;
+    }
+
+    public boolean isEmpty() {
+        return cardinality == 0;
+    }
+
+    /**
+     * Alle IDs aufsteigend
+     */
+    public long[] toArray() {
+        long[] ids = new long[cardinality];
+        int n = 0;
+        for (int i = 0; i < used; i++) {
+            long base = blocks[i] << 6;
+            long word = words[i];
+            while (word != 0) {
+                ids[n++] = base + Long.numberOfTrailingZeros(word);
+                word &= word - 1;
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * Belegter Speicher der beiden Arrays in Bytes (ohne Objekt-Header)
+     */
+    public long sizeInBytes() {
+        return (long) blocks.length * Long.BYTES * 2;
+    }
+
+    private void insertBlock(int index, long block, long word) {
+        if (used == blocks.length) {
+            int capacity = Math.max(INITIAL_CAPACITY, used + (used >> 1));
+            blocks = Arrays.copyOf(blocks, capacity);
+            words = Arrays.copyOf(words, capacity);
+        }
+        System.arraycopy(blocks, index, blocks, index + 1, used - index);
+        System.arraycopy(words, index, words, index + 1, used - index);
+        blocks[index] = block;
+        words[index] = word;
+        used++;
+    }
+
+    private void removeBlock(int index) {
+        System.arraycopy(blocks, index + 1, blocks, index, used - index - 1);
+        System.arraycopy(words, index + 1, words, index, used - index - 1);
+        used--;
+        // Nach vielen Entfernungen wieder schrumpfen
+        if (used == 0) {
+            blocks = EMPTY;
+            words = EMPTY;
+        } else if (blocks.length > INITIAL_CAPACITY && used < blocks.length / 4) {
+            blocks = Arrays.copyOf(blocks, used * 2);
+            words = Arrays.copyOf(words, used * 2);
+        }
+    }
+
+    private static void checkId(long id) {
+        if (id < 0) {
+            throw new IllegalArgumentException("Person-ID darf nicht negativ sein: " + id);
+        }
+    }
+}
@@ -1,8 +1,16 @@
 package com.javafleet.tag10.service;
 
+import com.javafleet.tag10.model.BatchItemResult;
 import com.javafleet.tag10.model.Person;
+import com.javafleet.tag10.model.PersonPage;
+import com.javafleet.tag10.persistence.PersonPersistence;
+import com.javafleet.tag10.store.NameField;
+import com.javafleet.tag10.store.PersonNameIndex;
+import com.javafleet.tag10.store.PersonStore;
+import com.javafleet.tag10.store.PersonVersionConflictException;
 import jakarta.annotation.PostConstruct;
 import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
@@ -21,15 +29,42 @@ import java.util.concurrent.atomic.AtomicLong;
  * - Logging Best Practices (Tag 5)
  * - AOP Target (Tag 6)
  * 
+ * Thread-Safety: Tomcat-, Jersey- und STOMP-Threads greifen gleichzeitig zu.
+ * Die Daten liegen in einem thread-safe PersonStore (app.person-store.mode),
+ * findById/update/delete laufen in O(1). getAllPersons() liefert einen
+ * unveränderlichen Snapshot, der nur nach einer Änderung neu gebaut wird.
+ * 
+ * Versionen (Basis für ETags):
+ * - Store-Version: steigt mit jeder Änderung (getVersion)
+ * - Personen-Version: steigt mit jeder Änderung dieser Person (Person.version)
+ * 
+ * Persistenz (app.persistence.enabled): Beim Start wird der letzte Zustand
+ * aus Snapshot + Journal geladen, jede Änderung wartet auf den Group Commit.
+ * Ist das Journal nicht beschreibbar, lehnt der Store die Änderung ab, bevor
+ * sie sichtbar wird - die UncheckedIOException kommt dann aus persons.insert/
+ * update/delete, Store-Version und Snapshot bleiben unverändert. Bei Batches
+ * bleibt der Teil des Chunks, den das Journal noch angenommen hat.
+ * 
  * @author Elyndra Valen
  */
 @Service
+@RequiredArgsConstructor
 @Slf4j
 public class PersonService {
     
-    private final List<Person> persons = new ArrayList<>();
+    public static final int DEFAULT_PAGE_SIZE = 100;
+    public static final int MAX_PAGE_SIZE = 1000;
+    public static final int BATCH_CHUNK_SIZE = 1000;
+    
+    private final PersonStore persons;
+    private final PersonNameIndex nameIndex;
+    private final PersonPersistence persistence;
     private final AtomicLong idCounter = new AtomicLong(1);
     
+    /** Store-Version: zählt jede Änderung - ein Snapshot ist gültig, solange der Zähler gleich bleibt */
+    private final AtomicLong modCount = new AtomicLong();
+    private volatile Snapshot snapshot = new Snapshot(0, List.of());
+    
     /**
      * Jakarta EE Lifecycle Callback
      * Wird nach Dependency Injection aufgerufen
@@ -40,10 +75,18 @@ public class PersonService {
         log.info("📍 Scope: Singleton (Default)");
         log.info("💡 Jakarta EE @PostConstruct executed");
         
+        // Persistierten Zustand laden - die ID-Vergabe läuft nahtlos weiter
+        idCounter.set(persistence.recover(persons));
+        modCount.incrementAndGet();
+        if (persons.size() > 0) {
+            log.info("✅ {} Personen wiederhergestellt (nächste ID: {})", persons.size(), idCounter.get());
+            return;
+        }
+        
         // Initialisiere mit Test-Daten
-        createPerson(new Person(null, "Elyndra", "Valen"));
-        createPerson(new Person(null, "Nova", "Trent"));
-        createPerson(new Person(null, "Franz-Martin", "Schmidt"));
+        createPerson(Person.of(null, "Elyndra", "Valen"));
+        createPerson(Person.of(null, "Nova", "Trent"));
+        createPerson(Person.of(null, "Franz-Martin", "Schmidt"));
         
         log.info("✅ {} Test-Personen initialisiert", persons.size());
     }
@@ -66,54 +109,262 @@ public class PersonService {
      * @return Person mit generierter ID
      */
     public Person createPerson(Person person) {
-        person.setId(idCounter.getAndIncrement());
-        persons.add(person);
-        log.debug("✅ Person erstellt: {}", person.getFullName());
-        return person;
+        Person created = persons.insert(person.withId(idCounter.getAndIncrement()));
+        modCount.incrementAndGet();
+        persistence.awaitDurable();
+        log.debug("✅ Person erstellt: {}", created.getFullName());
+        return created;
+    }
+    
+    /**
+     * Erstellt mehrere Personen in einem Schritt
+     * 
+     * Pro Chunk wird der Store nur einmal gesperrt und der Snapshot nur
+     * einmal invalidiert - statt einmal pro Person.
+     * 
+     * @param chunk      Personen ohne ID
+     * @param firstIndex Position des ersten Elements im gesamten Batch
+     */
+    public List<BatchItemResult> createPersons(List<Person> chunk, int firstIndex) {
+        List<Person> valid = new ArrayList<>(chunk.size());
+        List<BatchItemResult> results = new ArrayList<>(chunk.size());
+        for (int i = 0; i < chunk.size(); i++) {
+            Person person = chunk.get(i);
+            if (person == null) {
+                results.add(new BatchItemResult(firstIndex + i, null, 400));
+                continue;
+            }
+            Person withId = person.withId(idCounter.getAndIncrement());
+            valid.add(withId);
+            results.add(new BatchItemResult(firstIndex + i, withId.getId(), 201));
+        }
+        if (!valid.isEmpty()) {
+            try {
+                persons.insertAll(valid);
+            } finally {
+                // Auch wenn das Journal mitten im Chunk ablehnt - der Anfang ist schon sichtbar
+                modCount.incrementAndGet();
+            }
+            persistence.awaitDurable();
+        }
+        log.debug("✅ Batch: {} Personen erstellt", valid.size());
+        return results;
     }
     
     /**
-     * Gibt alle Personen zurück
+     * Aktualisiert mehrere Personen in einem Schritt (ID aus dem Body)
+     */
+    public List<BatchItemResult> updatePersons(List<Person> chunk, int firstIndex) {
+        List<Person> valid = chunk.stream()
+            .filter(person -> person != null && person.getId() != null)
+            .toList();
+        boolean[] updated;
+        try {
+            updated = persons.updateAll(valid);
+        } catch (RuntimeException e) {
+            // Teile des Chunks können schon sichtbar sein
+            modCount.incrementAndGet();
+            throw e;
+        }
+        
+        List<BatchItemResult> results = new ArrayList<>(chunk.size());
+        int validIndex = 0;
+        int count = 0;
+        for (int i = 0; i < chunk.size(); i++) {
+            Person person = chunk.get(i);
+            Long id = person == null ? null : person.getId();
+            int status = 400;
+            if (id != null) {
+                boolean found = updated[validIndex++];
+                status = found ? 200 : 404;
+                count += found ? 1 : 0;
+            }
+            results.add(new BatchItemResult(firstIndex + i, id, status));
+        }
+        if (count > 0) {
+            modCount.incrementAndGet();
+            persistence.awaitDurable();
+        }
+        log.debug("✏️ Batch: {} Personen aktualisiert", count);
+        return results;
+    }
+    
+    /**
+     * Löscht mehrere Personen in einem Schritt
+     */
+    public List<BatchItemResult> deletePersons(List<Long> chunk, int firstIndex) {
+        long[] ids = chunk.stream().filter(id -> id != null).mapToLong(Long::longValue).toArray();
+        boolean[] deleted;
+        try {
+            deleted = persons.deleteAll(ids);
+        } catch (RuntimeException e) {
+            // Teile des Chunks können schon sichtbar sein
+            modCount.incrementAndGet();
+            throw e;
+        }
+        
+        List<BatchItemResult> results = new ArrayList<>(chunk.size());
+        int validIndex = 0;
+        int count = 0;
+        for (int i = 0; i < chunk.size(); i++) {
+            Long id = chunk.get(i);
+            int status = 400;
+            if (id != null) {
+                boolean found = deleted[validIndex++];
+                status = found ? 204 : 404;
+                count += found ? 1 : 0;
+            }
+            results.add(new BatchItemResult(firstIndex + i, id, status));
+        }
+        if (count > 0) {
+            modCount.incrementAndGet();
+            persistence.awaitDurable();
+        }
+        log.debug("🗑️ Batch: {} Personen gelöscht", count);
+        return results;
+    }
+    
+    /**
+     * Gibt alle Personen zurück (nach ID sortiert, unveränderlich)
+     * 
+     * Solange sich nichts ändert, teilen sich alle Aufrufer denselben
+     * Snapshot - es wird nicht bei jedem Request kopiert.
      */
     public List<Person> getAllPersons() {
-        log.debug("📋 {} Personen abgerufen", persons.size());
-        return new ArrayList<>(persons);
+        Snapshot current = snapshot;
+        long expected = modCount.get();
+        if (current.modCount() != expected) {
+            current = new Snapshot(expected, persons.snapshot());
+            snapshot = current;
+        }
+        log.debug("📋 {} Personen abgerufen", current.persons().size());
+        return current.persons();
+    }
+    
+    /**
+     * Keyset-Pagination: Personen mit ID > after, aufsteigend sortiert
+     * 
+     * Der Cursor wird per Binärsuche im Snapshot gefunden - es wird
+     * nichts kopiert, die Seite ist eine Sicht auf den Snapshot.
+     * 
+     * @param after letzte ID der vorherigen Seite (null = von vorne)
+     * @param limit Seitengröße, wird auf 1..MAX_PAGE_SIZE begrenzt
+     */
+    public PersonPage getPersonsAfter(Long after, Integer limit) {
+        List<Person> all = getAllPersons();
+        int pageSize = pageSize(limit);
+        int from = after == null ? 0 : indexAfter(all, after);
+        int to = Math.min(all.size(), from + pageSize);
+        List<Person> page = all.subList(from, to);
+        Long nextAfter = to < all.size() ? page.get(page.size() - 1).getId() : null;
+        return new PersonPage(page, nextAfter);
+    }
+    
+    /**
+     * Seitengröße: null = DEFAULT_PAGE_SIZE, sonst auf 1..MAX_PAGE_SIZE begrenzt
+     */
+    public static int pageSize(Integer limit) {
+        return limit == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
     }
     
     /**
-     * Findet eine Person anhand der ID
+     * Namenssuche über den Sekundärindex (case-insensitive)
+     * 
+     * @param field  firstname, lastname oder fullname
+     * @param query  Suchbegriff
+     * @param prefix true = Präfix-Suche, false = exakte Suche
+     * @param limit  maximale Trefferzahl, wird auf 1..MAX_PAGE_SIZE begrenzt
+     */
+    public List<Person> searchPersons(NameField field, String query, boolean prefix, Integer limit) {
+        int maxResults = pageSize(limit);
+        long[] ids = nameIndex.find(field, query, prefix, maxResults);
+        List<Person> result = new ArrayList<>(ids.length);
+        for (long id : ids) {
+            persons.findById(id).ifPresent(result::add);
+        }
+        log.debug("🔎 Suche {} {} '{}': {} Treffer", field, prefix ? "prefix" : "exact", query, result.size());
+        return result;
+    }
+    
+    /**
+     * Findet eine Person anhand der ID - O(1) über den Primärindex
      */
     public Optional<Person> findById(Long id) {
-        return persons.stream()
-            .filter(p -> p.getId().equals(id))
-            .findFirst();
+        if (id == null) {
+            return Optional.empty();
+        }
+        return persons.findById(id);
+    }
+    
+    /**
+     * Personen zu einer Liste von IDs (Reihenfolge bleibt), unbekannte IDs fallen weg
+     */
+    public List<Person> findAllById(long[] ids) {
+        List<Person> result = new ArrayList<>(ids.length);
+        for (long id : ids) {
+            persons.findById(id).ifPresent(result::add);
+        }
+        return result;
+    }
+    
+    /**
+     * Aktuelle Store-Version - ändert sich nach jeder Änderung an irgendeiner Person
+     * 
+     * Wird vor dem Lesen der Daten abgefragt: eine Antwort ist damit nie
+     * älter als die Version, mit der sie ausgeliefert wird.
+     */
+    public long getVersion() {
+        return modCount.get();
     }
     
     /**
      * Aktualisiert eine Person
      */
     public boolean updatePerson(Long id, Person updatedPerson) {
-        Optional<Person> existingPerson = findById(id);
-        if (existingPerson.isPresent()) {
-            Person person = existingPerson.get();
-            person.setFirstname(updatedPerson.getFirstname());
-            person.setLastname(updatedPerson.getLastname());
-            log.info("✏️ Person aktualisiert: {}", person.getFullName());
-            return true;
+        return updatePerson(id, updatedPerson, PersonStore.ANY_VERSION).isPresent();
+    }
+    
+    /**
+     * Aktualisiert eine Person, falls sie noch die erwartete Version hat (If-Match)
+     * 
+     * @param expectedVersion erwartete Personen-Version oder PersonStore.ANY_VERSION
+     * @return die aktualisierte Person (mit neuer Version) oder empty, falls die ID unbekannt ist
+     * @throws PersonVersionConflictException wenn die Person inzwischen geändert wurde
+     */
+    public Optional<Person> updatePerson(Long id, Person updatedPerson, long expectedVersion) {
+        Optional<Person> person = id == null
+            ? Optional.empty()
+            : persons.update(id, updatedPerson.getFirstname(), updatedPerson.getLastname(), expectedVersion);
+        if (person.isPresent()) {
+            modCount.incrementAndGet();
+            persistence.awaitDurable();
+            log.debug("✏️ Person aktualisiert: {}", person.get().getFullName());
+        } else {
+            log.debug("⚠️ Person mit ID {} nicht gefunden", id);
         }
-        log.warn("⚠️ Person mit ID {} nicht gefunden", id);
-        return false;
+        return person;
     }
     
     /**
      * Löscht eine Person
      */
     public boolean deletePerson(Long id) {
-        boolean removed = persons.removeIf(p -> p.getId().equals(id));
+        return deletePerson(id, PersonStore.ANY_VERSION);
+    }
+    
+    /**
+     * Löscht eine Person, falls sie noch die erwartete Version hat (If-Match)
+     * 
+     * @throws PersonVersionConflictException wenn die Person inzwischen geändert wurde
+     */
+    public boolean deletePerson(Long id, long expectedVersion) {
+        boolean removed = id != null && persons.delete(id, expectedVersion);
         if (removed) {
-            log.info("🗑️ Person mit ID {} gelöscht", id);
+            modCount.incrementAndGet();
+            persistence.awaitDurable();
+            log.debug("🗑️ Person mit ID {} gelöscht", id);
         } else {
-            log.warn("⚠️ Person mit ID {} nicht gefunden", id);
+            log.debug("⚠️ Person mit ID {} nicht gefunden", id);
         }
         return removed;
     }
@@ -124,4 +375,35 @@ public class PersonService {
     public int getCount() {
         return persons.size();
     }
+    
+    /**
+     * Erster Index im (nach ID sortierten) Snapshot mit ID > after
+     */
+    private static int indexAfter(List<Person> sorted, long after) {
+        int low = 0;
+        int high = sorted.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sorted.get(mid).getId() <= after) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+    
+    /**
+     * Unveränderliche Momentaufnahme der Personenliste
+     */
+    private record Snapshot(long modCount, List<Person> persons) {
+    }
+    
+    /**
+     * Batch-Operation auf einen Chunk (createPersons, updatePersons, deletePersons)
+     */
+    @FunctionalInterface
+    public interface BatchOperation<T> {
+        List<BatchItemResult> apply(List<T> chunk, int firstIndex);
+    }
 }
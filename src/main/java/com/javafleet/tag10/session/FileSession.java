@@ -0,0 +1,126 @@
+package com.javafleet.tag10.session;
+
+import org.springframework.session.MapSession;
+import org.springframework.session.Session;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * FileSession - eine Session aus dem FileSessionRepository
+ *
+ * Hält die Attribute in einer MapSession und merkt sich, was sich während
+ * des Requests geändert hat - save() schreibt nur diese Attribute.
+ * Die Werte selbst sind dieselben Objekte wie im Near-Cache: parallele
+ * Requests derselben Session auf einem Knoten sehen z.B. dieselbe
+ * PersonFavorites-Instanz, wie bei Sessions im Speicher.
+ *
+ * @author Elyndra Valen
+ */
+public final class FileSession implements Session {
+
+    private final MapSession delegate;
+    private final Set<String> changedAttributes = new HashSet<>();
+    private boolean isNew;
+    private String originalId;
+    private boolean maxInactiveIntervalChanged;
+
+    FileSession(MapSession delegate, boolean isNew) {
+        this.delegate = delegate;
+        this.isNew = isNew;
+        this.originalId = delegate.getId();
+    }
+
+    @Override
+    public String getId() {
+        return delegate.getId();
+    }
+
+    @Override
+    public String changeSessionId() {
+        return delegate.changeSessionId();
+    }
+
+    @Override
+    public <T> T getAttribute(String attributeName) {
+        return delegate.getAttribute(attributeName);
+    }
+
+    @Override
+    public Set<String> getAttributeNames() {
+        return delegate.getAttributeNames();
+    }
+
+    @Override
+    public void setAttribute(String attributeName, Object attributeValue) {
+        delegate.setAttribute(attributeName, attributeValue);
+        changedAttributes.add(attributeName);
+    }
+
+    @Override
+    public void removeAttribute(String attributeName) {
+        delegate.removeAttribute(attributeName);
+        changedAttributes.add(attributeName);
+    }
+
+    @Override
+    public Instant getCreationTime() {
+        return delegate.getCreationTime();
+    }
+
+    @Override
+    public void setLastAccessedTime(Instant lastAccessedTime) {
+        delegate.setLastAccessedTime(lastAccessedTime);
+    }
+
+    @Override
+    public Instant getLastAccessedTime() {
+        return delegate.getLastAccessedTime();
+    }
+
+    @Override
+    public void setMaxInactiveInterval(Duration interval) {
+        if (!interval.equals(delegate.getMaxInactiveInterval())) {
+            maxInactiveIntervalChanged = true;
+        }
+        delegate.setMaxInactiveInterval(interval);
+    }
+
+    @Override
+    public Duration getMaxInactiveInterval() {
+        return delegate.getMaxInactiveInterval();
+    }
+
+    @Override
+    public boolean isExpired() {
+        return delegate.isExpired();
+    }
+
+    boolean isNew() {
+        return isNew;
+    }
+
+    String getOriginalId() {
+        return originalId;
+    }
+
+    Set<String> getChangedAttributes() {
+        return changedAttributes;
+    }
+
+    boolean isMaxInactiveIntervalChanged() {
+        return maxInactiveIntervalChanged;
+    }
+
+    /**
+     * Nach save(): Änderungen sind geschrieben
+     */
+    void markSaved() {
+        isNew = false;
+        changedAttributes.clear();
+        maxInactiveIntervalChanged = false;
+        originalId = delegate.getId();
+    }
+}
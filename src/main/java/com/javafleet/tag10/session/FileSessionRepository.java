@@ -0,0 +1,465 @@
+package com.javafleet.tag10.session;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.session.MapSession;
+import org.springframework.session.SessionRepository;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * FileSessionRepository - HTTP-Sessions außerhalb der JVM, in einem Verzeichnis
+ *
+ * Pro Session ein Unterverzeichnis:
+ *   &lt;directory&gt;/&lt;sessionId&gt;/meta          SessionMeta (Zeiten, Versionen)
+ *   &lt;directory&gt;/&lt;sessionId&gt;/&lt;name&gt;.attr   ein Attribut (SessionAttributeCodec)
+ * Jede Datei wird als .tmp geschrieben und atomar umbenannt - Leser sehen
+ * nie eine halbe Datei. Mehrere Instanzen auf demselben Verzeichnis (lokal
+ * oder Netzlaufwerk) teilen sich die Sessions, ein Neustart verliert keine.
+ *
+ * Schreiben (save am Ende des Requests):
+ * - nur Attribute, die im Request gesetzt oder entfernt wurden, und davon
+ *   nur die, deren Bytes sich wirklich geändert haben (der Session-Scope
+ *   setzt seine Beans nach jedem Request neu, auch ohne Änderung)
+ * - meta nur bei geänderten Attributen oder wenn lastAccessedTime um mehr
+ *   als touchInterval weiter ist - ein reiner Lese-Request schreibt meist nichts
+ *
+ * Lesen (findById): meta wird immer gelesen (eine kleine Datei), die
+ * dekodierten Attribute kommen aus dem Near-Cache, solange ihre Version
+ * passt. Nach einer Änderung auf einem anderen Knoten wird nur das
+ * geänderte Attribut neu geladen.
+ *
+ * Nicht speicherbare Attribute (nicht serialisierbar, Destruction-Callbacks
+ * des Session-Scopes) bleiben nur im Near-Cache dieses Knotens.
+ *
+ * Abgelaufene Sessions räumt ein Hintergrund-Thread alle cleanupInterval
+ * weg. Verlässt ein dekodierter Wert den Near-Cache (Session gelöscht,
+ * verdrängt, von einem anderen Knoten überschrieben), ruft das Repository
+ * SessionValueCodec.released - das ersetzt @PreDestroy.
+ * Wegen touchInterval läuft eine Session frühestens maxInactiveInterval
+ * minus touchInterval nach dem letzten Request ab.
+ *
+ * @author Elyndra Valen
+ */
+@Slf4j
+public class FileSessionRepository implements SessionRepository<FileSession>, AutoCloseable {
+
+    private static final String META_FILE = "meta";
+    private static final String ATTRIBUTE_SUFFIX = ".attr";
+    private static final int MAX_ENCODED_NAME_LENGTH = 200;
+    private static final Pattern VALID_ID = Pattern.compile("[A-Za-z0-9-]{1,64}");
+    private static final int LOCK_STRIPES = 64;
+    /** Attribut lebt nur im Near-Cache, steht nicht in meta */
+    private static final long LOCAL_ONLY = 0L;
+
+    private final Path directory;
+    private final SessionAttributeCodec codec;
+    private final Duration defaultMaxInactiveInterval;
+    private final long touchIntervalMillis;
+    private final int nearCacheSize;
+    private final ConcurrentHashMap<String, CachedSession> nearCache = new ConcurrentHashMap<>();
+    private final Object[] locks = new Object[LOCK_STRIPES];
+    private final ScheduledExecutorService cleaner;
+
+    private final LongAdder lookups = new LongAdder();
+    private final LongAdder nearCacheHits = new LongAdder();
+    private final LongAdder attributeLoads = new LongAdder();
+    private final LongAdder attributeWrites = new LongAdder();
+    private final LongAdder unchangedAttributes = new LongAdder();
+    private final LongAdder metaWrites = new LongAdder();
+    private final LongAdder bytesWritten = new LongAdder();
+    private final LongAdder expired = new LongAdder();
+
+    public FileSessionRepository(Path directory, SessionAttributeCodec codec, Duration defaultMaxInactiveInterval,
+                                 Duration touchInterval, int nearCacheSize, Duration cleanupInterval) {
+        if (nearCacheSize < 1) {
+            throw new IllegalArgumentException("app.session.near-cache-size muss positiv sein");
+        }
+        this.directory = directory;
+        this.codec = codec;
+        this.defaultMaxInactiveInterval = defaultMaxInactiveInterval;
+        this.touchIntervalMillis = touchInterval.toMillis();
+        this.nearCacheSize = nearCacheSize;
+        for (int i = 0; i < locks.length; i++) {
+            locks[i] = new Object();
+        }
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Session-Verzeichnis " + directory + " nicht anlegbar", e);
+        }
+        cleaner = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "session-cleanup");
+            thread.setDaemon(true);
+            return thread;
+        });
+        cleaner.scheduleWithFixedDelay(this::removeExpiredSessions,
+            cleanupInterval.toMillis(), cleanupInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public FileSession createSession() {
+        MapSession session = new MapSession();
+        session.setMaxInactiveInterval(defaultMaxInactiveInterval);
+        return new FileSession(session, true);
+    }
+
+    @Override
+    public FileSession findById(String id) {
+        if (id == null || !VALID_ID.matcher(id).matches()) {
+            return null;
+        }
+        lookups.increment();
+        Path sessionDirectory = directory.resolve(id);
+        SessionMeta meta = readMeta(sessionDirectory);
+        if (meta == null) {
+            release(nearCache.remove(id));
+            return null;
+        }
+        if (meta.isExpired(Instant.now())) {
+            expired.increment();
+            deleteById(id);
+            return null;
+        }
+        CachedSession cached = nearCache.get(id);
+        if (cached != null && cached.meta().version() == meta.version()) {
+            nearCacheHits.increment();
+            return cached.toSession(id);
+        }
+        synchronized (lockFor(id)) {
+            cached = nearCache.get(id);
+            if (cached == null || cached.meta().version() != meta.version()) {
+                cached = load(sessionDirectory, meta, cached);
+                putNearCache(id, cached);
+            }
+        }
+        return cached.toSession(id);
+    }
+
+    @Override
+    public void save(FileSession session) {
+        String id = session.getId();
+        try {
+            if (!session.isNew() && !id.equals(session.getOriginalId())) {
+                rename(session.getOriginalId(), id);
+            }
+            synchronized (lockFor(id)) {
+                saveLocked(id, session);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Session " + id + " nicht speicherbar", e);
+        }
+        session.markSaved();
+    }
+
+    @Override
+    public void deleteById(String id) {
+        if (id == null || !VALID_ID.matcher(id).matches()) {
+            return;
+        }
+        Path sessionDirectory = directory.resolve(id);
+        synchronized (lockFor(id)) {
+            try {
+                deleteRecursively(sessionDirectory);
+            } catch (IOException e) {
+                log.warn("⚠️ Session {} nicht vollständig gelöscht: {}", id, e.getMessage());
+            }
+            release(nearCache.remove(id));
+        }
+    }
+
+    public SessionStoreStatistics getStatistics() {
+        return new SessionStoreStatistics(
+            nearCache.size(),
+            lookups.sum(),
+            nearCacheHits.sum(),
+            attributeLoads.sum(),
+            attributeWrites.sum(),
+            unchangedAttributes.sum(),
+            metaWrites.sum(),
+            bytesWritten.sum(),
+            expired.sum());
+    }
+
+    @Override
+    public void close() {
+        cleaner.shutdownNow();
+    }
+
+    private void saveLocked(String id, FileSession session) throws IOException {
+        Path sessionDirectory = directory.resolve(id);
+        CachedSession base = session.isNew() ? null : nearCache.get(id);
+        if (base == null && !session.isNew()) {
+            // Zwischendurch aus dem Near-Cache verdrängt - die geladenen Werte gibt putNearCache wieder frei
+            SessionMeta meta = readMeta(sessionDirectory);
+            base = meta == null ? null : load(sessionDirectory, meta, null);
+            if (base != null) {
+                putNearCache(id, base);
+            }
+        }
+        if (base == null) {
+            Files.createDirectories(sessionDirectory);
+        }
+        Map<String, CachedAttribute> attributes = base == null ? new HashMap<>() : new HashMap<>(base.attributes());
+        boolean changed = base == null || session.isMaxInactiveIntervalChanged();
+        for (String name : session.getChangedAttributes()) {
+            changed |= saveAttribute(sessionDirectory, name, session.getAttribute(name), attributes);
+        }
+        long lastAccessed = session.getLastAccessedTime().toEpochMilli();
+        if (!changed && lastAccessed - base.meta().lastAccessedMillis() < touchIntervalMillis) {
+            // Nichts auf der Platte zu tun - nur die Werte im Near-Cache auffrischen
+            putNearCache(id, new CachedSession(base.meta(), attributes));
+            return;
+        }
+        Map<String, Long> attributeVersions = new LinkedHashMap<>();
+        attributes.forEach((name, attribute) -> {
+            if (attribute.version() != LOCAL_ONLY) {
+                attributeVersions.put(name, attribute.version());
+            }
+        });
+        SessionMeta meta = new SessionMeta(nextVersion(), session.getCreationTime().toEpochMilli(), lastAccessed,
+            (int) session.getMaxInactiveInterval().toSeconds(), attributeVersions);
+        byte[] encoded = meta.encode();
+        writeAtomically(sessionDirectory.resolve(META_FILE), encoded);
+        metaWrites.increment();
+        bytesWritten.add(encoded.length);
+        putNearCache(id, new CachedSession(meta, attributes));
+    }
+
+    /**
+     * @return true, wenn sich meta dadurch ändert
+     */
+    private boolean saveAttribute(Path sessionDirectory, String name, Object value,
+                                  Map<String, CachedAttribute> attributes) throws IOException {
+        CachedAttribute previous = attributes.get(name);
+        boolean stored = previous != null && previous.version() != LOCAL_ONLY;
+        byte[] encoded = value == null || isLocalOnly(name) ? null : codec.encode(value);
+        if (encoded == null) {
+            if (stored) {
+                Files.deleteIfExists(attributeFile(sessionDirectory, name));
+            }
+            if (value == null) {
+                attributes.remove(name);
+            } else {
+                attributes.put(name, new CachedAttribute(LOCAL_ONLY, value, null));
+            }
+            return stored;
+        }
+        if (stored && Arrays.equals(previous.encoded(), encoded)) {
+            unchangedAttributes.increment();
+            attributes.put(name, new CachedAttribute(previous.version(), value, encoded));
+            return false;
+        }
+        writeAtomically(attributeFile(sessionDirectory, name), encoded);
+        attributeWrites.increment();
+        bytesWritten.add(encoded.length);
+        attributes.put(name, new CachedAttribute(nextVersion(), value, encoded));
+        return true;
+    }
+
+    /**
+     * Lädt die Attribute aus meta - was in previous mit gleicher Version steht, wird übernommen
+     */
+    private CachedSession load(Path sessionDirectory, SessionMeta meta, CachedSession previous) {
+        Map<String, CachedAttribute> attributes = new HashMap<>();
+        if (previous != null) {
+            previous.attributes().forEach((name, attribute) -> {
+                if (attribute.version() == LOCAL_ONLY) {
+                    attributes.put(name, attribute);
+                }
+            });
+        }
+        meta.attributeVersions().forEach((name, version) -> {
+            CachedAttribute known = previous == null ? null : previous.attributes().get(name);
+            if (known != null && known.version() == version) {
+                attributes.put(name, known);
+                return;
+            }
+            try {
+                byte[] encoded = Files.readAllBytes(attributeFile(sessionDirectory, name));
+                attributes.put(name, new CachedAttribute(version, codec.decode(encoded), encoded));
+                attributeLoads.increment();
+            } catch (NoSuchFileException e) {
+                // gerade von einem anderen Knoten entfernt - dessen meta kommt gleich
+            } catch (IOException e) {
+                log.warn("⚠️ Session-Attribut {} in {} nicht lesbar: {}", name, sessionDirectory.getFileName(), e.getMessage());
+            }
+        });
+        return new CachedSession(meta, attributes);
+    }
+
+    private SessionMeta readMeta(Path sessionDirectory) {
+        try {
+            return SessionMeta.decode(Files.readAllBytes(sessionDirectory.resolve(META_FILE)));
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            log.warn("⚠️ Session {} nicht lesbar: {}", sessionDirectory.getFileName(), e.getMessage());
+            return null;
+        }
+    }
+
+    private void rename(String oldId, String newId) throws IOException {
+        synchronized (lockFor(oldId)) {
+            Files.move(directory.resolve(oldId), directory.resolve(newId), StandardCopyOption.ATOMIC_MOVE);
+            CachedSession cached = nearCache.remove(oldId);
+            if (cached != null) {
+                release(nearCache.put(newId, cached));
+            }
+        }
+    }
+
+    private void removeExpiredSessions() {
+        Instant now = Instant.now();
+        int removed = 0;
+        try (DirectoryStream<Path> sessions = Files.newDirectoryStream(directory, Files::isDirectory)) {
+            for (Path sessionDirectory : sessions) {
+                SessionMeta meta = readMeta(sessionDirectory);
+                boolean orphan = meta == null && Files.getLastModifiedTime(sessionDirectory).toInstant()
+                    .isBefore(now.minus(defaultMaxInactiveInterval));
+                if (orphan || (meta != null && meta.isExpired(now))) {
+                    deleteById(sessionDirectory.getFileName().toString());
+                    removed++;
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            log.warn("⚠️ Aufräumen abgelaufener Sessions fehlgeschlagen: {}", e.getMessage());
+        }
+        if (removed > 0) {
+            expired.add(removed);
+            log.debug("🧹 {} abgelaufene Sessions entfernt", removed);
+        }
+    }
+
+    /**
+     * Nur unter lockFor(id) - Werte, die der neue Stand nicht mehr enthält, werden freigegeben
+     */
+    private void putNearCache(String id, CachedSession cached) {
+        CachedSession previous = nearCache.put(id, cached);
+        if (previous != null && previous != cached) {
+            previous.attributes().forEach((name, attribute) -> {
+                CachedAttribute current = cached.attributes().get(name);
+                if (current == null || current.value() != attribute.value()) {
+                    codec.released(attribute.value());
+                }
+            });
+        }
+        if (nearCache.size() > nearCacheSize) {
+            // Grob, aber ohne Zugriffsliste: ein Zehntel verwerfen - liegt ja noch auf der Platte
+            int toRemove = nearCache.size() - nearCacheSize + nearCacheSize / 10;
+            Iterator<String> ids = nearCache.keySet().iterator();
+            while (toRemove-- > 0 && ids.hasNext()) {
+                String candidate = ids.next();
+                if (!candidate.equals(id)) {
+                    release(nearCache.remove(candidate));
+                }
+            }
+        }
+    }
+
+    private void release(CachedSession cached) {
+        if (cached != null) {
+            cached.attributes().values().forEach(attribute -> codec.released(attribute.value()));
+        }
+    }
+
+    private Object lockFor(String id) {
+        return locks[(id.hashCode() & Integer.MAX_VALUE) % LOCK_STRIPES];
+    }
+
+    private static boolean isLocalOnly(String name) {
+        return name.startsWith(ServletRequestAttributes.DESTRUCTION_CALLBACK_NAME_PREFIX);
+    }
+
+    private static long nextVersion() {
+        // Zufällig statt hochgezählt: zwei Knoten vergeben nie dieselbe Version für verschiedene Stände
+        long version;
+        do {
+            version = ThreadLocalRandom.current().nextLong();
+        } while (version == LOCAL_ONLY);
+        return version;
+    }
+
+    private static Path attributeFile(Path sessionDirectory, String name) {
+        byte[] utf8 = name.getBytes(StandardCharsets.UTF_8);
+        String encoded = Base64.getUrlEncoder().withoutPadding().encodeToString(utf8);
+        if (encoded.length() > MAX_ENCODED_NAME_LENGTH) {
+            encoded = "sha-" + HexFormat.of().formatHex(sha256(utf8));
+        }
+        return sessionDirectory.resolve(encoded + ATTRIBUTE_SUFFIX);
+    }
+
+    private static byte[] sha256(byte[] data) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(data);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 fehlt", e);
+        }
+    }
+
+    private static void writeAtomically(Path target, byte[] data) throws IOException {
+        Path temp = target.resolveSibling(target.getFileName() + "." + Long.toHexString(nextVersion()) + ".tmp");
+        try {
+            Files.write(temp, data);
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private static void deleteRecursively(Path path) throws IOException {
+        if (!Files.exists(path)) {
+            return;
+        }
+        try (Stream<Path> files = Files.walk(path)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    /**
+     * Dekodierter Wert plus die Bytes, mit denen er zuletzt geschrieben wurde
+     */
+    private record CachedAttribute(long version, Object value, byte[] encoded) {
+    }
+
+    private record CachedSession(SessionMeta meta, Map<String, CachedAttribute> attributes) {
+
+        FileSession toSession(String id) {
+            MapSession session = new MapSession(id);
+            session.setCreationTime(Instant.ofEpochMilli(meta.creationMillis()));
+            session.setLastAccessedTime(Instant.ofEpochMilli(meta.lastAccessedMillis()));
+            session.setMaxInactiveInterval(Duration.ofSeconds(meta.maxInactiveSeconds()));
+            attributes.forEach((name, attribute) -> session.setAttribute(name, attribute.value()));
+            return new FileSession(session, false);
+        }
+    }
+}
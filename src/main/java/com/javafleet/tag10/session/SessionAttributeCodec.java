@@ -0,0 +1,217 @@
+package com.javafleet.tag10.session;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.util.ClassUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.NotSerializableException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * SessionAttributeCodec - Session-Attribute als kompakte Bytes
+ *
+ * Format: byte type | Wert
+ * - STRING   varint Länge | UTF-8
+ * - LONG / INTEGER  varint (zigzag, kleine Zahlen = 1 Byte)
+ * - BOOLEAN  1 Byte
+ * - FIRST_CUSTOM_TYPE..126  registrierter SessionValueCodec
+ * - SERIALIZED  Java-Serialisierung (Notlösung für alles andere)
+ *
+ * Nicht serialisierbare Werte liefern null und werden nicht gespeichert -
+ * wie Tomcat es beim Persistieren von Sessions auch tut.
+ *
+ * @author Elyndra Valen
+ */
+@Slf4j
+public final class SessionAttributeCodec {
+
+    static final byte STRING = 1;
+    static final byte LONG = 2;
+    static final byte INTEGER = 3;
+    static final byte BOOLEAN = 4;
+    public static final byte FIRST_CUSTOM_TYPE = 16;
+    static final byte SERIALIZED = 127;
+
+    private final Map<Class<?>, SessionValueCodec<?>> codecsByType = new HashMap<>();
+    private final SessionValueCodec<?>[] codecsById = new SessionValueCodec<?>[SERIALIZED];
+
+    public SessionAttributeCodec(List<SessionValueCodec<?>> codecs) {
+        for (SessionValueCodec<?> codec : codecs) {
+            byte id = codec.typeId();
+            if (id < FIRST_CUSTOM_TYPE || id >= SERIALIZED || codecsById[id] != null) {
+                throw new IllegalArgumentException("Ungültige oder doppelte Codec-Kennung " + id + " für " + codec.type());
+            }
+            codecsById[id] = codec;
+            codecsByType.put(codec.type(), codec);
+        }
+    }
+
+    /**
+     * @return die kodierten Bytes oder null, wenn der Wert nicht gespeichert werden kann
+     */
+    public byte[] encode(Object value) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(32);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            if (!writeValue(value, out)) {
+                return null;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    public Object decode(byte[] data) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(data));
+        byte type = in.readByte();
+        return switch (type) {
+            case STRING -> readString(in);
+            case LONG -> zigzagDecode(readVarLong(in));
+            case INTEGER -> (int) zigzagDecode(readVarLong(in));
+            case BOOLEAN -> in.readBoolean();
+            case SERIALIZED -> deserialize(in);
+            default -> {
+                SessionValueCodec<?> codec = type > 0 ? codecsById[type] : null;
+                if (codec == null) {
+                    throw new IOException("Unbekannter Attributtyp " + type);
+                }
+                yield codec.read(in);
+            }
+        };
+    }
+
+    /**
+     * Ruft SessionValueCodec.released, falls es für den Wert einen Codec gibt
+     */
+    @SuppressWarnings("unchecked")
+    public void released(Object value) {
+        SessionValueCodec<Object> codec = value == null ? null : (SessionValueCodec<Object>) codecFor(value);
+        if (codec != null) {
+            codec.released(value);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private boolean writeValue(Object value, DataOutputStream out) throws IOException {
+        switch (value) {
+            case String string -> {
+                out.writeByte(STRING);
+                writeString(out, string);
+            }
+            case Long number -> {
+                out.writeByte(LONG);
+                writeVarLong(out, zigzagEncode(number));
+            }
+            case Integer number -> {
+                out.writeByte(INTEGER);
+                writeVarLong(out, zigzagEncode(number));
+            }
+            case Boolean flag -> {
+                out.writeByte(BOOLEAN);
+                out.writeBoolean(flag);
+            }
+            default -> {
+                SessionValueCodec<Object> codec = (SessionValueCodec<Object>) codecFor(value);
+                if (codec != null) {
+                    out.writeByte(codec.typeId());
+                    codec.write(value, out);
+                } else if (value instanceof Serializable) {
+                    out.writeByte(SERIALIZED);
+                    return serialize(value, out);
+                } else {
+                    log.debug("Session-Attribut vom Typ {} ist nicht serialisierbar - bleibt nur im Speicher",
+                        value.getClass().getName());
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Session-Scoped Beans liegen als CGLIB-Unterklasse in der Session (AOP-Proxy)
+     */
+    private SessionValueCodec<?> codecFor(Object value) {
+        return codecsByType.get(ClassUtils.getUserClass(value));
+    }
+
+    private static boolean serialize(Object value, DataOutputStream out) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream objects = new ObjectOutputStream(bytes)) {
+            objects.writeObject(value);
+        } catch (NotSerializableException e) {
+            log.debug("Session-Attribut {} ist nicht serialisierbar: {}", value.getClass().getName(), e.getMessage());
+            return false;
+        }
+        bytes.writeTo(out);
+        return true;
+    }
+
+    private static Object deserialize(DataInputStream in) throws IOException {
+        try (ObjectInputStream objects = new ObjectInputStream(in)) {
+            return objects.readObject();
+        } catch (ClassNotFoundException e) {
+            throw new IOException("Klasse für Session-Attribut fehlt: " + e.getMessage(), e);
+        }
+    }
+
+    public static void writeString(DataOutput out, String value) throws IOException {
+        byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+        writeVarLong(out, utf8.length);
+        out.write(utf8);
+    }
+
+    public static String readString(DataInput in) throws IOException {
+        long length = readVarLong(in);
+        if (length > Integer.MAX_VALUE - 8) {
+            throw new IOException("String zu lang: " + length);
+        }
+        byte[] utf8 = new byte[(int) length];
+        in.readFully(utf8);
+        return new String(utf8, StandardCharsets.UTF_8);
+    }
+
+    private static long zigzagEncode(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long zigzagDecode(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    /**
+     * varint: 7 Bit pro Byte, höchstes Bit = weiteres Byte folgt (wie ChatMessageCodec)
+     */
+    public static void writeVarLong(DataOutput out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    public static long readVarLong(DataInput in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = in.readByte();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IOException("varint zu lang");
+    }
+}
@@ -0,0 +1,70 @@
+package com.javafleet.tag10.session;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * SessionMeta - Kopfdaten einer Session im FileSessionRepository (Datei "meta")
+ *
+ * Format:
+ *   int MAGIC | long version | long creation | long lastAccessed
+ *   | varint maxInactiveSeconds + 1 (0 = läuft nie ab) | varint count
+ *   | count x (string name | long attributeVersion)
+ *
+ * version ändert sich bei jedem Schreiben der Datei, attributeVersion nur,
+ * wenn das Attribut neu geschrieben wurde. Ein Knoten vergleicht beide mit
+ * seinem Near-Cache und lädt nur, was sich wirklich geändert hat.
+ *
+ * @author Elyndra Valen
+ */
+record SessionMeta(long version, long creationMillis, long lastAccessedMillis,
+                   int maxInactiveSeconds, Map<String, Long> attributeVersions) {
+
+    static final int MAGIC = 0x5345_5331; // "SES1"
+
+    boolean isExpired(Instant now) {
+        return maxInactiveSeconds >= 0 && now.toEpochMilli() - lastAccessedMillis >= maxInactiveSeconds * 1000L;
+    }
+
+    byte[] encode() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 + attributeVersions.size() * 48);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(MAGIC);
+            out.writeLong(version);
+            out.writeLong(creationMillis);
+            out.writeLong(lastAccessedMillis);
+            SessionAttributeCodec.writeVarLong(out, Math.max(maxInactiveSeconds, -1) + 1L);
+            SessionAttributeCodec.writeVarLong(out, attributeVersions.size());
+            for (Map.Entry<String, Long> attribute : attributeVersions.entrySet()) {
+                SessionAttributeCodec.writeString(out, attribute.getKey());
+                out.writeLong(attribute.getValue());
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("ByteArrayOutputStream wirft nicht", e);
+        }
+        return bytes.toByteArray();
+    }
+
+    static SessionMeta decode(byte[] data) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(data));
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Keine Session-Datei");
+        }
+        long version = in.readLong();
+        long creation = in.readLong();
+        long lastAccessed = in.readLong();
+        int maxInactiveSeconds = (int) SessionAttributeCodec.readVarLong(in) - 1;
+        int count = (int) SessionAttributeCodec.readVarLong(in);
+        Map<String, Long> attributeVersions = new LinkedHashMap<>(Math.max(4, count * 2));
+        for (int i = 0; i < count; i++) {
+            attributeVersions.put(SessionAttributeCodec.readString(in), in.readLong());
+        }
+        return new SessionMeta(version, creation, lastAccessed, maxInactiveSeconds, attributeVersions);
+    }
+}
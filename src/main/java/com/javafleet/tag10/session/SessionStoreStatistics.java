@@ -0,0 +1,19 @@
+package com.javafleet.tag10.session;
+
+/**
+ * Zustand des FileSessionRepository (Teil von /api/stats)
+ *
+ * @param cachedSessions      Sessions im Near-Cache dieses Knotens
+ * @param lookups             findById-Aufrufe (einer pro Request mit Session-Cookie)
+ * @param nearCacheHits       Lookups ohne dekodiertes Attribut (nur meta gelesen)
+ * @param attributeLoads      von der Platte gelesene und dekodierte Attribute
+ * @param attributeWrites     geschriebene Attribute
+ * @param unchangedAttributes gesetzte, aber bytegleiche Attribute (nicht geschrieben)
+ * @param metaWrites          geschriebene meta-Dateien
+ * @param bytesWritten        insgesamt geschriebene Bytes (Attribute + meta)
+ * @param expired             abgelaufene und gelöschte Sessions
+ */
+public record SessionStoreStatistics(long cachedSessions, long lookups, long nearCacheHits,
+                                     long attributeLoads, long attributeWrites, long unchangedAttributes,
+                                     long metaWrites, long bytesWritten, long expired) {
+}
@@ -0,0 +1,41 @@
+package com.javafleet.tag10.session;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * SessionValueCodec - kompaktes Binärformat für einen Typ von Session-Attribut
+ *
+ * Alles, was kein String, Long, Integer oder Boolean ist und keinen Codec
+ * hat, geht per Java-Serialisierung in den Store - groß und langsam. Für
+ * die eigenen Session-Beans (z.B. PersonFavorites) lohnt sich daher ein
+ * Codec. Codecs werden als Beans registriert und vom
+ * SessionAttributeCodec eingesammelt.
+ *
+ * @param <T> Typ des Attributwerts (exakt bzw. dessen CGLIB-Proxy, keine anderen Unterklassen)
+ * @author Elyndra Valen
+ */
+public interface SessionValueCodec<T> {
+
+    /**
+     * Kennung im Binärformat - auf allen Knoten gleich, nie wiederverwenden
+     * (SessionAttributeCodec.FIRST_CUSTOM_TYPE .. 126)
+     */
+    byte typeId();
+
+    Class<T> type();
+
+    void write(T value, DataOutput out) throws IOException;
+
+    T read(DataInput in) throws IOException;
+
+    /**
+     * Der Wert wird auf diesem Knoten nicht mehr gebraucht: Session abgelaufen
+     * oder invalidiert (Ersatz für @PreDestroy), aus dem Near-Cache verdrängt
+     * oder durch einen neueren Stand eines anderen Knotens ersetzt
+     */
+    default void released(T value) {
+        // nichts zu tun
+    }
+}
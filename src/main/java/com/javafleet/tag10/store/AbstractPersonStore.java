@@ -0,0 +1,84 @@
+package com.javafleet.tag10.store;
+
+import com.javafleet.tag10.model.Person;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * AbstractPersonStore - gemeinsame Listener-Verwaltung der Stores
+ */
+public abstract class AbstractPersonStore implements PersonStore {
+    
+    private final List<PersonChangeListener> listeners = new CopyOnWriteArrayList<>();
+    
+    @Override
+    public void addChangeListener(PersonChangeListener listener) {
+        listeners.add(listener);
+    }
+    
+    @Override
+    public void addWriteAheadListener(PersonChangeListener listener) {
+        listeners.add(0, listener);
+    }
+    
+    protected void fireInserted(Person person) {
+        try {
+            for (PersonChangeListener listener : listeners) {
+                listener.personInserted(person);
+            }
+        } catch (RuntimeException e) {
+            fireDiscarded();
+            throw e;
+        }
+    }
+    
+    protected void fireUpdated(Person before, Person after) {
+        try {
+            for (PersonChangeListener listener : listeners) {
+                listener.personUpdated(before, after);
+            }
+        } catch (RuntimeException e) {
+            fireDiscarded();
+            throw e;
+        }
+    }
+    
+    /**
+     * Nach der Änderung, noch im kritischen Abschnitt: jetzt ist sie sichtbar
+     */
+    protected void fireApplied() {
+        for (PersonChangeListener listener : listeners) {
+            listener.changesApplied();
+        }
+    }
+    
+    /**
+     * Ein Listener hat abgelehnt - der Store übernimmt die Änderung nicht
+     */
+    private void fireDiscarded() {
+        for (PersonChangeListener listener : listeners) {
+            listener.changesDiscarded();
+        }
+    }
+    
+    /**
+     * Prüft die erwartete Version (ANY_VERSION = keine Prüfung)
+     */
+    protected static void checkVersion(long id, long expectedVersion, long actualVersion) {
+        if (expectedVersion != ANY_VERSION && expectedVersion != actualVersion) {
+            throw new PersonVersionConflictException(id, expectedVersion, actualVersion);
+        }
+    }
+    
+    protected void fireDeleted(Person removed) {
+        try {
+            for (PersonChangeListener listener : listeners) {
+                listener.personDeleted(removed);
+            }
+        } catch (RuntimeException e) {
+            fireDiscarded();
+            throw e;
+        }
+    }
+}
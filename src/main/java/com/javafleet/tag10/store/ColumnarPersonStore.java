@@ -0,0 +1,375 @@
+package com.javafleet.tag10.store;
+
+import com.javafleet.tag10.model.Person;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.RandomAccess;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * ColumnarPersonStore - spaltenorientierter Speicher für sehr große Datenmengen
+ *
+ * Statt einem Person-Objekt (+ boxed Long + Map-Node) pro Datensatz
+ * liegen die Daten in primitiven Spalten:
+ * - long[] ids
+ * - int[] firstnames / int[] lastnames als Codes ins NameDictionary
+ * - long[] versions
+ *
+ * Pro Person bleiben so ca. 24 Byte in den Spalten plus ca. 12 Byte im
+ * primitiven Index - Namen werden dedupliziert. Person-Objekte entstehen
+ * erst an der API-Grenze (findById, snapshot).
+ *
+ * Gelöschte Slots werden als Tombstone (id = 0) markiert und gesammelt
+ * kompaktiert, damit die Einfügereihenfolge (= ID-Reihenfolge) erhalten bleibt.
+ *
+ * Thread-Safety: StampedLock - Leser lesen optimistisch ohne Lock,
+ * Schreiber exklusiv. Batch-Operationen nehmen den Lock nur einmal.
+ *
+ * @author Elyndra Valen
+ */
+public class ColumnarPersonStore extends AbstractPersonStore {
+
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final long TOMBSTONE = 0L;
+
+    private final StampedLock lock = new StampedLock();
+    private final LongIntHashMap slotById = new LongIntHashMap(INITIAL_CAPACITY);
+    private final NameDictionary names = new NameDictionary();
+
+    private long[] ids = new long[INITIAL_CAPACITY];
+    private int[] firstnames = new int[INITIAL_CAPACITY];
+    private int[] lastnames = new int[INITIAL_CAPACITY];
+    private long[] versions = new long[INITIAL_CAPACITY];
+
+    /** Belegte Slots inklusive Tombstones */
+    private int used;
+    /** Höchste bisher eingefügte ID - erkennt Einfügungen außerhalb der Reihenfolge */
+    private long maxId;
+    /** true, solange die Slots aufsteigend nach ID sortiert sind */
+    private boolean ordered = true;
+
+    @Override
+    public Optional<Person> findById(long id) {
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0L) {
+            try {
+                Person person = read(id);
+                if (lock.validate(stamp)) {
+                    return Optional.ofNullable(person);
+                }
+            } catch (RuntimeException concurrentResize) {
+                // Schreiber hat währenddessen Arrays ersetzt - mit Lock wiederholen
+            }
+        }
+        stamp = lock.readLock();
+        try {
+            return Optional.ofNullable(read(id));
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    @Override
+    public Person insert(Person person) {
+        long stamp = lock.writeLock();
+        try {
+            return insertLocked(person, 1);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public void insertAll(List<Person> persons) {
+        insertAll(persons, false);
+    }
+
+    @Override
+    public void restoreAll(List<Person> persons) {
+        insertAll(persons, true);
+    }
+
+    private void insertAll(List<Person> persons, boolean keepVersions) {
+        long stamp = lock.writeLock();
+        try {
+            for (Person person : persons) {
+                insertLocked(person, keepVersions ? person.getVersion() : 1);
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public Optional<Person> update(long id, String firstname, String lastname, long expectedVersion) {
+        long stamp = lock.writeLock();
+        try {
+            return Optional.ofNullable(updateLocked(id, firstname, lastname, expectedVersion));
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public boolean[] updateAll(List<Person> updates) {
+        boolean[] updated = new boolean[updates.size()];
+        long stamp = lock.writeLock();
+        try {
+            for (int i = 0; i < updated.length; i++) {
+                Person update = updates.get(i);
+                updated[i] = updateLocked(update.getId(), update.getFirstname(), update.getLastname(), ANY_VERSION) != null;
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+        return updated;
+    }
+
+    @Override
+    public boolean delete(long id, long expectedVersion) {
+        long stamp = lock.writeLock();
+        try {
+            return deleteLocked(id, expectedVersion);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public boolean[] deleteAll(long[] idsToDelete) {
+        boolean[] deleted = new boolean[idsToDelete.length];
+        long stamp = lock.writeLock();
+        try {
+            for (int i = 0; i < idsToDelete.length; i++) {
+                deleted[i] = deleteLocked(idsToDelete[i], ANY_VERSION);
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+        return deleted;
+    }
+
+    @Override
+    public int size() {
+        long stamp = lock.readLock();
+        try {
+            return slotById.size();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Kopiert die Spalten in einen kompakten Snapshot
+     *
+     * Der Snapshot hält nur primitive Arrays und die Namens-Tabelle -
+     * Person-Objekte werden erst beim Zugriff per get(i) erzeugt.
+     */
+    @Override
+    public List<Person> snapshot() {
+        long stamp = lock.readLock();
+        try {
+            int size = slotById.size();
+            long[] snapshotIds = new long[size];
+            int[] snapshotFirstnames = new int[size];
+            int[] snapshotLastnames = new int[size];
+            long[] snapshotVersions = new long[size];
+            if (ordered) {
+                int target = 0;
+                for (int slot = 0; slot < used; slot++) {
+                    if (ids[slot] != TOMBSTONE) {
+                        snapshotIds[target] = ids[slot];
+                        snapshotFirstnames[target] = firstnames[slot];
+                        snapshotLastnames[target] = lastnames[slot];
+                        snapshotVersions[target] = versions[slot];
+                        target++;
+                    }
+                }
+            } else {
+                int target = 0;
+                for (int slot = 0; slot < used; slot++) {
+                    if (ids[slot] != TOMBSTONE) {
+                        snapshotIds[target++] = ids[slot];
+                    }
+                }
+                Arrays.sort(snapshotIds);
+                for (int i = 0; i < size; i++) {
+                    int slot = slotById.get(snapshotIds[i]);
+                    snapshotFirstnames[i] = firstnames[slot];
+                    snapshotLastnames[i] = lastnames[slot];
+                    snapshotVersions[i] = versions[slot];
+                }
+            }
+            return new ColumnarSnapshot(snapshotIds, snapshotFirstnames, snapshotLastnames, snapshotVersions, names.copyValues());
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Anzahl unterschiedlicher Namen im Dictionary (für Statistiken)
+     */
+    public int getDistinctNameCount() {
+        long stamp = lock.readLock();
+        try {
+            return names.distinctNames();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Listener zuerst, dann die Spalten: lehnt ein Listener ab (Journal
+     * nicht beschreibbar), bleibt der Store unverändert
+     */
+    private Person insertLocked(Person person, long version) {
+        long id = person.getId();
+        if (id <= TOMBSTONE) {
+            throw new IllegalArgumentException("Person-ID muss positiv sein: " + id);
+        }
+        if (slotById.get(id) != LongIntHashMap.MISSING) {
+            throw new IllegalStateException("Person-ID bereits vergeben: " + id);
+        }
+        if (used == ids.length) {
+            grow();
+        }
+        Person inserted = person.withVersion(version);
+        fireInserted(inserted);
+        int slot = used++;
+        ids[slot] = id;
+        firstnames[slot] = names.acquire(person.getFirstname());
+        lastnames[slot] = names.acquire(person.getLastname());
+        versions[slot] = version;
+        slotById.put(id, slot);
+        if (id < maxId) {
+            ordered = false;
+        }
+        maxId = Math.max(maxId, id);
+        fireApplied();
+        return inserted;
+    }
+
+    private Person updateLocked(long id, String firstname, String lastname, long expectedVersion) {
+        int slot = slotById.get(id);
+        if (slot == LongIntHashMap.MISSING) {
+            return null;
+        }
+        checkVersion(id, expectedVersion, versions[slot]);
+        int oldFirstname = firstnames[slot];
+        int oldLastname = lastnames[slot];
+        Person before = new Person(id, names.get(oldFirstname), names.get(oldLastname), versions[slot]);
+        Person after = new Person(id, firstname, lastname, versions[slot] + 1);
+        fireUpdated(before, after);
+        // Erst neu referenzieren, dann freigeben - sonst würde ein
+        // unveränderter Name kurzzeitig aus dem Dictionary fallen
+        firstnames[slot] = names.acquire(firstname);
+        lastnames[slot] = names.acquire(lastname);
+        names.release(oldFirstname);
+        names.release(oldLastname);
+        versions[slot] = after.getVersion();
+        fireApplied();
+        return after;
+    }
+
+    private boolean deleteLocked(long id, long expectedVersion) {
+        int slot = slotById.get(id);
+        if (slot == LongIntHashMap.MISSING) {
+            return false;
+        }
+        checkVersion(id, expectedVersion, versions[slot]);
+        fireDeleted(new Person(id, names.get(firstnames[slot]), names.get(lastnames[slot]), versions[slot]));
+        slotById.remove(id);
+        ids[slot] = TOMBSTONE;
+        names.release(firstnames[slot]);
+        names.release(lastnames[slot]);
+        firstnames[slot] = NameDictionary.NULL_CODE;
+        lastnames[slot] = NameDictionary.NULL_CODE;
+        fireApplied();
+        int tombstones = used - slotById.size();
+        if (tombstones > INITIAL_CAPACITY && tombstones > used / 4) {
+            compact();
+        }
+        return true;
+    }
+
+    private Person read(long id) {
+        int slot = slotById.get(id);
+        if (slot == LongIntHashMap.MISSING) {
+            return null;
+        }
+        return new Person(ids[slot], names.get(firstnames[slot]), names.get(lastnames[slot]), versions[slot]);
+    }
+
+    private void grow() {
+        int tombstones = used - slotById.size();
+        if (tombstones > used / 4) {
+            compact();
+            return;
+        }
+        int newCapacity = ids.length + (ids.length >> 1);
+        ids = Arrays.copyOf(ids, newCapacity);
+        firstnames = Arrays.copyOf(firstnames, newCapacity);
+        lastnames = Arrays.copyOf(lastnames, newCapacity);
+        versions = Arrays.copyOf(versions, newCapacity);
+    }
+
+    /**
+     * Schiebt alle lebenden Slots nach vorne - Reihenfolge bleibt erhalten
+     */
+    private void compact() {
+        int target = 0;
+        for (int slot = 0; slot < used; slot++) {
+            long id = ids[slot];
+            if (id == TOMBSTONE) {
+                continue;
+            }
+            if (slot != target) {
+                ids[target] = id;
+                firstnames[target] = firstnames[slot];
+                lastnames[target] = lastnames[slot];
+                versions[target] = versions[slot];
+                slotById.put(id, target);
+            }
+            target++;
+        }
+        Arrays.fill(ids, target, used, TOMBSTONE);
+        used = target;
+    }
+
+    /**
+     * Unveränderliche Listen-Sicht auf kopierte Spalten
+     */
+    private static final class ColumnarSnapshot extends AbstractList<Person> implements RandomAccess {
+
+        private final long[] ids;
+        private final int[] firstnames;
+        private final int[] lastnames;
+        private final long[] versions;
+        private final String[] names;
+
+        private ColumnarSnapshot(long[] ids, int[] firstnames, int[] lastnames, long[] versions, String[] names) {
+            this.ids = ids;
+            this.firstnames = firstnames;
+            this.lastnames = lastnames;
+            this.versions = versions;
+            this.names = names;
+        }
+
+        @Override
+        public Person get(int index) {
+            return new Person(ids[index], name(firstnames[index]), name(lastnames[index]), versions[index]);
+        }
+
+        @Override
+        public int size() {
+            return ids.length;
+        }
+
+        private String name(int code) {
+            return code == NameDictionary.NULL_CODE ? null : names[code];
+        }
+    }
+}
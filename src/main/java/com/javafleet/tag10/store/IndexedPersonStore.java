@@ -0,0 +1,247 @@
+package com.javafleet.tag10.store;
+
+import com.javafleet.tag10.model.Person;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.IntToLongFunction;
+
+/**
+ * IndexedPersonStore - Person-Objekte im Primärindex (Default)
+ * 
+ * ConcurrentHashMap (id -> Person): findById, update und delete in O(1),
+ * lock-frei für Leser. Schreiber nehmen einen von LOCK_STRIPES
+ * ReentrantLocks (nach ID gestreut) - Listener laufen darunter, die
+ * Reihenfolge pro ID bleibt also erhalten. Wie im ColumnarPersonStore
+ * laufen sie vor der Änderung an der Map: lehnt einer ab, bleibt die
+ * Map unverändert. Batches sortieren ihren Chunk nach Stripe und sperren
+ * jeden betroffenen Stripe nur einmal - die Listener laufen pro Stripe
+ * in einem Rutsch unter diesem Lock.
+ * 
+ * Copy-on-Write: Personen sind unveränderlich, ein Update legt eine neue
+ * Person mit Version + 1 an und ersetzt die alte per put(id, neu) in
+ * einem Schritt. Leser bekommen die alte oder die neue Person, nie
+ * eine halb geänderte. Gleichzeitige Updates derselben ID: ohne
+ * erwartete Version gewinnt der letzte Schreiber, mit If-Match
+ * (expectedVersion) genau einer - die anderen bekommen einen
+ * PersonVersionConflictException.
+ * 
+ * Bewusst kein compute()/computeIfPresent(): dort laufen die Listener
+ * im synchronized-Block der Map. Blockiert ein Listener (Journal-Lock),
+ * hängt ein Virtual Thread dann an seinem Carrier (Pinning).
+ * 
+ * @author Elyndra Valen
+ */
+public class IndexedPersonStore extends AbstractPersonStore {
+    
+    private static final Comparator<Person> BY_ID = Comparator.comparing(Person::getId);
+    private static final int LOCK_STRIPES = 64;
+    
+    private final ConcurrentMap<Long, Person> persons = new ConcurrentHashMap<>();
+    private final ReentrantLock[] locks = new ReentrantLock[LOCK_STRIPES];
+    
+    public IndexedPersonStore() {
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+    
+    @Override
+    public Optional<Person> findById(long id) {
+        return Optional.ofNullable(persons.get(id));
+    }
+    
+    @Override
+    public Person insert(Person person) {
+        ReentrantLock lock = locks[stripe(person.getId())];
+        lock.lock();
+        try {
+            return insertLocked(person, 1);
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    /**
+     * Pro Chunk wird jeder betroffene Stripe genau einmal gesperrt
+     */
+    @Override
+    public void insertAll(List<Person> batch) {
+        insertAll(batch, false);
+    }
+    
+    @Override
+    public void restoreAll(List<Person> batch) {
+        insertAll(batch, true);
+    }
+    
+    private void insertAll(List<Person> batch, boolean keepVersions) {
+        StripeOrder order = StripeOrder.of(batch.size(), i -> batch.get(i).getId());
+        for (int stripe = 0; stripe < LOCK_STRIPES; stripe++) {
+            if (order.isEmpty(stripe)) {
+                continue;
+            }
+            locks[stripe].lock();
+            try {
+                for (int k = order.bounds[stripe]; k < order.bounds[stripe + 1]; k++) {
+                    Person person = batch.get(order.positions[k]);
+                    insertLocked(person, keepVersions ? person.getVersion() : 1);
+                }
+            } finally {
+                locks[stripe].unlock();
+            }
+        }
+    }
+    
+    @Override
+    public Optional<Person> update(long id, String firstname, String lastname, long expectedVersion) {
+        ReentrantLock lock = locks[stripe(id)];
+        lock.lock();
+        try {
+            return Optional.ofNullable(updateLocked(id, firstname, lastname, expectedVersion));
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    @Override
+    public boolean[] updateAll(List<Person> updates) {
+        boolean[] updated = new boolean[updates.size()];
+        StripeOrder order = StripeOrder.of(updates.size(), i -> updates.get(i).getId());
+        for (int stripe = 0; stripe < LOCK_STRIPES; stripe++) {
+            if (order.isEmpty(stripe)) {
+                continue;
+            }
+            locks[stripe].lock();
+            try {
+                for (int k = order.bounds[stripe]; k < order.bounds[stripe + 1]; k++) {
+                    int i = order.positions[k];
+                    Person update = updates.get(i);
+                    updated[i] = updateLocked(update.getId(), update.getFirstname(), update.getLastname(), ANY_VERSION) != null;
+                }
+            } finally {
+                locks[stripe].unlock();
+            }
+        }
+        return updated;
+    }
+    
+    @Override
+    public boolean delete(long id, long expectedVersion) {
+        ReentrantLock lock = locks[stripe(id)];
+        lock.lock();
+        try {
+            return deleteLocked(id, expectedVersion);
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    @Override
+    public boolean[] deleteAll(long[] ids) {
+        boolean[] deleted = new boolean[ids.length];
+        StripeOrder order = StripeOrder.of(ids.length, i -> ids[i]);
+        for (int stripe = 0; stripe < LOCK_STRIPES; stripe++) {
+            if (order.isEmpty(stripe)) {
+                continue;
+            }
+            locks[stripe].lock();
+            try {
+                for (int k = order.bounds[stripe]; k < order.bounds[stripe + 1]; k++) {
+                    int i = order.positions[k];
+                    deleted[i] = deleteLocked(ids[i], ANY_VERSION);
+                }
+            } finally {
+                locks[stripe].unlock();
+            }
+        }
+        return deleted;
+    }
+    
+    @Override
+    public int size() {
+        return persons.size();
+    }
+    
+    @Override
+    public List<Person> snapshot() {
+        return persons.values().stream().sorted(BY_ID).toList();
+    }
+    
+    private Person insertLocked(Person person, long version) {
+        if (persons.containsKey(person.getId())) {
+            throw new IllegalStateException("Person-ID bereits vergeben: " + person.getId());
+        }
+        Person inserted = person.withVersion(version);
+        fireInserted(inserted);
+        persons.put(inserted.getId(), inserted);
+        fireApplied();
+        return inserted;
+    }
+    
+    private Person updateLocked(long id, String firstname, String lastname, long expectedVersion) {
+        Person existing = persons.get(id);
+        if (existing == null) {
+            return null;
+        }
+        checkVersion(id, expectedVersion, existing.getVersion());
+        Person updated = new Person(existing.getId(), firstname, lastname, existing.getVersion() + 1);
+        fireUpdated(existing, updated);
+        // Unter dem Lock der ID kann niemand dazwischen schreiben
+        persons.put(id, updated);
+        fireApplied();
+        return updated;
+    }
+    
+    private boolean deleteLocked(long id, long expectedVersion) {
+        Person existing = persons.get(id);
+        if (existing == null) {
+            return false;
+        }
+        checkVersion(id, expectedVersion, existing.getVersion());
+        fireDeleted(existing);
+        persons.remove(id);
+        fireApplied();
+        return true;
+    }
+    
+    private static int stripe(long id) {
+        return Long.hashCode(id * 0x9E37_79B9_7F4A_7C15L) & (LOCK_STRIPES - 1);
+    }
+    
+    /**
+     * Positionen eines Chunks, stabil nach Stripe sortiert (Counting Sort)
+     * 
+     * Stabil heißt: mehrere Änderungen derselben ID im Chunk bleiben in
+     * ihrer Reihenfolge. positions[bounds[s]..bounds[s + 1]) gehören zu Stripe s.
+     */
+    private record StripeOrder(int[] positions, int[] bounds) {
+        
+        static StripeOrder of(int size, IntToLongFunction idAt) {
+            int[] stripes = new int[size];
+            int[] bounds = new int[LOCK_STRIPES + 1];
+            for (int i = 0; i < size; i++) {
+                stripes[i] = stripe(idAt.applyAsLong(i));
+                bounds[stripes[i] + 1]++;
+            }
+            for (int s = 0; s < LOCK_STRIPES; s++) {
+                bounds[s + 1] += bounds[s];
+            }
+            int[] next = Arrays.copyOf(bounds, LOCK_STRIPES);
+            int[] positions = new int[size];
+            for (int i = 0; i < size; i++) {
+                positions[next[stripes[i]]++] = i;
+            }
+            return new StripeOrder(positions, bounds);
+        }
+        
+        boolean isEmpty(int stripe) {
+            return bounds[stripe] == bounds[stripe + 1];
+        }
+    }
+}
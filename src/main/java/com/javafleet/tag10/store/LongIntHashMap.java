@@ -0,0 +1,146 @@
+package com.javafleet.tag10.store;
+
+import java.util.Arrays;
+
+/**
+ * LongIntHashMap - primitive Hash-Map long -> int ohne Boxing
+ * 
+ * Open Addressing mit Linear Probing und Backward-Shift beim Löschen
+ * (keine Tombstones). Der Schlüssel 0 ist reserviert (= leer), Person-IDs
+ * beginnen bei 1.
+ * 
+ * Nicht thread-safe - wird vom ColumnarPersonStore unter dessen Lock verwendet.
+ */
+final class LongIntHashMap {
+    
+    static final int MISSING = -1;
+    
+    private static final long EMPTY = 0L;
+    private static final float LOAD_FACTOR = 0.6f;
+    
+    private long[] keys;
+    private int[] values;
+    private int size;
+    private int resizeThreshold;
+    
+    LongIntHashMap(int expectedSize) {
+        allocate(tableSizeFor((int) (expectedSize / LOAD_FACTOR) + 1));
+    }
+    
+    /**
+     * Liefert den Wert zum Schlüssel oder MISSING
+     * 
+     * Die Probe-Schleife ist durch die Tabellengröße begrenzt, damit auch
+     * ein optimistischer Leser während eines Rehash sicher terminiert.
+     */
+    int get(long key) {
+        long[] k = keys;
+        int[] v = values;
+        int mask = k.length - 1;
+        int index = mix(key) & mask;
+        for (int probes = 0; probes <= mask; probes++) {
+            long current = k[index];
+            if (current == key) {
+                return v[index];
+            }
+            if (current == EMPTY) {
+                return MISSING;
+            }
+            index = (index + 1) & mask;
+        }
+        return MISSING;
+    }
+    
+    void put(long key, int value) {
+        if (key == EMPTY) {
+            throw new IllegalArgumentException("Schlüssel 0 ist reserviert");
+        }
+        int mask = keys.length - 1;
+        int index = mix(key) & mask;
+        while (keys[index] != EMPTY) {
+            if (keys[index] == key) {
+                values[index] = value;
+                return;
+            }
+            index = (index + 1) & mask;
+        }
+        keys[index] = key;
+        values[index] = value;
+        if (++size > resizeThreshold) {
+            rehash(keys.length << 1);
+        }
+    }
+    
+    /**
+     * Entfernt den Schlüssel und liefert den alten Wert oder MISSING
+     */
+    int remove(long key) {
+        int mask = keys.length - 1;
+        int index = mix(key) & mask;
+        while (keys[index] != key) {
+            if (keys[index] == EMPTY) {
+                return MISSING;
+            }
+            index = (index + 1) & mask;
+        }
+        int removed = values[index];
+        
+        // Backward Shift: nachfolgende Einträge in die Lücke ziehen
+        int gap = index;
+        int next = index;
+        while (true) {
+            next = (next + 1) & mask;
+            long candidate = keys[next];
+            if (candidate == EMPTY) {
+                break;
+            }
+            int home = mix(candidate) & mask;
+            boolean staysInPlace = gap <= next
+                ? gap < home && home <= next
+                : gap < home || home <= next;
+            if (!staysInPlace) {
+                keys[gap] = candidate;
+                values[gap] = values[next];
+                gap = next;
+            }
+        }
+        keys[gap] = EMPTY;
+        size--;
+        return removed;
+    }
+    
+    int size() {
+        return size;
+    }
+    
+    private void rehash(int newCapacity) {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        allocate(newCapacity);
+        size = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                put(oldKeys[i], oldValues[i]);
+            }
+        }
+    }
+    
+    private void allocate(int capacity) {
+        long[] newKeys = new long[capacity];
+        int[] newValues = new int[capacity];
+        Arrays.fill(newValues, MISSING);
+        keys = newKeys;
+        values = newValues;
+        resizeThreshold = (int) (capacity * LOAD_FACTOR);
+    }
+    
+    private static int tableSizeFor(int minCapacity) {
+        int capacity = Integer.highestOneBit(Math.max(minCapacity, 16) - 1) << 1;
+        return capacity > 0 ? capacity : 1 << 30;
+    }
+    
+    private static int mix(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
@@ -0,0 +1,81 @@
+package com.javafleet.tag10.store;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * NameDictionary - dedupliziertes Namens-Wörterbuch mit Referenzzählung
+ * 
+ * Jeder unterschiedliche Name wird genau einmal gespeichert und über einen
+ * int-Code referenziert. Fällt der Referenzzähler auf 0, wird der Code für
+ * neue Namen wiederverwendet - der Speicher wächst also mit der Anzahl
+ * unterschiedlicher Namen, nicht mit der Anzahl Personen.
+ * 
+ * Nicht thread-safe - wird vom ColumnarPersonStore unter dessen Lock verwendet.
+ */
+final class NameDictionary {
+    
+    static final int NULL_CODE = -1;
+    
+    private final Map<String, Integer> codes = new HashMap<>();
+    private String[] values = new String[256];
+    private int[] refCounts = new int[256];
+    private int[] freeCodes = new int[16];
+    private int freeCount;
+    private int nextCode;
+    
+    /**
+     * Liefert den Code für den Namen und erhöht dessen Referenzzähler
+     */
+    int acquire(String name) {
+        if (name == null) {
+            return NULL_CODE;
+        }
+        Integer existing = codes.get(name);
+        if (existing != null) {
+            refCounts[existing]++;
+            return existing;
+        }
+        int code = freeCount > 0 ? freeCodes[--freeCount] : nextCode++;
+        if (code >= values.length) {
+            int newLength = values.length << 1;
+            refCounts = Arrays.copyOf(refCounts, newLength);
+            values = Arrays.copyOf(values, newLength);
+        }
+        values[code] = name;
+        refCounts[code] = 1;
+        codes.put(name, code);
+        return code;
+    }
+    
+    /**
+     * Gibt eine Referenz frei - der letzte Release entfernt den Namen
+     */
+    void release(int code) {
+        if (code == NULL_CODE || --refCounts[code] > 0) {
+            return;
+        }
+        codes.remove(values[code]);
+        values[code] = null;
+        if (freeCount == freeCodes.length) {
+            freeCodes = Arrays.copyOf(freeCodes, freeCount << 1);
+        }
+        freeCodes[freeCount++] = code;
+    }
+    
+    String get(int code) {
+        return code == NULL_CODE ? null : values[code];
+    }
+    
+    /**
+     * Kopie der Code-Tabelle für unveränderliche Snapshots
+     */
+    String[] copyValues() {
+        return Arrays.copyOf(values, nextCode);
+    }
+    
+    int distinctNames() {
+        return codes.size();
+    }
+}
@@ -0,0 +1,43 @@
+package com.javafleet.tag10.store;
+
+import com.javafleet.tag10.model.Person;
+
+import java.util.Locale;
+import java.util.function.Function;
+
+/**
+ * NameField - durchsuchbare Namensfelder einer Person
+ */
+public enum NameField {
+    FIRSTNAME(Person::getFirstname),
+    LASTNAME(Person::getLastname),
+    FULLNAME(Person::getFullName);
+    
+    private final Function<Person, String> accessor;
+    
+    NameField(Function<Person, String> accessor) {
+        this.accessor = accessor;
+    }
+    
+    String valueOf(Person person) {
+        return accessor.apply(person);
+    }
+    
+    /**
+     * Parst einen Request-Parameter (case-insensitive)
+     * 
+     * @return das Feld oder null, falls unbekannt
+     */
+    public static NameField fromParameter(String value) {
+        for (NameField field : values()) {
+            if (field.name().equalsIgnoreCase(value.trim())) {
+                return field;
+            }
+        }
+        return null;
+    }
+    
+    static String normalize(String value) {
+        return value.toLowerCase(Locale.ROOT);
+    }
+}
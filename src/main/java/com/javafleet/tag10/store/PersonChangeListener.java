@@ -0,0 +1,48 @@
+package com.javafleet.tag10.store;
+
+import com.javafleet.tag10.model.Person;
+
+/**
+ * PersonChangeListener - Callback für Änderungen im PersonStore
+ * 
+ * Wird synchron INNERHALB des kritischen Abschnitts des Stores aufgerufen,
+ * und zwar BEVOR die Änderung für Leser sichtbar wird. Änderungen an
+ * derselben ID kommen daher immer in der richtigen Reihenfolge an - ideal
+ * für Sekundärindizes.
+ * 
+ * Wirft ein Listener, lehnt er die Änderung ab: der Store bleibt unverändert
+ * und die Exception geht an den Aufrufer. Listener, die vorher dran waren,
+ * haben die Änderung aber schon gesehen - das Journal hängt deshalb als
+ * Write-Ahead-Listener vorne (PersonStore.addWriteAheadListener).
+ * 
+ * Wer erst reagieren darf, wenn die Änderung sichtbar ist (z.B. Events an
+ * Clients), merkt sie sich und handelt in changesApplied() - bei einer
+ * Ablehnung kommt stattdessen changesDiscarded().
+ * 
+ * Wichtig: Listener müssen schnell sein und dürfen den Store nicht
+ * selbst aufrufen!
+ */
+public interface PersonChangeListener {
+    
+    default void personInserted(Person person) {
+    }
+    
+    default void personUpdated(Person before, Person after) {
+    }
+    
+    default void personDeleted(Person removed) {
+    }
+    
+    /**
+     * Die zuletzt gemeldeten Änderungen dieses Threads sind jetzt im Store
+     * sichtbar (noch im kritischen Abschnitt)
+     */
+    default void changesApplied() {
+    }
+    
+    /**
+     * Die zuletzt gemeldeten Änderungen dieses Threads wurden abgelehnt
+     */
+    default void changesDiscarded() {
+    }
+}
@@ -0,0 +1,113 @@
+package com.javafleet.tag10.store;
+
+import com.javafleet.tag10.model.Person;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * PersonNameIndex - sortierte Sekundärindizes für die Namenssuche
+ * 
+ * Pro NameField ein ConcurrentSkipListSet aus (normalisierter Name, ID).
+ * - Exakte Suche:  alle Einträge mit key == query
+ * - Präfix-Suche:  Bereich [query, query + Character.MAX_VALUE)
+ * Beides kostet O(log n + Treffer) statt eines Full-Scans.
+ * 
+ * Der Index hängt als PersonChangeListener am Store und wird bei
+ * insert/update/delete inkrementell gepflegt - es gibt nie einen Rebuild.
+ * Suchen sind case-insensitive.
+ * 
+ * @author Elyndra Valen
+ */
+public class PersonNameIndex implements PersonChangeListener {
+    
+    private static final Comparator<Entry> ORDER = Comparator
+        .comparing(Entry::key)
+        .thenComparingLong(Entry::id);
+    
+    private final Map<NameField, NavigableSet<Entry>> indexes = new EnumMap<>(NameField.class);
+    
+    public PersonNameIndex() {
+        for (NameField field : NameField.values()) {
+            indexes.put(field, new ConcurrentSkipListSet<>(ORDER));
+        }
+    }
+    
+    @Override
+    public void personInserted(Person person) {
+        for (NameField field : NameField.values()) {
+            Entry entry = entry(field, person);
+            if (entry != null) {
+                indexes.get(field).add(entry);
+            }
+        }
+    }
+    
+    @Override
+    public void personUpdated(Person before, Person after) {
+        for (NameField field : NameField.values()) {
+            Entry oldEntry = entry(field, before);
+            Entry newEntry = entry(field, after);
+            if (oldEntry != null && oldEntry.equals(newEntry)) {
+                continue;
+            }
+            NavigableSet<Entry> index = indexes.get(field);
+            if (oldEntry != null) {
+                index.remove(oldEntry);
+            }
+            if (newEntry != null) {
+                index.add(newEntry);
+            }
+        }
+    }
+    
+    @Override
+    public void personDeleted(Person removed) {
+        for (NameField field : NameField.values()) {
+            Entry entry = entry(field, removed);
+            if (entry != null) {
+                indexes.get(field).remove(entry);
+            }
+        }
+    }
+    
+    /**
+     * Sucht IDs zu einem Namen
+     * 
+     * @param field  Feld, in dem gesucht wird
+     * @param query  Suchbegriff (case-insensitive)
+     * @param prefix true = Präfix-Suche, false = exakte Suche
+     * @param limit  maximale Anzahl Treffer
+     * @return IDs in Index-Reihenfolge (Name, dann ID)
+     */
+    public long[] find(NameField field, String query, boolean prefix, int limit) {
+        String key = NameField.normalize(query);
+        NavigableSet<Entry> range = prefix
+            ? indexes.get(field).subSet(new Entry(key, Long.MIN_VALUE), true, new Entry(key + Character.MAX_VALUE, Long.MIN_VALUE), false)
+            : indexes.get(field).subSet(new Entry(key, Long.MIN_VALUE), true, new Entry(key, Long.MAX_VALUE), true);
+        long[] ids = new long[Math.min(limit, 16)];
+        int count = 0;
+        for (Entry entry : range) {
+            if (count == limit) {
+                break;
+            }
+            if (count == ids.length) {
+                ids = Arrays.copyOf(ids, Math.min(limit, count << 1));
+            }
+            ids[count++] = entry.id();
+        }
+        return count == ids.length ? ids : Arrays.copyOf(ids, count);
+    }
+    
+    private static Entry entry(NameField field, Person person) {
+        String value = field.valueOf(person);
+        return value == null ? null : new Entry(NameField.normalize(value), person.getId());
+    }
+    
+    private record Entry(String key, long id) {
+    }
+}
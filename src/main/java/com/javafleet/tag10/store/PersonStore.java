@@ -0,0 +1,144 @@
+package com.javafleet.tag10.store;
+
+import com.javafleet.tag10.model.Person;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * PersonStore - Speicher-Abstraktion hinter dem PersonService
+ * 
+ * Der PersonService kümmert sich um IDs, Snapshots und Logging,
+ * der Store nur um das Ablegen und Finden der Daten.
+ * 
+ * Implementierungen:
+ * - IndexedPersonStore: Person-Objekte in einer ConcurrentHashMap (Default)
+ * - ColumnarPersonStore: primitive Spalten + Namens-Dictionary für sehr große Datenmengen
+ * 
+ * Alle Implementierungen müssen thread-safe sein und ihre
+ * PersonChangeListener innerhalb des kritischen Abschnitts benachrichtigen -
+ * bei insert, update und delete gleich: erst die Listener, dann wird die
+ * Änderung sichtbar (das Journal hat sie angenommen, bevor jemand sie liest),
+ * danach PersonChangeListener.changesApplied().
+ * Herausgegebene Personen sind unveränderlich - eine Änderung liefert
+ * eine neue Person, bereits gelesene bleiben beim alten Stand.
+ * 
+ * @author Elyndra Valen
+ */
+public interface PersonStore {
+    
+    /** Erwartete Version bei update/delete: keine Prüfung */
+    long ANY_VERSION = -1L;
+    
+    /**
+     * Findet eine Person anhand der ID
+     */
+    Optional<Person> findById(long id);
+    
+    /**
+     * Legt eine Person ab - die ID muss bereits vergeben sein
+     * 
+     * @return die gespeicherte Person (Version 1)
+     */
+    Person insert(Person person);
+    
+    /**
+     * Setzt Vor- und Nachname einer vorhandenen Person und erhöht ihre Version
+     * 
+     * @return die aktualisierte Person oder empty, falls die ID unbekannt ist
+     */
+    default Optional<Person> update(long id, String firstname, String lastname) {
+        return update(id, firstname, lastname, ANY_VERSION);
+    }
+    
+    /**
+     * Bedingtes Update (Compare-and-Set auf die Version)
+     * 
+     * @param expectedVersion erwartete aktuelle Version oder ANY_VERSION
+     * @throws PersonVersionConflictException wenn die Version nicht passt
+     */
+    Optional<Person> update(long id, String firstname, String lastname, long expectedVersion);
+    
+    /**
+     * Entfernt eine Person
+     * 
+     * @return true, falls die Person vorhanden war
+     */
+    default boolean delete(long id) {
+        return delete(id, ANY_VERSION);
+    }
+    
+    /**
+     * Bedingtes Löschen (Compare-and-Set auf die Version)
+     * 
+     * @throws PersonVersionConflictException wenn die Version nicht passt
+     */
+    boolean delete(long id, long expectedVersion);
+    
+    /**
+     * Legt mehrere Personen in einem Schritt ab (IDs bereits vergeben)
+     * 
+     * Implementierungen mit Lock sollten ihn nur einmal pro Batch nehmen.
+     */
+    default void insertAll(List<Person> persons) {
+        for (Person person : persons) {
+            insert(person);
+        }
+    }
+    
+    /**
+     * Legt Personen mit ihrer gespeicherten Version ab (Recovery aus Snapshot und Journal)
+     * 
+     * Wie insertAll, nur bleibt die Version der Person erhalten - sonst
+     * passten ETags von vor dem Neustart zu einem anderen Stand.
+     */
+    void restoreAll(List<Person> persons);
+    
+    /**
+     * Aktualisiert mehrere Personen (ID aus dem jeweiligen Person-Objekt)
+     * 
+     * @return pro Element true, falls die Person vorhanden war
+     */
+    default boolean[] updateAll(List<Person> updates) {
+        boolean[] updated = new boolean[updates.size()];
+        for (int i = 0; i < updated.length; i++) {
+            Person update = updates.get(i);
+            updated[i] = update(update.getId(), update.getFirstname(), update.getLastname()).isPresent();
+        }
+        return updated;
+    }
+    
+    /**
+     * Entfernt mehrere Personen
+     * 
+     * @return pro Element true, falls die Person vorhanden war
+     */
+    default boolean[] deleteAll(long[] ids) {
+        boolean[] deleted = new boolean[ids.length];
+        for (int i = 0; i < ids.length; i++) {
+            deleted[i] = delete(ids[i]);
+        }
+        return deleted;
+    }
+    
+    /**
+     * Anzahl der gespeicherten Personen
+     */
+    int size();
+    
+    /**
+     * Unveränderliche, nach ID sortierte Momentaufnahme aller Personen
+     */
+    List<Person> snapshot();
+    
+    /**
+     * Registriert einen Listener für insert/update/delete
+     */
+    void addChangeListener(PersonChangeListener listener);
+    
+    /**
+     * Registriert einen Listener, der vor allen anderen läuft (Journal) -
+     * lehnt er eine Änderung ab, hat sonst niemand sie gesehen
+     */
+    void addWriteAheadListener(PersonChangeListener listener);
+}
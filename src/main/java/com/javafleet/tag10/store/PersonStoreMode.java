@@ -0,0 +1,11 @@
+package com.javafleet.tag10.store;
+
+/**
+ * PersonStoreMode - Auswahl der PersonStore-Implementierung
+ * 
+ * Konfiguration über app.person-store.mode (indexed | columnar)
+ */
+public enum PersonStoreMode {
+    INDEXED,
+    COLUMNAR
+}
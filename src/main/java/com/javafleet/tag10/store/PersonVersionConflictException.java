@@ -0,0 +1,35 @@
+package com.javafleet.tag10.store;
+
+/**
+ * PersonVersionConflictException - erwartete Version passt nicht (Optimistic Locking)
+ * 
+ * Wird von update/delete geworfen, wenn eine bestimmte Version erwartet
+ * wurde, die Person inzwischen aber geändert ist. Der Store bleibt unverändert.
+ */
+public class PersonVersionConflictException extends RuntimeException {
+    
+    private static final long serialVersionUID = 1L;
+    
+    private final long id;
+    private final long expectedVersion;
+    private final long actualVersion;
+    
+    public PersonVersionConflictException(long id, long expectedVersion, long actualVersion) {
+        super("Person " + id + ": erwartete Version " + expectedVersion + ", aktuell " + actualVersion);
+        this.id = id;
+        this.expectedVersion = expectedVersion;
+        this.actualVersion = actualVersion;
+    }
+    
+    public long getId() {
+        return id;
+    }
+    
+    public long getExpectedVersion() {
+        return expectedVersion;
+    }
+    
+    public long getActualVersion() {
+        return actualVersion;
+    }
+}
@@ -3,10 +3,12 @@ package com.javafleet.tag10.websocket;
 import com.javafleet.tag10.service.ApplicationStatistics;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.messaging.handler.annotation.Header;
 import org.springframework.messaging.handler.annotation.MessageMapping;
 import org.springframework.messaging.handler.annotation.Payload;
 import org.springframework.messaging.handler.annotation.SendTo;
 import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.annotation.SubscribeMapping;
 import org.springframework.stereotype.Controller;
 
 /**
@@ -17,6 +19,7 @@ import org.springframework.stereotype.Controller;
  * - @SendTo Broadcasting (Tag 8)
  * - High-Level STOMP API
  * - Real-Time Communication
+ * - @SubscribeMapping: Antwort direkt an den Abonnenten (Chat-Verlauf)
  * 
  * @author Nova Trent
  */
@@ -25,7 +28,11 @@ import org.springframework.stereotype.Controller;
 @Slf4j
 public class ChatController {
     
+    /** Broadcast-Destination des Chats */
+    public static final String PUBLIC_TOPIC = "/topic/public";
+    
     private final ApplicationStatistics statistics;
+    private final ChatHistory history;
     
     /**
      * Empfängt Chat-Messages und broadcasted sie an alle Clients
@@ -34,20 +41,20 @@ public class ChatController {
      * Alle Clients empfangen von: /topic/public
      */
     @MessageMapping("/chat.send")
-    @SendTo("/topic/public")
+    @SendTo(PUBLIC_TOPIC)
     public ChatMessage sendMessage(@Payload ChatMessage message) {
-        log.info("💬 WebSocket Message: {} sagt '{}'", 
+        log.debug("💬 WebSocket Message: {} sagt '{}'", 
             message.getSender(), message.getContent());
         
         message.setTimestamp(System.currentTimeMillis());
-        return message;
+        return history.append(message);
     }
     
     /**
      * User betritt den Chat
      */
     @MessageMapping("/chat.join")
-    @SendTo("/topic/public")
+    @SendTo(PUBLIC_TOPIC)
     public ChatMessage joinChat(@Payload ChatMessage message, 
                                 SimpMessageHeaderAccessor headerAccessor) {
         
@@ -56,12 +63,25 @@ public class ChatController {
         
         statistics.incrementWebSocketConnections();
         
-        log.info("👋 {} hat den Chat betreten", message.getSender());
+        log.debug("👋 {} hat den Chat betreten", message.getSender());
         
         message.setType(MessageType.JOIN);
         message.setContent(message.getSender() + " ist dem Chat beigetreten!");
         message.setTimestamp(System.currentTimeMillis());
         
-        return message;
+        return history.append(message);
+    }
+    
+    /**
+     * Chat-Verlauf beim Abonnieren von /app/chat.history
+     * 
+     * Ohne Header: die letzten Nachrichten (neuer Teilnehmer, vor chat.join).
+     * Mit Header since:<seq>: alles nach der zuletzt empfangenen Nachricht
+     * (Reconnect). Vorher /topic/public abonnieren, sonst geht zwischen
+     * Verlauf und Live-Nachrichten etwas verloren - Doppelte per seq verwerfen.
+     */
+    @SubscribeMapping("/chat.history")
+    public ChatReplay history(@Header(name = "since", required = false) Long since) {
+        return since == null ? history.recent() : history.since(since);
     }
 }
@@ -0,0 +1,111 @@
+package com.javafleet.tag10.websocket;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * ChatHistory - die letzten Nachrichten von /topic/public als Ringpuffer
+ *
+ * Jede Nachricht bekommt eine fortlaufende Sequenznummer (ChatMessage.seq)
+ * und landet im Slot seq % capacity. Der Puffer wird einmal angelegt und nur
+ * überschrieben - der Speicher bleibt gleich, egal wie viel gechattet wird.
+ *
+ * Schreiben ist lock-frei und allokiert nichts: Sequenznummer per
+ * AtomicLong, Referenz auf die ohnehin vorhandene ChatMessage in den Slot.
+ * Lesende prüfen über ChatMessage.seq, ob der Slot noch die erwartete
+ * Nachricht enthält; ein überholter oder noch nicht geschriebener Slot wird
+ * übersprungen - diese Nachricht kommt ohnehin per Broadcast.
+ *
+ * application.properties:
+ * app.chat.history.size=256   Nachrichten im Ringpuffer
+ * app.chat.history.replay=50  Nachrichten für neue Teilnehmer
+ *
+ * @author Nova Trent
+ */
+@Component
+@Slf4j
+public class ChatHistory {
+
+    private final int capacity;
+    private final int replaySize;
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicReferenceArray<ChatMessage> slots;
+
+    public ChatHistory(@Value("${app.chat.history.size:256}") int capacity,
+                       @Value("${app.chat.history.replay:50}") int replaySize) {
+        if (capacity < 1 || replaySize < 0) {
+            throw new IllegalArgumentException("app.chat.history.size muss positiv sein, replay darf nicht negativ sein");
+        }
+        this.capacity = capacity;
+        this.replaySize = Math.min(replaySize, capacity);
+        this.slots = new AtomicReferenceArray<>(capacity);
+        log.info("📜 ChatHistory: {} Nachrichten, Replay {}", capacity, this.replaySize);
+    }
+
+    /**
+     * Vergibt die nächste Sequenznummer und legt die Nachricht ab
+     */
+    public ChatMessage append(ChatMessage message) {
+        long seq = sequence.incrementAndGet();
+        message.setSeq(seq);
+        int slot = slot(seq);
+        ChatMessage current;
+        do {
+            current = slots.get(slot);
+            if (current != null && current.getSeq() > seq) {
+                // Ein Schreiber eine Runde weiter war schneller - nicht zurückdrehen
+                return message;
+            }
+        } while (!slots.compareAndSet(slot, current, message));
+        return message;
+    }
+
+    /**
+     * Die letzten replaySize Nachrichten - für neue Teilnehmer
+     */
+    public ChatReplay recent() {
+        return recent(sequence.get(), true);
+    }
+
+    private ChatReplay recent(long latest, boolean complete) {
+        ChatReplay replay = since(Math.max(0, latest - replaySize));
+        return new ChatReplay(replay.latestSeq(), complete, replay.messages());
+    }
+
+    /**
+     * Alle Nachrichten mit seq > lastSeq, soweit noch im Puffer
+     *
+     * complete=false heißt: ältere Nachrichten sind schon überschrieben
+     * oder lastSeq stammt nicht von diesem Server (Neustart) - der Client
+     * hat eine Lücke.
+     */
+    public ChatReplay since(long lastSeq) {
+        long latest = sequence.get();
+        if (lastSeq > latest) {
+            return recent(latest, false);
+        }
+        long from = Math.max(lastSeq + 1, latest - capacity + 1);
+        List<ChatMessage> messages = new ArrayList<>((int) Math.max(0, latest - from + 1));
+        for (long seq = Math.max(from, 1); seq <= latest; seq++) {
+            ChatMessage message = slots.get(slot(seq));
+            if (message != null && message.getSeq() == seq) {
+                messages.add(message);
+            }
+        }
+        return new ChatReplay(latest, from <= lastSeq + 1, messages);
+    }
+
+    public long getLatestSeq() {
+        return sequence.get();
+    }
+
+    private int slot(long seq) {
+        return (int) (seq % capacity);
+    }
+}
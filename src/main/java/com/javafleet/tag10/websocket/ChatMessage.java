@@ -6,6 +6,9 @@ import lombok.NoArgsConstructor;
 
 /**
  * ChatMessage - WebSocket Message Model
+ * 
+ * seq: fortlaufende Nummer aus der ChatHistory (0 = noch nicht vergeben),
+ * Clients merken sich die letzte und setzen nach einem Reconnect dort an.
  */
 @Data
 @NoArgsConstructor
@@ -16,4 +19,9 @@ public class ChatMessage {
     private String content;
     private String sender;
     private long timestamp;
+    private long seq;
+    
+    public ChatMessage(MessageType type, String content, String sender, long timestamp) {
+        this(type, content, sender, timestamp, 0);
+    }
 }
@@ -0,0 +1,14 @@
+package com.javafleet.tag10.websocket;
+
+import java.util.List;
+
+/**
+ * ChatReplay - Antwort auf SUBSCRIBE /app/chat.history
+ *
+ * @param latestSeq höchste vergebene Sequenznummer zum Zeitpunkt der Antwort
+ * @param complete  false, wenn zwischen der angefragten seq und der ersten
+ *                  Nachricht etwas fehlt (überschrieben oder Server-Neustart)
+ * @param messages  Nachrichten aufsteigend nach seq
+ */
+public record ChatReplay(long latestSeq, boolean complete, List<ChatMessage> messages) {
+}
@@ -0,0 +1,23 @@
+package com.javafleet.tag10.websocket.broker;
+
+/**
+ * BrokerStatistics - Zähler des ShardedStompBroker
+ *
+ * @param published    Nachrichten an Broker-Destinations (vor dem Fan-out)
+ * @param delivered    an Sessions zugestellte Nachrichten
+ * @param dropped      wegen DROP_OLDEST (bzw. COALESCE ohne Treffer) verworfen
+ * @param coalesced    durch eine neuere Nachricht desselben Abonnements ersetzt
+ * @param disconnected wegen DISCONNECT-Policy getrennte Sessions
+ */
+public record BrokerStatistics(
+        int shards,
+        int sessionQueueSize,
+        SlowConsumerPolicy slowConsumerPolicy,
+        int sessions,
+        int subscriptions,
+        long published,
+        long delivered,
+        long dropped,
+        long coalesced,
+        long disconnected) {
+}
@@ -0,0 +1,141 @@
+package com.javafleet.tag10.websocket.broker;
+
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * SessionOutbox - begrenzte Warteschlange einer STOMP-Session
+ *
+ * Produzent ist genau ein Shard-Thread, Konsument ein Virtual Thread, der
+ * die Outbox leert und dabei synchron auf den Socket schreibt. Ist der
+ * Client langsam, blockiert nur dieser Thread - die Outbox füllt sich und
+ * die SlowConsumerPolicy greift, alle anderen Sessions laufen weiter.
+ *
+ * Solange die Outbox nicht leer ist, läuft genau ein Drain (draining) -
+ * eine volle Outbox hat also immer schon einen Drain.
+ */
+final class SessionOutbox {
+
+    enum Offer {
+        /** Eingereiht, es muss ein Drain gestartet werden */
+        SCHEDULE,
+        /** Eingereiht, Drain läuft schon */
+        QUEUED,
+        DROPPED_OLDEST,
+        COALESCED,
+        /** Voll und Policy DISCONNECT - Nachricht nicht eingereiht */
+        OVERFLOW,
+        /** Session ist schon geschlossen */
+        CLOSED
+    }
+
+    private final String sessionId;
+    private final int capacity;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    // --- geschützt durch lock ---
+    private final ArrayDeque<Message<?>> queue;
+    private boolean draining;
+    private boolean closed;
+
+    /** subscriptionId -> destination, nur vom Shard-Thread benutzt */
+    final Map<String, String> subscriptions = new HashMap<>();
+
+    SessionOutbox(String sessionId, int capacity) {
+        this.sessionId = sessionId;
+        this.capacity = capacity;
+        this.queue = new ArrayDeque<>(Math.min(capacity, 16));
+    }
+
+    String getSessionId() {
+        return sessionId;
+    }
+
+    Offer offer(Message<?> message, SlowConsumerPolicy policy) {
+        lock.lock();
+        try {
+            if (closed) {
+                return Offer.CLOSED;
+            }
+            Offer result = Offer.QUEUED;
+            if (queue.size() >= capacity) {
+                switch (policy) {
+                    case DISCONNECT -> {
+                        return Offer.OVERFLOW;
+                    }
+                    case COALESCE -> result = removeSameSubscription(message) ? Offer.COALESCED : dropOldest();
+                    case DROP_OLDEST -> result = dropOldest();
+                }
+            }
+            queue.addLast(message);
+            if (!draining) {
+                draining = true;
+                return Offer.SCHEDULE;
+            }
+            return result;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Nächste Nachricht oder null - dann ist der Drain beendet
+     */
+    Message<?> poll() {
+        lock.lock();
+        try {
+            Message<?> next = closed ? null : queue.pollFirst();
+            if (next == null) {
+                draining = false;
+            }
+            return next;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Verwirft alle wartenden Nachrichten - weitere offer() liefern CLOSED
+     */
+    void close() {
+        lock.lock();
+        try {
+            closed = true;
+            queue.clear();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int size() {
+        lock.lock();
+        try {
+            return queue.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Offer dropOldest() {
+        queue.pollFirst();
+        return Offer.DROPPED_OLDEST;
+    }
+
+    private boolean removeSameSubscription(Message<?> message) {
+        String subscriptionId = SimpMessageHeaderAccessor.getSubscriptionId(message.getHeaders());
+        for (Iterator<Message<?>> it = queue.iterator(); it.hasNext(); ) {
+            if (Objects.equals(subscriptionId, SimpMessageHeaderAccessor.getSubscriptionId(it.next().getHeaders()))) {
+                it.remove();
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,393 @@
+package com.javafleet.tag10.websocket.broker;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageDeliveryException;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.SubscribableChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.broker.AbstractBrokerMessageHandler;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.PathMatcher;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * ShardedStompBroker - In-Process-Broker mit Backpressure pro Session
+ *
+ * Ersetzt den SimpleBroker (gleiche Destinations, gleiche Frames), aber:
+ * - Sessions sind per Hash auf N Shards verteilt. Jeder Shard hat einen
+ *   eigenen Thread und verwaltet seine Abonnements allein - kein Lock im
+ *   Abo-Verzeichnis, der Fan-out einer Nachricht läuft auf allen Shards parallel.
+ * - Jede Session hat eine begrenzte SessionOutbox. Ein Virtual Thread pro
+ *   Session mit wartenden Nachrichten schreibt sie synchron auf den Socket;
+ *   ein langsamer Client blockiert so nur seinen eigenen Thread.
+ * - Läuft eine Outbox voll, greift die SlowConsumerPolicy - der Speicher
+ *   pro Session ist damit begrenzt.
+ *
+ * Voraussetzung: der clientOutboundChannel ist synchron (siehe
+ * WebSocketConfig), sonst landet die Nachricht wieder in einem
+ * unbegrenzten Executor-Puffer.
+ *
+ * Jeder Broadcast bekommt eine eigene message-id (statt einer pro Session) -
+ * die MESSAGE-Frames aller Abonnenten sind damit gleich und werden vom
+ * BroadcastFrameEncoder nur einmal kodiert.
+ *
+ * Nicht unterstützt: STOMP-Heartbeats vom Broker und selector-Header.
+ *
+ * @author Nova Trent
+ */
+@Slf4j
+public class ShardedStompBroker extends AbstractBrokerMessageHandler {
+
+    private static final int SHARD_QUEUE_SIZE = 16_384;
+    private static final byte[] EMPTY_PAYLOAD = new byte[0];
+    private static final String MESSAGE_ID_HEADER = "message-id";
+
+    private final Shard[] shards;
+    private final int outboxCapacity;
+    private final SlowConsumerPolicy policy;
+    private final PathMatcher pathMatcher = new AntPathMatcher();
+    private final ExecutorService deliveryExecutor =
+        Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("stomp-delivery-", 0).factory());
+
+    private final AtomicLong broadcastIds = new AtomicLong();
+    private final AtomicInteger sessions = new AtomicInteger();
+    private final AtomicInteger subscriptions = new AtomicInteger();
+    private final LongAdder published = new LongAdder();
+    private final LongAdder delivered = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder disconnected = new LongAdder();
+
+    public ShardedStompBroker(SubscribableChannel clientInboundChannel, MessageChannel clientOutboundChannel,
+                              SubscribableChannel brokerChannel, Collection<String> destinationPrefixes,
+                              int shardCount, int outboxCapacity, SlowConsumerPolicy policy) {
+        super(clientInboundChannel, clientOutboundChannel, brokerChannel, destinationPrefixes);
+        if (shardCount < 1 || outboxCapacity < 1) {
+            throw new IllegalArgumentException("shards und session-queue-size müssen positiv sein");
+        }
+        this.outboxCapacity = outboxCapacity;
+        this.policy = policy;
+        this.shards = new Shard[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            shards[i] = new Shard(i);
+        }
+    }
+
+    @Override
+    protected void startInternal() {
+        for (Shard shard : shards) {
+            shard.worker.start();
+        }
+        publishBrokerAvailableEvent();
+        log.info("📡 ShardedStompBroker: {} Shards, Outbox {} Nachrichten/Session, Policy {}",
+            shards.length, outboxCapacity, policy);
+    }
+
+    @Override
+    protected void stopInternal() {
+        publishBrokerUnavailableEvent();
+        for (Shard shard : shards) {
+            shard.worker.interrupt();
+        }
+        deliveryExecutor.shutdownNow();
+    }
+
+    @Override
+    protected void handleMessageInternal(Message<?> message) {
+        MessageHeaders headers = message.getHeaders();
+        String destination = SimpMessageHeaderAccessor.getDestination(headers);
+        if (!checkDestinationPrefix(destination)) {
+            return;
+        }
+        SimpMessageType type = SimpMessageHeaderAccessor.getMessageType(headers);
+        String sessionId = SimpMessageHeaderAccessor.getSessionId(headers);
+        if (type == null) {
+            return;
+        }
+        switch (type) {
+            case MESSAGE -> {
+                published.increment();
+                Message<?> broadcast = withBroadcastId(message);
+                for (Shard shard : shards) {
+                    shard.submit(() -> shard.publish(destination, broadcast), broadcast);
+                }
+            }
+            case CONNECT -> {
+                Shard shard = shardFor(sessionId);
+                shard.submit(() -> shard.connect(sessionId), message);
+                sendConnectAck(message, sessionId);
+            }
+            case SUBSCRIBE -> {
+                String subscriptionId = SimpMessageHeaderAccessor.getSubscriptionId(headers);
+                if (destination != null && subscriptionId != null) {
+                    Shard shard = shardFor(sessionId);
+                    shard.submit(() -> shard.subscribe(sessionId, subscriptionId, destination), message);
+                }
+            }
+            case UNSUBSCRIBE -> {
+                String subscriptionId = SimpMessageHeaderAccessor.getSubscriptionId(headers);
+                Shard shard = shardFor(sessionId);
+                shard.submit(() -> shard.unsubscribe(sessionId, subscriptionId), message);
+            }
+            case DISCONNECT -> {
+                Shard shard = shardFor(sessionId);
+                shard.submit(() -> shard.disconnect(sessionId), message);
+                sendDisconnectAck(message, sessionId);
+            }
+            default -> {
+                // HEARTBEAT, OTHER: nichts zu tun
+            }
+        }
+    }
+
+    /**
+     * Zähler für /api/stats
+     */
+    public BrokerStatistics getStatistics() {
+        return new BrokerStatistics(shards.length, outboxCapacity, policy, sessions.get(), subscriptions.get(),
+            published.sum(), delivered.sum(), dropped.sum(), coalesced.sum(), disconnected.sum());
+    }
+
+    /**
+     * Eine message-id für alle Abonnenten - sonst vergibt StompSubProtocolHandler eine pro Session
+     */
+    private Message<?> withBroadcastId(Message<?> message) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.wrap(message);
+        accessor.setNativeHeader(MESSAGE_ID_HEADER, Long.toString(broadcastIds.incrementAndGet()));
+        return MessageBuilder.createMessage(message.getPayload(), accessor.getMessageHeaders());
+    }
+
+    private Shard shardFor(String sessionId) {
+        int hash = sessionId == null ? 0 : sessionId.hashCode();
+        return shards[Math.floorMod(hash ^ (hash >>> 16), shards.length)];
+    }
+
+    private void sendConnectAck(Message<?> connect, String sessionId) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.CONNECT_ACK);
+        accessor.setSessionId(sessionId);
+        accessor.setUser(SimpMessageHeaderAccessor.getUser(connect.getHeaders()));
+        accessor.setHeader(SimpMessageHeaderAccessor.CONNECT_MESSAGE_HEADER, connect);
+        accessor.setHeader(SimpMessageHeaderAccessor.HEART_BEAT_HEADER, new long[] {0, 0});
+        getClientOutboundChannel().send(MessageBuilder.createMessage(EMPTY_PAYLOAD, accessor.getMessageHeaders()));
+    }
+
+    private void sendDisconnectAck(Message<?> disconnect, String sessionId) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.DISCONNECT_ACK);
+        accessor.setSessionId(sessionId);
+        accessor.setUser(SimpMessageHeaderAccessor.getUser(disconnect.getHeaders()));
+        accessor.setHeader(SimpMessageHeaderAccessor.DISCONNECT_MESSAGE_HEADER, disconnect);
+        getClientOutboundChannel().send(MessageBuilder.createMessage(EMPTY_PAYLOAD, accessor.getMessageHeaders()));
+    }
+
+    /**
+     * ERROR-Frame - StompSubProtocolHandler schließt die Session danach
+     */
+    private void sendSlowConsumerError(String sessionId) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.ERROR);
+        accessor.setSessionId(sessionId);
+        accessor.setMessage("Slow consumer: mehr als " + outboxCapacity + " Nachrichten nicht abgeholt");
+        getClientOutboundChannel().send(MessageBuilder.createMessage(EMPTY_PAYLOAD, accessor.getMessageHeaders()));
+    }
+
+    /**
+     * Leert eine Outbox - läuft auf einem Virtual Thread und blockiert bei langsamen Clients
+     */
+    private void drain(SessionOutbox outbox) {
+        Message<?> next;
+        while ((next = outbox.poll()) != null) {
+            try {
+                getClientOutboundChannel().send(next);
+                delivered.increment();
+            } catch (RuntimeException e) {
+                log.debug("Zustellung an Session {} fehlgeschlagen: {}", outbox.getSessionId(), e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Abonnement einer Session
+     */
+    private record Subscriber(SessionOutbox outbox, String subscriptionId) {
+    }
+
+    /**
+     * Ein Shard: eigener Thread, eigene Sessions und Abonnements (single writer)
+     */
+    private final class Shard {
+
+        private final BlockingQueue<Runnable> tasks = new ArrayBlockingQueue<>(SHARD_QUEUE_SIZE);
+        private final Thread worker;
+
+        private final Map<String, SessionOutbox> outboxes = new HashMap<>();
+        private final Map<String, Set<Subscriber>> exactSubscriptions = new HashMap<>();
+        private final Map<Subscriber, String> patternSubscriptions = new HashMap<>();
+
+        private Shard(int index) {
+            this.worker = Thread.ofPlatform().name("stomp-broker-shard-" + index).daemon().unstarted(this::run);
+        }
+
+        /**
+         * Blockiert, wenn der Shard nicht hinterherkommt (Backpressure auf die Channels)
+         */
+        void submit(Runnable task, Message<?> message) {
+            try {
+                tasks.put(task);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new MessageDeliveryException(message, "Broker-Shard nicht erreichbar");
+            }
+        }
+
+        private void run() {
+            while (!Thread.currentThread().isInterrupted()) {
+                Runnable task;
+                try {
+                    task = tasks.take();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                try {
+                    task.run();
+                } catch (RuntimeException e) {
+                    log.error("💥 Broker-Shard {}: Aufgabe fehlgeschlagen", worker.getName(), e);
+                }
+            }
+        }
+
+        void connect(String sessionId) {
+            outbox(sessionId);
+        }
+
+        void subscribe(String sessionId, String subscriptionId, String destination) {
+            SessionOutbox outbox = outbox(sessionId);
+            String previous = outbox.subscriptions.put(subscriptionId, destination);
+            Subscriber subscriber = new Subscriber(outbox, subscriptionId);
+            if (previous != null) {
+                remove(subscriber, previous);
+            }
+            if (pathMatcher.isPattern(destination)) {
+                patternSubscriptions.put(subscriber, destination);
+            } else {
+                exactSubscriptions.computeIfAbsent(destination, key -> new LinkedHashSet<>()).add(subscriber);
+            }
+            subscriptions.incrementAndGet();
+        }
+
+        void unsubscribe(String sessionId, String subscriptionId) {
+            SessionOutbox outbox = outboxes.get(sessionId);
+            if (outbox == null || subscriptionId == null) {
+                return;
+            }
+            String destination = outbox.subscriptions.remove(subscriptionId);
+            if (destination != null) {
+                remove(new Subscriber(outbox, subscriptionId), destination);
+            }
+        }
+
+        void disconnect(String sessionId) {
+            SessionOutbox outbox = outboxes.remove(sessionId);
+            if (outbox == null) {
+                return;
+            }
+            outbox.close();
+            sessions.decrementAndGet();
+            outbox.subscriptions.forEach((subscriptionId, destination) ->
+                remove(new Subscriber(outbox, subscriptionId), destination));
+            outbox.subscriptions.clear();
+        }
+
+        void publish(String destination, Message<?> message) {
+            Set<Subscriber> exact = exactSubscriptions.get(destination);
+            if (exact != null) {
+                // DISCONNECT entfernt Abonnements während der Schleife - dann über eine Kopie
+                Iterable<Subscriber> subscribers = policy == SlowConsumerPolicy.DISCONNECT ? List.copyOf(exact) : exact;
+                for (Subscriber subscriber : subscribers) {
+                    deliver(subscriber, destination, message);
+                }
+            }
+            if (!patternSubscriptions.isEmpty()) {
+                List<Subscriber> matching = new ArrayList<>();
+                patternSubscriptions.forEach((subscriber, pattern) -> {
+                    if (pathMatcher.match(pattern, destination)) {
+                        matching.add(subscriber);
+                    }
+                });
+                for (Subscriber subscriber : matching) {
+                    deliver(subscriber, destination, message);
+                }
+            }
+        }
+
+        private void deliver(Subscriber subscriber, String destination, Message<?> message) {
+            SessionOutbox outbox = subscriber.outbox();
+            SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+            accessor.setSessionId(outbox.getSessionId());
+            accessor.setSubscriptionId(subscriber.subscriptionId());
+            accessor.setDestination(destination);
+            accessor.copyHeadersIfAbsent(message.getHeaders());
+            accessor.setLeaveMutable(true);
+            Message<?> reply = MessageBuilder.createMessage(message.getPayload(), accessor.getMessageHeaders());
+
+            switch (outbox.offer(reply, policy)) {
+                case SCHEDULE -> deliveryExecutor.execute(() -> drain(outbox));
+                case DROPPED_OLDEST -> dropped.increment();
+                case COALESCED -> coalesced.increment();
+                case OVERFLOW -> {
+                    disconnected.increment();
+                    log.warn("🐌 Session {} zu langsam - wird getrennt", outbox.getSessionId());
+                    disconnect(outbox.getSessionId());
+                    deliveryExecutor.execute(() -> sendSlowConsumerError(outbox.getSessionId()));
+                }
+                case QUEUED, CLOSED -> {
+                    // nichts weiter zu tun
+                }
+            }
+        }
+
+        private SessionOutbox outbox(String sessionId) {
+            SessionOutbox outbox = outboxes.get(sessionId);
+            if (outbox == null) {
+                outbox = new SessionOutbox(sessionId, outboxCapacity);
+                outboxes.put(sessionId, outbox);
+                sessions.incrementAndGet();
+            }
+            return outbox;
+        }
+
+        private void remove(Subscriber subscriber, String destination) {
+            boolean removed;
+            if (pathMatcher.isPattern(destination)) {
+                removed = patternSubscriptions.remove(subscriber) != null;
+            } else {
+                Set<Subscriber> subscribers = exactSubscriptions.get(destination);
+                removed = subscribers != null && subscribers.remove(subscriber);
+                if (subscribers != null && subscribers.isEmpty()) {
+                    exactSubscriptions.remove(destination);
+                }
+            }
+            if (removed) {
+                subscriptions.decrementAndGet();
+            }
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.javafleet.tag10.websocket.broker;
+
+/**
+ * SlowConsumerPolicy - was passiert, wenn die Outbox einer Session voll ist
+ *
+ * Eine Session liest langsamer, als Nachrichten für sie ankommen - ihre
+ * Outbox (app.websocket.broker.session-queue-size) läuft voll.
+ *
+ * @author Nova Trent
+ */
+public enum SlowConsumerPolicy {
+
+    /** Älteste wartende Nachricht verwerfen (Default - für Chat-Verläufe) */
+    DROP_OLDEST,
+
+    /**
+     * Wartende Nachricht desselben Abonnements durch die neue ersetzen -
+     * nur der letzte Stand zählt (Status, Zähler). Gibt es keine, wie DROP_OLDEST.
+     */
+    COALESCE,
+
+    /** Session mit STOMP-ERROR-Frame schließen - der Client muss neu verbinden */
+    DISCONNECT
+}
@@ -0,0 +1,142 @@
+package com.javafleet.tag10.websocket.cluster;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.util.MimeType;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.UnaryOperator;
+
+/**
+ * ClusterBroadcastBridge - verbindet den lokalen STOMP-Broker mit dem ClusterRelay
+ *
+ * Raus: outbound() hängt an brokerChannel (@SendTo, SimpMessagingTemplate)
+ * und clientInboundChannel (SEND eines Clients direkt an /topic). Jede
+ * MESSAGE an eine Destination unter dem Broker-Prefix geht zusätzlich an
+ * das Relay - der lokale Broker bekommt sie unverändert.
+ *
+ * Rein: empfangene Nachrichten gehen über brokerChannel an den lokalen
+ * Broker, markiert mit dem Header clusterOrigin - so werden sie nicht
+ * erneut weitergeleitet. Per mapInbound() lässt sich der Payload pro
+ * Destination vorher anpassen (z.B. lokale Sequenznummer im Chat-Verlauf).
+ *
+ * Per localOnly() bleiben einzelne Destinations auf dieser Instanz - z.B.
+ * /topic/persons, deren Inhalt sich auf den lokalen Store bezieht. Das gilt
+ * in beide Richtungen: empfangene Nachrichten an solche Destinations oder
+ * außerhalb des Broker-Prefix (/user/..., /app/...) werden verworfen.
+ *
+ * @author Nova Trent
+ */
+@Slf4j
+public class ClusterBroadcastBridge implements SmartLifecycle {
+
+    /** Node-ID des Ursprungs an weitergeleiteten Nachrichten */
+    public static final String ORIGIN_HEADER = "clusterOrigin";
+
+    private final ClusterRelay relay;
+    private final String destinationPrefix;
+    private final ObjectProvider<MessageChannel> brokerChannel;
+    private final Map<String, UnaryOperator<byte[]>> inboundMappers = new ConcurrentHashMap<>();
+    private final Set<String> localDestinations = ConcurrentHashMap.newKeySet();
+
+    private volatile boolean running;
+
+    public ClusterBroadcastBridge(ClusterRelay relay, String destinationPrefix, ObjectProvider<MessageChannel> brokerChannel) {
+        this.relay = relay;
+        this.destinationPrefix = destinationPrefix.endsWith("/") ? destinationPrefix : destinationPrefix + "/";
+        this.brokerChannel = brokerChannel;
+    }
+
+    /**
+     * Payload empfangener Nachrichten an destination vor der Zustellung umschreiben;
+     * wirft der Mapper, wird der Payload unverändert zugestellt
+     */
+    public void mapInbound(String destination, UnaryOperator<byte[]> mapper) {
+        inboundMappers.put(destination, mapper);
+    }
+
+    /**
+     * Nachrichten an destination nicht an die anderen Instanzen weiterleiten
+     */
+    public void localOnly(String destination) {
+        localDestinations.add(destination);
+    }
+
+    /**
+     * Interceptor für brokerChannel und clientInboundChannel
+     */
+    public ChannelInterceptor outbound() {
+        return new ChannelInterceptor() {
+            @Override
+            public Message<?> preSend(Message<?> message, MessageChannel channel) {
+                if (relay.isActive()
+                        && SimpMessageHeaderAccessor.getMessageType(message.getHeaders()) == SimpMessageType.MESSAGE
+                        && !message.getHeaders().containsKey(ORIGIN_HEADER)
+                        && message.getPayload() instanceof byte[] payload) {
+                    String destination = SimpMessageHeaderAccessor.getDestination(message.getHeaders());
+                    if (destination != null && destination.startsWith(destinationPrefix)
+                            && !localDestinations.contains(destination)) {
+                        relay.publish(destination, contentType(message), payload);
+                    }
+                }
+                return message;
+            }
+        };
+    }
+
+    void receive(RelayedMessage relayed) {
+        String destination = relayed.destination();
+        if (!destination.startsWith(destinationPrefix) || localDestinations.contains(destination)) {
+            log.debug("Weitergeleitete Nachricht an {} verworfen - nur lokal", destination);
+            return;
+        }
+        byte[] payload = relayed.payload();
+        UnaryOperator<byte[]> mapper = inboundMappers.get(destination);
+        if (mapper != null) {
+            try {
+                payload = mapper.apply(payload);
+            } catch (RuntimeException e) {
+                log.debug("Weitergeleitete Nachricht an {} unverändert zugestellt: {}", destination, e.getMessage());
+            }
+        }
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setDestination(destination);
+        if (relayed.contentType() != null) {
+            accessor.setContentType(MimeType.valueOf(relayed.contentType()));
+        }
+        accessor.setHeader(ORIGIN_HEADER, relayed.origin());
+        brokerChannel.getObject().send(MessageBuilder.createMessage(payload, accessor.getMessageHeaders()));
+    }
+
+    @Override
+    public void start() {
+        relay.start(this::receive);
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        relay.stop();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private static String contentType(Message<?> message) {
+        Object contentType = message.getHeaders().get(MessageHeaders.CONTENT_TYPE);
+        return contentType == null ? null : contentType.toString();
+    }
+}
@@ -0,0 +1,41 @@
+package com.javafleet.tag10.websocket.cluster;
+
+import java.util.function.Consumer;
+
+/**
+ * ClusterRelay - leitet Broadcasts an die anderen Instanzen weiter
+ *
+ * Jede Instanz hat ihren eigenen Broker und ihre eigenen Sessions. Damit ein
+ * Broadcast an /topic/* auch die Abonnenten auf den anderen Instanzen
+ * erreicht, reicht ClusterBroadcastBridge jede lokal veröffentlichte Nachricht
+ * an das Relay weiter und stellt empfangene Nachrichten lokal zu.
+ *
+ * Implementierungen:
+ * - TcpClusterRelay    direkte TCP-Verbindungen zwischen den Instanzen (Default)
+ * - NoOpClusterRelay   nur lokal, keine Weiterleitung
+ *
+ * @author Nova Trent
+ */
+public interface ClusterRelay {
+
+    /**
+     * Öffnet die Verbindungen - empfangene Nachrichten gehen an receiver
+     * (bereits ohne Duplikate und ohne eigene Nachrichten)
+     */
+    void start(Consumer<RelayedMessage> receiver);
+
+    /**
+     * Nachricht an alle anderen Instanzen - blockiert nicht, bei vollem
+     * Puffer wird verworfen (und gezählt)
+     */
+    void publish(String destination, String contentType, byte[] payload);
+
+    void stop();
+
+    /**
+     * false = es gibt keine anderen Instanzen, publish() kann entfallen
+     */
+    boolean isActive();
+
+    ClusterRelayStatistics getStatistics();
+}
@@ -0,0 +1,28 @@
+package com.javafleet.tag10.websocket.cluster;
+
+/**
+ * ClusterRelayStatistics - Zähler des ClusterRelay
+ *
+ * @param nodeId         zufällige ID dieser Instanz (neu bei jedem Start)
+ * @param peers          konfigurierte andere Instanzen (ohne den Eintrag dieser Instanz)
+ * @param connectedPeers davon gerade verbunden
+ * @param published      lokal veröffentlichte Nachrichten
+ * @param sent           an Peers geschriebene Nachrichten (eine pro Peer)
+ * @param batches        geschriebene Batches - sent / batches = Nachrichten pro Write
+ * @param received       von Peers empfangen und lokal zugestellt
+ * @param duplicates     doppelt empfangen und verworfen
+ * @param dropped        nicht weitergeleitet (Peer getrennt oder Puffer voll)
+ * @param rejected       eingehende Verbindungen abgewiesen (Adresse nicht in den Peers oder Handshake fehlgeschlagen)
+ */
+public record ClusterRelayStatistics(
+        long nodeId,
+        int peers,
+        int connectedPeers,
+        long published,
+        long sent,
+        long batches,
+        long received,
+        long duplicates,
+        long dropped,
+        long rejected) {
+}
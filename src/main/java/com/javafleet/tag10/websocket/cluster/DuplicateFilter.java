@@ -0,0 +1,55 @@
+package com.javafleet.tag10.websocket.cluster;
+
+/**
+ * DuplicateFilter - schon gesehene Sequenznummern eines Ursprungs erkennen
+ *
+ * Gleitendes Fenster wie beim Replay-Schutz von IPsec: höchste gesehene
+ * seq plus ein Bitfeld für die WINDOW Nummern darunter. Mehrere Threads
+ * können auf dem Ursprung gleichzeitig veröffentlichen - die Nummern kommen
+ * dann leicht vertauscht an und dürfen nicht als Duplikat gelten. Was weiter
+ * als WINDOW hinter der höchsten seq liegt, wird verworfen.
+ *
+ * Konstanter Speicher pro Ursprung, keine Allokation pro Nachricht.
+ */
+final class DuplicateFilter {
+
+    static final int WINDOW = 4096;
+
+    private final long[] bits = new long[WINDOW / Long.SIZE];
+    private long highest;
+
+    /**
+     * true, wenn seq zum ersten Mal kommt (und merkt sie sich)
+     */
+    synchronized boolean firstSeen(long seq) {
+        if (seq > highest) {
+            // Slots zwischen alter und neuer Spitze gehörten zu Nummern außerhalb des Fensters
+            for (long cleared = Math.max(highest + 1, seq - WINDOW + 1); cleared < seq; cleared++) {
+                clear(cleared);
+            }
+            highest = seq;
+            set(seq);
+            return true;
+        }
+        if (seq <= highest - WINDOW || isSet(seq)) {
+            return false;
+        }
+        set(seq);
+        return true;
+    }
+
+    private boolean isSet(long seq) {
+        int bit = (int) (seq % WINDOW);
+        return (bits[bit >>> 6] & (1L << bit)) != 0;
+    }
+
+    private void set(long seq) {
+        int bit = (int) (seq % WINDOW);
+        bits[bit >>> 6] |= 1L << bit;
+    }
+
+    private void clear(long seq) {
+        int bit = (int) (seq % WINDOW);
+        bits[bit >>> 6] &= ~(1L << bit);
+    }
+}
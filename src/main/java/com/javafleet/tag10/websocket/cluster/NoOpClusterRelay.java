@@ -0,0 +1,36 @@
+package com.javafleet.tag10.websocket.cluster;
+
+import java.util.function.Consumer;
+
+/**
+ * NoOpClusterRelay - eine einzelne Instanz, nichts weiterzuleiten
+ *
+ * @author Nova Trent
+ */
+public class NoOpClusterRelay implements ClusterRelay {
+
+    @Override
+    public void start(Consumer<RelayedMessage> receiver) {
+        // nichts zu tun
+    }
+
+    @Override
+    public void publish(String destination, String contentType, byte[] payload) {
+        // nichts zu tun
+    }
+
+    @Override
+    public void stop() {
+        // nichts zu tun
+    }
+
+    @Override
+    public boolean isActive() {
+        return false;
+    }
+
+    @Override
+    public ClusterRelayStatistics getStatistics() {
+        return new ClusterRelayStatistics(0, 0, 0, 0, 0, 0, 0, 0, 0, 0);
+    }
+}
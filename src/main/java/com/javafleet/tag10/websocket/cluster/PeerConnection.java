@@ -0,0 +1,169 @@
+package com.javafleet.tag10.websocket.cluster;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * PeerConnection - ausgehende Verbindung zu einer anderen Instanz
+ *
+ * Ein eigener Thread pro Peer verbindet sich, schreibt den Handshake und
+ * dann Batches: er wartet auf die erste Nachricht und nimmt alles mit, was
+ * bis dahin zusätzlich in der Queue liegt (drainTo). Ohne Last geht jede
+ * Nachricht sofort raus, unter Last werden es automatisch größere Batches -
+ * ein Write und ein Flush für viele Nachrichten, kein Zeitfenster.
+ *
+ * Solange der Peer nicht verbunden ist, nimmt offer() nichts an: ein
+ * neu gestarteter Peer soll keinen alten Rückstau bekommen. Ein Batch, der
+ * beim Schreiben abbricht, wird nach dem Reconnect noch einmal geschickt -
+ * was davon schon angekommen war, verwirft der Empfänger per seq.
+ *
+ * @author Nova Trent
+ */
+@Slf4j
+class PeerConnection {
+
+    private static final int CONNECT_TIMEOUT_MILLIS = 1_000;
+    private static final long MIN_BACKOFF_MILLIS = 100;
+    private static final long MAX_BACKOFF_MILLIS = 2_000;
+    private static final int BUFFER_BYTES = 64 * 1024;
+
+    private final InetSocketAddress address;
+    private final long nodeId;
+    private final byte[] secret;
+    private final int maxBatchSize;
+    private final TcpClusterRelay.Counters counters;
+    private final BlockingQueue<RelayedMessage> queue;
+
+    private volatile boolean connected;
+    private volatile boolean self;
+    private volatile boolean running = true;
+    private volatile Socket socket;
+    private Thread writer;
+
+    PeerConnection(InetSocketAddress address, long nodeId, byte[] secret, int queueSize, int maxBatchSize,
+                   TcpClusterRelay.Counters counters) {
+        this.address = address;
+        this.nodeId = nodeId;
+        this.secret = secret;
+        this.maxBatchSize = maxBatchSize;
+        this.counters = counters;
+        this.queue = new ArrayBlockingQueue<>(queueSize);
+    }
+
+    void start() {
+        writer = Thread.ofPlatform().name("cluster-relay-" + address.getHostString() + ":" + address.getPort())
+            .daemon().start(this::run);
+    }
+
+    boolean offer(RelayedMessage message) {
+        return connected && queue.offer(message);
+    }
+
+    /**
+     * Der Eintrag in app.cluster.peers zeigt auf diese Instanz selbst
+     */
+    boolean isSelf() {
+        return self;
+    }
+
+    boolean isConnected() {
+        return connected;
+    }
+
+    void stop() {
+        running = false;
+        closeSocket();
+        if (writer != null) {
+            writer.interrupt();
+        }
+    }
+
+    private void run() {
+        List<RelayedMessage> batch = new ArrayList<>(maxBatchSize);
+        long backoff = MIN_BACKOFF_MILLIS;
+        boolean unreachableLogged = false;
+        while (running) {
+            try (Socket current = new Socket()) {
+                socket = current;
+                current.setTcpNoDelay(true);
+                current.connect(address, CONNECT_TIMEOUT_MILLIS);
+                DataOutputStream out = new DataOutputStream(new BufferedOutputStream(current.getOutputStream(), BUFFER_BYTES));
+                DataInputStream in = new DataInputStream(new BufferedInputStream(current.getInputStream()));
+                current.setSoTimeout(RelayProtocol.HANDSHAKE_TIMEOUT_MILLIS);
+                long peerId = RelayProtocol.handshake(in, out, nodeId, secret);
+                if (peerId == nodeId) {
+                    self = true;
+                    log.info("🔁 Cluster-Relay: {} ist diese Instanz selbst - Peer ignoriert", address);
+                    return;
+                }
+                current.setSoTimeout(0);
+                connected = true;
+                backoff = MIN_BACKOFF_MILLIS;
+                unreachableLogged = false;
+                log.info("🔗 Cluster-Relay: verbunden mit {} (Node {})", address, Long.toHexString(peerId));
+                writeLoop(out, batch);
+            } catch (IOException e) {
+                if (!running) {
+                    return;
+                }
+                if (connected) {
+                    log.warn("⚠️ Cluster-Relay: Verbindung zu {} verloren: {}", address, e.getMessage());
+                } else if (!unreachableLogged) {
+                    log.info("⏳ Cluster-Relay: {} noch nicht erreichbar ({}), neuer Versuch läuft", address, e.getMessage());
+                    unreachableLogged = true;
+                }
+            } catch (InterruptedException e) {
+                return;
+            } finally {
+                disconnected();
+            }
+            try {
+                Thread.sleep(backoff);
+            } catch (InterruptedException e) {
+                return;
+            }
+            backoff = Math.min(backoff * 2, MAX_BACKOFF_MILLIS);
+        }
+    }
+
+    private void writeLoop(DataOutputStream out, List<RelayedMessage> batch) throws IOException, InterruptedException {
+        while (running) {
+            if (batch.isEmpty()) {
+                batch.add(queue.take());
+                queue.drainTo(batch, maxBatchSize - 1);
+            }
+            RelayProtocol.writeBatch(out, batch);
+            counters.sent(batch.size());
+            batch.clear();
+        }
+    }
+
+    private void disconnected() {
+        connected = false;
+        socket = null;
+        counters.dropped(queue.size());
+        queue.clear();
+    }
+
+    private void closeSocket() {
+        Socket current = socket;
+        if (current != null) {
+            try {
+                current.close();
+            } catch (IOException e) {
+                log.debug("Socket zu {} ließ sich nicht schließen: {}", address, e.getMessage());
+            }
+        }
+    }
+}
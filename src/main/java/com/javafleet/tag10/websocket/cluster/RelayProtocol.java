@@ -0,0 +1,134 @@
+package com.javafleet.tag10.websocket.cluster;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.List;
+
+/**
+ * RelayProtocol - Format auf der TCP-Verbindung zwischen zwei Instanzen
+ *
+ * Handshake (beide Richtungen, beide Seiten schreiben zuerst):
+ * 1. int MAGIC | long nodeId | boolean secret | 16 Byte Nonce
+ * 2. nur mit app.cluster.secret: 32 Byte HMAC-SHA256(secret, Nonce der Gegenseite | eigene nodeId)
+ * Das Secret selbst geht nie über die Leitung, die Nonce macht jeden
+ * Nachweis einmalig - ein mitgeschnittener Handshake lässt sich nicht
+ * wiederverwenden.
+ *
+ * Danach nur Batches vom verbindenden zum annehmenden Knoten:
+ * int count | count x (long origin | long seq | UTF destination |
+ *                      UTF contentType ("" = null) | int length | bytes)
+ */
+final class RelayProtocol {
+
+    static final int MAGIC = 0x53544D52; // "STMR"
+    static final int HANDSHAKE_TIMEOUT_MILLIS = 2_000;
+
+    private static final int NONCE_BYTES = 16;
+    private static final String HMAC = "HmacSHA256";
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    /** Schutz vor kaputten Längenangaben */
+    private static final int MAX_PAYLOAD_BYTES = 16 * 1024 * 1024;
+    private static final int MAX_BATCH_SIZE = 1 << 20;
+
+    private RelayProtocol() {
+    }
+
+    /**
+     * Handshake mit der Gegenseite - für verbindende und annehmende Seite gleich
+     *
+     * @param secret app.cluster.secret als Bytes (leer = ohne Nachweis)
+     * @return Node-ID der Gegenseite
+     * @throws IOException wenn die Gegenseite kein Relay ist oder den Nachweis nicht erbringt
+     */
+    static long handshake(DataInputStream in, DataOutputStream out, long nodeId, byte[] secret) throws IOException {
+        boolean withSecret = secret.length > 0;
+        byte[] nonce = new byte[NONCE_BYTES];
+        RANDOM.nextBytes(nonce);
+        out.writeInt(MAGIC);
+        out.writeLong(nodeId);
+        out.writeBoolean(withSecret);
+        out.write(nonce);
+        out.flush();
+
+        int magic = in.readInt();
+        if (magic != MAGIC) {
+            throw new IOException("Kein Cluster-Relay auf der Gegenseite (Magic " + Integer.toHexString(magic) + ")");
+        }
+        long peerId = in.readLong();
+        boolean peerWithSecret = in.readBoolean();
+        byte[] peerNonce = new byte[NONCE_BYTES];
+        in.readFully(peerNonce);
+        if (peerWithSecret != withSecret) {
+            throw new IOException("app.cluster.secret ist nur auf einer Seite gesetzt");
+        }
+        if (withSecret) {
+            out.write(proof(secret, peerNonce, nodeId));
+            out.flush();
+            byte[] expected = proof(secret, nonce, peerId);
+            byte[] peerProof = new byte[expected.length];
+            in.readFully(peerProof);
+            if (!MessageDigest.isEqual(peerProof, expected)) {
+                throw new IOException("Gegenseite kennt app.cluster.secret nicht");
+            }
+        }
+        return peerId;
+    }
+
+    static void writeBatch(DataOutputStream out, List<RelayedMessage> batch) throws IOException {
+        out.writeInt(batch.size());
+        for (RelayedMessage message : batch) {
+            out.writeLong(message.origin());
+            out.writeLong(message.seq());
+            out.writeUTF(message.destination());
+            out.writeUTF(message.contentType() == null ? "" : message.contentType());
+            out.writeInt(message.payload().length);
+            out.write(message.payload());
+        }
+        out.flush();
+    }
+
+    /**
+     * Liest einen Batch - blockiert, bis er vollständig da ist
+     */
+    static RelayedMessage[] readBatch(DataInputStream in) throws IOException {
+        int count = in.readInt();
+        if (count < 0 || count > MAX_BATCH_SIZE) {
+            throw new IOException("Ungültige Batch-Größe: " + count);
+        }
+        RelayedMessage[] batch = new RelayedMessage[count];
+        for (int i = 0; i < count; i++) {
+            long origin = in.readLong();
+            long seq = in.readLong();
+            String destination = in.readUTF();
+            String contentType = in.readUTF();
+            int length = in.readInt();
+            if (length < 0 || length > MAX_PAYLOAD_BYTES) {
+                throw new IOException("Ungültige Payload-Länge: " + length);
+            }
+            byte[] payload = new byte[length];
+            in.readFully(payload);
+            batch[i] = new RelayedMessage(origin, seq, destination, contentType.isEmpty() ? null : contentType, payload);
+        }
+        return batch;
+    }
+
+    private static byte[] proof(byte[] secret, byte[] nonce, long nodeId) {
+        try {
+            Mac mac = Mac.getInstance(HMAC);
+            mac.init(new SecretKeySpec(secret, HMAC));
+            mac.update(nonce);
+            mac.update(ByteBuffer.allocate(Long.BYTES).putLong(nodeId).array());
+            return mac.doFinal();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(HMAC + " nicht verfügbar", e);
+        }
+    }
+}
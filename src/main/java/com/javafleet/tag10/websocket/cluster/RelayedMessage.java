@@ -0,0 +1,13 @@
+package com.javafleet.tag10.websocket.cluster;
+
+/**
+ * RelayedMessage - ein Broadcast auf dem Weg zwischen zwei Instanzen
+ *
+ * @param origin      Node-ID der Instanz, auf der die Nachricht veröffentlicht wurde
+ * @param seq         fortlaufende Nummer pro origin (Duplikaterkennung)
+ * @param destination z.B. /topic/public
+ * @param contentType Content-Type des Payloads, null wenn unbekannt
+ * @param payload     bereits konvertierter Payload (JSON oder kompakt)
+ */
+public record RelayedMessage(long origin, long seq, String destination, String contentType, byte[] payload) {
+}
@@ -0,0 +1,266 @@
+package com.javafleet.tag10.websocket.cluster;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.net.UnknownHostException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * TcpClusterRelay - Vollvermaschung der Instanzen über TCP, ohne externen Broker
+ *
+ * Jede Instanz nimmt auf app.cluster.bind-address:app.cluster.port
+ * Verbindungen an und verbindet sich selbst mit jedem Eintrag aus
+ * app.cluster.peers (PeerConnection). Alle Instanzen können dieselbe
+ * Peer-Liste bekommen - der Eintrag, der auf die eigene Instanz zeigt,
+ * wird am Handshake erkannt und ignoriert.
+ *
+ * Was ein Peer schickt, landet ungeprüft beim lokalen Broker. Deshalb:
+ * - Default-Bind ist Loopback - für mehrere Hosts explizit öffnen
+ * - eingehende Verbindungen nur von Adressen aus app.cluster.peers
+ * - mit app.cluster.secret zusätzlich ein HMAC-Nachweis im Handshake
+ *   (RelayProtocol) - ohne Secret zählt nur die Absender-IP
+ *
+ * Nachrichten gehen direkt vom Ursprung zu jedem Peer, nie über einen
+ * dritten Knoten. Jede Nachricht trägt (origin, seq); der Empfänger merkt
+ * sich pro origin die gesehenen Nummern (DuplicateFilter) und verwirft
+ * Wiederholungen (erneut gesendeter Batch nach Reconnect, zwei
+ * Peer-Einträge für dieselbe Instanz). Die Node-ID ist zufällig und neu bei
+ * jedem Start - ein Neustart beginnt also sauber bei seq 1.
+ *
+ * Lokal mit mehreren Instanzen über Loopback:
+ * --server.port=8081 --app.cluster.port=9101 --app.cluster.peers=localhost:9101,localhost:9102
+ * --server.port=8082 --app.cluster.port=9102 --app.cluster.peers=localhost:9101,localhost:9102
+ *
+ * @author Nova Trent
+ */
+@Slf4j
+public class TcpClusterRelay implements ClusterRelay {
+
+    private final InetSocketAddress bindAddress;
+    private final List<InetSocketAddress> peerAddresses;
+    private final byte[] secret;
+    private final int queueSize;
+    private final int maxBatchSize;
+    private final long nodeId = ThreadLocalRandom.current().nextLong(1, Long.MAX_VALUE);
+    private final AtomicLong sequence = new AtomicLong();
+    private final Counters counters = new Counters();
+
+    /** Schon empfangene seq pro Ursprung */
+    private final Map<Long, DuplicateFilter> duplicateFilters = new ConcurrentHashMap<>();
+    private final Set<Socket> inbound = ConcurrentHashMap.newKeySet();
+
+    private volatile List<PeerConnection> peers = List.of();
+    private volatile ServerSocket serverSocket;
+    private Consumer<RelayedMessage> receiver;
+
+    public TcpClusterRelay(InetSocketAddress bindAddress, List<InetSocketAddress> peerAddresses, String secret,
+                           int queueSize, int maxBatchSize) {
+        if (queueSize < 1 || maxBatchSize < 1) {
+            throw new IllegalArgumentException("app.cluster.queue-size und app.cluster.batch-size müssen positiv sein");
+        }
+        this.bindAddress = bindAddress;
+        this.peerAddresses = List.copyOf(peerAddresses);
+        this.secret = secret.getBytes(StandardCharsets.UTF_8);
+        this.queueSize = queueSize;
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    @Override
+    public void start(Consumer<RelayedMessage> receiver) {
+        if (peerAddresses.isEmpty()) {
+            log.info("🔁 Cluster-Relay: keine Peers konfiguriert (app.cluster.peers) - nur lokale Zustellung");
+            return;
+        }
+        this.receiver = receiver;
+        try {
+            serverSocket = new ServerSocket(bindAddress.getPort(), 50, bindAddress.getAddress());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cluster-Relay: " + bindAddress + " nicht verfügbar", e);
+        }
+        Thread.ofPlatform().name("cluster-relay-accept").daemon().start(this::acceptLoop);
+        peers = peerAddresses.stream()
+            .map(address -> new PeerConnection(address, nodeId, secret, queueSize, maxBatchSize, counters))
+            .toList();
+        peers.forEach(PeerConnection::start);
+        log.info("🔁 Cluster-Relay: Node {} auf {}, Peers {}, Secret {}", Long.toHexString(nodeId), bindAddress,
+            peerAddresses, secret.length > 0 ? "ja" : "nein");
+        if (secret.length == 0 && !bindAddress.getAddress().isLoopbackAddress()) {
+            log.warn("⚠️ Cluster-Relay: {} ohne app.cluster.secret - Peers werden nur an der IP erkannt", bindAddress);
+        }
+    }
+
+    @Override
+    public void publish(String destination, String contentType, byte[] payload) {
+        counters.published.increment();
+        RelayedMessage message = new RelayedMessage(nodeId, sequence.incrementAndGet(), destination, contentType, payload);
+        for (PeerConnection peer : peers) {
+            if (!peer.isSelf() && !peer.offer(message)) {
+                counters.dropped.increment();
+            }
+        }
+    }
+
+    @Override
+    public void stop() {
+        peers.forEach(PeerConnection::stop);
+        closeQuietly(serverSocket);
+        inbound.forEach(TcpClusterRelay::closeQuietly);
+    }
+
+    @Override
+    public boolean isActive() {
+        return !peerAddresses.isEmpty();
+    }
+
+    @Override
+    public ClusterRelayStatistics getStatistics() {
+        return new ClusterRelayStatistics(
+            nodeId,
+            (int) peers.stream().filter(peer -> !peer.isSelf()).count(),
+            (int) peers.stream().filter(PeerConnection::isConnected).count(),
+            counters.published.sum(),
+            counters.sent.sum(),
+            counters.batches.sum(),
+            counters.received.sum(),
+            counters.duplicates.sum(),
+            counters.dropped.sum(),
+            counters.rejected.sum());
+    }
+
+    private void acceptLoop() {
+        ServerSocket server = serverSocket;
+        while (!server.isClosed()) {
+            try {
+                Socket socket = server.accept();
+                if (!isConfiguredPeer(socket.getInetAddress())) {
+                    counters.rejected.increment();
+                    log.warn("🚫 Cluster-Relay: Verbindung von {} abgewiesen - nicht in app.cluster.peers",
+                        socket.getRemoteSocketAddress());
+                    closeQuietly(socket);
+                    continue;
+                }
+                socket.setTcpNoDelay(true);
+                inbound.add(socket);
+                Thread.ofVirtual().name("cluster-relay-in-" + socket.getPort()).start(() -> readLoop(socket));
+            } catch (IOException e) {
+                if (!server.isClosed()) {
+                    log.warn("⚠️ Cluster-Relay: accept fehlgeschlagen: {}", e.getMessage());
+                }
+            }
+        }
+    }
+
+    private void readLoop(Socket socket) {
+        try (socket) {
+            DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream(), 64 * 1024));
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+            long peerId;
+            try {
+                socket.setSoTimeout(RelayProtocol.HANDSHAKE_TIMEOUT_MILLIS);
+                peerId = RelayProtocol.handshake(in, out, nodeId, secret);
+                socket.setSoTimeout(0);
+            } catch (IOException e) {
+                counters.rejected.increment();
+                log.warn("🚫 Cluster-Relay: Handshake mit {} fehlgeschlagen: {}", socket.getRemoteSocketAddress(), e.getMessage());
+                return;
+            }
+            if (peerId == nodeId) {
+                // eigene Verbindung aus der Peer-Liste - die Gegenseite gibt auf
+                return;
+            }
+            while (true) {
+                for (RelayedMessage message : RelayProtocol.readBatch(in)) {
+                    if (isDuplicate(message)) {
+                        counters.duplicates.increment();
+                    } else {
+                        counters.received.increment();
+                        receiver.accept(message);
+                    }
+                }
+            }
+        } catch (EOFException | SocketException e) {
+            log.debug("Cluster-Relay: eingehende Verbindung {} geschlossen", socket.getRemoteSocketAddress());
+        } catch (IOException e) {
+            log.warn("⚠️ Cluster-Relay: eingehende Verbindung {} abgebrochen: {}", socket.getRemoteSocketAddress(), e.getMessage());
+        } finally {
+            inbound.remove(socket);
+        }
+    }
+
+    /**
+     * Absender-IP gehört zu einem Eintrag aus app.cluster.peers - bei jeder
+     * Verbindung neu aufgelöst, damit geänderte DNS-Einträge greifen
+     */
+    private boolean isConfiguredPeer(InetAddress remote) {
+        for (InetSocketAddress peer : peerAddresses) {
+            try {
+                for (InetAddress address : InetAddress.getAllByName(peer.getHostString())) {
+                    if (address.equals(remote)) {
+                        return true;
+                    }
+                }
+            } catch (UnknownHostException e) {
+                log.debug("Cluster-Relay: Peer {} nicht auflösbar: {}", peer, e.getMessage());
+            }
+        }
+        return false;
+    }
+
+    private boolean isDuplicate(RelayedMessage message) {
+        return !duplicateFilters.computeIfAbsent(message.origin(), origin -> new DuplicateFilter()).firstSeen(message.seq());
+    }
+
+    private static void closeQuietly(Closeable closeable) {
+        if (closeable == null) {
+            return;
+        }
+        try {
+            closeable.close();
+        } catch (IOException e) {
+            log.debug("Cluster-Relay: Schließen fehlgeschlagen: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Zähler, die auch die PeerConnections fortschreiben
+     */
+    static final class Counters {
+        private final LongAdder published = new LongAdder();
+        private final LongAdder sent = new LongAdder();
+        private final LongAdder batches = new LongAdder();
+        private final LongAdder received = new LongAdder();
+        private final LongAdder duplicates = new LongAdder();
+        private final LongAdder dropped = new LongAdder();
+        private final LongAdder rejected = new LongAdder();
+
+        void sent(int messages) {
+            sent.add(messages);
+            batches.increment();
+        }
+
+        void dropped(int messages) {
+            dropped.add(messages);
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.javafleet.tag10.websocket.wire;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.WebSocketSessionDecorator;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * BatchingWebSocketSession - fasst ausgehende STOMP-Frames zu einem WebSocket-Frame zusammen
+ *
+ * Jeder STOMP-Frame endet mit NUL, mehrere Frames hintereinander in einer
+ * WebSocket-Nachricht sind erlaubt und werden von stomp.js getrennt. Statt
+ * jeden Frame sofort zu schreiben, sammelt die Session Text-Frames für
+ * batchWindow und schreibt sie dann auf einmal - ein Syscall, ein
+ * WebSocket-Header und (mit permessage-deflate) ein Kompressionsblock für
+ * den ganzen Burst.
+ *
+ * Erreicht der Puffer maxBatchBytes (gezählt in Zeichen), wird sofort im
+ * aufrufenden Thread geschrieben; dadurch wirkt ein langsamer Client bis zum
+ * ConcurrentWebSocketSessionDecorator bzw. zur SessionOutbox durch.
+ * Binäre Frames und close() leeren vorher den Puffer - die Reihenfolge
+ * bleibt erhalten.
+ *
+ * @author Nova Trent
+ */
+@Slf4j
+class BatchingWebSocketSession extends WebSocketSessionDecorator {
+
+    private final Duration batchWindow;
+    private final int maxBatchBytes;
+    private final OutboundBatchingDecoratorFactory.Counters counters;
+
+    /** Hält auch während des Schreibens - so können Batches sich nicht überholen */
+    private final ReentrantLock lock = new ReentrantLock();
+    // --- geschützt durch lock ---
+    private final StringBuilder buffer = new StringBuilder();
+    private int bufferedFrames;
+    private boolean flushScheduled;
+
+    BatchingWebSocketSession(WebSocketSession delegate, Duration batchWindow, int maxBatchBytes,
+                             OutboundBatchingDecoratorFactory.Counters counters) {
+        super(delegate);
+        this.batchWindow = batchWindow;
+        this.maxBatchBytes = maxBatchBytes;
+        this.counters = counters;
+    }
+
+    @Override
+    public void sendMessage(WebSocketMessage<?> message) throws IOException {
+        lock.lock();
+        try {
+            if (!(message instanceof TextMessage text) || !message.isLast()) {
+                flushLocked();
+                super.sendMessage(message);
+                return;
+            }
+            buffer.append(text.getPayload());
+            bufferedFrames++;
+            if (buffer.length() >= maxBatchBytes) {
+                flushLocked();
+            } else if (!flushScheduled) {
+                flushScheduled = true;
+                Thread.ofVirtual().name("ws-batch-" + getId()).start(this::flushAfterWindow);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void close(CloseStatus status) throws IOException {
+        lock.lock();
+        try {
+            if (isOpen()) {
+                flushLocked();
+            }
+        } catch (IOException e) {
+            log.debug("Batch vor dem Schließen nicht mehr zustellbar ({}): {}", getId(), e.getMessage());
+        } finally {
+            buffer.setLength(0);
+            bufferedFrames = 0;
+            lock.unlock();
+        }
+        super.close(status);
+    }
+
+    private void flushAfterWindow() {
+        try {
+            Thread.sleep(batchWindow);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        lock.lock();
+        try {
+            flushScheduled = false;
+            if (isOpen()) {
+                flushLocked();
+            }
+        } catch (IOException e) {
+            log.debug("Batch an Session {} fehlgeschlagen: {}", getId(), e.getMessage());
+            closeQuietly();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void flushLocked() throws IOException {
+        if (bufferedFrames == 0) {
+            return;
+        }
+        TextMessage batch = new TextMessage(buffer.toString());
+        counters.record(bufferedFrames);
+        buffer.setLength(0);
+        bufferedFrames = 0;
+        super.sendMessage(batch);
+    }
+
+    private void closeQuietly() {
+        try {
+            super.close(CloseStatus.SESSION_NOT_RELIABLE);
+        } catch (IOException e) {
+            log.debug("Session {} ließ sich nicht schließen: {}", getId(), e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.javafleet.tag10.websocket.wire;
+
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompEncoder;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.NativeMessageHeaderAccessor;
+
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * BroadcastFrameEncoder - kodiert einen Broadcast einmal statt einmal pro Abonnent
+ *
+ * Der StompEncoder baut für jede Session einen eigenen MESSAGE-Frame (Header
+ * + Body kopieren). Bei einem Broadcast unterscheiden sich diese Frames nur
+ * in subscription und message-id - setzt der Broker eine message-id pro
+ * Broadcast (ShardedStompBroker), sind die Frames aller Abonnenten mit
+ * gleicher subscription-Id (stomp.js: "sub-0") Byte für Byte gleich.
+ *
+ * Erkannt wird ein Broadcast an der Identität des Payload-Arrays, das der
+ * Broker an alle Sessions weiterreicht. Treffer werden nur bei identischen
+ * STOMP-Headern verwendet - im Zweifel wird normal kodiert.
+ *
+ * @author Nova Trent
+ */
+public class BroadcastFrameEncoder extends StompEncoder {
+
+    private static final int CACHE_SLOTS = 64;
+
+    /** Direkt adressiert; Einträge sind unveränderlich, Races kosten höchstens einen Treffer */
+    private final Frame[] cache = new Frame[CACHE_SLOTS];
+
+    @Override
+    public byte[] encode(Map<String, Object> headers, byte[] payload) {
+        if (payload.length == 0 || StompHeaderAccessor.getCommand(headers) != StompCommand.MESSAGE
+                || !(headers.get(NativeMessageHeaderAccessor.NATIVE_HEADERS) instanceof Map<?, ?> nativeHeaders)) {
+            return super.encode(headers, payload);
+        }
+        int hash = 31 * System.identityHashCode(payload) + Objects.hashCode(SimpMessageHeaderAccessor.getSubscriptionId(headers));
+        int slot = (hash ^ (hash >>> 16)) & (CACHE_SLOTS - 1);
+        Frame cached = cache[slot];
+        if (cached != null && cached.payload() == payload && cached.nativeHeaders().equals(nativeHeaders)) {
+            return cached.bytes();
+        }
+        byte[] bytes = super.encode(headers, payload);
+        cache[slot] = new Frame(payload, Map.copyOf(nativeHeaders), bytes);
+        return bytes;
+    }
+
+    private record Frame(byte[] payload, Map<?, ?> nativeHeaders, byte[] bytes) {
+    }
+}
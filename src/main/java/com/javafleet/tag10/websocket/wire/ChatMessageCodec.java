@@ -0,0 +1,121 @@
+package com.javafleet.tag10.websocket.wire;
+
+import com.javafleet.tag10.websocket.ChatMessage;
+import com.javafleet.tag10.websocket.MessageType;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * ChatMessageCodec - kompaktes Binärformat für ChatMessage
+ *
+ * Statt {"type":"CHAT","content":"...","sender":"...","timestamp":1700000000000}
+ * (rund 60 Bytes nur für Schlüssel, Anführungszeichen und Zahl als Text):
+ *
+ *   byte version (2) | byte type (Ordinal, -1 = null) | varlong timestamp
+ *   | varlong seq | string sender | string content
+ *
+ * Version 1 (ohne seq) wird weiterhin gelesen.
+ *
+ * string  = varint (byteLength + 1, 0 = null) | UTF-8 Bytes
+ * varint  = 7 Bit pro Byte, höchstes Bit = weiteres Byte folgt (wie Protobuf)
+ *
+ * @author Nova Trent
+ */
+public final class ChatMessageCodec {
+
+    static final byte VERSION = 2;
+    private static final byte VERSION_WITHOUT_SEQ = 1;
+
+    private static final MessageType[] TYPES = MessageType.values();
+
+    private ChatMessageCodec() {
+    }
+
+    public static byte[] encode(ChatMessage message) {
+        byte[] sender = utf8(message.getSender());
+        byte[] content = utf8(message.getContent());
+        byte[] buffer = new byte[2 + 10 + 10 + maxStringBytes(sender) + maxStringBytes(content)];
+        buffer[0] = VERSION;
+        buffer[1] = message.getType() == null ? -1 : (byte) message.getType().ordinal();
+        int position = writeVarLong(buffer, 2, message.getTimestamp());
+        position = writeVarLong(buffer, position, message.getSeq());
+        position = writeString(buffer, position, sender);
+        position = writeString(buffer, position, content);
+        return position == buffer.length ? buffer : Arrays.copyOf(buffer, position);
+    }
+
+    /**
+     * @throws IllegalArgumentException bei unbekannter Version oder abgeschnittenen Daten
+     */
+    public static ChatMessage decode(byte[] data) {
+        try {
+            if (data.length < 3 || (data[0] != VERSION && data[0] != VERSION_WITHOUT_SEQ)) {
+                throw new IllegalArgumentException("Unbekanntes ChatMessage-Format");
+            }
+            int[] position = {1};
+            byte type = data[position[0]++];
+            if (type >= TYPES.length) {
+                throw new IllegalArgumentException("Unbekannter MessageType: " + type);
+            }
+            long timestamp = readVarLong(data, position);
+            long seq = data[0] == VERSION ? readVarLong(data, position) : 0;
+            String sender = readString(data, position);
+            String content = readString(data, position);
+            return new ChatMessage(type < 0 ? null : TYPES[type], content, sender, timestamp, seq);
+        } catch (ArrayIndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("ChatMessage abgeschnitten", e);
+        }
+    }
+
+    private static byte[] utf8(String value) {
+        return value == null ? null : value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static int maxStringBytes(byte[] value) {
+        return 5 + (value == null ? 0 : value.length);
+    }
+
+    private static int writeString(byte[] buffer, int position, byte[] value) {
+        if (value == null) {
+            return writeVarLong(buffer, position, 0);
+        }
+        position = writeVarLong(buffer, position, value.length + 1L);
+        System.arraycopy(value, 0, buffer, position, value.length);
+        return position + value.length;
+    }
+
+    private static String readString(byte[] data, int[] position) {
+        long length = readVarLong(data, position) - 1;
+        if (length < 0) {
+            return null;
+        }
+        if (length > data.length - position[0]) {
+            throw new IllegalArgumentException("ChatMessage abgeschnitten");
+        }
+        String value = new String(data, position[0], (int) length, StandardCharsets.UTF_8);
+        position[0] += (int) length;
+        return value;
+    }
+
+    private static int writeVarLong(byte[] buffer, int position, long value) {
+        while ((value & ~0x7FL) != 0) {
+            buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buffer[position++] = (byte) value;
+        return position;
+    }
+
+    private static long readVarLong(byte[] data, int[] position) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = data[position[0]++];
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("varint zu lang");
+    }
+}
@@ -0,0 +1,48 @@
+package com.javafleet.tag10.websocket.wire;
+
+import com.javafleet.tag10.websocket.ChatMessage;
+import org.springframework.lang.Nullable;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.converter.AbstractMessageConverter;
+import org.springframework.messaging.converter.MessageConversionException;
+import org.springframework.util.MimeTypeUtils;
+
+/**
+ * CompactChatMessageConverter - ChatMessage im ChatMessageCodec-Format
+ *
+ * Greift nur bei content-type:application/octet-stream (strictContentTypeMatch),
+ * JSON-Clients laufen weiter über den Jackson-Converter. So kann ein Client,
+ * der das kompakte Format ausgehandelt hat, auch binär an /app/chat.send senden.
+ *
+ * @author Nova Trent
+ */
+public class CompactChatMessageConverter extends AbstractMessageConverter {
+
+    public CompactChatMessageConverter() {
+        super(MimeTypeUtils.APPLICATION_OCTET_STREAM);
+        setStrictContentTypeMatch(true);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return ChatMessage.class == clazz;
+    }
+
+    @Override
+    protected Object convertFromInternal(Message<?> message, Class<?> targetClass, @Nullable Object conversionHint) {
+        if (!(message.getPayload() instanceof byte[] payload)) {
+            return null;
+        }
+        try {
+            return ChatMessageCodec.decode(payload);
+        } catch (IllegalArgumentException e) {
+            throw new MessageConversionException(message, "Ungültige kompakte ChatMessage: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    protected Object convertToInternal(Object payload, @Nullable MessageHeaders headers, @Nullable Object conversionHint) {
+        return ChatMessageCodec.encode((ChatMessage) payload);
+    }
+}
@@ -0,0 +1,140 @@
+package com.javafleet.tag10.websocket.wire;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.javafleet.tag10.websocket.ChatMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.messaging.support.NativeMessageHeaderAccessor;
+import org.springframework.util.MimeType;
+import org.springframework.util.MimeTypeUtils;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * CompactEncodingNegotiation - ChatMessage binär statt JSON, pro Session ausgehandelt
+ *
+ * Ein Client fordert das Format im CONNECT-Frame an:
+ *
+ *   CONNECT
+ *   accept-version:1.2
+ *   chat-encoding:compact
+ *
+ * Danach bekommt er MESSAGE-Frames der Chat-Destinations als
+ * content-type:application/octet-stream mit chat-encoding:compact und einem
+ * Body im ChatMessageCodec-Format (als binärer WebSocket-Frame). Alle
+ * anderen Clients erhalten weiter JSON.
+ *
+ * Pro Broadcast wird nur einmal umkodiert: der Broker verteilt denselben
+ * Payload (byte[]) an alle Abonnenten, das Ergebnis wird über die Identität
+ * dieses Arrays zwischengespeichert.
+ *
+ * Nur für native WebSocket-Clients (/ws/websocket) - SockJS kennt keine
+ * Binär-Frames.
+ *
+ * @author Nova Trent
+ */
+@Slf4j
+public class CompactEncodingNegotiation {
+
+    public static final String ENCODING_HEADER = "chat-encoding";
+    public static final String COMPACT = "compact";
+
+    private static final int CACHE_SLOTS = 64;
+
+    private final Set<String> compactSessions = ConcurrentHashMap.newKeySet();
+    private final ObjectMapper objectMapper;
+    private final Set<String> destinations;
+    /** Direkt adressierter Cache JSON -> kompakt; Einträge sind unveränderlich, Races harmlos */
+    private final Transcoded[] cache = new Transcoded[CACHE_SLOTS];
+
+    public CompactEncodingNegotiation(ObjectMapper objectMapper, Collection<String> destinations) {
+        this.objectMapper = objectMapper;
+        this.destinations = Set.copyOf(destinations);
+    }
+
+    /**
+     * Am clientInboundChannel: merkt sich Sessions mit chat-encoding:compact
+     */
+    public ChannelInterceptor inbound() {
+        return new ChannelInterceptor() {
+            @Override
+            public Message<?> preSend(Message<?> message, MessageChannel channel) {
+                SimpMessageType type = SimpMessageHeaderAccessor.getMessageType(message.getHeaders());
+                String sessionId = SimpMessageHeaderAccessor.getSessionId(message.getHeaders());
+                if (sessionId == null) {
+                    return message;
+                }
+                if (type == SimpMessageType.CONNECT && COMPACT.equals(
+                        NativeMessageHeaderAccessor.getFirstNativeHeader(ENCODING_HEADER, message.getHeaders()))) {
+                    compactSessions.add(sessionId);
+                    log.debug("🗜️ Session {} nutzt das kompakte ChatMessage-Format", sessionId);
+                } else if (type == SimpMessageType.DISCONNECT) {
+                    compactSessions.remove(sessionId);
+                }
+                return message;
+            }
+        };
+    }
+
+    /**
+     * Am clientOutboundChannel: kodiert Chat-Nachrichten für diese Sessions um
+     */
+    public ChannelInterceptor outbound() {
+        return new ChannelInterceptor() {
+            @Override
+            public Message<?> preSend(Message<?> message, MessageChannel channel) {
+                if (compactSessions.isEmpty()
+                        || SimpMessageHeaderAccessor.getMessageType(message.getHeaders()) != SimpMessageType.MESSAGE
+                        || !compactSessions.contains(SimpMessageHeaderAccessor.getSessionId(message.getHeaders()))
+                        || !destinations.contains(SimpMessageHeaderAccessor.getDestination(message.getHeaders()))
+                        || !(message.getPayload() instanceof byte[] json)) {
+                    return message;
+                }
+                if (!isJson(message.getHeaders().get(MessageHeaders.CONTENT_TYPE))) {
+                    return message;
+                }
+                byte[] compact = compact(json);
+                if (compact == null) {
+                    return message;
+                }
+                SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.wrap(message);
+                accessor.setContentType(MimeTypeUtils.APPLICATION_OCTET_STREAM);
+                accessor.setNativeHeader(ENCODING_HEADER, COMPACT);
+                return MessageBuilder.createMessage(compact, accessor.getMessageHeaders());
+            }
+        };
+    }
+
+    private static boolean isJson(Object contentType) {
+        MimeType mimeType = contentType instanceof String value ? MimeTypeUtils.parseMimeType(value) : (MimeType) contentType;
+        return mimeType != null && MimeTypeUtils.APPLICATION_JSON.isCompatibleWith(mimeType);
+    }
+
+    private byte[] compact(byte[] json) {
+        int slot = System.identityHashCode(json) & (CACHE_SLOTS - 1);
+        Transcoded cached = cache[slot];
+        if (cached != null && cached.json() == json) {
+            return cached.compact();
+        }
+        try {
+            byte[] compact = ChatMessageCodec.encode(objectMapper.readValue(json, ChatMessage.class));
+            cache[slot] = new Transcoded(json, compact);
+            return compact;
+        } catch (IOException e) {
+            log.debug("Keine ChatMessage, bleibt JSON: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private record Transcoded(byte[] json, byte[] compact) {
+    }
+}
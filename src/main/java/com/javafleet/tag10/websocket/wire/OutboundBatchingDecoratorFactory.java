@@ -0,0 +1,74 @@
+package com.javafleet.tag10.websocket.wire;
+
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.WebSocketHandlerDecorator;
+import org.springframework.web.socket.handler.WebSocketHandlerDecoratorFactory;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * OutboundBatchingDecoratorFactory - hängt BatchingWebSocketSession vor jede Session
+ *
+ * Registriert über WebSocketTransportRegistration.addDecoratorFactory (nur
+ * wenn isEnabled()). Der SubProtocolWebSocketHandler (STOMP) bekommt die
+ * dekorierte Session und schreibt alle Frames über sie.
+ *
+ * @author Nova Trent
+ */
+public class OutboundBatchingDecoratorFactory implements WebSocketHandlerDecoratorFactory {
+
+    private final Duration batchWindow;
+    private final int maxBatchBytes;
+    private final Counters counters = new Counters();
+
+    public OutboundBatchingDecoratorFactory(Duration batchWindow, int maxBatchBytes) {
+        if (batchWindow.isNegative() || maxBatchBytes < 1) {
+            throw new IllegalArgumentException("batch-window darf nicht negativ, batch-max-size muss positiv sein");
+        }
+        this.batchWindow = batchWindow;
+        this.maxBatchBytes = maxBatchBytes;
+    }
+
+    /**
+     * batch-window=0 schaltet das Batching ab
+     */
+    public boolean isEnabled() {
+        return !batchWindow.isZero();
+    }
+
+    @Override
+    public WebSocketHandler decorate(WebSocketHandler handler) {
+        return new WebSocketHandlerDecorator(handler) {
+            @Override
+            public void afterConnectionEstablished(WebSocketSession session) throws Exception {
+                super.afterConnectionEstablished(new BatchingWebSocketSession(session, batchWindow, maxBatchBytes, counters));
+            }
+        };
+    }
+
+    /**
+     * Zähler für /api/stats
+     */
+    public OutboundBatchingStatistics getStatistics() {
+        long frames = counters.frames.sum();
+        long batches = counters.batches.sum();
+        return new OutboundBatchingStatistics(batchWindow.toMillis(), frames, batches,
+            batches == 0 ? 0 : (double) frames / batches);
+    }
+
+    /**
+     * Gemeinsame Zähler aller Sessions
+     */
+    static final class Counters {
+
+        private final LongAdder frames = new LongAdder();
+        private final LongAdder batches = new LongAdder();
+
+        void record(int framesInBatch) {
+            frames.add(framesInBatch);
+            batches.increment();
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.javafleet.tag10.websocket.wire;
+
+/**
+ * Zusammengefasste STOMP-Frames (Teil von /api/stats)
+ *
+ * @param batchWindowMillis Sammelfenster pro Session
+ * @param frames            geschriebene STOMP-Frames
+ * @param batches           geschriebene WebSocket-Nachrichten
+ * @param framesPerBatch    Durchschnitt frames / batches
+ */
+public record OutboundBatchingStatistics(long batchWindowMillis, long frames, long batches, double framesPerBatch) {
+}
@@ -0,0 +1,83 @@
+package com.javafleet.tag10.websocket.wire;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.websocket.server.ServerEndpointConfig;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.web.socket.WebSocketExtension;
+import org.springframework.web.socket.server.standard.StandardWebSocketUpgradeStrategy;
+import org.springframework.web.socket.server.support.DefaultHandshakeHandler;
+
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * PerMessageDeflateHandshakeHandler - permessage-deflate (RFC 7692) an- oder abschalten
+ *
+ * Tomcat bringt permessage-deflate mit und nimmt es an, sobald der Client
+ * es im Handshake anbietet (Sec-WebSocket-Extensions, alle Browser tun das).
+ * JSON-Chatnachrichten schrumpfen damit auf einen Bruchteil, besonders in
+ * Kombination mit dem Batching (ein Kompressionsblock pro Burst).
+ *
+ * Kompression kostet CPU pro Frame und Session. Mit enabled=false sieht
+ * Tomcat den Header Sec-WebSocket-Extensions nicht - Tomcat verhandelt
+ * direkt auf dem Servlet-Request, ein Filtern der Extension-Liste in
+ * Spring allein reicht dafür nicht. Frames gehen dann unkomprimiert.
+ *
+ * @author Nova Trent
+ */
+public class PerMessageDeflateHandshakeHandler extends DefaultHandshakeHandler {
+
+    static final String EXTENSIONS_HEADER = "Sec-WebSocket-Extensions";
+
+    public PerMessageDeflateHandshakeHandler(boolean enabled) {
+        super(enabled ? new StandardWebSocketUpgradeStrategy() : new WithoutExtensionsUpgradeStrategy());
+    }
+
+    /**
+     * Upgrade wie gehabt, aber Tomcat sieht keine angebotenen Extensions
+     */
+    private static final class WithoutExtensionsUpgradeStrategy extends StandardWebSocketUpgradeStrategy {
+
+        @Override
+        public List<WebSocketExtension> getSupportedExtensions(ServerHttpRequest request) {
+            return List.of();
+        }
+
+        @Override
+        protected void upgradeHttpToWebSocket(HttpServletRequest request, HttpServletResponse response,
+                                              ServerEndpointConfig endpointConfig, Map<String, String> pathParams) throws Exception {
+            super.upgradeHttpToWebSocket(new WithoutExtensions(request), response, endpointConfig, pathParams);
+        }
+    }
+
+    /**
+     * Servlet-Request ohne Sec-WebSocket-Extensions (Tomcat bietet nur permessage-deflate an)
+     */
+    private static final class WithoutExtensions extends HttpServletRequestWrapper {
+
+        WithoutExtensions(HttpServletRequest request) {
+            super(request);
+        }
+
+        @Override
+        public String getHeader(String name) {
+            return EXTENSIONS_HEADER.equalsIgnoreCase(name) ? null : super.getHeader(name);
+        }
+
+        @Override
+        public Enumeration<String> getHeaders(String name) {
+            return EXTENSIONS_HEADER.equalsIgnoreCase(name) ? Collections.emptyEnumeration() : super.getHeaders(name);
+        }
+
+        @Override
+        public Enumeration<String> getHeaderNames() {
+            return Collections.enumeration(Collections.list(super.getHeaderNames()).stream()
+                .filter(name -> !EXTENSIONS_HEADER.equalsIgnoreCase(name))
+                .toList());
+        }
+    }
+}
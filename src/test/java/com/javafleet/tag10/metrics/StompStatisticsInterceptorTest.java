@@ -0,0 +1,102 @@
+package com.javafleet.tag10.metrics;
+
+import com.javafleet.tag10.service.ApplicationStatistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.support.StaticApplicationContext;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.SubscribableChannel;
+import org.springframework.messaging.handler.annotation.MessageMapping;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageSendingOperations;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.annotation.SubscribeMapping;
+import org.springframework.messaging.simp.annotation.support.SimpAnnotationMethodMessageHandler;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Controller;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Ein Client legt keine eigenen Zähler an - egal, wohin er SUBSCRIBE/SEND schickt
+ */
+class StompStatisticsInterceptorTest {
+
+    private final ApplicationStatistics statistics = new ApplicationStatistics();
+    private StompStatisticsInterceptor inbound;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        StaticApplicationContext context = new StaticApplicationContext();
+        context.registerSingleton("chatController", TestChatController.class);
+        context.refresh();
+        SimpAnnotationMethodMessageHandler handler = new SimpAnnotationMethodMessageHandler(
+            mock(SubscribableChannel.class), mock(MessageChannel.class), mock(SimpMessageSendingOperations.class));
+        handler.setDestinationPrefixes(List.of("/app"));
+        handler.setApplicationContext(context);
+        handler.afterPropertiesSet();
+
+        ObjectProvider<SimpAnnotationMethodMessageHandler> provider = mock(ObjectProvider.class);
+        when(provider.getIfAvailable()).thenReturn(handler);
+        inbound = StompStatisticsInterceptor.inbound(statistics, List.of("/topic"), Set.of("/topic/public"), provider);
+    }
+
+    @Test
+    void knownDestinationsAreCountedByName() {
+        frame(SimpMessageType.MESSAGE, "/app/chat.send");
+        frame(SimpMessageType.SUBSCRIBE, "/app/chat.history");
+        frame(SimpMessageType.SUBSCRIBE, "/topic/public");
+        frame(SimpMessageType.CONNECT, null);
+
+        assertThat(meterNames()).containsExactlyInAnyOrder(
+            "SEND /app/chat.send", "SUBSCRIBE /app/chat.history", "SUBSCRIBE /topic/public", "CONNECT");
+    }
+
+    @Test
+    void madeUpDestinationsShareOneMeterPerPrefix() {
+        for (int i = 0; i < 50; i++) {
+            frame(SimpMessageType.SUBSCRIBE, "/topic/erfunden-" + i);
+            frame(SimpMessageType.MESSAGE, "/app/erfunden-" + i);
+            frame(SimpMessageType.SUBSCRIBE, "/queue/erfunden-" + i);
+        }
+
+        assertThat(meterNames()).containsExactlyInAnyOrder(
+            "SUBSCRIBE /topic/**", "SEND /app/**", "SUBSCRIBE " + StompStatisticsInterceptor.UNKNOWN);
+        assertThat(statistics.getTotalInboundMessages()).isEqualTo(150);
+    }
+
+    private void frame(SimpMessageType type, String destination) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(type);
+        accessor.setDestination(destination);
+        Message<byte[]> message = MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+        inbound.preSend(message, mock(MessageChannel.class));
+    }
+
+    private List<String> meterNames() {
+        return statistics.getEndpointRates().stream()
+            .filter(rate -> rate.type().equals(ApplicationStatistics.STOMP_IN))
+            .map(EndpointRate::name)
+            .toList();
+    }
+
+    @Controller
+    static class TestChatController {
+
+        @MessageMapping("/chat.send")
+        public void send(String message) {
+        }
+
+        @SubscribeMapping("/chat.history")
+        public List<String> history() {
+            return List.of();
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.javafleet.tag10.persistence;
+
+import com.javafleet.tag10.model.Person;
+import com.javafleet.tag10.store.IndexedPersonStore;
+import com.javafleet.tag10.store.PersonStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Snapshot + Journal überstehen einen Neustart: Personen, Versionen und nextId
+ *
+ * "Absturz" = die alte Instanz wird einfach liegen gelassen (kein close(),
+ * also auch kein Snapshot beim Herunterfahren) - mit fsync ist nach
+ * awaitDurable() alles auf Platte, was der Store angenommen hat.
+ */
+class JournalPersonPersistenceTest {
+
+    @TempDir
+    Path directory;
+
+    private final List<JournalPersonPersistence> opened = new ArrayList<>();
+    private JournalPersonPersistence persistence;
+    private PersonStore store;
+
+    @AfterEach
+    void tearDown() throws IOException {
+        for (JournalPersonPersistence instance : opened) {
+            instance.close();
+        }
+    }
+
+    @Test
+    void snapshotPlusJournalSurvivesCrash() throws IOException {
+        assertThat(open()).isEqualTo(1);
+        store.insert(Person.of(1L, "Elyndra", "Valen"));
+        store.insert(Person.of(2L, "Nova", "Trent"));
+        store.insert(Person.of(3L, "Franz-Martin", "Schmidt"));
+        store.update(1L, "Elyndra", "Trent");
+        store.update(1L, "Elyndra", "Schmidt");
+        store.delete(2L);
+        persistence.snapshot();
+
+        store.update(1L, "Elyndra", "Valen");
+        store.insert(Person.of(4L, "Code", "Sentinel"));
+        store.update(3L, "Franz", "Schmidt");
+        persistence.awaitDurable();
+        List<Person> before = store.snapshot();
+
+        assertThat(open()).isEqualTo(5);
+        assertThat(store.snapshot()).isEqualTo(before).containsExactly(
+            new Person(1L, "Elyndra", "Valen", 4),
+            new Person(3L, "Franz", "Schmidt", 2),
+            new Person(4L, "Code", "Sentinel", 1));
+    }
+
+    @Test
+    void regularShutdownKeepsVersions() throws IOException {
+        open();
+        store.insert(Person.of(1L, "Elyndra", "Valen"));
+        store.insert(Person.of(2L, "Nova", "Trent"));
+        store.update(2L, "Nova", "Valen");
+        store.delete(1L);
+        persistence.close();
+        opened.remove(persistence);
+
+        assertThat(open()).isEqualTo(3);
+        assertThat(store.snapshot()).containsExactly(new Person(2L, "Nova", "Valen", 2));
+
+        // Nach dem Neustart zählt die Version dort weiter, wo sie war
+        assertThat(store.update(2L, "Nova", "Trent")).get().extracting(Person::getVersion).isEqualTo(3L);
+    }
+
+    @Test
+    void tornJournalTailIsCutOff() throws IOException {
+        open();
+        store.insert(Person.of(1L, "Elyndra", "Valen"));
+        store.insert(Person.of(2L, "Nova", "Trent"));
+        store.update(1L, "Elyndra", "Schmidt");
+        persistence.awaitDurable();
+
+        // Der letzte Record (das Update) ist nur halb auf Platte gekommen
+        Path segment = latestSegment();
+        long size = Files.size(segment);
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.truncate(size - 5);
+        }
+
+        assertThat(open()).isEqualTo(3);
+        assertThat(store.snapshot()).containsExactly(
+            new Person(1L, "Elyndra", "Valen", 1),
+            new Person(2L, "Nova", "Trent", 1));
+        assertThat(Files.size(segment)).isLessThan(size - 5);
+
+        // Hinter dem abgeschnittenen Ende geht das Journal sauber weiter
+        store.update(1L, "Elyndra", "Trent");
+        persistence.awaitDurable();
+        open();
+        assertThat(store.findById(1L)).contains(new Person(1L, "Elyndra", "Trent", 2));
+    }
+
+    /**
+     * Neue Instanz auf demselben Verzeichnis, die alte bleibt liegen
+     *
+     * @return nextId aus der Recovery
+     */
+    private long open() {
+        persistence = new JournalPersonPersistence(directory, true, Duration.ofHours(1), 1 << 20);
+        opened.add(persistence);
+        store = new IndexedPersonStore();
+        return persistence.recover(store);
+    }
+
+    private Path latestSegment() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().startsWith("journal-"))
+                .sorted()
+                .reduce((first, second) -> second)
+                .orElseThrow();
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.javafleet.tag10.service;
+
+import com.javafleet.tag10.model.Person;
+import com.javafleet.tag10.model.PersonChange;
+import com.javafleet.tag10.model.PersonChanges;
+import com.javafleet.tag10.store.IndexedPersonStore;
+import com.javafleet.tag10.store.PersonChangeListener;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.messaging.simp.SimpMessageSendingOperations;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Der Feed meldet nur Änderungen, die im Store sichtbar sind
+ */
+class PersonChangeFeedTest {
+
+    private final IndexedPersonStore store = new IndexedPersonStore();
+    private final SimpMessageSendingOperations messaging = mock(SimpMessageSendingOperations.class);
+    private PersonChangeFeed feed;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        ObjectProvider<SimpMessageSendingOperations> provider = mock(ObjectProvider.class);
+        when(provider.getObject()).thenReturn(messaging);
+        feed = new PersonChangeFeed(store, provider, 16);
+        feed.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        feed.stop();
+    }
+
+    @Test
+    void changeIsSequencedOnlyAfterItIsVisible() {
+        List<Long> seqDuringInsert = new ArrayList<>();
+        store.addChangeListener(new PersonChangeListener() {
+            @Override
+            public void personInserted(Person person) {
+                seqDuringInsert.add(feed.getStatistics().latestSeq());
+            }
+        });
+
+        store.insert(Person.of(1L, "Elyndra", "Valen"));
+
+        assertThat(seqDuringInsert).containsExactly(0L);
+        assertThat(feed.getStatistics().latestSeq()).isEqualTo(1);
+        verify(messaging, timeout(1000)).convertAndSend(eq(PersonChangeFeed.TOPIC), any(PersonChanges.class));
+    }
+
+    @Test
+    void rejectedChangeNeverReachesTheFeed() {
+        boolean[] reject = {false};
+        store.addChangeListener(new PersonChangeListener() {
+            @Override
+            public void personInserted(Person person) {
+                if (reject[0]) {
+                    throw new IllegalStateException("abgelehnt");
+                }
+            }
+        });
+        store.insert(Person.of(1L, "Elyndra", "Valen"));
+        reject[0] = true;
+
+        assertThatThrownBy(() -> store.insert(Person.of(2L, "Nova", "Trent")))
+            .isInstanceOf(IllegalStateException.class);
+        reject[0] = false;
+        store.insert(Person.of(3L, "Franz-Martin", "Schmidt"));
+
+        PersonChanges changes = feed.since(feed.getStatistics().feed(), 0);
+        assertThat(changes.resync()).isFalse();
+        assertThat(changes.changes()).extracting(PersonChange::id).containsExactly(1L, 3L);
+        assertThat(changes.changes()).extracting(PersonChange::seq).containsExactly(1L, 2L);
+    }
+}
@@ -0,0 +1,120 @@
+package com.javafleet.tag10.store;
+
+import com.javafleet.tag10.model.Person;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Ein Listener, der ablehnt (z.B. Journal nicht beschreibbar), darf den
+ * Store nicht verändern - weder Spalten noch Index noch Dictionary.
+ */
+class ColumnarPersonStoreTest {
+
+    private ColumnarPersonStore store;
+    private RejectingListener listener;
+
+    @BeforeEach
+    void setUp() {
+        store = new ColumnarPersonStore();
+        store.insert(Person.of(1L, "Elyndra", "Valen"));
+        store.insert(Person.of(2L, "Nova", "Trent"));
+        listener = new RejectingListener();
+        store.addChangeListener(listener);
+    }
+
+    @Test
+    void rejectedInsertLeavesStoreUnchanged() {
+        listener.reject = true;
+
+        assertThatThrownBy(() -> store.insert(Person.of(3L, "Franz-Martin", "Schmidt")))
+            .isInstanceOf(IllegalStateException.class);
+
+        assertUnchanged();
+        assertThat(store.findById(3L)).isEmpty();
+        assertThat(store.getDistinctNameCount()).isEqualTo(4);
+        listener.reject = false;
+        assertThat(store.insert(Person.of(3L, "Franz-Martin", "Schmidt")).getVersion()).isEqualTo(1);
+        assertThat(store.snapshot()).extracting(Person::getId).containsExactly(1L, 2L, 3L);
+    }
+
+    @Test
+    void rejectedUpdateLeavesStoreUnchanged() {
+        listener.reject = true;
+
+        assertThatThrownBy(() -> store.update(1L, "Elyndra", "Schmidt"))
+            .isInstanceOf(IllegalStateException.class);
+
+        assertUnchanged();
+        assertThat(store.getDistinctNameCount()).isEqualTo(4);
+        listener.reject = false;
+        assertThat(store.update(1L, "Elyndra", "Schmidt")).get()
+            .extracting(Person::getLastname, Person::getVersion)
+            .containsExactly("Schmidt", 2L);
+    }
+
+    @Test
+    void rejectedDeleteLeavesStoreUnchanged() {
+        listener.reject = true;
+
+        assertThatThrownBy(() -> store.delete(2L))
+            .isInstanceOf(IllegalStateException.class);
+
+        assertUnchanged();
+        listener.reject = false;
+        assertThat(store.delete(2L)).isTrue();
+        assertThat(store.snapshot()).extracting(Person::getId).containsExactly(1L);
+    }
+
+    @Test
+    void restoreKeepsVersions() {
+        store.restoreAll(List.of(new Person(7L, "Elyndra", "Schmidt", 5)));
+
+        assertThat(store.findById(7L)).contains(new Person(7L, "Elyndra", "Schmidt", 5));
+        assertThat(store.update(7L, "Elyndra", "Valen")).get()
+            .extracting(Person::getVersion)
+            .isEqualTo(6L);
+    }
+
+    private void assertUnchanged() {
+        assertThat(store.size()).isEqualTo(2);
+        assertThat(store.snapshot()).containsExactly(
+            new Person(1L, "Elyndra", "Valen", 1),
+            new Person(2L, "Nova", "Trent", 1));
+        assertThat(store.findById(2L)).contains(new Person(2L, "Nova", "Trent", 1));
+        assertThat(listener.accepted).isEmpty();
+    }
+
+    private static final class RejectingListener implements PersonChangeListener {
+
+        private boolean reject;
+        private final List<Person> accepted = new ArrayList<>();
+
+        @Override
+        public void personInserted(Person person) {
+            check(person);
+        }
+
+        @Override
+        public void personUpdated(Person before, Person after) {
+            check(after);
+        }
+
+        @Override
+        public void personDeleted(Person removed) {
+            check(removed);
+        }
+
+        private void check(Person person) {
+            if (reject) {
+                throw new IllegalStateException("Journal nicht beschreibbar");
+            }
+            accepted.add(person);
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.javafleet.tag10.store;
+
+import com.javafleet.tag10.model.Person;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Journal vor Sichtbarkeit: lehnt der Write-Ahead-Listener ab, bleibt der
+ * Store unverändert und die übrigen Listener sehen nichts.
+ */
+class IndexedPersonStoreTest {
+
+    private IndexedPersonStore store;
+    private RejectingListener journal;
+    private RejectingListener index;
+
+    @BeforeEach
+    void setUp() {
+        store = new IndexedPersonStore();
+        store.insert(Person.of(1L, "Elyndra", "Valen"));
+        store.insert(Person.of(2L, "Nova", "Trent"));
+        index = new RejectingListener();
+        store.addChangeListener(index);
+        journal = new RejectingListener();
+        store.addWriteAheadListener(journal);
+    }
+
+    @Test
+    void rejectedInsertLeavesStoreUnchanged() {
+        journal.reject = true;
+
+        assertThatThrownBy(() -> store.insert(Person.of(3L, "Franz-Martin", "Schmidt")))
+            .isInstanceOf(IllegalStateException.class);
+
+        assertUnchanged();
+        assertThat(store.findById(3L)).isEmpty();
+    }
+
+    @Test
+    void rejectedUpdateLeavesStoreUnchanged() {
+        journal.reject = true;
+
+        assertThatThrownBy(() -> store.update(1L, "Elyndra", "Schmidt"))
+            .isInstanceOf(IllegalStateException.class);
+
+        assertUnchanged();
+    }
+
+    @Test
+    void rejectedDeleteLeavesStoreUnchanged() {
+        journal.reject = true;
+
+        assertThatThrownBy(() -> store.delete(2L))
+            .isInstanceOf(IllegalStateException.class);
+
+        assertUnchanged();
+    }
+
+    @Test
+    void writeAheadListenerRunsFirst() {
+        List<String> calls = new ArrayList<>();
+        store.addChangeListener(new PersonChangeListener() {
+            @Override
+            public void personUpdated(Person before, Person after) {
+                calls.add("index");
+            }
+        });
+        store.addWriteAheadListener(new PersonChangeListener() {
+            @Override
+            public void personUpdated(Person before, Person after) {
+                calls.add("journal");
+                assertThat(store.findById(after.getId())).contains(before);
+            }
+        });
+
+        store.update(1L, "Elyndra", "Schmidt");
+
+        assertThat(calls).containsExactly("journal", "index");
+        assertThat(store.findById(1L)).contains(new Person(1L, "Elyndra", "Schmidt", 2));
+    }
+
+    @Test
+    void batchesKeepPositionsAndOrderPerId() {
+        List<Person> inserts = new ArrayList<>();
+        for (long id = 3; id <= 200; id++) {
+            inserts.add(Person.of(id, "Vorname" + id, "Nachname" + id));
+        }
+        store.insertAll(inserts);
+
+        boolean[] updated = store.updateAll(List.of(
+            Person.of(7L, "Erst", "Eins"),
+            Person.of(999L, "Gibt", "Es nicht"),
+            Person.of(7L, "Dann", "Zwei")));
+        boolean[] deleted = store.deleteAll(new long[]{150, 998, 3});
+
+        assertThat(store.size()).isEqualTo(198);
+        assertThat(updated).containsExactly(true, false, true);
+        assertThat(deleted).containsExactly(true, false, true);
+        assertThat(store.findById(7L)).contains(new Person(7L, "Dann", "Zwei", 3));
+        assertThat(index.accepted).hasSize(198 + 2 + 2);
+    }
+
+    private void assertUnchanged() {
+        assertThat(store.size()).isEqualTo(2);
+        assertThat(store.snapshot()).containsExactly(
+            new Person(1L, "Elyndra", "Valen", 1),
+            new Person(2L, "Nova", "Trent", 1));
+        assertThat(index.accepted).isEmpty();
+    }
+
+    private static final class RejectingListener implements PersonChangeListener {
+
+        private boolean reject;
+        private final List<Person> accepted = new ArrayList<>();
+
+        @Override
+        public void personInserted(Person person) {
+            check(person);
+        }
+
+        @Override
+        public void personUpdated(Person before, Person after) {
+            check(after);
+        }
+
+        @Override
+        public void personDeleted(Person removed) {
+            check(removed);
+        }
+
+        private void check(Person person) {
+            if (reject) {
+                throw new IllegalStateException("Journal nicht beschreibbar");
+            }
+            accepted.add(person);
+        }
+    }
+}
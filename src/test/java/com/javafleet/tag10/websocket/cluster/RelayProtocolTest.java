@@ -0,0 +1,85 @@
+package com.javafleet.tag10.websocket.cluster;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Handshake mit und ohne app.cluster.secret über eine echte Loopback-Verbindung
+ */
+class RelayProtocolTest {
+
+    @Test
+    void sameSecretExchangesNodeIds() throws Exception {
+        long[] peerIds = handshake(secret("geheim"), secret("geheim"));
+
+        assertThat(peerIds).containsExactly(2L, 1L);
+    }
+
+    @Test
+    void withoutSecretOnBothSidesExchangesNodeIds() throws Exception {
+        long[] peerIds = handshake(new byte[0], new byte[0]);
+
+        assertThat(peerIds).containsExactly(2L, 1L);
+    }
+
+    @Test
+    void wrongSecretIsRejected() {
+        assertThatThrownBy(() -> handshake(secret("geheim"), secret("falsch")))
+            .hasRootCauseInstanceOf(IOException.class)
+            .hasMessageContaining("app.cluster.secret");
+    }
+
+    @Test
+    void secretOnOneSideOnlyIsRejected() {
+        assertThatThrownBy(() -> handshake(secret("geheim"), new byte[0]))
+            .hasRootCauseInstanceOf(IOException.class)
+            .hasMessageContaining("nur auf einer Seite");
+    }
+
+    /**
+     * Node 1 nimmt an, Node 2 verbindet sich
+     *
+     * @return Node-ID, die jede Seite von der anderen gesehen hat
+     */
+    private static long[] handshake(byte[] acceptingSecret, byte[] connectingSecret) throws Exception {
+        try (ServerSocket server = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())) {
+            server.setSoTimeout(RelayProtocol.HANDSHAKE_TIMEOUT_MILLIS);
+            CompletableFuture<Long> accepting = CompletableFuture.supplyAsync(() -> {
+                try (Socket socket = server.accept()) {
+                    socket.setSoTimeout(RelayProtocol.HANDSHAKE_TIMEOUT_MILLIS);
+                    return RelayProtocol.handshake(new DataInputStream(socket.getInputStream()),
+                        new DataOutputStream(socket.getOutputStream()), 1L, acceptingSecret);
+                } catch (IOException e) {
+                    throw new CompletionException(e);
+                }
+            });
+            long seenByConnecting;
+            try (Socket socket = new Socket(server.getInetAddress(), server.getLocalPort())) {
+                socket.setSoTimeout(RelayProtocol.HANDSHAKE_TIMEOUT_MILLIS);
+                seenByConnecting = RelayProtocol.handshake(new DataInputStream(socket.getInputStream()),
+                    new DataOutputStream(socket.getOutputStream()), 2L, connectingSecret);
+            } catch (IOException e) {
+                // Die annehmende Seite meldet den eigentlichen Grund
+                accepting.join();
+                throw e;
+            }
+            return new long[]{accepting.join(), seenByConnecting};
+        }
+    }
+
+    private static byte[] secret(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}